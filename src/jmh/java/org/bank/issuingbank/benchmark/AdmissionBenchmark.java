@@ -0,0 +1,152 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.bank.issuingbank.admission.AdmissionFilter;
+import org.bank.issuingbank.admission.MerchantAdmission;
+import org.bank.issuingbank.config.AdmissionProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del control de admisión con 500 mil comercios y 4 hilos: acquire es solo el token bucket;
+ * filter suma leer el cuerpo y buscar el merchantId con el parser de streaming. El límite es alto
+ * para medir el camino de admisión, que es el de casi todas las solicitudes. Con popularidad zipf
+ * unos pocos comercios compiten por el mismo bucket; con uniform casi cada solicitud toca uno frío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AdmissionBenchmark {
+
+    private static final int MERCHANTS = 500_000;
+    private static final int PROBES = 1 << 16;
+    private static final FilterChain CONTROLLER = (request, response) -> {
+    };
+
+    @Param({"zipf", "uniform"})
+    public String popularity;
+
+    private MerchantAdmission admission;
+    private AdmissionFilter filter;
+    private String[] merchantIds;
+    private byte[][] bodies;
+    private int[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        admission = new MerchantAdmission(new AdmissionProperties(true,
+                new AdmissionProperties.Tier(1_000_000_000, 1_000_000), Map.of(), MERCHANTS, 100, DataSize.ofKilobytes(64)),
+                new SimpleMeterRegistry());
+        filter = new AdmissionFilter(admission, JsonMapper.builder().build());
+
+        merchantIds = new String[MERCHANTS];
+        for (int i = 0; i < MERCHANTS; i++) {
+            merchantIds[i] = "MERCHANT_" + String.format("%06d", i);
+            admission.tryAcquire(merchantIds[i]);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new int[PROBES];
+        if (popularity.equals("zipf")) {
+            double[] cumulative = new double[MERCHANTS];
+            double sum = 0;
+            for (int rank = 0; rank < MERCHANTS; rank++) {
+                sum += 1.0 / (rank + 1);
+                cumulative[rank] = sum;
+            }
+            for (int i = 0; i < PROBES; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                rank = rank >= 0 ? rank : Math.min(-rank - 1, MERCHANTS - 1);
+                probes[i] = (int) ((rank * 40_503L) % MERCHANTS);
+            }
+        } else {
+            for (int i = 0; i < PROBES; i++) {
+                probes[i] = random.nextInt(MERCHANTS);
+            }
+        }
+
+        bodies = new byte[PROBES][];
+        for (int i = 0; i < PROBES; i++) {
+            bodies[i] = ("{\"merchantId\":\"" + merchantIds[probes[i]] + "\",\"amount\":5000.0,\"currency\":\"CLP\","
+                    + "\"cardToken\":\"tok_1234567890\",\"expirationDate\":\"12/26\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = ThreadLocalRandom.current().nextInt(PROBES);
+        private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/payments") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new BodyStream(getContentAsByteArray());
+            }
+        };
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Lee en bloque como el CoyoteInputStream de Tomcat; el stream de MockHttpServletRequest
+     * costaría más que el filtro
+     */
+    private static final class BodyStream extends ServletInputStream {
+
+        private final ByteArrayInputStream input;
+
+        private BodyStream(byte[] body) {
+            this.input = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read() {
+            return input.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return input.read(buffer, offset, length);
+        }
+    }
+
+    @Benchmark
+    public long acquire(Cursor cursor) {
+        return admission.tryAcquire(merchantIds[probes[cursor.next++ & (PROBES - 1)]]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter(Cursor cursor) throws Exception {
+        cursor.request.setContent(bodies[cursor.next++ & (PROBES - 1)]);
+        filter.doFilter(cursor.request, cursor.response, CONTROLLER);
+        return cursor.response;
+    }
+}
@@ -0,0 +1,40 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.IssuingBankApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Arranca el contexto de la aplicación (sin servidor web) para los benchmarks
+ * que necesitan beans reales: repositorio JPA sobre H2, servicio de pagos, etc.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+        // Prevenir instanciación
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(new Class<?>[0], extraProperties);
+    }
+
+    /**
+     * Igual que {@link #start(String...)}, registrando configuraciones adicionales
+     * (por ejemplo, un IssuerClient @Primary con latencia simulada)
+     */
+    static ConfigurableApplicationContext start(Class<?>[] extraSources, String... extraProperties) {
+        return new SpringApplicationBuilder(IssuingBankApplication.class)
+                .sources(extraSources)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.bank.issuingbank=WARN")
+                // Como argumentos para que prevalezcan sobre application.properties
+                .run(Arrays.stream(extraProperties).map(property -> "--" + property).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,65 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.blocklist.BlocklistSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de consultar la lista de bloqueo en cada autorización: miss (el caso normal, casi
+ * siempre resuelto por el filtro de Bloom) y hit (Bloom más búsqueda binaria en el conjunto
+ * exacto). Los tokens consultados cambian en cada llamada para no medir un solo camino en caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BlocklistBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000000", "10000000"})
+    public int cards;
+
+    private BlocklistSnapshot snapshot;
+    private String[] blocked;
+    private String[] allowed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = BlocklistSnapshot.of(new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return cardToken("blk", index);
+            }
+
+            @Override
+            public int size() {
+                return cards;
+            }
+        }, 0.01);
+
+        blocked = new String[PROBES];
+        allowed = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            blocked[i] = cardToken("blk", (int) ((long) i * cards / PROBES));
+            allowed[i] = cardToken("tok", i);
+        }
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return snapshot.contains(allowed[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return snapshot.contains(blocked[next++ & (PROBES - 1)]);
+    }
+
+    private static String cardToken(String prefix, int index) {
+        return prefix + "_" + String.format("%012d", index * 7919L);
+    }
+}
@@ -0,0 +1,106 @@
+package org.bank.issuingbank.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.bank.issuingbank.service.PaymentService;
+import org.bank.issuingbank.service.external.impl.MockIssuerClient;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ataque de card testing: PaymentServiceImpl.processPayment con tokens que el issuer rechaza
+ * por formato (cortos o con caracteres inválidos), que se guardan como DECLINED con código 14.
+ * Los logs se codifican en JSON (LogstashEncoder, como en producción) hacia un stream nulo,
+ * para incluir el costo de serializar lo que se loguea sin medir la consola de JMH. El catch
+ * queda para comparar con el flujo anterior, donde estos tokens terminaban en BusinessException.
+ * <p>
+ * issuerDecision aísla la decisión del issuer (MockIssuerClient.authorize, sin persistir ni
+ * cambiar de hilo), que es lo que cambia entre lanzar una excepción y devolver un rechazo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class InvalidTokenFloodBenchmark {
+
+    private static final String[] INVALID_TOKENS = {"tok_1", "tok_abc-123-xyz", "tok 1234567890", "4111"};
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private TransactionRepository transactionRepository;
+    private PaymentRequest[] requests;
+    private MockIssuerClient issuer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkApplication.start("payments.issuer.mock-latency=0ms");
+        logToNullJson();
+        paymentService = context.getBean(PaymentService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        issuer = new MockIssuerClient(Duration.ZERO, null);
+        requests = new PaymentRequest[INVALID_TOKENS.length];
+        for (int i = 0; i < INVALID_TOKENS.length; i++) {
+            requests[i] = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", INVALID_TOKENS[i], "12/26");
+        }
+    }
+
+    private static void logToNullJson() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> json = new OutputStreamAppender<>();
+        json.setContext(loggerContext);
+        json.setName("NULL_JSON");
+        json.setEncoder(encoder);
+        json.setOutputStream(OutputStream.nullOutputStream());
+        json.start();
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(json);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object processInvalidToken() {
+        PaymentRequest request = requests[next++ & (requests.length - 1)];
+        try {
+            return paymentService.processPayment(request);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object issuerDecision() {
+        String token = INVALID_TOKENS[next++ & (INVALID_TOKENS.length - 1)];
+        try {
+            return issuer.authorize(token, 50000.0, "CLP");
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
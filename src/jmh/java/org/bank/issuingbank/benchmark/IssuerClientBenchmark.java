@@ -0,0 +1,50 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.service.external.impl.MockIssuerClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapa de autorización: llamada a MockIssuerClient.authorize para
+ * el camino aleatorio (aprobado/rechazado) y los rechazos por reglas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class IssuerClientBenchmark {
+
+    private ScheduledExecutorService scheduler;
+    private MockIssuerClient issuerClient;
+
+    @Setup
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        issuerClient = new MockIssuerClient(Duration.ZERO, scheduler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public IssuerResponse randomDecision() {
+        return issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+    }
+
+    @Benchmark
+    public IssuerResponse blockedCard() {
+        return issuerClient.authorize("tok_abc123x999", 50000.0, "CLP");
+    }
+
+    @Benchmark
+    public IssuerResponse limitExceeded() {
+        return issuerClient.authorize("tok_abc123xyz", 2_000_000.0, "CLP");
+    }
+}
@@ -0,0 +1,74 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.CoalescingProperties;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.service.external.impl.CoalescingIssuerClient;
+import org.bank.issuingbank.service.external.impl.MockIssuerClient;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autorizaciones por viaje al issuer vs agrupadas en lotes (CoalescingIssuerClient).
+ * Cada invocación lanza CONCURRENT_AUTHORIZATIONS autorizaciones asíncronas contra un issuer
+ * con issuerLatencyMs por viaje y un enlace que ocupa roundTripCostUs por mensaje, y espera
+ * a todas. maxBatchSize=1 es el camino sin agrupar (un mensaje por autorización).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class IssuerCoalescingBenchmark {
+
+    private static final int CONCURRENT_AUTHORIZATIONS = 1000;
+
+    @Param({"1", "8", "32"})
+    private int maxBatchSize;
+
+    @Param({"5"})
+    private int issuerLatencyMs;
+
+    @Param({"0", "20"})
+    private int roundTripCostUs;
+
+    private ScheduledExecutorService issuerScheduler;
+    private ScheduledExecutorService coalescingScheduler;
+    private IssuerClient issuerClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        issuerScheduler = Executors.newSingleThreadScheduledExecutor();
+        coalescingScheduler = Executors.newSingleThreadScheduledExecutor();
+        MockIssuerClient mock = new MockIssuerClient(IssuerSimulator.fixedLatency(Duration.ofMillis(issuerLatencyMs)),
+                Duration.ofNanos(roundTripCostUs * 1_000L), issuerScheduler);
+        issuerClient = maxBatchSize == 1
+                ? mock
+                : new CoalescingIssuerClient(mock, new CoalescingProperties(true, maxBatchSize, Duration.ofNanos(200_000)),
+                        coalescingScheduler, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        issuerScheduler.shutdownNow();
+        coalescingScheduler.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_AUTHORIZATIONS)
+    public IssuerResponse concurrentAuthorizations() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<IssuerResponse>[] responses = new CompletableFuture[CONCURRENT_AUTHORIZATIONS];
+        for (int i = 0; i < CONCURRENT_AUTHORIZATIONS; i++) {
+            responses[i] = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses[CONCURRENT_AUTHORIZATIONS - 1].join();
+    }
+}
@@ -0,0 +1,67 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.HedgingProperties;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.service.external.impl.HedgingIssuerClient;
+import org.bank.issuingbank.service.external.impl.MockIssuerClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una autorización asíncrona con y sin hedging (HedgingIssuerClient) frente a un
+ * issuer de cola pesada: 97% de las respuestas en ~5 ms y 3% en 300 ms. El modo SampleTime
+ * reporta p99 y p99.9, que es donde se ve el recorte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class IssuerHedgingBenchmark {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final int WARM_UP_CALLS = 300;
+
+    @Param({"false", "true"})
+    private boolean hedging;
+
+    private ScheduledExecutorService issuerScheduler;
+    private ScheduledExecutorService hedgeScheduler;
+    private IssuerClient issuerClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        issuerScheduler = Executors.newSingleThreadScheduledExecutor();
+        hedgeScheduler = Executors.newSingleThreadScheduledExecutor();
+        Random random = new Random(42);
+        MockIssuerClient mock = new MockIssuerClient(() -> random.nextDouble() < 0.03
+                ? 300 * MILLIS
+                : 5 * MILLIS + (long) (random.nextDouble() * MILLIS), issuerScheduler);
+        issuerClient = hedging
+                ? new HedgingIssuerClient(mock, new HedgingProperties(true, 0.95, Duration.ofMillis(1), 100, 10),
+                        hedgeScheduler, new SimpleMeterRegistry())
+                : mock;
+
+        // Muestras para el p95 antes de medir
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            authorize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        issuerScheduler.shutdownNow();
+        hedgeScheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public IssuerResponse authorize() {
+        return issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join();
+    }
+}
@@ -0,0 +1,80 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.journal.TransactionJournal;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durabilidad de una autorización: escribirla en el journal (con cada política de fsync) contra
+ * TransactionRepository.save en H2 en memoria. append incluye devolver el ticket, como hace el
+ * pago al persistir, para que los segmentos se borren igual que en producción.
+ * <p>
+ * Con -t 4 se ve el group commit de ALWAYS: los hilos comparten el msync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    public String fsync;
+
+    private ConfigurableApplicationContext context;
+    private TransactionJournal journal;
+    private TransactionRepository transactionRepository;
+    private PaymentRequest request;
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        Path directory = Files.createTempDirectory("journal-benchmark");
+        context = BenchmarkApplication.start(
+                "payments.journal.enabled=true",
+                "payments.journal.directory=" + directory,
+                "payments.journal.fsync=" + fsync);
+        journal = context.getBean(TransactionJournal.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public long append() {
+        long ticket = journal.append(approvedTransaction());
+        journal.persisted(ticket);
+        return ticket;
+    }
+
+    @Benchmark
+    public Transaction save() {
+        return transactionRepository.save(approvedTransaction());
+    }
+
+    private Transaction approvedTransaction() {
+        Transaction transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+        transaction.setStatus(TransactionStatus.APPROVED);
+        transaction.setResponseCode(ResponseCode.APPROVED);
+        return transaction;
+    }
+}
@@ -0,0 +1,49 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.StatsProperties;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.stats.MerchantStatsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de MerchantStatsRegistry.record en el camino de autorización, con 4 hilos registrando
+ * a la vez. Con merchants=1 todos los hilos escriben en el mismo comercio (peor caso de
+ * contención, donde las stripes se expanden); con 5000 el tráfico se reparte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Fork(1)
+public class MerchantStatsBenchmark {
+
+    @Param({"1", "5000"})
+    public int merchants;
+
+    private MerchantStatsRegistry registry;
+    private Transaction[] transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new MerchantStatsRegistry(new StatsProperties(true, 8, 10000, 100), new SimpleMeterRegistry());
+        transactions = new Transaction[merchants];
+        for (int i = 0; i < merchants; i++) {
+            transactions[i] = new Transaction("MERCHANT_" + i, new Money(50000L, IsoCurrency.CLP),
+                    TransactionStatus.APPROVED, ResponseCode.APPROVED, LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        registry.record(transactions[ThreadLocalRandom.current().nextInt(merchants)]);
+    }
+}
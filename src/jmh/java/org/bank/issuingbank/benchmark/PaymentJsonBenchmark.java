@@ -0,0 +1,51 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida y vuelta JSON de PaymentRequest (lectura del body) y PaymentResponse
+ * (escritura de la respuesta) con Jackson 3, el mismo que usa Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class PaymentJsonBenchmark {
+
+    private JsonMapper jsonMapper;
+    private byte[] requestJson;
+    private byte[] responseJson;
+    private PaymentResponse response;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        response = new PaymentResponse("123e4567-e89b-12d3-a456-426614174000",
+                TransactionStatus.APPROVED, "00", LocalDateTime.now());
+        requestJson = jsonMapper.writeValueAsBytes(request);
+        responseJson = jsonMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public PaymentRequest readRequest() {
+        return jsonMapper.readValue(requestJson, PaymentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public PaymentResponse responseRoundTrip() {
+        return jsonMapper.readValue(jsonMapper.writeValueAsBytes(response), PaymentResponse.class);
+    }
+}
@@ -0,0 +1,134 @@
+package org.bank.issuingbank.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.bank.issuingbank.logging.LoggingConstants;
+import org.bank.issuingbank.logging.RoutineSamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de logging por autorización, con el encoder JSON (LogstashEncoder) escribiendo a un
+ * stream nulo para aislar el costo de formatear y encolar:
+ * <ul>
+ *   <li>DETAILED_SYNC: los logs de antes (inicio y fin de request en CorrelationIdFilter más
+ *       cuatro INFO/WARN de PaymentServiceImpl), codificados en el hilo del request.</li>
+ *   <li>SUMMARY_ASYNC_SAMPLED: perfil high-tps, un evento resumen por pago a través de un
+ *       AsyncAppender con descarte, muestreando 1 de cada 100 aprobados.</li>
+ * </ul>
+ * 90% de los pagos se aprueban.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class PaymentLoggingBenchmark {
+
+    private static final Marker ROUTINE = MarkerFactory.getMarker(LoggingConstants.ROUTINE_MARKER);
+    private static final String SUMMARY_FORMAT =
+            "Payment processed - transactionId: {}, merchantId: {}, status: {}, responseCode: {}, amount: {}";
+
+    public enum Mode {
+        DETAILED_SYNC, SUMMARY_ASYNC_SAMPLED
+    }
+
+    @Param({"DETAILED_SYNC", "SUMMARY_ASYNC_SAMPLED"})
+    public Mode mode;
+
+    private LoggerContext context;
+    private Logger filterLog;
+    private Logger serviceLog;
+    private String transactionId;
+    private long payments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"service\":\"issuing-bank-service\"}");
+        encoder.addIncludeMdcKeyName(LoggingConstants.CORRELATION_ID_KEY);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> json = new OutputStreamAppender<>();
+        json.setContext(context);
+        json.setName("JSON");
+        json.setEncoder(encoder);
+        json.setOutputStream(OutputStream.nullOutputStream());
+        json.start();
+
+        Appender<ILoggingEvent> appender = json;
+        if (mode == Mode.SUMMARY_ASYNC_SAMPLED) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_JSON");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(json);
+            async.start();
+            appender = async;
+
+            RoutineSamplingTurboFilter sampling = new RoutineSamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.setKeepOneIn(100);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+
+        filterLog = context.getLogger("org.bank.issuingbank.logging.CorrelationIdFilter");
+        filterLog.setLevel(mode == Mode.SUMMARY_ASYNC_SAMPLED ? ch.qos.logback.classic.Level.WARN : ch.qos.logback.classic.Level.INFO);
+        serviceLog = context.getLogger("org.bank.issuingbank.service.impl.PaymentServiceImpl");
+        transactionId = UUID.randomUUID().toString();
+        MDC.put(LoggingConstants.CORRELATION_ID_KEY, UUID.randomUUID().toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MDC.clear();
+        context.stop();
+    }
+
+    @Benchmark
+    public void authorization() {
+        boolean approved = payments++ % 10 != 0;
+        String responseCode = approved ? "00" : "51";
+
+        filterLog.info("Incoming request: {} {} - correlationId: {}", "POST", "/payments", transactionId);
+        if (mode == Mode.DETAILED_SYNC) {
+            serviceLog.info("Processing payment - merchantId: {}, amount: {}, currency: {}",
+                    "MERCHANT_001", 50000.0, "CLP");
+            serviceLog.info("Issuer response received - approved: {}, responseCode: {}", approved, responseCode);
+            if (approved) {
+                serviceLog.info("Payment APPROVED - transactionId will be generated");
+            } else {
+                serviceLog.warn("Payment DECLINED - responseCode: {}", responseCode);
+            }
+            serviceLog.info("Transaction saved successfully - transactionId: {}, status: {}",
+                    transactionId, approved ? "APPROVED" : "DECLINED");
+        } else if (approved) {
+            serviceLog.info(ROUTINE, SUMMARY_FORMAT, transactionId, "MERCHANT_001", "APPROVED", responseCode, "50000 CLP");
+        } else {
+            serviceLog.warn(SUMMARY_FORMAT, transactionId, "MERCHANT_001", "DECLINED", responseCode, "50000 CLP");
+        }
+        filterLog.info("Completed request: {} {} - status: {} - correlationId: {}", "POST", "/payments", 200, transactionId);
+    }
+}
@@ -0,0 +1,49 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.bank.issuingbank.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino completo de PaymentServiceImpl.processPayment (issuer mock + H2),
+ * como referencia para comparar con la suma de las etapas individuales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private TransactionRepository transactionRepository;
+    private PaymentRequest request;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkApplication.start();
+        paymentService = context.getBean(PaymentService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        return paymentService.processPayment(request);
+    }
+}
@@ -0,0 +1,46 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.metrics.PaymentStage;
+import org.bank.issuingbank.metrics.PaymentStageMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de medir las cuatro etapas de un POST /payments y registrarlas en los histogramas
+ * del registry de Prometheus. Con el profiler gc, gc.alloc.rate.norm debe quedar en ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class PaymentStageMetricsBenchmark {
+
+    private PaymentStageMetrics stageMetrics;
+    private PaymentResponse approved;
+    private PaymentResponse declined;
+    private long requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stageMetrics = new PaymentStageMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        approved = new PaymentResponse("txn_1", TransactionStatus.APPROVED, "00", LocalDateTime.now());
+        declined = new PaymentResponse("txn_2", TransactionStatus.DECLINED, "51", LocalDateTime.now());
+    }
+
+    @Benchmark
+    public void recordRequest() {
+        long n = requests++;
+        stageMetrics.begin();
+        stageMetrics.record(PaymentStage.VALIDATION, 15_000 + (n & 1023));
+        stageMetrics.record(PaymentStage.ISSUER, 20_000_000 + (n & 0xFFFF));
+        stageMetrics.record(PaymentStage.PERSISTENCE, 400_000 + (n & 0xFFF));
+        stageMetrics.beforeSerialization((n & 3) == 0 ? declined : approved);
+        stageMetrics.complete();
+    }
+}
@@ -0,0 +1,108 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.readmodel.TransactionReadModel;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de GET /payments/{id} y GET /payments (página de 50 de un comercio, desde una fecha
+ * reciente) contra el modelo de lectura y contra H2, con 200.000 transacciones de 1.000 comercios
+ * en ambos. Con -t 4 se ve además la contención: el modelo solo toma un lock de lectura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ReadModelBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int MERCHANTS = 1_000;
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+    private TransactionReadModel readModel;
+    private TransactionRepository transactionRepository;
+    private TransactionJdbcRepository transactionJdbcRepository;
+    private String[] ids;
+    private LocalDateTime from;
+
+    @Setup(Level.Trial)
+    public void seed() throws InterruptedException {
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=jdbc:h2:mem:read-model-benchmark",
+                "payments.read-model.enabled=true",
+                "payments.read-model.queue-size=" + ROWS);
+        readModel = context.getBean(TransactionReadModel.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionJdbcRepository = context.getBean(TransactionJdbcRepository.class);
+
+        // Un pago por microsegundo desde ahora, así todos caen en la ventana del modelo
+        LocalDateTime start = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new Transaction("MERCHANT_" + (i % MERCHANTS), new Money(i * 100L, IsoCurrency.CLP),
+                    TransactionStatus.APPROVED, ResponseCode.APPROVED, start.plusNanos(i * 1_000L)));
+        }
+        transactionJdbcRepository.insertAll(transactions, 1000);
+        transactions.forEach(readModel::project);
+
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        while (meterRegistry.get("payments.readmodel.lag").timer().count() < ROWS) {
+            Thread.sleep(10);
+        }
+        ids = transactions.stream().map(Transaction::getId).toArray(String[]::new);
+        // La mitad más reciente de cada comercio: ~100 filas por página candidata
+        from = start.plusNanos(ROWS / 2 * 1_000L);
+        System.out.printf("%nRead model: %d transactions, %d bytes%n",
+                (long) meterRegistry.get("payments.readmodel.entries").gauge().value(),
+                (long) meterRegistry.get("payments.readmodel.memory").gauge().value());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Transaction> byIdReadModel() {
+        return readModel.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Transaction> byIdDatabase() {
+        return transactionRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<List<Transaction>> pageReadModel() {
+        return readModel.findPage(randomMerchant(), null, from, null, null, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<Transaction> pageDatabase() {
+        return transactionJdbcRepository.findPage(randomMerchant(), null, from, null, null, PAGE_SIZE + 1);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static String randomMerchant() {
+        return "MERCHANT_" + ThreadLocalRandom.current().nextInt(MERCHANTS);
+    }
+}
@@ -0,0 +1,114 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.bank.issuingbank.service.PaymentService;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform threads vs virtual threads con el issuer bloqueando issuerLatencyMs.
+ * Cada invocación lanza CONCURRENT_REQUESTS pagos concurrentes y espera a todos.
+ * El modo platform usa un pool fijo de 200 hilos (el máximo por defecto de Tomcat);
+ * el modo virtual, un virtual thread por pago. Requiere Java 21 para el modo virtual:
+ * ./mvnw -Pbenchmark,java21 test-compile exec:exec -Djmh.includes=ThreadModelBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final int CONCURRENT_REQUESTS = 1000;
+
+    @Param({"platform", "virtual"})
+    private String threadModel;
+
+    @Param({"200"})
+    private int issuerLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private TransactionRepository transactionRepository;
+    private PaymentRequest request;
+    private Executor executor;
+    private ExecutorService platformPool;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkApplication.start(
+                new Class<?>[]{LatencyIssuerConfig.class},
+                "benchmark.issuer.latency-ms=" + issuerLatencyMs,
+                "spring.datasource.hikari.maximum-pool-size=50");
+        paymentService = context.getBean(PaymentService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+
+        if ("virtual".equals(threadModel)) {
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("bench-virtual-");
+            virtualExecutor.setVirtualThreads(true);
+            executor = virtualExecutor;
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+            executor = platformPool;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public void concurrentPayments() {
+        CompletableFuture<?>[] payments = new CompletableFuture<?>[CONCURRENT_REQUESTS];
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            payments[i] = CompletableFuture.runAsync(() -> paymentService.processPayment(request), executor);
+        }
+        CompletableFuture.allOf(payments).join();
+    }
+
+    /**
+     * IssuerClient que bloquea el hilo llamante durante la latencia configurada
+     * antes de delegar en el cliente de la aplicación. Sin @Configuration: solo se registra
+     * al pasarla a BenchmarkApplication.start, no por el component scan de los demás benchmarks.
+     */
+    static class LatencyIssuerConfig {
+
+        @Bean
+        @Primary
+        IssuerClient latencyIssuerClient(@Qualifier("issuerClient") IssuerClient issuerClient, Environment environment) {
+            long latencyMs = environment.getProperty("benchmark.issuer.latency-ms", Long.class, 200L);
+            return (cardToken, amount, currency) -> {
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return issuerClient.authorize(cardToken, amount, currency);
+            };
+        }
+    }
+}
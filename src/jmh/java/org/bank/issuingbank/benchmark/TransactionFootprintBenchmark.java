@@ -0,0 +1,87 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap por fila de transactions: materializa una fila leída de la base de datos con el formato
+ * anterior (Double + String currency + String responseCode) y con el actual (long en unidades
+ * menores + códigos SMALLINT resueltos a enums). gc.alloc.rate.norm es el heap que retiene
+ * cada fila; id, merchantId y createdAt se comparten entre filas para aislar la diferencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class TransactionFootprintBenchmark {
+
+    private String id;
+    private String merchantId;
+    private LocalDateTime createdAt;
+
+    // Valores tal como los entrega el driver JDBC
+    private double amountColumn;
+    private byte[] currencyColumn;
+    private byte[] responseCodeColumn;
+    private long amountMinorUnitsColumn;
+    private short currencyCodeColumn;
+    private short responseCodeIdColumn;
+
+    @Setup
+    public void setUp() {
+        id = "123e4567-e89b-12d3-a456-426614174000";
+        merchantId = "MERCHANT_001";
+        createdAt = LocalDateTime.now();
+
+        amountColumn = 50000.0;
+        currencyColumn = "CLP".getBytes(StandardCharsets.US_ASCII);
+        responseCodeColumn = "00".getBytes(StandardCharsets.US_ASCII);
+        amountMinorUnitsColumn = 50000L;
+        currencyCodeColumn = IsoCurrency.CLP.numericCode();
+        responseCodeIdColumn = ResponseCode.APPROVED.id();
+    }
+
+    @Benchmark
+    public LegacyTransactionRow legacyRow() {
+        return new LegacyTransactionRow(
+                id,
+                merchantId,
+                Double.valueOf(amountColumn),
+                new String(currencyColumn, StandardCharsets.US_ASCII),
+                TransactionStatus.APPROVED,
+                new String(responseCodeColumn, StandardCharsets.US_ASCII),
+                createdAt);
+    }
+
+    @Benchmark
+    public Transaction compactRow() {
+        Transaction transaction = new Transaction(
+                merchantId,
+                new Money(amountMinorUnitsColumn, IsoCurrency.fromNumericCode(currencyCodeColumn)),
+                TransactionStatus.APPROVED,
+                ResponseCode.fromId(responseCodeIdColumn),
+                createdAt);
+        transaction.setId(id);
+        return transaction;
+    }
+
+    /**
+     * Misma forma que tenía la entidad Transaction antes de codificar monto, moneda y código de respuesta
+     */
+    public record LegacyTransactionRow(String id,
+                                       String merchantId,
+                                       Double amount,
+                                       String currency,
+                                       TransactionStatus status,
+                                       String responseCode,
+                                       LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,98 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción en una tabla transactions grande (H2 en archivo, con el esquema e índices de la
+ * aplicación) según la estrategia de IDs: UUID v4 aleatorio o UUID v7 ordenado por tiempo.
+ * Cada operación inserta una fila dentro de lotes de BATCH_SIZE (TransactionJdbcRepository).
+ * <p>
+ * Al terminar se compacta la base y se imprime su tamaño por fila: con IDs aleatorios las
+ * páginas de la clave primaria y de los índices que terminan en id quedan a medio llenar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class TransactionIdBenchmark {
+
+    private static final int SEED_ROWS = 500_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int MERCHANTS = 100;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public String strategy;
+
+    private Path directory;
+    private String url;
+    private ConfigurableApplicationContext context;
+    private TransactionJdbcRepository transactionJdbcRepository;
+    private long rows;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        directory = Files.createTempDirectory("transaction-id-benchmark");
+        url = "jdbc:h2:file:" + directory.resolve("transactions");
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=" + url,
+                // La tabla debe sobrevivir al cierre del contexto para medir su tamaño
+                "spring.jpa.hibernate.ddl-auto=create",
+                "payments.ids.strategy=" + strategy);
+        transactionJdbcRepository = context.getBean(TransactionJdbcRepository.class);
+
+        while (rows < SEED_ROWS) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSize() throws IOException, SQLException {
+        context.close();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        long bytes = Files.size(directory.resolve("transactions.mv.db"));
+        System.out.printf("%n%s: %,d filas, %,d bytes tras SHUTDOWN COMPACT (%d bytes/fila)%n",
+                strategy, rows, bytes, bytes / rows);
+
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new Transaction("MERCHANT_%03d".formatted(rows % MERCHANTS), new Money(50000L, IsoCurrency.CLP),
+                    TransactionStatus.APPROVED, ResponseCode.APPROVED, now));
+            rows++;
+        }
+        transactionJdbcRepository.insertAll(batch, BATCH_SIZE);
+    }
+}
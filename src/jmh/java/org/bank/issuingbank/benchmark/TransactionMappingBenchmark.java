@@ -0,0 +1,44 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapas de construcción de la entidad y de mapeo a PaymentResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class TransactionMappingBenchmark {
+
+    private PaymentRequest request;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+        transaction.setId("123e4567-e89b-12d3-a456-426614174000");
+        transaction.setStatus(TransactionStatus.APPROVED);
+        transaction.setResponseCode(ResponseCode.APPROVED);
+    }
+
+    @Benchmark
+    public Transaction entityConstruction() {
+        return TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PaymentResponse responseMapping() {
+        return TransactionMapper.toResponse(transaction);
+    }
+}
@@ -0,0 +1,54 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapa de persistencia: TransactionRepository.save contra H2 en memoria,
+ * con el mismo contexto Spring/JPA que usa la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class TransactionPersistenceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private PaymentRequest request;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkApplication.start();
+        transactionRepository = context.getBean(TransactionRepository.class);
+        request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        // Evita que el tamaño de la tabla crezca entre iteraciones y sesgue la medición
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction save() {
+        Transaction transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+        transaction.setStatus(TransactionStatus.APPROVED);
+        transaction.setResponseCode(ResponseCode.APPROVED);
+        return transactionRepository.save(transaction);
+    }
+}
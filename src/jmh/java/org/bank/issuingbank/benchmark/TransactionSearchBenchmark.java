@@ -0,0 +1,70 @@
+package org.bank.issuingbank.benchmark;
+
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionCursor;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de una página de GET /payments según su profundidad, sobre un comercio con un millón
+ * de transacciones en H2. La consulta continúa desde el cursor por el índice
+ * (merchant_id, status, created_at, id), así que el tiempo debe ser el mismo en la primera
+ * página y en la fila un millón.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class TransactionSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String MERCHANT_ID = "MERCHANT_BULK";
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * Filas que preceden a la página pedida
+     */
+    @Param({"0", "10000", "500000", "999900"})
+    public int depth;
+
+    private ConfigurableApplicationContext context;
+    private TransactionJdbcRepository transactionJdbcRepository;
+    private TransactionCursor cursor;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = BenchmarkApplication.start("spring.datasource.url=jdbc:h2:mem:search-benchmark");
+        transactionJdbcRepository = context.getBean(TransactionJdbcRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Una transacción por segundo, con ids ordenables para conocer el cursor de cualquier fila
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, merchant_id, amount_minor_units, currency, status, response_code, created_at)
+                SELECT 'tx-' || LPAD(CAST(X AS VARCHAR), 10, '0'), ?, X * 100, 152, 'APPROVED', 0,
+                       DATEADD(SECOND, X, CAST(? AS TIMESTAMP))
+                FROM SYSTEM_RANGE(1, ?)
+                """, MERCHANT_ID, START, ROWS);
+
+        cursor = depth == 0
+                ? null
+                : new TransactionCursor(START.plusSeconds(depth), "tx-%010d".formatted(depth));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> keysetPage() {
+        return transactionJdbcRepository.findPage(MERCHANT_ID, TransactionStatus.APPROVED, null, null, cursor, PAGE_SIZE + 1);
+    }
+}
@@ -0,0 +1,86 @@
+package org.bank.issuingbank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.VelocityProperties;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.velocity.VelocityEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del control de velocidad en cada autorización, con 4 hilos sobre un millón de tarjetas.
+ * Con popularidad zipf (exponente 1) unas pocas tarjetas concentran los intentos y compiten por
+ * los mismos contadores; con uniform casi cada intento toca una tarjeta fría, fuera de caché.
+ * Los límites son los de application.properties, así que las tarjetas más usadas terminan
+ * rechazadas, como en un card testing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VelocityBenchmark {
+
+    private static final int CARDS = 1_000_000;
+    private static final int PROBES = 1 << 16;
+    private static final Double AMOUNT = 10_000.0;
+
+    @Param({"zipf", "uniform"})
+    public String popularity;
+
+    private VelocityEngine engine;
+    private String[] tokens;
+    private int[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new VelocityEngine(new VelocityProperties(true, CARDS,
+                new VelocityProperties.Limits(5, 0),
+                new VelocityProperties.Limits(20, 0),
+                new VelocityProperties.Limits(50, 0)), new SimpleMeterRegistry());
+
+        tokens = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            tokens[i] = "tok_" + String.format("%012d", i * 7919L);
+        }
+        // Un millón de tarjetas ya seguidas: se mide el estado estable, no el llenado del caché
+        for (String token : tokens) {
+            engine.check(token, AMOUNT);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new int[PROBES];
+        if (popularity.equals("zipf")) {
+            double[] cumulative = new double[CARDS];
+            double sum = 0;
+            for (int rank = 0; rank < CARDS; rank++) {
+                sum += 1.0 / (rank + 1);
+                cumulative[rank] = sum;
+            }
+            for (int i = 0; i < PROBES; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                rank = rank >= 0 ? rank : Math.min(-rank - 1, CARDS - 1);
+                // Las tarjetas populares quedan repartidas, no contiguas en el caché
+                probes[i] = (int) ((rank * 40_503L) % CARDS);
+            }
+        } else {
+            for (int i = 0; i < PROBES; i++) {
+                probes[i] = random.nextInt(CARDS);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = ThreadLocalRandom.current().nextInt(PROBES);
+    }
+
+    @Benchmark
+    public ResponseCode check(Cursor cursor) {
+        return engine.check(tokens[probes[cursor.next++ & (PROBES - 1)]], AMOUNT);
+    }
+}
@@ -0,0 +1,105 @@
+package org.bank.issuingbank.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y resultados de un endpoint. Cada request se registra dos veces:
+ * <ul>
+ *   <li>response time: desde el instante en que el request debía salir según la tasa
+ *       configurada. Si el servidor (o el propio generador) se atrasa, ese atraso cuenta como
+ *       latencia, igual que la vería un cliente real: corrige la omisión coordinada.</li>
+ *   <li>service time: desde que el request efectivamente salió. Solo como referencia; una
+ *       diferencia grande con el response time indica encolamiento.</li>
+ * </ul>
+ * Valores en microsegundos, de 1 µs a 1 hora con 3 dígitos significativos.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    LatencyReport(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedStartNanos, long sentNanos, long completedNanos, String outcome, boolean error) {
+        responseTime.recordValue(toMicros(completedNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(completedNanos - sentNanos));
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return responseTime.getTotalCount();
+    }
+
+    void print(PrintStream out, double measuredSeconds) {
+        long count = count();
+        out.printf("%n== %s ==%n", name);
+        if (count == 0) {
+            out.println("no requests");
+            return;
+        }
+        out.printf("requests: %,d   throughput: %,.1f req/s   errors: %,d (%.2f%%)%n",
+                count, count / measuredSeconds, errors.sum(), 100.0 * errors.sum() / count);
+
+        out.printf("%-14s", "latency (ms)");
+        for (double percentile : PERCENTILES) {
+            out.printf("%10s", "p" + formatPercentile(percentile));
+        }
+        out.printf("%10s%n", "max");
+        printLatencies(out, "response time", responseTime);
+        printLatencies(out, "service time", serviceTime);
+
+        out.println("outcomes:");
+        new TreeMap<>(outcomes).forEach((outcome, total) ->
+                out.printf("  %-40s %,10d%n", outcome, total.sum()));
+    }
+
+    /**
+     * Histograma completo del response time en formato .hgrm (graficable con HdrHistogram Plotter)
+     */
+    Path writeHistogram(Path directory, String fileName) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(fileName);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            responseTime.outputPercentileDistribution(out, 1000.0);
+        }
+        return file;
+    }
+
+    private static void printLatencies(PrintStream out, String label, Histogram histogram) {
+        out.printf("%-14s", label);
+        for (double percentile : PERCENTILES) {
+            out.printf("%10.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf("%10.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(1, nanos / 1000), HIGHEST_TRACKABLE_MICROS);
+    }
+}
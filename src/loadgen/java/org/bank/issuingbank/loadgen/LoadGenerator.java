@@ -0,0 +1,188 @@
+package org.bank.issuingbank.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga HTTP para POST /payments y GET /payments/{id} contra una instancia ya
+ * levantada.
+ * <p>
+ * Modelo abierto con tasa de llegada constante: el request i tiene su instante de salida
+ * fijado en inicio + i / rate, sin importar cuánto tarden las respuestas anteriores (a
+ * diferencia de un loop con curl, que deja de enviar mientras espera y oculta las colas).
+ * La latencia se mide desde ese instante planificado, así que las pausas del servidor no
+ * desaparecen del reporte (omisión coordinada).
+ * <p>
+ * Los GET consultan pagos creados por la misma corrida. Al terminar imprime, por endpoint,
+ * percentiles p50 a p99.99, throughput y el desglose de resultados y errores, y deja los
+ * histogramas completos en reportDir.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern STATUS = Pattern.compile("\"status\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern RESPONSE_CODE = Pattern.compile("\"responseCode\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern ERROR_CODE = Pattern.compile("\"errorCode\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern TRANSACTION_ID = Pattern.compile("\"transactionId\"\\s*:\\s*\"([\\w-]+)\"");
+
+    private static final int RECENT_IDS = 4096;
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LoadProfile profile;
+    private final PaymentMix mix;
+    private final HttpClient client;
+    private final ExecutorService responseExecutor;
+    private final Semaphore inFlight;
+    private final LatencyReport postReport = new LatencyReport("POST /payments");
+    private final LatencyReport getReport = new LatencyReport("GET /payments/{id}");
+    private final AtomicReferenceArray<String> recentIds = new AtomicReferenceArray<>(RECENT_IDS);
+    private final AtomicLong createdIds = new AtomicLong();
+    private long maxDispatchLagNanos;
+
+    private LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        this.mix = new PaymentMix(profile);
+        this.responseExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(profile.timeout())
+                .executor(responseExecutor)
+                .build();
+        this.inFlight = new Semaphore(profile.maxInFlight());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        new LoadGenerator(profile).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Load test against %s: %.0f req/s for %ds after %ds of warmup, GET ratio %.2f, mix %s%n",
+                profile.baseUrl(), profile.rate(), profile.duration().toSeconds(), profile.warmup().toSeconds(),
+                profile.getRatio(), profile.mix());
+
+        long start = System.nanoTime() + START_DELAY_NANOS;
+        long measureFrom = start + profile.warmup().toNanos();
+        long end = measureFrom + profile.duration().toNanos();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Si hay maxInFlight requests sin respuesta se espera; la espera igual cuenta en la latencia
+            inFlight.acquire();
+            boolean measured = intendedStart >= measureFrom;
+            if (measured) {
+                maxDispatchLagNanos = Math.max(maxDispatchLagNanos, System.nanoTime() - intendedStart);
+            }
+            dispatch(intendedStart, measured);
+        }
+
+        // Espera las respuestas pendientes
+        if (!inFlight.tryAcquire(profile.maxInFlight(), profile.timeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            System.out.println("WARNING: some requests did not complete before the report");
+        }
+        responseExecutor.shutdownNow();
+        report();
+    }
+
+    private void dispatch(long intendedStart, boolean measured) {
+        long created = createdIds.get();
+        String transactionId = created > 0 && mix.nextIsGet()
+                ? recentIds.get(mix.nextInt((int) Math.min(created, RECENT_IDS)))
+                : null;
+        if (transactionId != null) {
+            send(HttpRequest.newBuilder(profile.baseUrl().resolve("/payments/" + transactionId))
+                    .timeout(profile.timeout())
+                    .GET()
+                    .build(), intendedStart, measured ? getReport : null, false);
+        } else {
+            send(HttpRequest.newBuilder(profile.baseUrl().resolve(URI.create("/payments")))
+                    .timeout(profile.timeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mix.nextBody()))
+                    .build(), intendedStart, measured ? postReport : null, true);
+        }
+    }
+
+    private void send(HttpRequest request, long intendedStart, LatencyReport report, boolean payment) {
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            try {
+                long completed = System.nanoTime();
+                String outcome;
+                boolean failed;
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    outcome = "error " + cause.getClass().getSimpleName();
+                    failed = true;
+                } else if (response.statusCode() / 100 == 2) {
+                    outcome = response.statusCode() + " " + extract(STATUS, response.body())
+                            + " " + extract(RESPONSE_CODE, response.body());
+                    failed = false;
+                    if (payment) {
+                        rememberTransactionId(response.body());
+                    }
+                } else {
+                    outcome = response.statusCode() + " " + extract(ERROR_CODE, response.body());
+                    failed = true;
+                }
+                if (report != null) {
+                    report.record(intendedStart, sent, completed, outcome, failed);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Guarda el ID en un buffer circular; con respuestas concurrentes una posición puede
+     * quedar momentáneamente vacía y ese GET se reemplaza por un POST
+     */
+    private void rememberTransactionId(String body) {
+        Matcher matcher = TRANSACTION_ID.matcher(body);
+        if (matcher.find()) {
+            recentIds.set((int) (createdIds.getAndIncrement() % RECENT_IDS), matcher.group(1));
+        }
+    }
+
+    private void report() throws Exception {
+        double measuredSeconds = profile.duration().toNanos() / 1e9;
+        postReport.print(System.out, measuredSeconds);
+        getReport.print(System.out, measuredSeconds);
+
+        long total = postReport.count() + getReport.count();
+        System.out.printf("%nTotal: %,d requests, %,.1f req/s (target %,.1f req/s)%n",
+                total, total / measuredSeconds, profile.rate());
+        System.out.printf("Max dispatch lag: %.2f ms%s%n", maxDispatchLagNanos / 1e6,
+                maxDispatchLagNanos > TimeUnit.MILLISECONDS.toNanos(10)
+                        ? " (the generator fell behind or hit max-in-flight; the lag is included in response time)"
+                        : "");
+        System.out.println("Histograms: " + postReport.writeHistogram(profile.reportDir(), "post-payments.hgrm")
+                + ", " + getReport.writeHistogram(profile.reportDir(), "get-payment.hgrm"));
+    }
+
+    private static String extract(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        return matcher.find() ? matcher.group(1) : "-";
+    }
+}
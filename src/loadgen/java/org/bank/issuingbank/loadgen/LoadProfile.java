@@ -0,0 +1,119 @@
+package org.bank.issuingbank.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una corrida del generador de carga, leídos de argumentos --clave=valor
+ * (los define el perfil Maven loadgen a partir de -Dloadgen.*)
+ *
+ * @param baseUrl     instancia a probar
+ * @param rate        requests por segundo (tasa de llegada, independiente de las respuestas)
+ * @param duration    tiempo medido, después del calentamiento
+ * @param warmup      tiempo inicial con la misma carga que no entra en el reporte
+ * @param getRatio    fracción de requests que son GET /payments/{id} sobre pagos ya creados
+ * @param merchants   comercios distintos (MERCHANT_000, MERCHANT_001...)
+ * @param mix         peso de cada escenario de pago en los POST /payments
+ * @param minAmount   monto mínimo de los pagos válidos
+ * @param maxAmount   monto máximo de los pagos válidos
+ * @param currency    moneda de los pagos
+ * @param maxInFlight requests sin respuesta antes de que el generador espere (protege al cliente)
+ * @param timeout     timeout de cada request
+ * @param reportDir   directorio para los histogramas completos (.hgrm)
+ */
+record LoadProfile(
+        URI baseUrl,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        double getRatio,
+        int merchants,
+        Map<PaymentMix.Scenario, Integer> mix,
+        long minAmount,
+        long maxAmount,
+        String currency,
+        int maxInFlight,
+        Duration timeout,
+        Path reportDir
+) {
+
+    static LoadProfile parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadProfile profile = new LoadProfile(
+                URI.create(options.getOrDefault("url", "http://localhost:8080")),
+                Double.parseDouble(options.getOrDefault("rate", "200")),
+                parseDuration(options.getOrDefault("duration", "30s")),
+                parseDuration(options.getOrDefault("warmup", "5s")),
+                Double.parseDouble(options.getOrDefault("get-ratio", "0.2")),
+                Integer.parseInt(options.getOrDefault("merchants", "50")),
+                parseMix(options.getOrDefault("mix", "valid=100")),
+                Long.parseLong(options.getOrDefault("min-amount", "1000")),
+                Long.parseLong(options.getOrDefault("max-amount", "200000")),
+                options.getOrDefault("currency", "CLP"),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "5000")),
+                parseDuration(options.getOrDefault("timeout", "5s")),
+                Path.of(options.getOrDefault("report-dir", "target/loadgen")));
+        profile.validate();
+        return profile;
+    }
+
+    private void validate() {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be greater than zero: " + rate);
+        }
+        if (getRatio < 0 || getRatio > 1) {
+            throw new IllegalArgumentException("get-ratio must be between 0 and 1: " + getRatio);
+        }
+        if (merchants < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("merchants and max-in-flight must be at least 1");
+        }
+        if (minAmount <= 0 || maxAmount < minAmount) {
+            throw new IllegalArgumentException("Invalid amount range: " + minAmount + ".." + maxAmount);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one scenario with positive weight");
+        }
+    }
+
+    /**
+     * Duraciones como 500ms, 30s o 2m
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration (use ms, s or m): " + value);
+        };
+    }
+
+    /**
+     * Pesos por escenario, por ejemplo valid=90,blocked=5,invalid=5
+     */
+    static Map<PaymentMix.Scenario, Integer> parseMix(String value) {
+        Map<PaymentMix.Scenario, Integer> mix = new EnumMap<>(PaymentMix.Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight but got: " + entry);
+            }
+            mix.put(PaymentMix.Scenario.fromName(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+}
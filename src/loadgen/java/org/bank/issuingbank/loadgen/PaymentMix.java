@@ -0,0 +1,110 @@
+package org.bank.issuingbank.loadgen;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Cuerpos de POST /payments según el mix de escenarios configurado. Los tokens se arman para
+ * recorrer cada camino de MockIssuerClient:
+ * <ul>
+ *   <li>valid: token válido y monto en [minAmount, maxAmount]; el issuer aprueba o rechaza (05)</li>
+ *   <li>blocked: token terminado en 999, tarjeta bloqueada</li>
+ *   <li>invalid: token que contiene 0000, tarjeta inválida</li>
+ *   <li>over-limit: monto sobre el límite del issuer (1.000.000)</li>
+ *   <li>malformed: token de menos de 10 caracteres, rechazado por el issuer con 14</li>
+ * </ul>
+ * Lo usa solo el hilo que despacha los requests.
+ */
+final class PaymentMix {
+
+    private static final String TOKEN_CHARS = "abcdefghijklmnopqrstuvwxyz123456789";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final long ISSUER_LIMIT = 1_000_000;
+    private static final String BODY_TEMPLATE = """
+            {"merchantId":"%s","amount":%d,"currency":"%s","cardToken":"%s","expirationDate":"12/30"}""";
+
+    enum Scenario {
+        VALID("valid"), BLOCKED("blocked"), INVALID("invalid"), OVER_LIMIT("over-limit"), MALFORMED("malformed");
+
+        private final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+
+        static Scenario fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(scenario -> scenario.label.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name
+                            + " (expected valid, blocked, invalid, over-limit or malformed)"));
+        }
+    }
+
+    private final LoadProfile profile;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final SplittableRandom random = new SplittableRandom();
+
+    PaymentMix(LoadProfile profile) {
+        this.profile = profile;
+        Map<Scenario, Integer> mix = profile.mix();
+        this.scenarios = mix.keySet().toArray(Scenario[]::new);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    String nextBody() {
+        Scenario scenario = nextScenario();
+        String merchantId = "MERCHANT_%03d".formatted(random.nextInt(profile.merchants()));
+        long amount = scenario == Scenario.OVER_LIMIT
+                ? ISSUER_LIMIT + 1 + random.nextLong(4 * ISSUER_LIMIT)
+                : profile.minAmount() + random.nextLong(profile.maxAmount() - profile.minAmount() + 1);
+        return BODY_TEMPLATE.formatted(merchantId, amount, profile.currency(), token(scenario));
+    }
+
+    boolean nextIsGet() {
+        return random.nextDouble() < profile.getRatio();
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private Scenario nextScenario() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private String token(Scenario scenario) {
+        return switch (scenario) {
+            // Sin ceros y terminado en letra: nunca cae en 0000 ni en 999
+            case VALID, OVER_LIMIT -> "tok_" + randomChars(TOKEN_CHARS, 11) + randomChars(LETTERS, 1);
+            case BLOCKED -> "tok_" + randomChars(TOKEN_CHARS, 9) + "999";
+            case INVALID -> "tok_" + randomChars(LETTERS, 4) + "0000" + randomChars(LETTERS, 4);
+            case MALFORMED -> "tok_" + randomChars(LETTERS, 3);
+        };
+    }
+
+    private String randomChars(String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,158 @@
+package org.bank.issuingbank.admission;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bank.issuingbank.dto.response.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión por comercio de POST /payments y /payments/async. Va después de
+ * CorrelationIdFilter (el 429 queda en los logs con su correlationId) y antes de todo lo demás:
+ * un comercio sin tokens recibe 429 + Retry-After sin pasar por validación, base de datos ni issuer.
+ * <p>
+ * El merchantId viene en el cuerpo, así que el filtro lo lee completo y busca solo esa propiedad
+ * con el parser de streaming de Jackson. El controller recibe el mismo cuerpo desde memoria. Un
+ * cuerpo ilegible o sin merchantId se admite: lo rechaza la validación. Un merchantId repetido se
+ * rechaza con 400: Jackson se queda con el último, así que cobrarle al primero dejaría evadir el
+ * límite.
+ * Un cuerpo mayor a maxBodySize se rechaza con 413 sin leerlo completo, para que nadie pueda
+ * hacer que el filtro retenga en memoria cuerpos arbitrarios.
+ */
+@Component
+@Order(2)
+public class AdmissionFilter implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final String PAYMENTS_PATH = "/payments";
+    private static final String ASYNC_PAYMENTS_PATH = "/payments/async";
+    private static final String MERCHANT_ID = "merchantId";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Centinela (se compara por identidad) para un cuerpo con más de un merchantId de primer nivel
+    private static final String DUPLICATE_MERCHANT_ID = new String(MERCHANT_ID);
+
+    private final MerchantAdmission merchantAdmission;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(MerchantAdmission merchantAdmission, ObjectMapper objectMapper) {
+        this.merchantAdmission = merchantAdmission;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (!merchantAdmission.enabled() || !isPayment(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Con Content-Length se lee justo el cuerpo; sin él, hasta un byte más que el máximo
+        int maxBodyBytes = merchantAdmission.maxBodyBytes();
+        long contentLength = httpRequest.getContentLengthLong();
+        if (contentLength > maxBodyBytes) {
+            rejectTooLarge(httpRequest, (HttpServletResponse) response, maxBodyBytes);
+            return;
+        }
+        byte[] body = httpRequest.getInputStream()
+                .readNBytes(contentLength >= 0 ? (int) contentLength : maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            rejectTooLarge(httpRequest, (HttpServletResponse) response, maxBodyBytes);
+            return;
+        }
+        String merchantId = merchantId(body);
+        if (merchantId == DUPLICATE_MERCHANT_ID) {
+            log.warn("Request rejected by admission control - duplicate merchantId property");
+            writeError(httpRequest, (HttpServletResponse) response, HttpStatus.BAD_REQUEST, "VALIDATION_ERROR",
+                    "Duplicate property merchantId");
+            return;
+        }
+        long waitNanos = merchantAdmission.tryAcquire(merchantId);
+        if (waitNanos > 0) {
+            reject(httpRequest, (HttpServletResponse) response, merchantId, waitNanos);
+            return;
+        }
+        chain.doFilter(new CachedBodyRequest(httpRequest, body), response);
+    }
+
+    private static boolean isPayment(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PAYMENTS_PATH.equals(path) || ASYNC_PAYMENTS_PATH.equals(path);
+    }
+
+    /**
+     * merchantId de primer nivel del cuerpo JSON, o null si no está o el cuerpo no es un objeto válido.
+     * Recorre todo el objeto para detectar repetidos.
+     *
+     * @return {@link #DUPLICATE_MERCHANT_ID} si la propiedad aparece más de una vez
+     */
+    private String merchantId(byte[] body) {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            boolean found = false;
+            String merchantId = null;
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (MERCHANT_ID.equals(name)) {
+                    if (found) {
+                        return DUPLICATE_MERCHANT_ID;
+                    }
+                    found = true;
+                    merchantId = value == JsonToken.VALUE_STRING ? parser.getString() : null;
+                }
+                parser.skipChildren();
+            }
+            return merchantId;
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String merchantId,
+                        long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        log.debug("Request rejected by admission control - merchantId: {}, retryAfter: {}s",
+                merchantId, retryAfterSeconds);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED",
+                "Too many requests for merchant " + merchantId);
+    }
+
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response, int maxBodyBytes)
+            throws IOException {
+        log.warn("Request rejected by admission control - body larger than {} bytes", maxBodyBytes);
+        writeError(request, response, HttpStatus.CONTENT_TOO_LARGE, "PAYLOAD_TOO_LARGE",
+                "Request body exceeds " + maxBodyBytes + " bytes");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String errorCode, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(errorCode, message, status.value(), request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(errorResponse));
+    }
+}
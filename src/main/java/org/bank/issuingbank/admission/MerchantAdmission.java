@@ -0,0 +1,177 @@
+package org.bank.issuingbank.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.AdmissionProperties;
+import org.bank.issuingbank.dto.response.MerchantAdmissionResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets por comercio que consulta AdmissionFilter antes de cada POST /payments, para que
+ * un comercio que inunda la API no suba la latencia de los demás.
+ * <p>
+ * Igual que MerchantStatsRegistry, admitir es una lectura de ConcurrentHashMap más un CAS sobre el
+ * bucket del comercio ({@link MerchantBucket}): sin locks, y unos 100 bytes por comercio. Los buckets
+ * que llevan 10 minutos llenos se descartan en un barrido de a lo sumo una vez por minuto; si aun
+ * así se llega a maxMerchants, los comercios nuevos comparten un único bucket con el límite de
+ * defaultTier hasta que se libere espacio: inventar merchantIds no evade el control.
+ * <p>
+ * Los rechazos por comercio se consultan en /admin/admission y no como tag de métrica: con cientos
+ * de miles de comercios serían cientos de miles de series.
+ */
+@Component
+public class MerchantAdmission {
+
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final AdmissionProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, MerchantBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+    // Compartido por los comercios que no caben en buckets
+    private final MerchantBucket overflowBucket;
+    private final Counter rejectedCounter;
+    private final Counter overflowCounter;
+
+    @Autowired
+    public MerchantAdmission(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    MerchantAdmission(AdmissionProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        validate("default-tier", properties.defaultTier());
+        properties.merchants().forEach((merchantId, tier) -> validate("merchants." + merchantId, tier));
+        this.properties = properties;
+        this.clock = clock;
+        this.nextSweepNanos = new AtomicLong(clock.getAsLong());
+        this.overflowBucket = new MerchantBucket(properties.defaultTier(), clock.getAsLong());
+
+        Gauge.builder("payments.admission.merchants", buckets, Map::size)
+                .description("Comercios con token bucket en memoria")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payments.admission.rejected")
+                .description("Solicitudes rechazadas con 429 por superar el límite del comercio")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("payments.admission.overflow")
+                .description("Solicitudes de comercios sobre el máximo, limitadas con el bucket compartido")
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    public int maxBodyBytes() {
+        return (int) Math.min(Integer.MAX_VALUE - 8, properties.maxBodySize().toBytes());
+    }
+
+    /**
+     * Toma un token del bucket del comercio
+     *
+     * @return 0 si la solicitud se admite (también si está deshabilitado o no hay merchantId);
+     * si no, nanos hasta que el comercio tenga un token
+     */
+    public long tryAcquire(String merchantId) {
+        if (!properties.enabled() || merchantId == null) {
+            return 0;
+        }
+
+        long now = clock.getAsLong();
+        MerchantBucket bucket = buckets.get(merchantId);
+        if (bucket == null) {
+            bucket = register(merchantId, now);
+            if (bucket == null) {
+                overflowCounter.increment();
+                bucket = overflowBucket;
+            }
+        }
+
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            rejectedCounter.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Límite, tokens disponibles y rechazos del comercio (bucket lleno y sin rechazos si no está en memoria)
+     */
+    public MerchantAdmissionResponse status(String merchantId) {
+        MerchantBucket bucket = buckets.get(merchantId);
+        if (bucket == null) {
+            AdmissionProperties.Tier tier = properties.tierOf(merchantId);
+            return new MerchantAdmissionResponse(merchantId, tier.ratePerSecond(), tier.burst(), tier.burst(), 0);
+        }
+        return status(merchantId, bucket, clock.getAsLong());
+    }
+
+    /**
+     * Los limit comercios con más rechazos. Recorre todos los buckets: pensado para el dashboard.
+     *
+     * @throws BusinessException si limit no está entre 1 y maxTop
+     */
+    public List<MerchantAdmissionResponse> topRejected(int limit) {
+        if (limit < 1 || limit > properties.maxTop()) {
+            throw new BusinessException("limit must be between 1 and " + properties.maxTop(), "INVALID_PAGE_SIZE");
+        }
+        long now = clock.getAsLong();
+        return buckets.entrySet().stream()
+                .filter(entry -> entry.getValue().rejected() > 0)
+                .map(entry -> status(entry.getKey(), entry.getValue(), now))
+                .sorted(Comparator.comparingLong(MerchantAdmissionResponse::rejected).reversed()
+                        .thenComparing(MerchantAdmissionResponse::merchantId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Comercios con bucket en memoria
+     */
+    int trackedMerchants() {
+        return buckets.size();
+    }
+
+    /**
+     * Descarta los buckets que llevan IDLE_NANOS llenos
+     */
+    void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.idle(nowNanos, IDLE_NANOS));
+    }
+
+    private MerchantBucket register(String merchantId, long nowNanos) {
+        // Un solo hilo barre por minuto: con cientos de miles de comercios el barrido no es gratis
+        long next = nextSweepNanos.get();
+        if (nowNanos - next >= 0 && nextSweepNanos.compareAndSet(next, nowNanos + SWEEP_INTERVAL_NANOS)) {
+            evictIdle(nowNanos);
+        }
+        // Los comercios configurados siempre tienen bucket propio: son pocos y su tier no es el default
+        if (buckets.size() >= properties.maxMerchants() && !properties.merchants().containsKey(merchantId)) {
+            return null;
+        }
+        return buckets.computeIfAbsent(merchantId, id -> new MerchantBucket(properties.tierOf(id), nowNanos));
+    }
+
+    private static MerchantAdmissionResponse status(String merchantId, MerchantBucket bucket, long nowNanos) {
+        return new MerchantAdmissionResponse(merchantId, bucket.tier().ratePerSecond(), bucket.tier().burst(),
+                bucket.availableTokens(nowNanos), bucket.rejected());
+    }
+
+    private static void validate(String name, AdmissionProperties.Tier tier) {
+        if (!(tier.ratePerSecond() > 0) || tier.burst() < 1) {
+            throw new IllegalArgumentException("payments.admission." + name
+                    + " needs rate-per-second > 0 and burst >= 1: " + tier);
+        }
+    }
+}
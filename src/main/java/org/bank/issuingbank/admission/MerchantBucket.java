@@ -0,0 +1,79 @@
+package org.bank.issuingbank.admission;
+
+import org.bank.issuingbank.config.AdmissionProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Token bucket de un comercio, implementado como GCRA: en lugar de tokens y fecha de recarga
+ * guarda un solo long, el instante teórico en que el bucket vuelve a estar lleno (tat). Admitir
+ * es un CAS que lo corre un intervalo; rechazar no escribe nada salvo el contador de rechazos.
+ * <p>
+ * Con burst b e intervalo T = 1/rate, se admite mientras {@code tat - ahora <= (b - 1) * T}: es
+ * exactamente un bucket de b tokens que recarga uno cada T. Los instantes son de System.nanoTime,
+ * así que se comparan por diferencia.
+ */
+final class MerchantBucket {
+
+    private static final AtomicLongFieldUpdater<MerchantBucket> TAT =
+            AtomicLongFieldUpdater.newUpdater(MerchantBucket.class, "tat");
+    private static final AtomicLongFieldUpdater<MerchantBucket> REJECTED =
+            AtomicLongFieldUpdater.newUpdater(MerchantBucket.class, "rejected");
+
+    private final AdmissionProperties.Tier tier;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private volatile long tat;
+    private volatile long rejected;
+
+    MerchantBucket(AdmissionProperties.Tier tier, long nowNanos) {
+        this.tier = tier;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / tier.ratePerSecond()));
+        this.toleranceNanos = (tier.burst() - 1) * intervalNanos;
+        this.tat = nowNanos;
+    }
+
+    /**
+     * Toma un token si hay
+     *
+     * @return 0 si se admitió; si no, nanos hasta que haya un token
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat;
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                REJECTED.incrementAndGet(this);
+                return wait;
+            }
+            if (TAT.compareAndSet(this, current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Tokens disponibles ahora
+     */
+    long availableTokens(long nowNanos) {
+        long used = Math.max(0, tat - nowNanos);
+        return Math.max(0, (toleranceNanos + intervalNanos - used) / intervalNanos);
+    }
+
+    /**
+     * true si el bucket lleva idleNanos lleno: descartarlo no cambia qué se admite
+     */
+    boolean idle(long nowNanos, long idleNanos) {
+        return nowNanos - tat > idleNanos;
+    }
+
+    AdmissionProperties.Tier tier() {
+        return tier;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,342 @@
+package org.bank.issuingbank.blocklist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Versión inmutable de la lista de bloqueo. Un filtro de Bloom descarta casi todos los tokens
+ * que no están; los positivos se confirman contra el conjunto exacto, así que nunca hay falsos
+ * positivos en el resultado.
+ * <p>
+ * Los tokens (ASCII, en el orden de llegada y sin repetidos) van empaquetados en un solo byte[] con sus
+ * offsets en un int[]: dos objetos en lugar de decenas de millones de String. El conjunto exacto
+ * es una tabla hash de direccionamiento abierto con el índice de cada token, así que confirmar un
+ * positivo toca pocas líneas de caché (una búsqueda binaria sobre 10 millones de tokens toca ~24).
+ * {@link #contains} no asigna memoria: el hash y la comparación recorren los caracteres del token.
+ * <p>
+ * La construcción tampoco arma un String por token ni ordena: cada token se copia al byte[] y los
+ * repetidos se descartan al insertarlos en la tabla.
+ */
+public final class BlocklistSnapshot {
+
+    static final BlocklistSnapshot EMPTY = new BlocklistSnapshot(new long[1], 1, new byte[0], new int[1], new int[2]);
+
+    private static final int MAX_HASH_FUNCTIONS = 16;
+    private static final long FNV_OFFSET_BASIS = 0xCBF2_9CE4_8422_2325L;
+    private static final long FNV_PRIME = 0x0000_0100_0000_01B3L;
+    private static final long SECOND_HASH_SEED = 0x9E37_79B9_7F4A_7C15L;
+
+    private final long[] bloom;
+    private final long bloomMask;
+    private final int hashFunctions;
+    private final byte[] tokens;
+    private final int[] offsets;
+    private final int[] table;
+    private final int tableShift;
+
+    private BlocklistSnapshot(long[] bloom, int hashFunctions, byte[] tokens, int[] offsets, int[] table) {
+        this.bloom = bloom;
+        this.bloomMask = (long) bloom.length * Long.SIZE - 1;
+        this.hashFunctions = hashFunctions;
+        this.tokens = tokens;
+        this.offsets = offsets;
+        this.table = table;
+        this.tableShift = Long.SIZE - Integer.numberOfTrailingZeros(table.length);
+    }
+
+    /**
+     * Construye la versión con los tokens dados (se ignoran repetidos)
+     *
+     * @param falsePositiveRate tasa de falsos positivos del filtro de Bloom, entre 0 y 1 (exclusivo)
+     * @throws IllegalArgumentException si algún token no es ASCII o no caben en un arreglo
+     */
+    public static BlocklistSnapshot of(Collection<String> cardTokens, double falsePositiveRate) {
+        checkFalsePositiveRate(falsePositiveRate);
+        long totalBytes = 0;
+        for (String cardToken : cardTokens) {
+            totalBytes += cardToken.length();
+        }
+        if (totalBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Blocklist too large: " + totalBytes + " bytes of tokens");
+        }
+
+        Builder builder = new Builder(cardTokens.size(), (int) totalBytes);
+        for (String cardToken : cardTokens) {
+            builder.add(cardToken);
+        }
+        return builder.build(falsePositiveRate);
+    }
+
+    /**
+     * Construye la versión desde un archivo con un token por línea (se ignoran las líneas vacías,
+     * las que empiezan con # y los espacios alrededor). El archivo se mapea en memoria y cada
+     * token se copia directo al byte[] empaquetado, sin String intermedios.
+     *
+     * @param falsePositiveRate tasa de falsos positivos del filtro de Bloom, entre 0 y 1 (exclusivo)
+     * @throws IllegalArgumentException si algún token no es ASCII o no caben en un arreglo
+     */
+    public static BlocklistSnapshot read(Path file, double falsePositiveRate) throws IOException {
+        checkFalsePositiveRate(falsePositiveRate);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Blocklist too large: " + size + " bytes");
+            }
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int length = (int) size;
+
+            // Primera pasada: las líneas acotan la cantidad de tokens para dimensionar los arreglos
+            int lines = 1;
+            for (int i = 0; i < length; i++) {
+                if (content.get(i) == '\n') {
+                    lines++;
+                }
+            }
+
+            Builder builder = new Builder(lines, length);
+            int lineStart = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i == length || content.get(i) == '\n') {
+                    builder.addLine(content, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            return builder.build(falsePositiveRate);
+        }
+    }
+
+    private static void checkFalsePositiveRate(double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+        }
+    }
+
+    /**
+     * true si el token está en la lista (sin falsos positivos)
+     */
+    public boolean contains(String cardToken) {
+        long hash = hash(cardToken);
+        return mightContain(hash) && indexOf(cardToken, hash) >= 0;
+    }
+
+    /**
+     * Solo el filtro de Bloom: false asegura que el token no está
+     */
+    boolean mightContain(String cardToken) {
+        return mightContain(hash(cardToken));
+    }
+
+    private boolean mightContain(long hash) {
+        long step = secondHash(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash + i * step) & bloomMask;
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public long bloomBits() {
+        return bloomMask + 1;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void addToBloom(long hash) {
+        long step = secondHash(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash + i * step) & bloomMask;
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Posición del token en tokens/offsets, o -1 si no está
+     */
+    private int indexOf(String cardToken, long hash) {
+        int slot = (int) (hash >>> tableShift);
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (matches(entry - 1, cardToken)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    private boolean matches(int index, String cardToken) {
+        int start = offsets[index];
+        if (offsets[index + 1] - start != cardToken.length()) {
+            return false;
+        }
+        for (int i = 0; i < cardToken.length(); i++) {
+            if (tokens[start + i] != cardToken.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a sobre los caracteres más el finalizador de MurmurHash3, para repartir bien los bits bajos
+     */
+    private static long hash(String cardToken) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < cardToken.length(); i++) {
+            hash = (hash ^ cardToken.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * El mismo hash sobre un token empaquetado (en ASCII cada byte es su carácter)
+     */
+    private static long hash(byte[] bytes, int from, int to) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ bytes[i]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Paso impar del doble hashing (Kirsch-Mitzenmacher): con m potencia de 2 recorre posiciones distintas
+     */
+    private static long secondHash(long hash) {
+        return mix(hash ^ SECOND_HASH_SEED) | 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51_AFD7_ED55_8CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CE_B9FE_1A85_EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Empaqueta los tokens a medida que llegan: cada uno se copia al final de tokens y, si ya
+     * estaba, se descarta retrocediendo la posición. Los arreglos se dimensionan con una cota
+     * (tokens posibles y bytes totales) y se recortan al terminar.
+     */
+    private static final class Builder {
+
+        private final byte[] tokens;
+        private final int[] offsets;
+        private final int[] table;
+        private final int tableShift;
+        private int count;
+        private int position;
+
+        private Builder(int maxTokens, int maxBytes) {
+            // Tabla con carga de a lo sumo 3/4: en promedio menos de dos posiciones por búsqueda
+            int tableBits = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(((long) Math.max(1, maxTokens) * 4 / 3) - 1));
+            if (tableBits > 30) {
+                throw new IllegalArgumentException("Blocklist too large: " + maxTokens + " tokens");
+            }
+            this.tokens = new byte[maxBytes];
+            this.offsets = new int[maxTokens + 1];
+            this.table = new int[1 << tableBits];
+            this.tableShift = Long.SIZE - tableBits;
+        }
+
+        private void add(String cardToken) {
+            int start = position;
+            for (int c = 0; c < cardToken.length(); c++) {
+                char ch = cardToken.charAt(c);
+                if (ch > 0x7F) {
+                    throw new IllegalArgumentException("Card token must be ASCII: " + cardToken);
+                }
+                tokens[position++] = (byte) ch;
+            }
+            commit(start);
+        }
+
+        /**
+         * Una línea del archivo [from, to): sin espacios alrededor, vacía o comentario se ignora
+         */
+        private void addLine(ByteBuffer content, int from, int to) {
+            while (from < to && isSpace(content.get(from))) {
+                from++;
+            }
+            while (to > from && isSpace(content.get(to - 1))) {
+                to--;
+            }
+            if (from == to || content.get(from) == '#') {
+                return;
+            }
+
+            int start = position;
+            for (int i = from; i < to; i++) {
+                byte b = content.get(i);
+                if (b < 0) {
+                    throw new IllegalArgumentException("Card token must be ASCII at byte " + i);
+                }
+                tokens[position++] = b;
+            }
+            commit(start);
+        }
+
+        private static boolean isSpace(byte b) {
+            return b >= 0 && b <= ' ';
+        }
+
+        /**
+         * Inserta el token recién copiado en [start, position) o lo descarta si ya estaba
+         */
+        private void commit(int start) {
+            long hash = hash(tokens, start, position);
+            // La tabla usa los bits altos del hash; el filtro, sobre todo los bajos
+            int slot = (int) (hash >>> tableShift);
+            int entry;
+            while ((entry = table[slot]) != 0) {
+                if (Arrays.equals(tokens, offsets[entry - 1], offsets[entry], tokens, start, position)) {
+                    position = start;
+                    return;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+            offsets[++count] = position;
+            table[slot] = count;
+        }
+
+        private BlocklistSnapshot build(double falsePositiveRate) {
+            if (count == 0) {
+                return EMPTY;
+            }
+
+            // m = -n ln p / (ln 2)^2 bits, redondeado a potencia de 2 para indexar con una máscara
+            double bits = -count * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            long words = Long.highestOneBit(Math.max(1, (long) Math.ceil(bits / Long.SIZE)) * 2 - 1);
+            if (words > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Bloom filter too large for " + count + " tokens");
+            }
+            int hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS,
+                    Math.round((double) words * Long.SIZE / count * Math.log(2))));
+
+            byte[] packed = position == tokens.length ? tokens : Arrays.copyOf(tokens, position);
+            int[] packedOffsets = count + 1 == offsets.length ? offsets : Arrays.copyOf(offsets, count + 1);
+            BlocklistSnapshot snapshot = new BlocklistSnapshot(new long[(int) words], hashFunctions,
+                    packed, packedOffsets, table);
+            for (int i = 0; i < count; i++) {
+                snapshot.addToBloom(hash(packed, packedOffsets[i], packedOffsets[i + 1]));
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.bank.issuingbank.blocklist;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.BlocklistProperties;
+import org.bank.issuingbank.dto.response.BlocklistStatusResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lista de bloqueo de tarjetas que PaymentServiceImpl y BatchPaymentServiceImpl consultan antes
+ * de llamar al issuer: una tarjeta bloqueada se rechaza con CARD_BLOCKED sin salir del banco.
+ * <p>
+ * Se carga desde payments.blocklist.file al iniciar. Un hilo revisa cada reloadInterval si el
+ * archivo cambió y, si cambió, arma la nueva versión aparte y la publica con una sola escritura
+ * volatile: las autorizaciones en curso terminan con la versión que leyeron y nunca esperan a la
+ * recarga. Si la recarga falla se conserva la versión anterior.
+ * <p>
+ * Arranca antes que el servidor web y se detiene después. Con la lista activa, una consulta que
+ * llega antes de la primera carga la espera: una tarjeta bloqueada nunca se autoriza por llegar
+ * mientras se lee un archivo grande. Después de stop se sigue respondiendo con la última versión.
+ */
+@Component
+public class CardBlocklist implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CardBlocklist.class);
+
+    private final BlocklistProperties properties;
+    private final Counter hitsCounter;
+
+    private volatile Loaded loaded = new Loaded(BlocklistSnapshot.EMPTY, null, null);
+    private volatile boolean running;
+    private final CountDownLatch firstLoad = new CountDownLatch(1);
+    private ScheduledExecutorService reloader;
+
+    public CardBlocklist(BlocklistProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        Gauge.builder("payments.blocklist.size", this, blocklist -> blocklist.loaded.snapshot().size())
+                .description("Tarjetas en la lista de bloqueo vigente")
+                .register(meterRegistry);
+        this.hitsCounter = Counter.builder("payments.blocklist.hits")
+                .description("Autorizaciones rechazadas por la lista de bloqueo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true si la tarjeta está bloqueada. Con la lista desactivada siempre es false.
+     *
+     * @throws IllegalStateException si el hilo se interrumpe esperando la primera carga
+     */
+    public boolean isBlocked(String cardToken) {
+        if (!properties.enabled() || cardToken == null) {
+            return false;
+        }
+        if (firstLoad.getCount() > 0) {
+            awaitFirstLoad();
+        }
+        if (loaded.snapshot().contains(cardToken)) {
+            hitsCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vuelve a leer el archivo aunque no haya cambiado
+     *
+     * @throws BusinessException si la lista no está activa o el archivo no se puede leer
+     */
+    public BlocklistStatusResponse reload() {
+        if (!running) {
+            throw new BusinessException("Card blocklist is disabled", "BLOCKLIST_DISABLED");
+        }
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            log.error("Card blocklist reload failed - file: {}, error: {}", properties.file(), e.getMessage(), e);
+            throw new BusinessException("Card blocklist reload failed: " + e.getMessage(), "BLOCKLIST_RELOAD_FAILED");
+        }
+        return status();
+    }
+
+    public BlocklistStatusResponse status() {
+        Loaded current = loaded;
+        BlocklistSnapshot snapshot = current.snapshot();
+        return new BlocklistStatusResponse(running, properties.file(), snapshot.size(),
+                snapshot.bloomBits(), snapshot.hashFunctions(), current.loadedAt());
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (properties.file() == null || properties.file().isBlank()) {
+            throw new IllegalStateException("payments.blocklist.file is required when the blocklist is enabled");
+        }
+        try {
+            load();
+        } catch (IOException e) {
+            throw new IllegalStateException("Card blocklist could not be loaded from " + properties.file(), e);
+        }
+        running = true;
+        firstLoad.countDown();
+
+        if (!properties.reloadInterval().isZero() && !properties.reloadInterval().isNegative()) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "blocklist-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = properties.reloadInterval().toMillis();
+            reloader.scheduleWithFixedDelay(this::reloadIfModified, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (reloader != null) {
+            reloader.shutdownNow();
+            reloader = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Arranca antes que el servidor web y se detiene después, para que ninguna autorización
+     * llegue sin la lista cargada
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void awaitFirstLoad() {
+        try {
+            firstLoad.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the card blocklist to load", e);
+        }
+    }
+
+    private void reloadIfModified() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(Path.of(properties.file()));
+            if (!modified.equals(loaded.fileModified())) {
+                load();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Card blocklist reload failed, keeping the previous version - file: {}, error: {}",
+                    properties.file(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arma la nueva versión sin tocar la vigente y la publica al final
+     */
+    private synchronized void load() throws IOException {
+        Path file = Path.of(properties.file());
+        FileTime modified = Files.getLastModifiedTime(file);
+        long start = System.nanoTime();
+
+        BlocklistSnapshot snapshot = BlocklistSnapshot.read(file, properties.falsePositiveRate());
+        loaded = new Loaded(snapshot, modified, Instant.now());
+
+        log.info("Card blocklist loaded - file: {}, cards: {}, bloomBits: {}, hashFunctions: {}, took: {} ms",
+                file, snapshot.size(), snapshot.bloomBits(), snapshot.hashFunctions(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private record Loaded(BlocklistSnapshot snapshot, FileTime fileModified, Instant loadedAt) {
+    }
+}
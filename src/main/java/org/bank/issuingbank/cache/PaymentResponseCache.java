@@ -0,0 +1,67 @@
+package org.bank.issuingbank.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bank.issuingbank.config.PaymentCacheProperties;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Caché acotado (tamaño + TTL) de respuestas finales (APPROVED/DECLINED) por transactionId,
+ * para el polling de comercios sobre GET /payments/{transactionId}.
+ * <p>
+ * Las respuestas son inmutables una vez finales, por lo que no hace falta invalidar.
+ * Los misses concurrentes sobre el mismo ID comparten una sola carga a la base de datos.
+ * Estadísticas en /actuator/metrics bajo cache.* con tag cache=payments.
+ */
+@Component
+public class PaymentResponseCache {
+
+    private final Cache<String, PaymentResponse> cache;
+
+    public PaymentResponseCache(PaymentCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payments");
+    }
+
+    /**
+     * Guarda la respuesta si es final; las transacciones PENDING aún pueden cambiar
+     */
+    public void put(PaymentResponse response) {
+        if (response.transactionId() != null && isFinal(response)) {
+            cache.put(response.transactionId(), response);
+        }
+    }
+
+    /**
+     * Devuelve la respuesta en caché o la carga con loader. Si varios hilos piden el mismo ID
+     * ausente, solo uno ejecuta loader y el resto espera su resultado. Las excepciones del
+     * loader se propagan y no se cachean.
+     */
+    public PaymentResponse get(String transactionId, Function<String, PaymentResponse> loader) {
+        PaymentResponse response = cache.get(transactionId, loader);
+        if (response != null && !isFinal(response)) {
+            cache.invalidate(transactionId);
+        }
+        return response;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static boolean isFinal(PaymentResponse response) {
+        return response.status() == TransactionStatus.APPROVED
+                || response.status() == TransactionStatus.DECLINED;
+    }
+}
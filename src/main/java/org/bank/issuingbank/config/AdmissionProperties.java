@@ -0,0 +1,48 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+
+/**
+ * Control de admisión por comercio en POST /payments y /payments/async: cada comercio tiene un
+ * token bucket y lo que lo excede se responde 429 antes de validar, tocar la base o el issuer
+ *
+ * @param enabled      aplica los límites; sin esto todas las solicitudes pasan
+ * @param defaultTier  límite de los comercios sin configuración propia
+ * @param merchants    límites por merchantId que reemplazan al default
+ * @param maxMerchants comercios con bucket en memoria; al llegar al máximo los nuevos comparten un
+ *                     bucket con el límite de defaultTier
+ * @param maxTop       máximo de comercios en el ranking de rechazos
+ * @param maxBodySize  cuerpo máximo que el filtro lee en memoria para buscar el merchantId; uno
+ *                     mayor se rechaza con 413 sin terminar de leerlo
+ */
+@ConfigurationProperties(prefix = "payments.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue Tier defaultTier,
+        @DefaultValue Map<String, Tier> merchants,
+        @DefaultValue("500000") int maxMerchants,
+        @DefaultValue("100") int maxTop,
+        @DefaultValue("64KB") DataSize maxBodySize
+) {
+
+    /**
+     * Límite del comercio: el tier de merchants si tiene uno, si no defaultTier
+     */
+    public Tier tierOf(String merchantId) {
+        return merchants.getOrDefault(merchantId, defaultTier);
+    }
+
+    /**
+     * @param ratePerSecond solicitudes por segundo sostenidas
+     * @param burst         solicitudes que se pueden aceptar de una vez con el bucket lleno
+     */
+    public record Tier(
+            @DefaultValue("50") double ratePerSecond,
+            @DefaultValue("100") int burst
+    ) {
+    }
+}
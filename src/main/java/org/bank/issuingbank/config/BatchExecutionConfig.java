@@ -0,0 +1,45 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.logging.MdcTaskDecorator;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchExecutionConfig {
+
+    /**
+     * Pool dedicado a las autorizaciones de lotes. Está separado de los hilos de Tomcat
+     * para que una carga masiva no consuma la capacidad de los pagos individuales.
+     * La cola se dimensiona para el peor caso (lotes concurrentes x paralelismo),
+     * por lo que nunca rechaza tareas.
+     * <p>
+     * Con virtual threads activos (spring.threads.virtual.enabled) se usa un virtual thread
+     * por autorización, limitado a la misma concurrencia máxima.
+     */
+    @Bean
+    public TaskExecutor batchAuthorizationExecutor(BatchProperties properties, Environment environment) {
+        int maxInFlight = properties.maxConcurrentBatches() * properties.parallelism();
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-auth-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxInFlight);
+            executor.setTaskDecorator(new MdcTaskDecorator());
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("batch-auth-");
+        executor.setCorePoolSize(properties.workerThreads());
+        executor.setMaxPoolSize(properties.workerThreads());
+        executor.setQueueCapacity(maxInFlight);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del endpoint de autorización masiva (POST /payments/batch)
+ *
+ * @param maxSize              máximo de pagos aceptados en un lote
+ * @param parallelism          autorizaciones en vuelo por lote
+ * @param maxConcurrentBatches lotes procesándose a la vez en toda la instancia
+ * @param acquireTimeout       espera máxima por un cupo de lote antes de responder 503
+ * @param workerThreads        hilos del pool dedicado a lotes (separado de Tomcat)
+ * @param insertChunkSize      filas por batch insert JDBC
+ */
+@ConfigurationProperties(prefix = "payments.batch")
+public record BatchProperties(
+        @DefaultValue("1000") int maxSize,
+        @DefaultValue("16") int parallelism,
+        @DefaultValue("2") int maxConcurrentBatches,
+        @DefaultValue("2s") Duration acquireTimeout,
+        @DefaultValue("16") int workerThreads,
+        @DefaultValue("500") int insertChunkSize
+) {
+}
@@ -0,0 +1,24 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Lista de bloqueo de tarjetas que se consulta antes de llamar al issuer
+ *
+ * @param enabled           consulta la lista en cada autorización
+ * @param file              archivo con un token por línea (líneas vacías y las que empiezan con # se ignoran)
+ * @param falsePositiveRate tasa de falsos positivos del filtro de Bloom; cada positivo se confirma
+ *                          contra el conjunto exacto, así que solo cambia cuántas búsquedas lo llegan a consultar
+ * @param reloadInterval    cada cuánto se revisa si el archivo cambió (Duration.ZERO: solo al iniciar y a pedido)
+ */
+@ConfigurationProperties(prefix = "payments.blocklist")
+public record BlocklistProperties(
+        @DefaultValue("false") boolean enabled,
+        String file,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("30s") Duration reloadInterval
+) {
+}
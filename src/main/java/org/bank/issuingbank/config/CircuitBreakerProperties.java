@@ -0,0 +1,31 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del circuit breaker alrededor del issuer
+ *
+ * @param enabled               envuelve el IssuerClient con el circuit breaker
+ * @param slidingWindowSize     últimas llamadas consideradas para calcular las tasas
+ * @param minimumCalls          llamadas mínimas en la ventana antes de poder abrir el circuito
+ * @param failureRateThreshold  porcentaje de fallas (errores y timeouts) que abre el circuito
+ * @param slowCallThreshold     duración desde la que una llamada cuenta como lenta
+ * @param slowCallRateThreshold porcentaje de llamadas lentas que abre el circuito
+ * @param openDuration          tiempo con el circuito abierto antes de probar al issuer (half-open)
+ * @param halfOpenCalls         llamadas de prueba en half-open; si sus tasas están bajo los umbrales se cierra
+ */
+@ConfigurationProperties(prefix = "payments.issuer.circuit-breaker")
+public record CircuitBreakerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int slidingWindowSize,
+        @DefaultValue("20") int minimumCalls,
+        @DefaultValue("50") int failureRateThreshold,
+        @DefaultValue("1s") Duration slowCallThreshold,
+        @DefaultValue("80") int slowCallRateThreshold,
+        @DefaultValue("10s") Duration openDuration,
+        @DefaultValue("5") int halfOpenCalls
+) {
+}
@@ -0,0 +1,21 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Agrupación de autorizaciones concurrentes en lotes al issuer (un viaje de ida y vuelta por lote)
+ *
+ * @param enabled      activa la agrupación
+ * @param maxBatchSize autorizaciones por lote; al completarlo se envía de inmediato
+ * @param maxWait      espera máxima de la primera autorización de un lote antes de enviarlo incompleto
+ */
+@ConfigurationProperties(prefix = "payments.issuer.coalescing")
+public record CoalescingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("32") int maxBatchSize,
+        @DefaultValue("200us") Duration maxWait
+) {
+}
@@ -0,0 +1,15 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de GET /payments/export
+ *
+ * @param fetchSize filas que el driver JDBC trae por ida y vuelta al cursor
+ */
+@ConfigurationProperties(prefix = "payments.export")
+public record ExportProperties(
+        @DefaultValue("1000") int fetchSize
+) {
+}
@@ -0,0 +1,26 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del hedging de autorizaciones: si el issuer no responde en el percentil
+ * observado se envía un segundo intento con la misma referencia y gana la primera respuesta
+ *
+ * @param enabled         activa el hedging (requiere un issuer que deduplique por referencia)
+ * @param percentile      percentil de latencia observada tras el cual se envía el segundo intento
+ * @param minDelay        espera mínima antes del segundo intento, aunque el percentil sea menor
+ * @param minSamples      respuestas observadas necesarias antes de empezar a hacer hedging
+ * @param maxHedgePercent máximo de llamadas con segundo intento, en porcentaje del total
+ */
+@ConfigurationProperties(prefix = "payments.issuer.hedging")
+public record HedgingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0.95") double percentile,
+        @DefaultValue("5ms") Duration minDelay,
+        @DefaultValue("100") int minSamples,
+        @DefaultValue("10") int maxHedgePercent
+) {
+}
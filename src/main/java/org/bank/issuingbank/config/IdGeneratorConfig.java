@@ -0,0 +1,29 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.id.HibernateIdGenerator;
+import org.bank.issuingbank.id.IdGenerator;
+import org.bank.issuingbank.id.RandomIdGenerator;
+import org.bank.issuingbank.id.TimeOrderedIdGenerator;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(IdProperties properties) {
+        return switch (properties.strategy()) {
+            case TIME_ORDERED -> new TimeOrderedIdGenerator();
+            case RANDOM -> new RandomIdGenerator();
+        };
+    }
+
+    /**
+     * Entrega el generador a Hibernate para las entidades con @GeneratedId
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorHibernateCustomizer(IdGenerator idGenerator) {
+        return hibernateProperties -> hibernateProperties.put(HibernateIdGenerator.ID_GENERATOR_SETTING, idGenerator);
+    }
+}
@@ -0,0 +1,19 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Generación de IDs de transacciones y de correlationId
+ *
+ * @param strategy TIME_ORDERED (UUID v7, ordenados por tiempo) o RANDOM (UUID v4)
+ */
+@ConfigurationProperties(prefix = "payments.ids")
+public record IdProperties(
+        @DefaultValue("TIME_ORDERED") Strategy strategy
+) {
+
+    public enum Strategy {
+        TIME_ORDERED, RANDOM
+    }
+}
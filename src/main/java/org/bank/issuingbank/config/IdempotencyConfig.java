@@ -0,0 +1,18 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.idempotency.OffHeapIdempotencyStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Store de claves de idempotencia. Reserva memoria directa a medida que crecen las claves
+     * vigentes, hasta capacity x 48 bytes (ver -XX:MaxDirectMemorySize)
+     */
+    @Bean
+    public OffHeapIdempotencyStore idempotencyStore(IdempotencyProperties properties) {
+        return new OffHeapIdempotencyStore(properties.capacity(), properties.stripes());
+    }
+}
@@ -0,0 +1,25 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de Idempotency-Key en POST /payments
+ *
+ * @param ttl         tiempo durante el cual un reintento devuelve la respuesta original
+ * @param capacity    máximo de slots del store fuera del heap (48 bytes cada uno); admite 3/4 de claves vigentes
+ * @param stripes     particiones del store con lock propio (potencia de 2)
+ * @param inFlightWait espera máxima de un duplicado concurrente por el primer intento
+ * @param persistent  respalda las claves en la tabla idempotency_keys (correcto entre reinicios e instancias)
+ */
+@ConfigurationProperties(prefix = "payments.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("33554432") long capacity,
+        @DefaultValue("64") int stripes,
+        @DefaultValue("5s") Duration inFlightWait,
+        @DefaultValue("false") boolean persistent
+) {
+}
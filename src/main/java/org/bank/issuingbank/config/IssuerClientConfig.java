@@ -0,0 +1,142 @@
+package org.bank.issuingbank.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.impl.BoundedIssuerClient;
+import org.bank.issuingbank.service.external.IdempotentIssuerClient;
+import org.bank.issuingbank.service.external.impl.CircuitBreakerIssuerClient;
+import org.bank.issuingbank.service.external.impl.CoalescingIssuerClient;
+import org.bank.issuingbank.service.external.impl.HedgingIssuerClient;
+import org.bank.issuingbank.service.external.impl.MockIssuerClient;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+@Configuration
+public class IssuerClientConfig {
+
+    /**
+     * Timer del issuer simulado: un solo hilo agenda todas las respuestas,
+     * sin importar cuántas autorizaciones haya en vuelo
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService issuerLatencyScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("issuer-latency-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Timer de los segundos intentos (hedging): un solo hilo agenda todos y los cancela
+     * cuando llega la respuesta, sin acumular tareas canceladas en la cola
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService issuerHedgeScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("issuer-hedge-");
+        threadFactory.setDaemon(true);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Timer de los lotes incompletos (coalescing): un solo hilo envía los lotes cuya primera
+     * autorización cumplió maxWait
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService issuerCoalescingScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("issuer-coalescing-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Comportamiento del issuer simulado, modificable en caliente desde /admin/issuer-simulator
+     */
+    @Bean
+    public IssuerSimulator issuerSimulator(IssuerProperties properties, IssuerSimulatorProperties simulatorProperties) {
+        return new IssuerSimulator(simulatorProperties.baseline(properties.mockLatency()),
+                simulatorProperties.seed(), simulatorProperties.scenarios());
+    }
+
+    /**
+     * Inicia payments.issuer.simulator.active-scenario cuando la aplicación ya recibe tráfico,
+     * para que el primer tramo no se consuma durante el arranque
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> issuerScenarioStarter(IssuerSimulator issuerSimulator,
+                                                                            IssuerSimulatorProperties simulatorProperties) {
+        return event -> {
+            if (simulatorProperties.activeScenario() != null && !simulatorProperties.activeScenario().isBlank()) {
+                issuerSimulator.startScenario(simulatorProperties.activeScenario());
+            }
+        };
+    }
+
+    /**
+     * Cliente del issuer usado por los servicios: el mock (con agrupación en lotes y hedging
+     * si están activos), el límite de autorizaciones en vuelo y el timeout por llamada, y por fuera el circuit
+     * breaker, que así ve los timeouts como fallas y con el circuito abierto no ocupa cupo en vuelo
+     */
+    @Bean
+    public IssuerClient issuerClient(IssuerProperties properties,
+                                     CircuitBreakerProperties circuitBreakerProperties,
+                                     HedgingProperties hedgingProperties,
+                                     CoalescingProperties coalescingProperties,
+                                     ScheduledExecutorService issuerLatencyScheduler,
+                                     ScheduledExecutorService issuerHedgeScheduler,
+                                     ScheduledExecutorService issuerCoalescingScheduler,
+                                     IssuerSimulator issuerSimulator,
+                                     IssuerSimulatorProperties simulatorProperties,
+                                     MeterRegistry meterRegistry) {
+        IdempotentIssuerClient idempotentIssuer = new MockIssuerClient(issuerSimulator,
+                simulatorProperties.roundTripCost(), issuerLatencyScheduler);
+        if (coalescingProperties.enabled()) {
+            idempotentIssuer = new CoalescingIssuerClient(idempotentIssuer, coalescingProperties,
+                    issuerCoalescingScheduler, meterRegistry);
+        }
+        IssuerClient issuer = hedgingProperties.enabled()
+                ? new HedgingIssuerClient(idempotentIssuer, hedgingProperties, issuerHedgeScheduler, meterRegistry)
+                : idempotentIssuer;
+        IssuerClient bounded = new BoundedIssuerClient(issuer, properties.maxInFlight(), properties.timeout());
+        if (!circuitBreakerProperties.enabled()) {
+            return bounded;
+        }
+        return new CircuitBreakerIssuerClient(bounded, circuitBreakerProperties, meterRegistry);
+    }
+
+    /**
+     * Completa las autorizaciones asíncronas (persistencia y respuesta) fuera del timer
+     * del issuer. La cola admite todas las autorizaciones en vuelo, por lo que nunca rechaza.
+     * <p>
+     * Con virtual threads activos (spring.threads.virtual.enabled) se usa un virtual thread por tarea.
+     */
+    @Bean
+    public TaskExecutor paymentCompletionExecutor(IssuerProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payment-completion-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payment-completion-");
+        executor.setCorePoolSize(properties.completionThreads());
+        executor.setMaxPoolSize(properties.completionThreads());
+        executor.setQueueCapacity(properties.maxInFlight());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la llamada al issuer y de la autorización no bloqueante (POST /payments/async)
+ *
+ * @param maxInFlight       autorizaciones pendientes de respuesta (síncronas y asíncronas) en toda la instancia
+ * @param timeout           presupuesto de latencia: espera máxima por la respuesta del issuer en cada autorización
+ * @param completionThreads hilos que completan las autorizaciones (persistencia y respuesta)
+ * @param mockLatency       latencia base (o mediana) simulada por MockIssuerClient; ver IssuerSimulatorProperties
+ */
+@ConfigurationProperties(prefix = "payments.issuer")
+public record IssuerProperties(
+        @DefaultValue("10000") int maxInFlight,
+        @DefaultValue("2s") Duration timeout,
+        @DefaultValue("8") int completionThreads,
+        @DefaultValue("20ms") Duration mockLatency
+) {
+}
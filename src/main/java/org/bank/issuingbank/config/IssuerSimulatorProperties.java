@@ -0,0 +1,48 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.service.external.simulator.IssuerBehavior;
+import org.bank.issuingbank.service.external.simulator.IssuerScenario;
+import org.bank.issuingbank.service.external.simulator.LatencyDistribution;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Comportamiento del issuer simulado (MockIssuerClient). La latencia base es
+ * payments.issuer.mock-latency; aquí se define su forma, las tasas de error y los
+ * escenarios que se pueden iniciar por nombre desde /admin/issuer-simulator.
+ *
+ * @param latencyDistribution FIXED, LOG_NORMAL o BIMODAL
+ * @param latencySigma        desvío del logaritmo de la latencia (LOG_NORMAL y BIMODAL)
+ * @param spikeProbability    probabilidad de un pico de latencia (BIMODAL)
+ * @param spikeLatency        mediana de los picos (BIMODAL)
+ * @param approvalRate        probabilidad de aprobar un pago que pasa las validaciones de la tarjeta
+ * @param errorRate           probabilidad de que la llamada al issuer falle
+ * @param timeoutRate         probabilidad de que el issuer no responda (la corta payments.issuer.timeout)
+ * @param roundTripCost       ocupación del enlace por mensaje (los lotes pagan una vez); 0: enlace sin límite
+ * @param seed                semilla para repetir la misma secuencia entre corridas (null: aleatoria)
+ * @param activeScenario      escenario a iniciar al arrancar la aplicación (null: ninguno)
+ * @param scenarios           escenarios disponibles por nombre
+ */
+@ConfigurationProperties(prefix = "payments.issuer.simulator")
+public record IssuerSimulatorProperties(
+        @DefaultValue("FIXED") LatencyDistribution latencyDistribution,
+        @DefaultValue("0.5") double latencySigma,
+        @DefaultValue("0") double spikeProbability,
+        @DefaultValue("1s") Duration spikeLatency,
+        @DefaultValue("0.5") double approvalRate,
+        @DefaultValue("0") double errorRate,
+        @DefaultValue("0") double timeoutRate,
+        @DefaultValue("0") Duration roundTripCost,
+        Long seed,
+        String activeScenario,
+        @DefaultValue Map<String, IssuerScenario> scenarios
+) {
+
+    public IssuerBehavior baseline(Duration latency) {
+        return new IssuerBehavior(latencyDistribution, latency, latencySigma, spikeProbability, spikeLatency,
+                approvalRate, errorRate, timeoutRate);
+    }
+}
@@ -0,0 +1,27 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.journal.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Journal de autorizaciones en disco (write-ahead log), escrito antes de responder cada pago
+ *
+ * @param enabled       registra cada transacción completada en el journal y lo reproduce al arrancar
+ * @param directory     directorio de los segmentos
+ * @param segmentSize   tamaño de cada segmento (archivo mapeado en memoria); al llenarse se abre otro
+ * @param fsync         cuándo se fuerza el journal a disco (ver {@link FsyncPolicy})
+ * @param fsyncInterval cada cuánto se fuerza con la política INTERVAL
+ */
+@ConfigurationProperties(prefix = "payments.journal")
+public record JournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("journal") String directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("ALWAYS") FsyncPolicy fsync,
+        @DefaultValue("10ms") Duration fsyncInterval
+) {
+}
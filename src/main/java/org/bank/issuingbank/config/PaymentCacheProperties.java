@@ -0,0 +1,19 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del caché de respuestas de GET /payments/{transactionId}
+ *
+ * @param maximumSize máximo de respuestas en caché; al superarlo se desalojan las menos usadas
+ * @param ttl         tiempo de vida de cada respuesta desde que se escribe
+ */
+@ConfigurationProperties(prefix = "payments.cache")
+public record PaymentCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("10m") Duration ttl
+) {
+}
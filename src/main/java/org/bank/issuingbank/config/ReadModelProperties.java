@@ -0,0 +1,25 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del modelo de lectura en memoria de GET /payments y GET /payments/{id}
+ *
+ * @param enabled   proyecta los pagos completados en memoria y responde las consultas recientes desde ahí
+ * @param capacity  transacciones retenidas (~65 bytes cada una, reservados al arrancar); al llegar al
+ *                  máximo se descartan las más antiguas
+ * @param retention antigüedad máxima (por createdAt) de las transacciones retenidas
+ * @param queueSize pagos pendientes de proyectar; con la cola llena el pago no se proyecta y las consultas
+ *                  que lo incluirían van a la base de datos
+ */
+@ConfigurationProperties(prefix = "payments.read-model")
+public record ReadModelProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000000") int capacity,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("65536") int queueSize
+) {
+}
@@ -0,0 +1,17 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la búsqueda paginada (GET /payments)
+ *
+ * @param defaultPageSize filas por página cuando el cliente no envía limit
+ * @param maxPageSize     máximo de filas por página aceptado
+ */
+@ConfigurationProperties(prefix = "payments.search")
+public record SearchProperties(
+        @DefaultValue("50") int defaultPageSize,
+        @DefaultValue("500") int maxPageSize
+) {
+}
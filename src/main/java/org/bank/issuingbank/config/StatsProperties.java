@@ -0,0 +1,21 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de las estadísticas en vivo por comercio (GET /payments/stats)
+ *
+ * @param enabled      registra los resultados de autorización; sin esto los endpoints devuelven ceros
+ * @param maxStripes   stripes máximas por comercio y moneda (potencia de 2) para repartir la contención
+ * @param maxMerchants comercios con estadísticas; al superarlo se desalojan los que llevan 60 minutos sin operar
+ * @param maxTop       máximo de comercios en el ranking
+ */
+@ConfigurationProperties(prefix = "payments.stats")
+public record StatsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8") int maxStripes,
+        @DefaultValue("10000") int maxMerchants,
+        @DefaultValue("100") int maxTop
+) {
+}
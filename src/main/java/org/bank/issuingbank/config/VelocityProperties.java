@@ -0,0 +1,34 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Límites de velocidad por tarjeta (defensa contra card testing), consultados antes del issuer
+ *
+ * @param enabled   cuenta los intentos por tarjeta y rechaza los que superan un límite
+ * @param maxCards  tarjetas con contadores en memoria; al llegar al máximo las nuevas no se controlan
+ * @param perMinute límites en el último minuto
+ * @param perHour   límites en la última hora
+ * @param perDay    límites en las últimas 24 horas
+ */
+@ConfigurationProperties(prefix = "payments.velocity")
+public record VelocityProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000000") int maxCards,
+        @DefaultValue Limits perMinute,
+        @DefaultValue Limits perHour,
+        @DefaultValue Limits perDay
+) {
+
+    /**
+     * @param maxCount  intentos por tarjeta en la ventana (0: sin límite); excederlo rechaza con 65
+     * @param maxAmount suma de montos por tarjeta en la ventana, en unidades de la moneda del pago
+     *                  (0: sin límite); excederla rechaza con 61
+     */
+    public record Limits(
+            @DefaultValue("0") long maxCount,
+            @DefaultValue("0") long maxAmount
+    ) {
+    }
+}
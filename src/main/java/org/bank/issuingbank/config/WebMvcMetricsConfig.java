@@ -0,0 +1,38 @@
+package org.bank.issuingbank.config;
+
+import org.bank.issuingbank.metrics.PaymentStageInterceptor;
+import org.bank.issuingbank.metrics.PaymentStageMetrics;
+import org.bank.issuingbank.metrics.TimedValidator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Medición por etapas de POST /payments: el interceptor abre y cierra cada medición y el
+ * validator de MVC mide la etapa de validación
+ */
+@Configuration
+public class WebMvcMetricsConfig implements WebMvcConfigurer {
+
+    private final PaymentStageMetrics stageMetrics;
+    private final SmartValidator defaultValidator;
+
+    public WebMvcMetricsConfig(PaymentStageMetrics stageMetrics,
+                               @Qualifier("defaultValidator") SmartValidator defaultValidator) {
+        this.stageMetrics = stageMetrics;
+        this.defaultValidator = defaultValidator;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PaymentStageInterceptor(stageMetrics)).addPathPatterns("/payments");
+    }
+
+    @Override
+    public Validator getValidator() {
+        return new TimedValidator(defaultValidator, stageMetrics);
+    }
+}
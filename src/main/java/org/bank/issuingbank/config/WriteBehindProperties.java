@@ -0,0 +1,27 @@
+package org.bank.issuingbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la persistencia write-behind de transacciones
+ *
+ * @param enabled         responde apenas el issuer decide y persiste en segundo plano
+ * @param maxLag          espera máxima de una transacción en cola antes de iniciar su flush
+ * @param maxQueueSize    transacciones pendientes de persistir; con la cola llena se persiste síncronamente
+ * @param batchSize       filas por flush (batch insert JDBC)
+ * @param flushOnShutdown vacía la cola al detener la aplicación
+ * @param shutdownTimeout espera máxima por el flush final al detener la aplicación
+ */
+@ConfigurationProperties(prefix = "payments.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200ms") Duration maxLag,
+        @DefaultValue("10000") int maxQueueSize,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("true") boolean flushOnShutdown,
+        @DefaultValue("10s") Duration shutdownTimeout
+) {
+}
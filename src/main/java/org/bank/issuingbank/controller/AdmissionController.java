@@ -0,0 +1,65 @@
+package org.bank.issuingbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bank.issuingbank.admission.MerchantAdmission;
+import org.bank.issuingbank.dto.response.MerchantAdmissionResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/admission")
+@Tag(name = "Admission", description = "Límites de solicitudes por comercio en POST /payments")
+public class AdmissionController {
+
+    private final MerchantAdmission merchantAdmission;
+
+    public AdmissionController(MerchantAdmission merchantAdmission) {
+        this.merchantAdmission = merchantAdmission;
+    }
+
+    /**
+     * Comercios con más solicitudes rechazadas con 429
+     */
+    @GetMapping("/top")
+    @Operation(summary = "Ranking de rechazos", description = "Comercios con más solicitudes rechazadas por su límite")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comercios ordenados por rechazos",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MerchantAdmissionResponse.class)))
+            ),
+            @ApiResponse(responseCode = "400", description = "limit inválido", content = @Content)
+    })
+    public ResponseEntity<List<MerchantAdmissionResponse>> getTopRejected(
+            @Parameter(description = "Comercios a devolver", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(merchantAdmission.topRejected(limit));
+    }
+
+    /**
+     * Límite, tokens disponibles y rechazos del comercio
+     */
+    @GetMapping("/{merchantId}")
+    @Operation(summary = "Control de admisión de un comercio")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Estado del token bucket del comercio",
+            content = @Content(schema = @Schema(implementation = MerchantAdmissionResponse.class))
+    )
+    public ResponseEntity<MerchantAdmissionResponse> getMerchantAdmission(
+            @Parameter(description = "ID del comercio", required = true, example = "MERCHANT_001")
+            @PathVariable String merchantId
+    ) {
+        return ResponseEntity.ok(merchantAdmission.status(merchantId));
+    }
+}
@@ -0,0 +1,62 @@
+package org.bank.issuingbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bank.issuingbank.blocklist.CardBlocklist;
+import org.bank.issuingbank.dto.response.BlocklistStatusResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/blocklist")
+@Tag(name = "Blocklist", description = "Lista de bloqueo de tarjetas consultada antes del issuer")
+public class BlocklistController {
+
+    private final CardBlocklist cardBlocklist;
+
+    public BlocklistController(CardBlocklist cardBlocklist) {
+        this.cardBlocklist = cardBlocklist;
+    }
+
+    /**
+     * Tamaño y origen de la versión vigente
+     */
+    @GetMapping
+    @Operation(summary = "Estado de la lista de bloqueo")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Versión vigente de la lista",
+            content = @Content(schema = @Schema(implementation = BlocklistStatusResponse.class))
+    )
+    public ResponseEntity<BlocklistStatusResponse> getStatus() {
+        return ResponseEntity.ok(cardBlocklist.status());
+    }
+
+    /**
+     * Recarga el archivo sin esperar a la próxima revisión periódica
+     */
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Recargar la lista de bloqueo",
+            description = "Lee el archivo y reemplaza la versión vigente sin detener las autorizaciones"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lista recargada",
+                    content = @Content(schema = @Schema(implementation = BlocklistStatusResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Lista desactivada o archivo ilegible; sigue la versión anterior",
+                    content = @Content)
+    })
+    public ResponseEntity<BlocklistStatusResponse> reload() {
+        return ResponseEntity.ok(cardBlocklist.reload());
+    }
+}
@@ -0,0 +1,121 @@
+package org.bank.issuingbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bank.issuingbank.dto.response.IssuerSimulatorStatusResponse;
+import org.bank.issuingbank.service.external.simulator.IssuerBehavior;
+import org.bank.issuingbank.service.external.simulator.IssuerScenario;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/issuer-simulator")
+@Tag(name = "Issuer Simulator", description = "Latencias, fallas y escenarios del issuer simulado (pruebas de carga)")
+public class IssuerSimulatorController {
+
+    private static final String CUSTOM_SCENARIO = "custom";
+
+    private final IssuerSimulator issuerSimulator;
+
+    public IssuerSimulatorController(IssuerSimulator issuerSimulator) {
+        this.issuerSimulator = issuerSimulator;
+    }
+
+    /**
+     * Comportamiento vigente y escenario en curso
+     */
+    @GetMapping
+    @Operation(summary = "Estado del issuer simulado")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Comportamiento base, vigente y escenario en curso",
+            content = @Content(schema = @Schema(implementation = IssuerSimulatorStatusResponse.class))
+    )
+    public ResponseEntity<IssuerSimulatorStatusResponse> getStatus() {
+        return ResponseEntity.ok(issuerSimulator.status());
+    }
+
+    /**
+     * Reemplaza el comportamiento base (el escenario en curso, si hay, sigue aplicándose encima)
+     */
+    @PutMapping("/behavior")
+    @Operation(
+            summary = "Cambiar el comportamiento base",
+            description = "Latencia, distribución, aprobación, errores y timeouts del issuer cuando no hay escenario"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comportamiento aplicado",
+                    content = @Content(schema = @Schema(implementation = IssuerSimulatorStatusResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Comportamiento inválido", content = @Content)
+    })
+    public ResponseEntity<IssuerSimulatorStatusResponse> setBehavior(@RequestBody IssuerBehavior behavior) {
+        issuerSimulator.setBaseline(behavior);
+        return ResponseEntity.ok(issuerSimulator.status());
+    }
+
+    /**
+     * Inicia un escenario configurado en payments.issuer.simulator.scenarios
+     */
+    @PostMapping("/scenarios/{name}")
+    @Operation(summary = "Iniciar un escenario configurado")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Escenario iniciado",
+                    content = @Content(schema = @Schema(implementation = IssuerSimulatorStatusResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Escenario desconocido", content = @Content)
+    })
+    public ResponseEntity<IssuerSimulatorStatusResponse> startScenario(
+            @Parameter(description = "Nombre del escenario", required = true, example = "slow-issuer")
+            @PathVariable String name
+    ) {
+        issuerSimulator.startScenario(name);
+        return ResponseEntity.ok(issuerSimulator.status());
+    }
+
+    /**
+     * Inicia un escenario ad hoc enviado en el body
+     */
+    @PostMapping("/scenarios")
+    @Operation(
+            summary = "Iniciar un escenario ad hoc",
+            description = "Tramos con duración y los campos del comportamiento a reemplazar; se reporta como 'custom'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Escenario iniciado",
+                    content = @Content(schema = @Schema(implementation = IssuerSimulatorStatusResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Escenario inválido", content = @Content)
+    })
+    public ResponseEntity<IssuerSimulatorStatusResponse> startCustomScenario(@RequestBody IssuerScenario scenario) {
+        issuerSimulator.startScenario(CUSTOM_SCENARIO, scenario);
+        return ResponseEntity.ok(issuerSimulator.status());
+    }
+
+    /**
+     * Detiene el escenario en curso y vuelve al comportamiento base
+     */
+    @DeleteMapping("/scenarios/active")
+    @Operation(summary = "Detener el escenario en curso")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Issuer de vuelta al comportamiento base",
+            content = @Content(schema = @Schema(implementation = IssuerSimulatorStatusResponse.class))
+    )
+    public ResponseEntity<IssuerSimulatorStatusResponse> stopScenario() {
+        issuerSimulator.stopScenario();
+        return ResponseEntity.ok(issuerSimulator.status());
+    }
+}
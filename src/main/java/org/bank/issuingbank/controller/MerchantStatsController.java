@@ -0,0 +1,81 @@
+package org.bank.issuingbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bank.issuingbank.dto.response.MerchantStatsResponse;
+import org.bank.issuingbank.service.MerchantStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/payments/stats")
+@Tag(name = "Merchant Stats", description = "Estadísticas de autorización en vivo por comercio")
+public class MerchantStatsController {
+
+    private final MerchantStatsService merchantStatsService;
+
+    public MerchantStatsController(MerchantStatsService merchantStatsService) {
+        this.merchantStatsService = merchantStatsService;
+    }
+
+    /**
+     * Ranking de comercios en una ventana (dashboard de operaciones)
+     */
+    @GetMapping("/top")
+    @Operation(
+            summary = "Ranking de comercios",
+            description = "Comercios con más autorizaciones (by=count) o mayor tasa de rechazo (by=declineRate) "
+                    + "en la ventana indicada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comercios ordenados según el criterio",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MerchantStatsResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Ventana, criterio o limit inválido",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<List<MerchantStatsResponse>> getTopMerchants(
+            @Parameter(description = "Ventana: 1m, 5m o 60m", example = "5m")
+            @RequestParam(defaultValue = "5m") String window,
+            @Parameter(description = "Criterio: count o declineRate", example = "count")
+            @RequestParam(defaultValue = "count") String by,
+            @Parameter(description = "Comercios a devolver", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(merchantStatsService.getTopMerchants(window, by, limit));
+    }
+
+    /**
+     * Estadísticas del comercio en las ventanas de 1, 5 y 60 minutos
+     */
+    @GetMapping("/{merchantId}")
+    @Operation(
+            summary = "Estadísticas de un comercio",
+            description = "Autorizaciones, volumen aprobado, tasa de rechazo y códigos de respuesta de los "
+                    + "últimos 1, 5 y 60 minutos, calculados en memoria"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Estadísticas del comercio (en cero si no tuvo actividad)",
+            content = @Content(schema = @Schema(implementation = MerchantStatsResponse.class))
+    )
+    public ResponseEntity<MerchantStatsResponse> getMerchantStats(
+            @Parameter(description = "ID del comercio", required = true, example = "MERCHANT_001")
+            @PathVariable String merchantId
+    ) {
+        return ResponseEntity.ok(merchantStatsService.getMerchantStats(merchantId));
+    }
+}
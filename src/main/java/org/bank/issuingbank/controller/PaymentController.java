@@ -7,28 +7,61 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.BatchPaymentResponse;
 import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.dto.response.TransactionExportLine;
+import org.bank.issuingbank.dto.response.TransactionPageResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.service.BatchPaymentService;
+import org.bank.issuingbank.service.IdempotencyService;
 import org.bank.issuingbank.service.PaymentService;
+import org.bank.issuingbank.service.TransactionExportService;
+import org.bank.issuingbank.service.TransactionSearchService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/payments")
 @Tag(name = "Payments", description = "API de procesamiento de pagos del banco emisor")
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final BatchPaymentService batchPaymentService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionSearchService transactionSearchService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             BatchPaymentService batchPaymentService,
+                             IdempotencyService idempotencyService,
+                             TransactionExportService transactionExportService,
+                             TransactionSearchService transactionSearchService) {
         this.paymentService = paymentService;
+        this.batchPaymentService = batchPaymentService;
+        this.idempotencyService = idempotencyService;
+        this.transactionExportService = transactionExportService;
+        this.transactionSearchService = transactionSearchService;
     }
 
     /**
-     * Procesa un pago recibido desde un comercio
+     * Procesa un pago recibido desde un comercio. Con Idempotency-Key, los reintentos
+     * del mismo pago devuelven la respuesta original sin volver a autorizar
      */
     @PostMapping
     @Operation(
@@ -46,6 +79,16 @@ public class PaymentController {
                     description = "Solicitud inválida - validación fallida",
                     content = @Content
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Idempotency-Key reutilizada con otro pago o primer intento aún en curso",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "El comercio superó su límite de solicitudes - reintentar según Retry-After",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Error interno del servidor",
@@ -53,13 +96,183 @@ public class PaymentController {
             )
     })
     public ResponseEntity<PaymentResponse> processPayment(
+            @Parameter(description = "Clave única del intento de pago, definida por el comercio (máx. 255 caracteres)",
+                    example = "order-20240115-0001")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Parameter(description = "Datos de la solicitud de pago", required = true)
             @Valid @RequestBody PaymentRequest request
     ) {
-        PaymentResponse response = paymentService.processPayment(request);
+        PaymentResponse response = idempotencyKey == null
+                ? paymentService.processPayment(request)
+                : idempotencyService.processPayment(idempotencyKey, request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    /**
+     * Procesa un pago sin retener el hilo del servidor mientras responde el issuer
+     * (async servlet: el request se completa desde el pool de completado)
+     */
+    @PostMapping("/async")
+    @Operation(
+            summary = "Procesar un nuevo pago (asíncrono)",
+            description = "Mismo contrato que POST /payments, pero el hilo del servidor se libera mientras "
+                    + "el issuer autoriza. Permite mantener miles de autorizaciones en vuelo con pocos hilos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Pago procesado exitosamente",
+                    content = @Content(schema = @Schema(implementation = PaymentResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Solicitud inválida, error del issuer o timeout de autorización",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "El comercio superó su límite de solicitudes - reintentar según Retry-After",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Demasiadas autorizaciones en vuelo - reintentar según Retry-After",
+                    content = @Content
+            )
+    })
+    public CompletableFuture<ResponseEntity<PaymentResponse>> processPaymentAsync(
+            @Parameter(description = "Datos de la solicitud de pago", required = true)
+            @Valid @RequestBody PaymentRequest request
+    ) {
+        return paymentService.processPaymentAsync(request)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Procesa un lote de pagos (cargas de fin de turno del acquirer)
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Procesar un lote de pagos",
+            description = "Autoriza concurrentemente una lista de pagos y los persiste con batch inserts. "
+                    + "Cada pago se valida por separado y la respuesta incluye el resultado o error de cada uno"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado; revisar el resultado de cada pago",
+                    content = @Content(schema = @Schema(implementation = BatchPaymentResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vacío o mayor al máximo permitido",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Demasiados lotes en proceso - reintentar según Retry-After",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<BatchPaymentResponse> processBatch(
+            @Parameter(description = "Pagos del lote", required = true)
+            @RequestBody List<PaymentRequest> requests
+    ) {
+        BatchPaymentResponse response = batchPaymentService.processBatch(requests);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Busca transacciones por comercio y/o estado, paginadas por keyset (token after)
+     */
+    @GetMapping
+    @Operation(
+            summary = "Buscar transacciones",
+            description = "Filtra por comercio y/o estado (al menos uno) y rango de fechas [from, to), en orden de "
+                    + "creación. Para la página siguiente se envía el nextCursor recibido en el parámetro after"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de transacciones",
+                    content = @Content(schema = @Schema(implementation = TransactionPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Sin filtros, rango de fechas, limit o cursor inválido",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<TransactionPageResponse> searchTransactions(
+            @Parameter(description = "ID del comercio", example = "MERCHANT_001")
+            @RequestParam(required = false) String merchantId,
+            @Parameter(description = "Estado de la transacción", example = "APPROVED")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Inicio del rango (inclusive)", example = "2025-12-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fin del rango (exclusivo)", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "nextCursor de la página anterior")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Filas por página", example = "50")
+            @RequestParam(required = false) Integer limit
+    ) {
+        TransactionPageResponse response = transactionSearchService.search(merchantId, status, from, to, after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Exporta las transacciones de un comercio para conciliación, como NDJSON en streaming
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Exportar transacciones de un comercio",
+            description = "Escribe una transacción por línea (NDJSON) a medida que se leen de la base de datos, "
+                    + "ordenadas por fecha. Con Accept-Encoding: gzip la respuesta se comprime"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transacciones del rango [from, to), una por línea",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = TransactionExportLine.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Parámetros faltantes o rango de fechas inválido",
+                    content = @Content
+            )
+    })
+    public void exportTransactions(
+            @Parameter(description = "ID del comercio", required = true, example = "MERCHANT_001")
+            @RequestParam @NotBlank(message = "merchantId is required") String merchantId,
+            @Parameter(description = "Inicio del rango (inclusive)", required = true, example = "2025-12-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fin del rango (exclusivo)", required = true, example = "2026-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        // Se valida antes de escribir headers: después la respuesta ya no puede ser un error JSON
+        if (!from.isBefore(to)) {
+            throw new BusinessException("'from' must be before 'to'", "INVALID_DATE_RANGE");
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        try (OutputStream output = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 8192)
+                : response.getOutputStream()) {
+            transactionExportService.exportMerchantTransactions(merchantId, from, to, output);
+        }
+    }
+
     /**
      * Obtiene el estado de una transacción por ID
      */
@@ -92,4 +305,41 @@ public class PaymentController {
         PaymentResponse response = paymentService.getPaymentById(transactionId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * true si Accept-Encoding acepta gzip con q > 0, ya sea por nombre o con * cuando gzip no aparece
+     * (RFC 9110 §12.5.3). Un q-value mal formado cuenta como no aceptado: sin comprimir siempre sirve.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("*")) {
+                wildcardQuality = quality;
+            } else {
+                gzipQuality = quality;
+            }
+        }
+        return (gzipQuality >= 0 ? gzipQuality : wildcardQuality) > 0;
+    }
 }
@@ -0,0 +1,28 @@
+package org.bank.issuingbank.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de un pago dentro de un lote")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchPaymentItemResponse(
+        @Schema(description = "Posición del pago en el lote recibido", example = "0")
+        int index,
+
+        @Schema(description = "Resultado del pago cuando fue procesado")
+        PaymentResponse payment,
+
+        @Schema(description = "Código de error cuando el pago no pudo procesarse", example = "VALIDATION_ERROR")
+        String errorCode,
+
+        @Schema(description = "Detalle del error", example = "amount: Amount must be greater than zero")
+        String errorMessage
+) {
+    public static BatchPaymentItemResponse success(int index, PaymentResponse payment) {
+        return new BatchPaymentItemResponse(index, payment, null, null);
+    }
+
+    public static BatchPaymentItemResponse failure(int index, String errorCode, String errorMessage) {
+        return new BatchPaymentItemResponse(index, null, errorCode, errorMessage);
+    }
+}
@@ -0,0 +1,23 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Respuesta de procesamiento de un lote de pagos")
+public record BatchPaymentResponse(
+        @Schema(description = "Pagos recibidos en el lote", example = "3")
+        int total,
+
+        @Schema(description = "Pagos aprobados", example = "2")
+        int approved,
+
+        @Schema(description = "Pagos declinados", example = "0")
+        int declined,
+
+        @Schema(description = "Pagos que no pudieron procesarse", example = "1")
+        int failed,
+
+        @Schema(description = "Resultado por pago, en el mismo orden del lote")
+        List<BatchPaymentItemResponse> results
+) {}
@@ -0,0 +1,27 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Estado de la lista de bloqueo de tarjetas")
+public record BlocklistStatusResponse(
+        @Schema(description = "La lista se consulta en cada autorización", example = "true")
+        boolean enabled,
+
+        @Schema(description = "Archivo de origen", example = "/etc/issuing-bank/blocklist.txt")
+        String file,
+
+        @Schema(description = "Tarjetas en la versión vigente", example = "25000000")
+        int cards,
+
+        @Schema(description = "Tamaño del filtro de Bloom en bits", example = "268435456")
+        long bloomBits,
+
+        @Schema(description = "Funciones de hash del filtro de Bloom", example = "7")
+        int hashFunctions,
+
+        @Schema(description = "Momento en que se cargó la versión vigente (null si nunca se cargó)")
+        Instant loadedAt
+) {
+}
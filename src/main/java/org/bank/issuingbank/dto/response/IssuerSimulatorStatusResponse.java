@@ -0,0 +1,28 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.bank.issuingbank.service.external.simulator.IssuerBehavior;
+
+import java.util.Set;
+
+@Schema(description = "Estado del issuer simulado")
+public record IssuerSimulatorStatusResponse(
+        @Schema(description = "Comportamiento base")
+        IssuerBehavior baseline,
+
+        @Schema(description = "Comportamiento vigente (el base o el del tramo activo del escenario)")
+        IssuerBehavior current,
+
+        @Schema(description = "Escenario en curso (null si no hay ninguno)", example = "slow-issuer")
+        String activeScenario,
+
+        @Schema(description = "Tramo en curso del escenario, desde 0", example = "0")
+        Integer phase,
+
+        @Schema(description = "Milisegundos restantes del tramo en curso", example = "12500")
+        Long phaseRemainingMillis,
+
+        @Schema(description = "Escenarios configurados que se pueden iniciar por nombre")
+        Set<String> scenarios
+) {
+}
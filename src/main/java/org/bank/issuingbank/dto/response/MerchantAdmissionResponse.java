@@ -0,0 +1,22 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Control de admisión de un comercio")
+public record MerchantAdmissionResponse(
+        @Schema(description = "ID del comercio", example = "MERCHANT_001")
+        String merchantId,
+
+        @Schema(description = "Solicitudes por segundo sostenidas", example = "50.0")
+        double ratePerSecond,
+
+        @Schema(description = "Solicitudes aceptadas de una vez con el bucket lleno", example = "100")
+        int burst,
+
+        @Schema(description = "Tokens disponibles ahora", example = "87")
+        long availableTokens,
+
+        @Schema(description = "Solicitudes rechazadas con 429 desde que el comercio está en memoria", example = "0")
+        long rejected
+) {
+}
@@ -0,0 +1,14 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Estadísticas en vivo de un comercio")
+public record MerchantStatsResponse(
+        @Schema(description = "ID del comercio", example = "MERCHANT_001")
+        String merchantId,
+
+        @Schema(description = "Estadísticas por ventana, de la más corta a la más larga")
+        List<WindowStatsResponse> windows
+) {}
@@ -0,0 +1,31 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.bank.issuingbank.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Línea de la exportación NDJSON de transacciones")
+public record TransactionExportLine(
+        @Schema(description = "ID único de la transacción", example = "123e4567-e89b-12d3-a456-426614174000")
+        String transactionId,
+
+        @Schema(description = "ID del comercio", example = "MERCHANT_001")
+        String merchantId,
+
+        @Schema(description = "Monto exacto de la transacción", example = "50000")
+        BigDecimal amount,
+
+        @Schema(description = "Código de moneda ISO 4217", example = "CLP")
+        String currency,
+
+        @Schema(description = "Estado de la transacción", example = "APPROVED")
+        TransactionStatus status,
+
+        @Schema(description = "Código de respuesta del issuer", example = "00")
+        String responseCode,
+
+        @Schema(description = "Fecha y hora de creación")
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,15 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados de la búsqueda de transacciones")
+public record TransactionPageResponse(
+        @Schema(description = "Transacciones de la página, ordenadas por fecha de creación")
+        List<TransactionExportLine> transactions,
+
+        @Schema(description = "Token para pedir la página siguiente en el parámetro after; null si no hay más",
+                example = "MjAyNS0xMi0wMVQxMDoxNTowMHwxMjNlNDU2Ny1lODliLTEyZDMtYTQ1Ni00MjY2MTQxNzQwMDA")
+        String nextCursor
+) {}
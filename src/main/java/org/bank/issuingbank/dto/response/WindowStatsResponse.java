@@ -0,0 +1,30 @@
+package org.bank.issuingbank.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Schema(description = "Estadísticas de autorización de un comercio en una ventana deslizante")
+public record WindowStatsResponse(
+        @Schema(description = "Ventana: 1m, 5m o 60m", example = "5m")
+        String window,
+
+        @Schema(description = "Autorizaciones completadas en la ventana", example = "1250")
+        long count,
+
+        @Schema(description = "Autorizaciones aprobadas", example = "1180")
+        long approved,
+
+        @Schema(description = "Autorizaciones rechazadas", example = "70")
+        long declined,
+
+        @Schema(description = "Rechazadas sobre el total (0 sin autorizaciones)", example = "0.056")
+        double declineRate,
+
+        @Schema(description = "Monto aprobado por moneda ISO 4217", example = "{\"CLP\": 62500000}")
+        Map<String, BigDecimal> approvedVolume,
+
+        @Schema(description = "Autorizaciones por código de respuesta", example = "{\"00\": 1180, \"51\": 70}")
+        Map<String, Long> responseCodes
+) {}
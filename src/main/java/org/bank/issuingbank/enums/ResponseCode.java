@@ -0,0 +1,91 @@
+package org.bank.issuingbank.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Códigos de respuesta del issuer. La API expone el código tal cual lo envía el issuer
+ * ("00", "51"...) y la columna response_code guarda el id (SMALLINT): el valor numérico
+ * para los códigos ISO 8583 y 1000+ para los códigos propios del issuer simulado.
+ * Un código que el issuer envía y no está aquí se guarda como {@link #UNMAPPED}: la decisión
+ * del issuer (aprobada o rechazada) ya está tomada y no se puede perder por el código. El texto
+ * original queda en Transaction.rawResponseCode y la API lo devuelve sin cambios.
+ */
+public enum ResponseCode {
+
+    APPROVED("00", 0),
+    REFER_TO_ISSUER("01", 1),
+    INVALID_MERCHANT("03", 3),
+    PICK_UP_CARD("04", 4),
+    DO_NOT_HONOR("05", 5),
+    INVALID_TRANSACTION("12", 12),
+    INVALID_AMOUNT("13", 13),
+    INVALID_CARD_NUMBER("14", 14),
+    FORMAT_ERROR("30", 30),
+    LOST_CARD("41", 41),
+    STOLEN_CARD("43", 43),
+    INSUFFICIENT_FUNDS("51", 51),
+    EXPIRED_CARD("54", 54),
+    INCORRECT_PIN("55", 55),
+    TRANSACTION_NOT_PERMITTED_TO_CARDHOLDER("57", 57),
+    TRANSACTION_NOT_PERMITTED_TO_TERMINAL("58", 58),
+    EXCEEDS_AMOUNT_LIMIT("61", 61),
+    RESTRICTED_CARD("62", 62),
+    EXCEEDS_FREQUENCY_LIMIT("65", 65),
+    PIN_TRIES_EXCEEDED("75", 75),
+    ISSUER_UNAVAILABLE("91", 91),
+    SYSTEM_MALFUNCTION("96", 96),
+
+    UNMAPPED("UNMAPPED", 1000),
+    CARD_BLOCKED("CARD_BLOCKED", 1001),
+    INVALID_CARD("INVALID_CARD", 1002),
+    LIMIT_EXCEEDED("LIMIT_EXCEEDED", 1003);
+
+    private static final Map<String, ResponseCode> BY_CODE = new HashMap<>();
+    private static final ResponseCode[] BY_ID = new ResponseCode[1004];
+
+    static {
+        for (ResponseCode responseCode : values()) {
+            BY_CODE.put(responseCode.code, responseCode);
+            BY_ID[responseCode.id] = responseCode;
+        }
+    }
+
+    private final String code;
+    private final short id;
+
+    ResponseCode(String code, int id) {
+        this.code = code;
+        this.id = (short) id;
+    }
+
+    /**
+     * Código tal como lo envía el issuer y lo expone la API
+     */
+    public String code() {
+        return code;
+    }
+
+    /**
+     * Valor almacenado en la columna response_code
+     */
+    public short id() {
+        return id;
+    }
+
+    /**
+     * Código del issuer, o {@link #UNMAPPED} si no es uno de los conocidos
+     */
+    public static ResponseCode fromCode(String code) {
+        ResponseCode responseCode = code == null ? null : BY_CODE.get(code);
+        return responseCode == null ? UNMAPPED : responseCode;
+    }
+
+    public static ResponseCode fromId(int id) {
+        ResponseCode responseCode = id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+        if (responseCode == null) {
+            throw new IllegalArgumentException("Unknown response code id: " + id);
+        }
+        return responseCode;
+    }
+}
@@ -1,18 +1,21 @@
 package org.bank.issuingbank.exception;
 
-
-
+/**
+ * Error de negocio que se responde al cliente como 400 con errorCode. Sin stack trace: es un
+ * resultado esperado (dato inválido, límite alcanzado), no un bug, y capturar la pila en cada
+ * rechazo es la mayor parte de su costo bajo carga.
+ */
 public class BusinessException extends RuntimeException {
 
     private final String errorCode;
 
     public BusinessException(String message) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = "BUSINESS_ERROR";
     }
 
     public BusinessException(String message, String errorCode) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = errorCode;
     }
 
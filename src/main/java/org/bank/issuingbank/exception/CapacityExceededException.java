@@ -0,0 +1,21 @@
+package org.bank.issuingbank.exception;
+
+import java.time.Duration;
+
+/**
+ * Se lanza cuando la instancia no tiene capacidad para aceptar más trabajo
+ * y el cliente debe reintentar más tarde (HTTP 503 + Retry-After)
+ */
+public class CapacityExceededException extends BusinessException {
+
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, String errorCode, Duration retryAfter) {
+        super(message, errorCode);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -4,12 +4,15 @@ import org.bank.issuingbank.dto.response.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -41,6 +44,56 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja conflictos de Idempotency-Key
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(
+            IdempotencyConflictException ex,
+            WebRequest request) {
+
+        String correlationId = MDC.get("correlationId");
+        String path = request.getDescription(false).replace("uri=", "");
+
+        log.warn("Idempotency conflict - correlationId: {}, path: {}, errorCode: {}, message: {}",
+                correlationId, path, ex.getErrorCode(), ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getErrorCode(),
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja rechazos por falta de capacidad (backpressure)
+     */
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleCapacityExceededException(
+            CapacityExceededException ex,
+            WebRequest request) {
+
+        String correlationId = MDC.get("correlationId");
+        String path = request.getDescription(false).replace("uri=", "");
+
+        log.warn("Capacity exceeded - correlationId: {}, path: {}, errorCode: {}, message: {}",
+                correlationId, path, ex.getErrorCode(), ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getErrorCode(),
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                path
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
     /**
      * Maneja errores de validación de entrada
      */
@@ -73,6 +126,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja parámetros de query faltantes o con formato inválido (fechas, estados)
+     */
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleRequestParameterException(
+            Exception ex,
+            WebRequest request) {
+
+        String correlationId = MDC.get("correlationId");
+        String path = request.getDescription(false).replace("uri=", "");
+
+        String message = ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? mismatch.getName() + ": invalid value '" + mismatch.getValue() + "'"
+                : ex.getMessage();
+
+        log.warn("Invalid request parameter - correlationId: {}, path: {}, error: {}",
+                correlationId, path, message);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "VALIDATION_ERROR",
+                message,
+                HttpStatus.BAD_REQUEST.value(),
+                path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Maneja excepciones generales no capturadas
      */
@@ -0,0 +1,12 @@
+package org.bank.issuingbank.exception;
+
+/**
+ * Se lanza cuando una Idempotency-Key no puede resolverse: se reutilizó con otra solicitud
+ * o el primer intento sigue en curso (HTTP 409)
+ */
+public class IdempotencyConflictException extends BusinessException {
+
+    public IdempotencyConflictException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
@@ -0,0 +1,48 @@
+package org.bank.issuingbank.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Adaptador de {@link IdGenerator} para Hibernate ({@link GeneratedId}). Usa el generador
+ * que IdGeneratorConfig deja en la configuración de Hibernate, de modo que JPA, los
+ * inserts JDBC y el correlationId comparten la misma estrategia; sin él, UUID v7.
+ * Respeta el ID ya asignado (lo asigna el journal antes de guardar).
+ */
+public class HibernateIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String ID_GENERATOR_SETTING = "org.bank.issuingbank.id-generator";
+
+    private final transient IdGenerator idGenerator;
+
+    public HibernateIdGenerator(GeneratedId config, Member member, GeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(ID_GENERATOR_SETTING);
+        this.idGenerator = configured instanceof IdGenerator generator ? generator : new TimeOrderedIdGenerator();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : idGenerator.nextId();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
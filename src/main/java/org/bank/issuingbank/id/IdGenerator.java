@@ -0,0 +1,13 @@
+package org.bank.issuingbank.id;
+
+/**
+ * Generador de IDs de transacciones y de correlationId. La implementación se elige con
+ * payments.ids.strategy (ver IdGeneratorConfig).
+ */
+public interface IdGenerator {
+
+    /**
+     * Nuevo ID único, en formato UUID canónico (36 caracteres)
+     */
+    String nextId();
+}
@@ -0,0 +1,15 @@
+package org.bank.issuingbank.id;
+
+import java.util.UUID;
+
+/**
+ * UUID v4 aleatorio (UUID.randomUUID): el comportamiento anterior. Cada ID consume
+ * SecureRandom y las inserciones caen en cualquier punto del índice de la clave primaria.
+ */
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,44 @@
+package org.bank.issuingbank.idempotency;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash de 128 bits (SHA-256 truncado) de merchantId + Idempotency-Key.
+ * Es la clave del store: fija en tamaño y sin guardar el texto original.
+ * Nunca vale (0, 0), que el store reserva para slots vacíos.
+ */
+public record IdempotencyKeyHash(long high, long low) {
+
+    private static final char SEPARATOR = '\u001F';
+
+    public static IdempotencyKeyHash of(String merchantId, String idempotencyKey) {
+        ByteBuffer digest = ByteBuffer.wrap(sha256(merchantId + SEPARATOR + idempotencyKey));
+        long high = digest.getLong();
+        long low = digest.getLong();
+        return new IdempotencyKeyHash(high, high == 0 && low == 0 ? 1 : low);
+    }
+
+    /**
+     * Huella de 64 bits de los campos de la solicitud, para detectar una misma clave
+     * reutilizada con un pago distinto
+     */
+    public static long fingerprint(String... fields) {
+        return ByteBuffer.wrap(sha256(String.join(String.valueOf(SEPARATOR), fields))).getLong();
+    }
+
+    public String toHex() {
+        return HexFormat.of().toHexDigits(high) + HexFormat.of().toHexDigits(low);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.bank.issuingbank.idempotency;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Store de claves de idempotencia fuera del heap: tablas hash de direccionamiento abierto
+ * (linear probing) sobre ByteBuffers directos, divididas en stripes con su propio lock.
+ * <p>
+ * Cada slot ocupa {@value #SLOT_BYTES} bytes: hash de la clave (128 bits), ID de la transacción
+ * (UUID, 128 bits), huella de la solicitud y expiración. Decenas de millones de claves no generan
+ * objetos en el heap ni trabajo para el GC.
+ * <p>
+ * Cada stripe empieza con {@value #INITIAL_SLOTS} slots y duplica su tabla hasta su parte de la
+ * capacidad, así la memoria directa crece con las claves vigentes y no se reserva entera al arrancar.
+ * Al superar el factor de carga la stripe borra sus claves expiradas en el mismo buffer (desplazando
+ * hacia atrás las siguientes de cada cadena, sin tombstones), solo si alguna ya expiró y a lo sumo
+ * una vez cada {@value #MIN_PURGE_INTERVAL_MS} ms. Si aun así está llena, {@link #reserve} devuelve
+ * false y el llamante debe rechazar el pago en vez de procesarlo sin deduplicar.
+ * Usa ReentrantLock y no synchronized para no fijar virtual threads.
+ */
+public class OffHeapIdempotencyStore {
+
+    static final int SLOT_BYTES = 48;
+    static final int INITIAL_SLOTS = 1024;
+    static final long MIN_PURGE_INTERVAL_MS = 1000;
+
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 8;
+    private static final int TRANSACTION_HIGH = 16;
+    private static final int TRANSACTION_LOW = 24;
+    private static final int REQUEST_HASH = 32;
+    private static final int EXPIRES_AT = 40;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param capacity máximo de slots (se redondea a potencia de 2 por stripe)
+     * @param stripes  número de stripes (potencia de 2); más stripes, menos contención
+     */
+    public OffHeapIdempotencyStore(long capacity, int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        long requestedPerStripe = Math.max(16, (capacity + stripes - 1) / stripes);
+        long slotsPerStripe = Long.highestOneBit(requestedPerStripe - 1) << 1;
+        if (slotsPerStripe * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity too large for " + stripes + " stripes: " + capacity);
+        }
+
+        this.stripes = new Stripe[stripes];
+        this.stripeMask = stripes - 1;
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe((int) slotsPerStripe);
+        }
+    }
+
+    /**
+     * Entrada vigente y completada para la clave, si existe. Las reservadas con {@link #reserve}
+     * no se devuelven: su primer intento sigue en curso.
+     */
+    public Optional<Entry> find(IdempotencyKeyHash key, long nowMillis) {
+        return stripeFor(key).find(key, nowMillis);
+    }
+
+    /**
+     * Reserva el slot de la clave antes de procesar el pago, sin transacción todavía.
+     *
+     * @return false si la stripe está llena de entradas vigentes
+     */
+    public boolean reserve(IdempotencyKeyHash key, long requestHash, long expiresAtMillis, long nowMillis) {
+        return stripeFor(key).put(key, 0, 0, requestHash, expiresAtMillis, nowMillis);
+    }
+
+    /**
+     * Guarda (o reemplaza) la entrada de la clave. Sobre una clave reservada nunca falla.
+     *
+     * @return false si la stripe está llena de entradas vigentes
+     */
+    public boolean put(IdempotencyKeyHash key, UUID transactionId, long requestHash, long expiresAtMillis, long nowMillis) {
+        return stripeFor(key).put(key, transactionId.getMostSignificantBits(), transactionId.getLeastSignificantBits(),
+                requestHash, expiresAtMillis, nowMillis);
+    }
+
+    /**
+     * Borra la entrada de la clave (la reserva de un intento que falló)
+     */
+    public void remove(IdempotencyKeyHash key) {
+        stripeFor(key).remove(key);
+    }
+
+    /**
+     * Slots ocupados (incluye expirados aún no borrados)
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.used();
+        }
+        return size;
+    }
+
+    /**
+     * Máximo de slots
+     */
+    public long capacity() {
+        return (long) stripes.length * stripes[0].maxCapacity;
+    }
+
+    /**
+     * Memoria directa reservada por las tablas actuales
+     */
+    public long memoryBytes() {
+        long slots = 0;
+        for (Stripe stripe : stripes) {
+            slots += stripe.capacity();
+        }
+        return slots * SLOT_BYTES;
+    }
+
+    private Stripe stripeFor(IdempotencyKeyHash key) {
+        return stripes[(int) (key.high() >>> 32) & stripeMask];
+    }
+
+    public record Entry(UUID transactionId, long requestHash) {
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxCapacity;
+        private int capacity;
+        private int mask;
+        private int maxUsed;
+        private ByteBuffer slots;
+        private int used;
+        // Expiración más próxima entre las entradas vivas desde el último borrado
+        private long earliestExpiresAt = Long.MAX_VALUE;
+        private long purgeAllowedAt = Long.MIN_VALUE;
+
+        Stripe(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+            resize(Math.min(maxCapacity, INITIAL_SLOTS));
+        }
+
+        Optional<Entry> find(IdempotencyKeyHash key, long nowMillis) {
+            lock.lock();
+            try {
+                int slot = indexOf(key);
+                if (slot < 0 || expiresAt(slots, slot) <= nowMillis || isReserved(slot)) {
+                    return Optional.empty();
+                }
+                int base = slot * SLOT_BYTES;
+                UUID transactionId = new UUID(slots.getLong(base + TRANSACTION_HIGH), slots.getLong(base + TRANSACTION_LOW));
+                return Optional.of(new Entry(transactionId, slots.getLong(base + REQUEST_HASH)));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean put(IdempotencyKeyHash key, long transactionHigh, long transactionLow, long requestHash,
+                    long expiresAtMillis, long nowMillis) {
+            lock.lock();
+            try {
+                int slot = indexOf(key);
+                if (slot < 0) {
+                    if (used >= maxUsed) {
+                        makeRoom(nowMillis);
+                        if (used >= maxUsed) {
+                            return false;
+                        }
+                    }
+                    // Un expirado en la cadena sirve para la clave: ya se comprobó que no existe
+                    slot = (int) key.low() & mask;
+                    while (!isEmpty(slots, slot) && expiresAt(slots, slot) > nowMillis) {
+                        slot = (slot + 1) & mask;
+                    }
+                    if (isEmpty(slots, slot)) {
+                        used++;
+                    }
+                }
+                write(slots, slot, key.high(), key.low(), transactionHigh, transactionLow, requestHash, expiresAtMillis);
+                earliestExpiresAt = Math.min(earliestExpiresAt, expiresAtMillis);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(IdempotencyKeyHash key) {
+            lock.lock();
+            try {
+                int slot = indexOf(key);
+                if (slot >= 0) {
+                    delete(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int used() {
+            lock.lock();
+            try {
+                return used;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int capacity() {
+            lock.lock();
+            try {
+                return capacity;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Borra las expiradas si alguna pudo expirar, y duplica la tabla si sigue más de media llena
+         */
+        private void makeRoom(long nowMillis) {
+            if (nowMillis >= earliestExpiresAt && nowMillis >= purgeAllowedAt) {
+                purge(nowMillis);
+            }
+            if (used >= maxUsed / 2 && capacity < maxCapacity) {
+                grow(nowMillis);
+            }
+        }
+
+        private void purge(long nowMillis) {
+            long earliest = Long.MAX_VALUE;
+            for (int slot = 0; slot < capacity; slot++) {
+                // El borrado puede traer otra entrada a este slot: se vuelve a revisar
+                while (!isEmpty(slots, slot) && expiresAt(slots, slot) <= nowMillis) {
+                    delete(slot);
+                }
+                if (!isEmpty(slots, slot)) {
+                    earliest = Math.min(earliest, expiresAt(slots, slot));
+                }
+            }
+            earliestExpiresAt = earliest;
+            purgeAllowedAt = nowMillis + MIN_PURGE_INTERVAL_MS;
+        }
+
+        /**
+         * Reinserta las entradas vigentes en una tabla del doble de slots
+         */
+        private void grow(long nowMillis) {
+            ByteBuffer previous = slots;
+            int previousCapacity = capacity;
+            resize(Math.min(maxCapacity, capacity << 1));
+            long earliest = Long.MAX_VALUE;
+            for (int slot = 0; slot < previousCapacity; slot++) {
+                if (isEmpty(previous, slot) || expiresAt(previous, slot) <= nowMillis) {
+                    continue;
+                }
+                int base = slot * SLOT_BYTES;
+                long keyLow = previous.getLong(base + KEY_LOW);
+                int target = (int) keyLow & mask;
+                while (!isEmpty(slots, target)) {
+                    target = (target + 1) & mask;
+                }
+                write(slots, target, previous.getLong(base + KEY_HIGH), keyLow,
+                        previous.getLong(base + TRANSACTION_HIGH), previous.getLong(base + TRANSACTION_LOW),
+                        previous.getLong(base + REQUEST_HASH), expiresAt(previous, slot));
+                earliest = Math.min(earliest, expiresAt(previous, slot));
+                used++;
+            }
+            earliestExpiresAt = earliest;
+        }
+
+        private void resize(int newCapacity) {
+            capacity = newCapacity;
+            mask = newCapacity - 1;
+            maxUsed = (int) (newCapacity * MAX_LOAD_FACTOR);
+            slots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+            used = 0;
+        }
+
+        /**
+         * Vacía el slot desplazando hacia atrás las entradas siguientes de la cadena que ya no
+         * serían alcanzables desde su posición de inicio
+         */
+        private void delete(int hole) {
+            for (int position = (hole + 1) & mask; !isEmpty(slots, position); position = (position + 1) & mask) {
+                int entryHome = (int) slots.getLong(position * SLOT_BYTES + KEY_LOW) & mask;
+                // La entrada puede ocupar el hueco si su inicio no está en (hole, position]
+                boolean reachable = hole <= position
+                        ? entryHome > hole && entryHome <= position
+                        : entryHome > hole || entryHome <= position;
+                if (!reachable) {
+                    slots.put(hole * SLOT_BYTES, slots, position * SLOT_BYTES, SLOT_BYTES);
+                    hole = position;
+                }
+            }
+            write(slots, hole, 0, 0, 0, 0, 0, 0);
+            used--;
+        }
+
+        private int indexOf(IdempotencyKeyHash key) {
+            int start = (int) key.low() & mask;
+            for (int i = 0; i < capacity; i++) {
+                int slot = (start + i) & mask;
+                if (isEmpty(slots, slot)) {
+                    return -1;
+                }
+                if (matches(slots, slot, key)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isReserved(int slot) {
+            int base = slot * SLOT_BYTES;
+            return slots.getLong(base + TRANSACTION_HIGH) == 0 && slots.getLong(base + TRANSACTION_LOW) == 0;
+        }
+
+        private static boolean isEmpty(ByteBuffer buffer, int slot) {
+            int base = slot * SLOT_BYTES;
+            return buffer.getLong(base + KEY_HIGH) == 0 && buffer.getLong(base + KEY_LOW) == 0;
+        }
+
+        private static boolean matches(ByteBuffer buffer, int slot, IdempotencyKeyHash key) {
+            int base = slot * SLOT_BYTES;
+            return buffer.getLong(base + KEY_HIGH) == key.high() && buffer.getLong(base + KEY_LOW) == key.low();
+        }
+
+        private static long expiresAt(ByteBuffer buffer, int slot) {
+            return buffer.getLong(slot * SLOT_BYTES + EXPIRES_AT);
+        }
+
+        private static void write(ByteBuffer buffer, int slot, long keyHigh, long keyLow, long transactionHigh,
+                                  long transactionLow, long requestHash, long expiresAtMillis) {
+            int base = slot * SLOT_BYTES;
+            buffer.putLong(base + KEY_HIGH, keyHigh);
+            buffer.putLong(base + KEY_LOW, keyLow);
+            buffer.putLong(base + TRANSACTION_HIGH, transactionHigh);
+            buffer.putLong(base + TRANSACTION_LOW, transactionLow);
+            buffer.putLong(base + REQUEST_HASH, requestHash);
+            buffer.putLong(base + EXPIRES_AT, expiresAtMillis);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.bank.issuingbank.journal;
+
+/**
+ * Cuándo se fuerzan a disco (msync) los registros del journal. Un registro escrito en el archivo
+ * mapeado ya está en el page cache: sobrevive a la caída del proceso con cualquier política;
+ * la política decide qué se pierde si se cae la máquina.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Antes de responder cada pago. Los pagos concurrentes comparten el msync (group commit)
+     */
+    ALWAYS,
+
+    /**
+     * Cada payments.journal.fsync-interval en segundo plano: ante una caída de la máquina se
+     * pierde a lo sumo ese intervalo
+     */
+    INTERVAL,
+
+    /**
+     * Solo al cambiar de segmento y al detener la aplicación; el resto lo escribe el sistema operativo
+     */
+    NEVER
+}
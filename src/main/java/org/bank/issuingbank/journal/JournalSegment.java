@@ -0,0 +1,227 @@
+package org.bank.issuingbank.journal;
+
+import org.bank.issuingbank.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Un archivo del journal, mapeado en memoria completo: escribir un registro es copiar unos
+ * bytes al page cache, sin syscalls. El archivo se crea con su tamaño final y los bytes sin
+ * escribir quedan en 0, que marca el fin de los registros.
+ * <p>
+ * Cabecera de {@value #HEADER_BYTES} bytes (magic, versión y secuencia) seguida de los
+ * registros de {@link TransactionRecord}. Las escrituras las serializa TransactionJournal;
+ * los forzados a disco, también (con otro lock).
+ */
+final class JournalSegment {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalSegment.class);
+
+    static final int HEADER_BYTES = 16;
+    static final String FILE_SUFFIX = ".journal";
+    static final String CORRUPT_SUFFIX = ".corrupt";
+
+    // "IBJ1"
+    private static final int MAGIC = 0x49424A31;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer crcView;
+    private final CRC32C crc = new CRC32C();
+    // Registros escritos y aún no persistidos en la base de datos
+    private final AtomicInteger unpersisted = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private volatile int writePosition = HEADER_BYTES;
+    private volatile int syncedPosition;
+    private volatile boolean sealed;
+    // Hasta dónde llegó forEach (-1: no se leyó o no tiene cabecera válida)
+    private int readPosition = -1;
+
+    private JournalSegment(Path file, long sequence, MappedByteBuffer buffer) {
+        this.file = file;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.crcView = buffer.duplicate();
+    }
+
+    /**
+     * Crea el segmento sequence en directory, con size bytes
+     */
+    static JournalSegment create(Path directory, long sequence, int size) throws IOException {
+        Path file = directory.resolve(fileName(sequence));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El mapeo extiende el archivo a size y sigue vigente después de cerrar el canal
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, sequence);
+        buffer.force(0, HEADER_BYTES);
+
+        JournalSegment segment = new JournalSegment(file, sequence, buffer);
+        segment.syncedPosition = HEADER_BYTES;
+        return segment;
+    }
+
+    /**
+     * Abre un segmento existente para leerlo
+     */
+    static JournalSegment open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        long sequence = buffer.limit() >= HEADER_BYTES && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                ? buffer.getLong(8) : -1;
+        return new JournalSegment(file, sequence, buffer);
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%020d", sequence) + FILE_SUFFIX;
+    }
+
+    /**
+     * Secuencia según el nombre del archivo (también de los .corrupt), o -1 si no sigue el formato
+     */
+    static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        int digits = name.indexOf('.');
+        try {
+            return digits > 0 ? Long.parseLong(name.substring(0, digits)) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Escribe el registro al final del segmento
+     *
+     * @return false si no cabe
+     */
+    boolean append(UUID id, Transaction transaction, byte[] merchantId) {
+        int position = writePosition;
+        int size = TransactionRecord.size(merchantId, transaction);
+        if (size > buffer.limit() - position) {
+            return false;
+        }
+        TransactionRecord.write(buffer, crcView, crc, position, id, transaction, merchantId);
+        unpersisted.incrementAndGet();
+        writePosition = position + size;
+        return true;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    int syncedPosition() {
+        return syncedPosition;
+    }
+
+    /**
+     * msync de lo escrito desde el último forzado; lo que ya estaba en disco no se vuelve a escribir
+     */
+    void force() {
+        int synced = syncedPosition;
+        int target = writePosition;
+        if (target > synced) {
+            buffer.force(synced, target - synced);
+            syncedPosition = target;
+        }
+    }
+
+    /**
+     * Entrega los registros válidos en orden y se detiene en el primero vacío, incompleto o
+     * con CRC distinto (la cola de una escritura interrumpida)
+     *
+     * @return registros entregados
+     */
+    int forEach(Consumer<Transaction> consumer) {
+        if (sequence < 0) {
+            log.warn("Journal segment {} has no valid header - skipping it", file);
+            return 0;
+        }
+        int records = 0;
+        int position = HEADER_BYTES;
+        int size;
+        while ((size = TransactionRecord.validSize(buffer, crcView, crc, position)) > 0) {
+            consumer.accept(TransactionRecord.read(buffer, position));
+            position += size;
+            records++;
+        }
+        readPosition = position;
+        if (!fullyRead()) {
+            log.warn("Journal segment {} ends with an incomplete record at offset {} - ignoring the rest",
+                    file, position);
+        }
+        return records;
+    }
+
+    /**
+     * true si forEach entregó todo el segmento: tiene cabecera válida y después del último registro
+     * solo quedan ceros. Si no, hay bytes que no se pudieron leer y el archivo no se debe borrar.
+     */
+    boolean fullyRead() {
+        return readPosition >= 0
+                && (buffer.limit() - readPosition < Integer.BYTES || buffer.getInt(readPosition) == 0);
+    }
+
+    /**
+     * Un registro del segmento llegó a la base de datos
+     *
+     * @return true si el segmento ya está cerrado y no le quedan registros sin persistir
+     */
+    boolean persisted() {
+        return unpersisted.decrementAndGet() == 0 && sealed;
+    }
+
+    /**
+     * Cierra el segmento para escritura
+     *
+     * @return true si no le quedan registros sin persistir
+     */
+    boolean seal() {
+        sealed = true;
+        return unpersisted.get() == 0;
+    }
+
+    /**
+     * Borra el archivo una sola vez, aunque lo pidan varios hilos a la vez. El mapeo se libera
+     * cuando el GC recolecta el buffer.
+     *
+     * @return true si este llamado lo borró
+     */
+    boolean release() throws IOException {
+        if (!released.compareAndSet(false, true)) {
+            return false;
+        }
+        Files.deleteIfExists(file);
+        return true;
+    }
+}
@@ -0,0 +1,430 @@
+package org.bank.issuingbank.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bank.issuingbank.config.JournalProperties;
+import org.bank.issuingbank.id.IdGenerator;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Journal write-ahead de autorizaciones: cada transacción completada se escribe en un archivo
+ * mapeado en memoria antes de responder, así que el resultado sobrevive a una caída aunque la
+ * base de datos (o la cola de write-behind) no lo haya recibido. Al arrancar, los registros que
+ * no están en la base de datos se insertan antes de que el servidor web acepte requests.
+ * <p>
+ * Escribir es copiar ~60 bytes al page cache bajo un lock; según {@link FsyncPolicy}, el pago
+ * espera además el msync, compartido entre los pagos concurrentes (group commit). Los segmentos
+ * se borran cuando todas sus transacciones llegaron a la base de datos: {@link #append} entrega
+ * un ticket y quien persiste la transacción lo devuelve con {@link #persisted}.
+ * Usa ReentrantLock y no synchronized para no fijar virtual threads.
+ */
+@Component
+public class TransactionJournal implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionJournal.class);
+
+    /**
+     * Ticket de una transacción que no está en el journal (journal deshabilitado)
+     */
+    public static final long NO_TICKET = 0;
+
+    private static final int MIN_SEGMENT_BYTES = 1 << 20;
+    private static final int REPLAY_CHUNK_SIZE = 500;
+
+    private final JournalProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final IdGenerator idGenerator;
+    private final Path directory;
+    private final int segmentBytes;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Segmentos con transacciones sin persistir, por secuencia (el ticket)
+    private final Map<Long, JournalSegment> segments = new ConcurrentHashMap<>();
+
+    private final Timer fsyncTimer;
+    private final Counter appendedCounter;
+    private final Counter replayedCounter;
+    private final Counter corruptCounter;
+    private final Counter persistFailedCounter;
+
+    private volatile JournalSegment active;
+    private volatile boolean running;
+    private Thread fsyncThread;
+
+    public TransactionJournal(JournalProperties properties,
+                              TransactionRepository transactionRepository,
+                              TransactionJdbcRepository transactionJdbcRepository,
+                              IdGenerator idGenerator,
+                              MeterRegistry meterRegistry) {
+        long segmentSize = properties.segmentSize().toBytes();
+        if (segmentSize < MIN_SEGMENT_BYTES || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "payments.journal.segment-size must be between 1MB and 2GB: " + properties.segmentSize());
+        }
+        this.properties = properties;
+        this.transactionRepository = transactionRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.idGenerator = idGenerator;
+        this.directory = Path.of(properties.directory());
+        this.segmentBytes = (int) segmentSize;
+
+        Gauge.builder("payments.journal.segments", segments, Map::size)
+                .description("Segmentos del journal con transacciones aún no persistidas")
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("payments.journal.fsync")
+                .description("Duración de cada msync del journal")
+                .register(meterRegistry);
+        this.appendedCounter = Counter.builder("payments.journal.appended")
+                .description("Transacciones escritas en el journal")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("payments.journal.replayed")
+                .description("Transacciones del journal insertadas al arrancar porque faltaban en la base de datos")
+                .register(meterRegistry);
+        this.persistFailedCounter = Counter.builder("payments.journal.persist.failed")
+                .description("Transacciones del journal que no se pudieron guardar; se restauran al reiniciar")
+                .register(meterRegistry);
+        this.corruptCounter = Counter.builder("payments.journal.corrupt")
+                .description("Segmentos del journal que no se pudieron leer completos y se apartaron como .corrupt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Escribe la transacción completada en el journal, asignándole su ID si aún no lo tiene.
+     * Con FsyncPolicy.ALWAYS retorna cuando el registro está en disco.
+     *
+     * @return ticket para {@link #persisted} una vez que la transacción esté en la base de datos,
+     * o {@link #NO_TICKET} si el journal no está activo
+     * @throws UncheckedIOException si no se puede abrir un segmento nuevo
+     */
+    public long append(Transaction transaction) {
+        if (!running) {
+            return NO_TICKET;
+        }
+        if (transaction.getId() == null) {
+            transaction.setId(idGenerator.nextId());
+        }
+        UUID id = UUID.fromString(transaction.getId());
+        byte[] merchantId = TransactionRecord.encodeMerchantId(transaction.getMerchantId());
+
+        JournalSegment segment;
+        int end;
+        appendLock.lock();
+        try {
+            // stop() cierra el segmento activo con este lock
+            if (!running) {
+                return NO_TICKET;
+            }
+            segment = active;
+            if (!segment.append(id, transaction, merchantId)) {
+                segment = roll();
+                segment.append(id, transaction, merchantId);
+            }
+            end = segment.writePosition();
+        } finally {
+            appendLock.unlock();
+        }
+        appendedCounter.increment();
+
+        if (properties.fsync() == FsyncPolicy.ALWAYS) {
+            sync(segment, end);
+        }
+        return segment.sequence();
+    }
+
+    /**
+     * La transacción del ticket ya está en la base de datos. Borra su segmento si era la última pendiente.
+     */
+    public void persisted(long ticket) {
+        if (ticket == NO_TICKET) {
+            return;
+        }
+        JournalSegment segment = segments.get(ticket);
+        if (segment != null && segment.persisted()) {
+            release(segment);
+        }
+    }
+
+    /**
+     * La transacción del ticket no se pudo guardar en la base de datos. Su registro sigue en el
+     * journal (el issuer ya decidió, así que no se descarta) y se inserta al reiniciar; mientras
+     * tanto su segmento no se borra. Solo deja constancia con un log y una métrica.
+     */
+    public void persistFailed(long ticket, Transaction transaction, RuntimeException error) {
+        if (ticket == NO_TICKET) {
+            return;
+        }
+        persistFailedCounter.increment();
+        log.error("Journaled transaction could not be saved, it will be restored on restart - transactionId: {}, "
+                        + "status: {}, segment: {}, error: {}",
+                transaction.getId(), transaction.getStatus(), ticket, error.getMessage());
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            long lastSequence = replay();
+            active = JournalSegment.create(directory, lastSequence + 1, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction journal in " + directory.toAbsolutePath(), e);
+        }
+        segments.put(active.sequence(), active);
+        running = true;
+
+        if (properties.fsync() == FsyncPolicy.INTERVAL) {
+            fsyncThread = new Thread(this::fsyncLoop, "journal-fsync");
+            fsyncThread.setDaemon(true);
+            fsyncThread.start();
+        }
+        log.info("Transaction journal started - directory: {}, segmentSize: {}, fsync: {}",
+                directory.toAbsolutePath(), properties.segmentSize(), properties.fsync());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (fsyncThread != null) {
+            fsyncThread.interrupt();
+            try {
+                fsyncThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        appendLock.lock();
+        try {
+            JournalSegment last = active;
+            forceLocked(last);
+            if (last.seal()) {
+                release(last);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        log.info("Transaction journal stopped - {} segments with unpersisted transactions kept for replay",
+                segments.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Arranca antes que el write-behind (y que el servidor web) y se detiene después: el flush
+     * final del write-behind todavía devuelve tickets
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    /**
+     * Cierra el segmento activo (forzado a disco completo) y abre el siguiente. Se llama con appendLock.
+     */
+    private JournalSegment roll() {
+        JournalSegment sealed = active;
+        JournalSegment next;
+        try {
+            next = JournalSegment.create(directory, sealed.sequence() + 1, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal segment " + (sealed.sequence() + 1), e);
+        }
+        segments.put(next.sequence(), next);
+        active = next;
+
+        forceLocked(sealed);
+        if (sealed.seal()) {
+            release(sealed);
+        }
+        log.debug("Journal segment rolled - sealed: {}, active: {}", sealed.sequence(), next.sequence());
+        return next;
+    }
+
+    /**
+     * Espera a que el registro que termina en end esté en disco. Si otro hilo ya lo forzó mientras
+     * se esperaba el lock, no hace nada: un msync cubre a todos los pagos escritos antes de él.
+     */
+    private void sync(JournalSegment segment, int end) {
+        if (segment.syncedPosition() >= end) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (segment.syncedPosition() < end) {
+                force(segment);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void forceLocked(JournalSegment segment) {
+        syncLock.lock();
+        try {
+            force(segment);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void force(JournalSegment segment) {
+        long start = System.nanoTime();
+        segment.force();
+        fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void fsyncLoop() {
+        long intervalNanos = properties.fsyncInterval().toNanos();
+        while (running) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            } catch (InterruptedException e) {
+                return;
+            }
+            JournalSegment segment = active;
+            if (segment.syncedPosition() < segment.writePosition()) {
+                forceLocked(segment);
+            }
+        }
+    }
+
+    private void release(JournalSegment segment) {
+        try {
+            if (segment.release()) {
+                segments.remove(segment.sequence());
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete journal segment {} - error: {}", segment.file(), e.getMessage());
+        }
+    }
+
+    /**
+     * Inserta en la base de datos los registros de los segmentos existentes que aún no están ahí.
+     * Borra los segmentos leídos completos; los que no se pudieron abrir o tienen bytes ilegibles
+     * (cabecera inválida, registro incompleto o con CRC distinto) se renombran a .corrupt para
+     * revisarlos a mano, después de restaurar los registros válidos que sí tenían.
+     *
+     * @return la secuencia más alta encontrada (también entre los .corrupt), o 0 si no había segmentos
+     */
+    private long replay() throws IOException {
+        List<Path> files;
+        long lastSequence = 0;
+        try (Stream<Path> listing = Files.list(directory)) {
+            List<Path> all = listing.toList();
+            files = all.stream()
+                    .filter(file -> file.getFileName().toString().endsWith(JournalSegment.FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+            // Las secuencias no se reutilizan: un segmento nuevo nunca pisa el nombre de un .corrupt
+            for (Path file : all) {
+                lastSequence = Math.max(lastSequence, JournalSegment.sequenceOf(file));
+            }
+        }
+        if (files.isEmpty()) {
+            return lastSequence;
+        }
+
+        Replay replay = new Replay();
+        List<Path> replayed = new ArrayList<>(files.size());
+        List<Path> corrupt = new ArrayList<>();
+        for (Path file : files) {
+            JournalSegment segment;
+            try {
+                segment = JournalSegment.open(file);
+            } catch (IOException e) {
+                log.error("Cannot open journal segment {} - error: {}", file, e.getMessage(), e);
+                corrupt.add(file);
+                continue;
+            }
+            lastSequence = Math.max(lastSequence, segment.sequence());
+            replay.records += segment.forEach(replay);
+            replay.flush();
+            (segment.fullyRead() ? replayed : corrupt).add(file);
+        }
+        for (Path file : replayed) {
+            Files.delete(file);
+        }
+        for (Path file : corrupt) {
+            Path target = file.resolveSibling(file.getFileName() + JournalSegment.CORRUPT_SUFFIX);
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            log.error("Journal segment could not be fully replayed, kept as {} for manual review", target);
+        }
+
+        replayedCounter.increment(replay.restored);
+        corruptCounter.increment(corrupt.size());
+        log.info("Transaction journal replayed - segments: {}, records: {}, restored: {}, corrupt: {}",
+                files.size(), replay.records, replay.restored, corrupt.size());
+        return lastSequence;
+    }
+
+    /**
+     * Acumula los registros leídos y los inserta de a REPLAY_CHUNK_SIZE los que falten en la base de datos
+     */
+    private final class Replay implements Consumer<Transaction> {
+
+        private final List<Transaction> chunk = new ArrayList<>(REPLAY_CHUNK_SIZE);
+        private long records;
+        private long restored;
+
+        @Override
+        public void accept(Transaction transaction) {
+            chunk.add(transaction);
+            if (chunk.size() == REPLAY_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<String> persisted = new HashSet<>();
+            for (Transaction transaction : transactionRepository.findAllById(
+                    chunk.stream().map(Transaction::getId).toList())) {
+                persisted.add(transaction.getId());
+            }
+            List<Transaction> missing = chunk.stream()
+                    .filter(transaction -> !persisted.contains(transaction.getId()))
+                    .toList();
+            if (!missing.isEmpty()) {
+                transactionJdbcRepository.insertAll(missing, REPLAY_CHUNK_SIZE);
+                restored += missing.size();
+            }
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.bank.issuingbank.journal;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario de una transacción en el journal, entre 50 y 90 bytes con merchantIds habituales:
+ * <pre>
+ *  0  int    largo del payload (0: fin de los registros del segmento)
+ *  4  int    CRC32C del payload
+ *  8  long   id, 64 bits altos del UUID
+ * 16  long   id, 64 bits bajos
+ * 24  long   monto en unidades menores
+ * 32  long   createdAt en nanos desde epoch (UTC)
+ * 40  short  moneda, código numérico ISO 4217
+ * 42  short  código de respuesta (ResponseCode.id)
+ * 44  byte   estado (ordinal de TransactionStatus: los estados nuevos van al final)
+ * 45  short  largo del merchantId en bytes, seguido del merchantId en UTF-8
+ *     byte   solo con código UNMAPPED: largo del código original del issuer, seguido del código en UTF-8
+ * </pre>
+ * Un registro sin código original termina en el merchantId, igual que los escritos antes de
+ * que existiera ese campo.
+ * El largo se escribe al final: si el proceso cae a mitad de un registro, el largo queda en 0 o
+ * el CRC no coincide, y la lectura se detiene ahí.
+ */
+final class TransactionRecord {
+
+    static final int HEADER_BYTES = 8;
+
+    private static final int LENGTH = 0;
+    private static final int CHECKSUM = 4;
+    private static final int ID_HIGH = 8;
+    private static final int ID_LOW = 16;
+    private static final int AMOUNT = 24;
+    private static final int CREATED_AT = 32;
+    private static final int CURRENCY = 40;
+    private static final int RESPONSE_CODE = 42;
+    private static final int STATUS = 44;
+    private static final int MERCHANT_ID_LENGTH = 45;
+    private static final int MERCHANT_ID = 47;
+
+    private static final int MAX_MERCHANT_ID_BYTES = 0xFFFF;
+    private static final byte[] NO_RAW_RESPONSE_CODE = new byte[0];
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private TransactionRecord() {
+        // Prevenir instanciación
+    }
+
+    /**
+     * merchantId codificado para {@link #write}
+     */
+    static byte[] encodeMerchantId(String merchantId) {
+        byte[] bytes = merchantId.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_MERCHANT_ID_BYTES) {
+            throw new IllegalArgumentException("merchantId too long for the journal: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Bytes que ocupa el registro sin código original del issuer, cabecera incluida
+     */
+    static int size(byte[] merchantId) {
+        return MERCHANT_ID + merchantId.length;
+    }
+
+    /**
+     * Bytes que ocupa el registro de la transacción, cabecera incluida
+     */
+    static int size(byte[] merchantId, Transaction transaction) {
+        byte[] rawResponseCode = encodeRawResponseCode(transaction);
+        return size(merchantId) + (rawResponseCode.length == 0 ? 0 : 1 + rawResponseCode.length);
+    }
+
+    /**
+     * Escribe el registro en offset. crcView es una vista del mismo buffer para calcular el CRC sin copiar.
+     */
+    static void write(ByteBuffer buffer, ByteBuffer crcView, CRC32C crc, int offset,
+                      UUID id, Transaction transaction, byte[] merchantId) {
+        LocalDateTime createdAt = transaction.getCreatedAt();
+        buffer.putLong(offset + ID_HIGH, id.getMostSignificantBits());
+        buffer.putLong(offset + ID_LOW, id.getLeastSignificantBits());
+        buffer.putLong(offset + AMOUNT, transaction.getAmountMinorUnits());
+        buffer.putLong(offset + CREATED_AT,
+                createdAt.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + createdAt.getNano());
+        buffer.putShort(offset + CURRENCY, transaction.getCurrency().numericCode());
+        buffer.putShort(offset + RESPONSE_CODE, transaction.getResponseCode().id());
+        buffer.put(offset + STATUS, (byte) transaction.getStatus().ordinal());
+        buffer.putShort(offset + MERCHANT_ID_LENGTH, (short) merchantId.length);
+        buffer.put(offset + MERCHANT_ID, merchantId);
+        int end = offset + size(merchantId);
+        byte[] rawResponseCode = encodeRawResponseCode(transaction);
+        if (rawResponseCode.length > 0) {
+            buffer.put(end, (byte) rawResponseCode.length);
+            buffer.put(end + 1, rawResponseCode);
+            end += 1 + rawResponseCode.length;
+        }
+
+        int payloadLength = end - offset - HEADER_BYTES;
+        buffer.putInt(offset + CHECKSUM, checksum(crcView, crc, offset, payloadLength));
+        buffer.putInt(offset + LENGTH, payloadLength);
+    }
+
+    /**
+     * Bytes del registro en offset, cabecera incluida, o 0 si no hay un registro completo y válido
+     */
+    static int validSize(ByteBuffer buffer, ByteBuffer crcView, CRC32C crc, int offset) {
+        if (buffer.limit() - offset < MERCHANT_ID) {
+            return 0;
+        }
+        int payloadLength = buffer.getInt(offset + LENGTH);
+        if (payloadLength < MERCHANT_ID - HEADER_BYTES || payloadLength > buffer.limit() - offset - HEADER_BYTES) {
+            return 0;
+        }
+        if (checksum(crcView, crc, offset, payloadLength) != buffer.getInt(offset + CHECKSUM)) {
+            return 0;
+        }
+        return HEADER_BYTES + payloadLength;
+    }
+
+    /**
+     * Lee el registro en offset, ya validado con {@link #validSize}
+     */
+    static Transaction read(ByteBuffer buffer, int offset) {
+        long createdAtNanos = buffer.getLong(offset + CREATED_AT);
+        byte[] merchantId = new byte[Short.toUnsignedInt(buffer.getShort(offset + MERCHANT_ID_LENGTH))];
+        buffer.get(offset + MERCHANT_ID, merchantId);
+        int rawOffset = offset + size(merchantId);
+        String rawResponseCode = null;
+        if (rawOffset < offset + HEADER_BYTES + buffer.getInt(offset + LENGTH)) {
+            byte[] raw = new byte[Byte.toUnsignedInt(buffer.get(rawOffset))];
+            buffer.get(rawOffset + 1, raw);
+            rawResponseCode = new String(raw, StandardCharsets.UTF_8);
+        }
+
+        Transaction transaction = new Transaction(
+                new String(merchantId, StandardCharsets.UTF_8),
+                new Money(buffer.getLong(offset + AMOUNT), IsoCurrency.fromNumericCode(buffer.getShort(offset + CURRENCY))),
+                STATUSES[buffer.get(offset + STATUS)],
+                ResponseCode.fromId(buffer.getShort(offset + RESPONSE_CODE)),
+                LocalDateTime.ofEpochSecond(Math.floorDiv(createdAtNanos, NANOS_PER_SECOND),
+                        (int) Math.floorMod(createdAtNanos, NANOS_PER_SECOND), ZoneOffset.UTC));
+        transaction.setRawResponseCode(rawResponseCode);
+        transaction.setId(new UUID(buffer.getLong(offset + ID_HIGH), buffer.getLong(offset + ID_LOW)).toString());
+        return transaction;
+    }
+
+    /**
+     * Código original del issuer en UTF-8 (32 caracteres ocupan a lo sumo 96 bytes), o vacío
+     */
+    private static byte[] encodeRawResponseCode(Transaction transaction) {
+        String rawResponseCode = transaction.getRawResponseCode();
+        return rawResponseCode == null ? NO_RAW_RESPONSE_CODE : rawResponseCode.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer crcView, CRC32C crc, int offset, int payloadLength) {
+        crc.reset();
+        crc.update(crcView.clear().position(offset + HEADER_BYTES).limit(offset + HEADER_BYTES + payloadLength));
+        return (int) crc.getValue();
+    }
+}
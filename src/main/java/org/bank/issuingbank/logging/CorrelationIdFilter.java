@@ -3,6 +3,7 @@ package org.bank.issuingbank.logging;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.bank.issuingbank.id.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -10,7 +11,6 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * Filtro HTTP que gestiona el correlationId para trazabilidad de requests
@@ -23,6 +23,12 @@ public class CorrelationIdFilter implements Filter {
 
     private static final Logger log = LoggerFactory.getLogger(CorrelationIdFilter.class);
 
+    private final IdGenerator idGenerator;
+
+    public CorrelationIdFilter(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -56,12 +62,19 @@ public class CorrelationIdFilter implements Filter {
             // Continuar con la cadena de filtros
             chain.doFilter(request, response);
 
-            // Log de fin de request
-            log.info("Completed request: {} {} - status: {} - correlationId: {}",
-                    httpRequest.getMethod(),
-                    httpRequest.getRequestURI(),
-                    httpResponse.getStatus(),
-                    correlationId);
+            // Log de fin de request (en requests asíncronos el status aún no está definido)
+            if (httpRequest.isAsyncStarted()) {
+                log.info("Request processing continues asynchronously: {} {} - correlationId: {}",
+                        httpRequest.getMethod(),
+                        httpRequest.getRequestURI(),
+                        correlationId);
+            } else {
+                log.info("Completed request: {} {} - status: {} - correlationId: {}",
+                        httpRequest.getMethod(),
+                        httpRequest.getRequestURI(),
+                        httpResponse.getStatus(),
+                        correlationId);
+            }
 
         } finally {
             // CRÍTICO: Limpiar MDC para evitar memory leaks
@@ -70,9 +83,9 @@ public class CorrelationIdFilter implements Filter {
     }
 
     /**
-     * Genera un nuevo UUID como correlationId
+     * Genera un nuevo correlationId con el IdGenerator de la aplicación (UUID v7 por defecto)
      */
     private String generateCorrelationId() {
-        return UUID.randomUUID().toString();
+        return idGenerator.nextId();
     }
 }
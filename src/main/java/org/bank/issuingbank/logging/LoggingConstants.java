@@ -19,6 +19,11 @@ public final class LoggingConstants {
      */
     public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
 
+    /**
+     * Marker de los eventos rutinarios (pagos aprobados) que se muestrean en el perfil high-tps
+     */
+    public static final String ROUTINE_MARKER = "ROUTINE";
+
     /**
      * Nombre del servicio para logs
      */
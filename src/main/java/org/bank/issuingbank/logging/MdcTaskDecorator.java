@@ -0,0 +1,49 @@
+package org.bank.issuingbank.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Propaga el MDC (correlationId) del hilo que encola la tarea al hilo que la ejecuta,
+ * para que los logs de trabajo asíncrono sigan siendo trazables
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return wrap(MDC.getCopyOfContextMap(), runnable);
+    }
+
+    /**
+     * Executor que ejecuta las tareas con el MDC del hilo actual, capturado ahora.
+     * Necesario para continuaciones de CompletableFuture, que se encolan desde el hilo
+     * que completa el futuro (timer, cliente HTTP) y no desde el hilo del request.
+     */
+    public static Executor withCurrentContext(Executor executor) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return runnable -> executor.execute(wrap(context, runnable));
+    }
+
+    private static Runnable wrap(Map<String, String> context, Runnable runnable) {
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package org.bank.issuingbank.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Muestreo de eventos rutinarios: de los logs con el marker ROUTINE (pagos aprobados) deja
+ * pasar uno de cada keepOneIn; el resto de los eventos (rechazos, errores) no se toca.
+ * <p>
+ * Al ser un TurboFilter decide antes de crear el evento, así que un log descartado no se
+ * formatea ni se encola. Las consultas isXxxEnabled (sin mensaje) no se muestrean, para no
+ * decidir dos veces el mismo log. Se configura en logback-spring.xml (perfil high-tps).
+ */
+public class RoutineSamplingTurboFilter extends TurboFilter {
+
+    private String marker = LoggingConstants.ROUTINE_MARKER;
+    private int keepOneIn = 100;
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (eventMarker == null || format == null || t != null || !eventMarker.contains(marker)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(keepOneIn) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        if (keepOneIn < 1) {
+            throw new IllegalArgumentException("keepOneIn must be at least 1: " + keepOneIn);
+        }
+        this.keepOneIn = keepOneIn;
+    }
+}
@@ -0,0 +1,60 @@
+package org.bank.issuingbank.mapper;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.dto.response.TransactionExportLine;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conversiones entre DTOs de la API y la entidad Transaction
+ */
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+        // Prevenir instanciación
+    }
+
+    /**
+     * Crea la entidad en estado PENDING a partir de la solicitud de pago.
+     * Falla con UNSUPPORTED_CURRENCY o INVALID_AMOUNT si el monto no es representable en la moneda.
+     */
+    public static Transaction toPendingTransaction(PaymentRequest request, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setMerchantId(request.merchantId());
+        transaction.setAmount(Money.of(request.amount(), request.currency()));
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+
+    /**
+     * Construye la respuesta de la API a partir de la entidad
+     */
+    public static PaymentResponse toResponse(Transaction transaction) {
+        return new PaymentResponse(
+                transaction.getId(),
+                transaction.getStatus(),
+                transaction.getIssuerResponseCode(),
+                transaction.getCreatedAt()
+        );
+    }
+
+    /**
+     * Construye la línea de exportación a partir de la entidad
+     */
+    public static TransactionExportLine toExportLine(Transaction transaction) {
+        return new TransactionExportLine(
+                transaction.getId(),
+                transaction.getMerchantId(),
+                transaction.getAmount().toBigDecimal(),
+                transaction.getCurrency().name(),
+                transaction.getStatus(),
+                transaction.getIssuerResponseCode(),
+                transaction.getCreatedAt()
+        );
+    }
+}
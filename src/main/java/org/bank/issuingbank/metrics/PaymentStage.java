@@ -0,0 +1,26 @@
+package org.bank.issuingbank.metrics;
+
+/**
+ * Etapas de POST /payments con histograma de latencia propio (tag stage)
+ */
+public enum PaymentStage {
+
+    /** Bean Validation del request */
+    VALIDATION("validation"),
+    /** Autorización del issuer */
+    ISSUER("issuer"),
+    /** Persistencia de la transacción (save o encolado en write-behind) */
+    PERSISTENCE("persistence"),
+    /** Serialización y escritura del body de respuesta */
+    SERIALIZATION("serialization");
+
+    private final String tag;
+
+    PaymentStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
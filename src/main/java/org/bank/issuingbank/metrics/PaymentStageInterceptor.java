@@ -0,0 +1,32 @@
+package org.bank.issuingbank.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Abre y cierra la medición por etapas de cada POST /payments.
+ * Se registra en WebMvcMetricsConfig solo para esa ruta.
+ */
+public class PaymentStageInterceptor implements HandlerInterceptor {
+
+    private final PaymentStageMetrics stageMetrics;
+
+    public PaymentStageInterceptor(PaymentStageMetrics stageMetrics) {
+        this.stageMetrics = stageMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ("POST".equals(request.getMethod())) {
+            stageMetrics.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        stageMetrics.complete();
+    }
+}
@@ -0,0 +1,159 @@
+package org.bank.issuingbank.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogramas de latencia por etapa de POST /payments (payments.stage, con p50/p99/p999),
+ * con tags stage, status y responseCode del resultado final del pago.
+ * <p>
+ * Cada etapa deja su duración en un contexto asociado al hilo mientras corre el request; al
+ * terminar (PaymentStageInterceptor) se registran todas con los tags del resultado, que recién
+ * se conoce al serializar la respuesta. Sin allocations en el camino caliente: los contextos
+ * (un long[] por request) salen de un pool y vuelven a él al terminar, y los Timer se resuelven
+ * por índice (etapa, estado, código) en un arreglo que se llena la primera vez que aparece
+ * cada combinación.
+ * <p>
+ * Con un hilo virtual por request el contexto no se crea por hilo: el ThreadLocal solo guarda
+ * la referencia al del pool. Lo único que se asigna por hilo nuevo es la entrada del
+ * ThreadLocal (unos 32 bytes), la misma que ya paga RequestContextHolder.
+ * <p>
+ * Solo mide el camino síncrono: en POST /payments/async las etapas corren en otros hilos y
+ * el contexto está inactivo, por lo que {@link #record} no hace nada.
+ */
+@Component
+public class PaymentStageMetrics {
+
+    static final String METRIC_NAME = "payments.stage";
+    static final String FAILED = "FAILED";
+    static final String NONE = "NONE";
+
+    private static final PaymentStage[] STAGES = PaymentStage.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final ResponseCode[] RESPONSE_CODES = ResponseCode.values();
+    // Índice extra para los requests sin pago (validación fallida, error del issuer...)
+    private static final int FAILED_STATUS = STATUSES.length;
+    private static final int NO_RESPONSE_CODE = RESPONSE_CODES.length;
+    private static final int STATUS_SLOTS = STATUSES.length + 1;
+    private static final int CODE_SLOTS = RESPONSE_CODES.length + 1;
+
+    private static final long NOT_MEASURED = -1;
+    // Contextos libres: uno por request concurrente; sobre este número se crean y se descartan
+    private static final int POOL_SIZE = 1024;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(STAGES.length * STATUS_SLOTS * CODE_SLOTS);
+    private final ArrayBlockingQueue<Context> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    // null fuera de un request medido
+    private final ThreadLocal<Context> context = new ThreadLocal<>();
+
+    public PaymentStageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Inicia la medición del request en el hilo actual
+     */
+    public void begin() {
+        Context current = context.get();
+        if (current == null) {
+            current = pool.poll();
+            if (current == null) {
+                current = new Context();
+            }
+            context.set(current);
+        }
+        Arrays.fill(current.nanos, NOT_MEASURED);
+        current.status = FAILED_STATUS;
+        current.responseCode = NO_RESPONSE_CODE;
+        current.serializationStart = NOT_MEASURED;
+    }
+
+    /**
+     * Duración de una etapa del request en curso; se ignora si el hilo no está midiendo un request
+     */
+    public void record(PaymentStage stage, long nanos) {
+        Context current = context.get();
+        if (current != null) {
+            current.nanos[stage.ordinal()] = nanos;
+        }
+    }
+
+    /**
+     * La respuesta está por serializarse: fija el resultado (tags) y el inicio de esa etapa
+     */
+    public void beforeSerialization(Object body) {
+        Context current = context.get();
+        if (current == null) {
+            return;
+        }
+        if (body instanceof PaymentResponse response && response.status() != null) {
+            current.status = response.status().ordinal();
+            current.responseCode = response.responseCode() == null
+                    ? NO_RESPONSE_CODE : ResponseCode.fromCode(response.responseCode()).ordinal();
+        }
+        current.serializationStart = System.nanoTime();
+    }
+
+    /**
+     * Termina el request: registra cada etapa medida con los tags del resultado y devuelve el
+     * contexto al pool
+     */
+    public void complete() {
+        Context current = context.get();
+        if (current == null) {
+            return;
+        }
+        // set(null) y no remove(): en un hilo de plataforma reutiliza la entrada del ThreadLocal
+        context.set(null);
+
+        if (current.serializationStart != NOT_MEASURED) {
+            current.nanos[PaymentStage.SERIALIZATION.ordinal()] = System.nanoTime() - current.serializationStart;
+        }
+        for (int stage = 0; stage < STAGES.length; stage++) {
+            long nanos = current.nanos[stage];
+            if (nanos != NOT_MEASURED) {
+                timer(stage, current.status, current.responseCode).record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        pool.offer(current);
+    }
+
+    private Timer timer(int stage, int status, int responseCode) {
+        int index = (stage * STATUS_SLOTS + status) * CODE_SLOTS + responseCode;
+        Timer timer = timers.get(index);
+        if (timer == null) {
+            // El registry devuelve el mismo Timer si dos hilos lo crean a la vez
+            timer = Timer.builder(METRIC_NAME)
+                    .description("Latencia por etapa de POST /payments")
+                    .tag("stage", STAGES[stage].tag())
+                    .tag("status", status == FAILED_STATUS ? FAILED : STATUSES[status].name())
+                    .tag("responseCode", responseCode == NO_RESPONSE_CODE ? NONE : RESPONSE_CODES[responseCode].code())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .percentilePrecision(2)
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            timers.set(index, timer);
+        }
+        return timer;
+    }
+
+    private static final class Context {
+
+        private final long[] nanos = new long[STAGES.length];
+        private int status;
+        private int responseCode;
+        private long serializationStart;
+    }
+}
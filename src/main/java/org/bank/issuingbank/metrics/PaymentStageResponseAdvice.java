@@ -0,0 +1,36 @@
+package org.bank.issuingbank.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marca el inicio de la serialización de la respuesta (también la de los errores de
+ * GlobalExceptionHandler) y le entrega el resultado del pago a {@link PaymentStageMetrics}
+ */
+@ControllerAdvice
+public class PaymentStageResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final PaymentStageMetrics stageMetrics;
+
+    public PaymentStageResponseAdvice(PaymentStageMetrics stageMetrics) {
+        this.stageMetrics = stageMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        stageMetrics.beforeSerialization(body);
+        return body;
+    }
+}
@@ -0,0 +1,37 @@
+package org.bank.issuingbank.metrics;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Validator de Spring MVC (@Valid) que mide la etapa VALIDATION y delega en el validator de Bean Validation
+ */
+public class TimedValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+    private final PaymentStageMetrics stageMetrics;
+
+    public TimedValidator(SmartValidator delegate, PaymentStageMetrics stageMetrics) {
+        this.delegate = delegate;
+        this.stageMetrics = stageMetrics;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        long start = System.nanoTime();
+        delegate.validate(target, errors);
+        stageMetrics.record(PaymentStage.VALIDATION, System.nanoTime() - start);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        long start = System.nanoTime();
+        delegate.validate(target, errors, validationHints);
+        stageMetrics.record(PaymentStage.VALIDATION, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,93 @@
+package org.bank.issuingbank.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro persistente de una Idempotency-Key (modo payments.idempotency.persistent).
+ * La clave primaria es el hash de merchantId + clave, por lo que dos instancias (o una
+ * instancia reiniciada) no pueden autorizar dos veces el mismo pago.
+ * Se accede con IdempotencyKeyJdbcRepository.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 32)
+    private String keyHash;
+
+    @Column(nullable = false)
+    private String merchantId;
+
+    @Column(nullable = false)
+    private Long requestHash;
+
+    /**
+     * Nulo mientras el primer intento está en curso
+     */
+    @Column(length = 36)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // ===== Constructors =====
+
+    public IdempotencyKey() {
+    }
+
+    // ===== Getters & Setters =====
+
+    public String getKeyHash() {
+        return keyHash;
+    }
+
+    public void setKeyHash(String keyHash) {
+        this.keyHash = keyHash;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(String merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public Long getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(Long requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
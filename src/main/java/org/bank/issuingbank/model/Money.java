@@ -0,0 +1,75 @@
+package org.bank.issuingbank.model;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Monto exacto en unidades menores de la moneda (centavos para USD, pesos para CLP)
+ *
+ * @param minorUnits monto en unidades menores
+ * @param currency   moneda ISO 4217
+ */
+public record Money(long minorUnits, IsoCurrency currency) {
+
+    /**
+     * Límite bajo el cual amount x 10^exponente se redondea sin error en un double
+     */
+    private static final double MAX_EXACT_SCALED = 1L << 52;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * Convierte el monto decimal recibido en la API. Rechaza montos con más decimales
+     * de los que admite la moneda en lugar de redondearlos.
+     */
+    public static Money of(double amount, IsoCurrency currency) {
+        if (!Double.isFinite(amount)) {
+            throw invalidAmount(amount, currency);
+        }
+
+        // Camino rápido sin asignaciones: el monto es exacto si al volver a dividir
+        // se obtiene el mismo double que envió el cliente
+        long minorUnitsPerUnit = currency.minorUnitsPerUnit();
+        double scaled = amount * minorUnitsPerUnit;
+        if (Math.abs(scaled) < MAX_EXACT_SCALED) {
+            long minorUnits = Math.round(scaled);
+            if ((double) minorUnits / minorUnitsPerUnit != amount) {
+                throw invalidAmount(amount, currency);
+            }
+            return new Money(minorUnits, currency);
+        }
+
+        try {
+            long minorUnits = BigDecimal.valueOf(amount)
+                    .movePointRight(currency.exponent())
+                    .longValueExact();
+            return new Money(minorUnits, currency);
+        } catch (ArithmeticException e) {
+            throw invalidAmount(amount, currency);
+        }
+    }
+
+    public static Money of(double amount, String currencyCode) {
+        return of(amount, IsoCurrency.fromCode(currencyCode));
+    }
+
+    private static BusinessException invalidAmount(double amount, IsoCurrency currency) {
+        return new BusinessException(
+                "Amount " + amount + " is not a valid " + currency + " amount (max " + currency.exponent() + " decimals)",
+                "INVALID_AMOUNT");
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.exponent());
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
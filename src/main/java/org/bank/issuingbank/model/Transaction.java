@@ -1,51 +1,82 @@
 package org.bank.issuingbank.model;
 
 import jakarta.persistence.*;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
 import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.id.GeneratedId;
+import org.bank.issuingbank.model.converter.IsoCurrencyConverter;
+import org.bank.issuingbank.model.converter.ResponseCodeConverter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
+/**
+ * Transacción de pago. El monto se guarda en unidades menores (BIGINT) y la moneda y el código
+ * de respuesta como códigos SMALLINT: sin doubles boxeados ni Strings por fila. Solo un código
+ * del issuer que no está en ResponseCode se guarda además como texto (raw_response_code).
+ */
 @Entity
-@Table(name = "transactions")
-public class Transaction {
-
+@Table(name = "transactions", indexes = {
+        // Exportación y búsqueda por comercio y rango de fechas, en orden de fecha sin ordenar en memoria
+        @Index(name = "idx_transactions_merchant_created_at", columnList = "merchant_id, created_at, id"),
+        // Búsqueda paginada (keyset): el id cierra el orden para que el cursor sea único
+        @Index(name = "idx_transactions_merchant_status_created_at", columnList = "merchant_id, status, created_at, id"),
+        @Index(name = "idx_transactions_status_created_at", columnList = "status, created_at, id")
+})
+public class Transaction implements Persistable<String> {
+
+    /**
+     * Largo máximo del código del issuer guardado como texto; uno más largo se trunca
+     */
+    public static final int MAX_RAW_RESPONSE_CODE_LENGTH = 32;
+
+    // UUID v7 por defecto: las inserciones van al final del índice de la clave primaria
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedId
     private String id;
 
     @Column(nullable = false)
     private String merchantId;
 
     @Column(nullable = false)
-    private Double amount;
+    private long amountMinorUnits;
 
+    @Convert(converter = IsoCurrencyConverter.class)
     @Column(nullable = false)
-    private String currency;
+    private IsoCurrency currency;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransactionStatus status;
 
+    @Convert(converter = ResponseCodeConverter.class)
     @Column(nullable = false)
-    private String responseCode;
+    private ResponseCode responseCode;
+
+    // Código del issuer tal cual, solo si responseCode es UNMAPPED (null en el resto)
+    @Column(length = MAX_RAW_RESPONSE_CODE_LENGTH)
+    private String rawResponseCode;
 
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Con el journal activo el ID se asigna antes de guardar: save() debe insertar igual, sin el SELECT de merge
+    @Transient
+    private boolean persisted;
+
     // ===== Constructors =====
 
     public Transaction() {
     }
 
     public Transaction(String merchantId,
-                       Double amount,
-                       String currency,
+                       Money amount,
                        TransactionStatus status,
-                       String responseCode,
+                       ResponseCode responseCode,
                        LocalDateTime createdAt) {
         this.merchantId = merchantId;
-        this.amount = amount;
-        this.currency = currency;
+        setAmount(amount);
         this.status = status;
         this.responseCode = responseCode;
         this.createdAt = createdAt;
@@ -53,19 +84,35 @@ public class Transaction {
 
     // ===== Getters & Setters =====
 
+    @Override
     public String getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+
     public String getMerchantId() {
         return merchantId;
     }
 
-    public Double getAmount() {
-        return amount;
+    public Money getAmount() {
+        return currency == null ? null : new Money(amountMinorUnits, currency);
     }
 
-    public String getCurrency() {
+    public long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public IsoCurrency getCurrency() {
         return currency;
     }
 
@@ -73,10 +120,28 @@ public class Transaction {
         return status;
     }
 
-    public String getResponseCode() {
+    public ResponseCode getResponseCode() {
         return responseCode;
     }
 
+    /**
+     * Código del issuer si no está en ResponseCode, o null
+     */
+    public String getRawResponseCode() {
+        return rawResponseCode;
+    }
+
+    /**
+     * Código de respuesta tal como lo envió el issuer y lo expone la API
+     */
+    public String getIssuerResponseCode() {
+        if (responseCode == null) {
+            return null;
+        }
+        return responseCode == ResponseCode.UNMAPPED && rawResponseCode != null
+                ? rawResponseCode : responseCode.code();
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -89,20 +154,32 @@ public class Transaction {
         this.merchantId = merchantId;
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
-    }
-
-    public void setCurrency(String currency) {
-        this.currency = currency;
+    public void setAmount(Money amount) {
+        this.amountMinorUnits = amount.minorUnits();
+        this.currency = amount.currency();
     }
 
     public void setStatus(TransactionStatus status) {
         this.status = status;
     }
 
-    public void setResponseCode(String responseCode) {
+    public void setResponseCode(ResponseCode responseCode) {
         this.responseCode = responseCode;
+        this.rawResponseCode = null;
+    }
+
+    /**
+     * Código enviado por el issuer: el conocido se guarda como ResponseCode y el resto como
+     * {@link ResponseCode#UNMAPPED} más el texto original
+     */
+    public void setIssuerResponseCode(String code) {
+        this.responseCode = ResponseCode.fromCode(code);
+        setRawResponseCode(responseCode == ResponseCode.UNMAPPED ? code : null);
+    }
+
+    public void setRawResponseCode(String rawResponseCode) {
+        this.rawResponseCode = rawResponseCode == null || rawResponseCode.length() <= MAX_RAW_RESPONSE_CODE_LENGTH
+                ? rawResponseCode : rawResponseCode.substring(0, MAX_RAW_RESPONSE_CODE_LENGTH);
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
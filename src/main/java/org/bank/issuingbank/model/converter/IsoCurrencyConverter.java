@@ -0,0 +1,22 @@
+package org.bank.issuingbank.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.bank.issuingbank.enums.IsoCurrency;
+
+/**
+ * Persiste la moneda como su código numérico ISO 4217 (SMALLINT en lugar de VARCHAR)
+ */
+@Converter
+public class IsoCurrencyConverter implements AttributeConverter<IsoCurrency, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(IsoCurrency currency) {
+        return currency == null ? null : currency.numericCode();
+    }
+
+    @Override
+    public IsoCurrency convertToEntityAttribute(Short numericCode) {
+        return numericCode == null ? null : IsoCurrency.fromNumericCode(numericCode);
+    }
+}
@@ -0,0 +1,22 @@
+package org.bank.issuingbank.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.bank.issuingbank.enums.ResponseCode;
+
+/**
+ * Persiste el código de respuesta como su id (SMALLINT en lugar de VARCHAR)
+ */
+@Converter
+public class ResponseCodeConverter implements AttributeConverter<ResponseCode, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(ResponseCode responseCode) {
+        return responseCode == null ? null : responseCode.id();
+    }
+
+    @Override
+    public ResponseCode convertToEntityAttribute(Short id) {
+        return id == null ? null : ResponseCode.fromId(id);
+    }
+}
@@ -0,0 +1,434 @@
+package org.bank.issuingbank.readmodel;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Transacciones recientes en arreglos de primitivos, una columna por campo y un slot por
+ * transacción en un buffer circular: sin objetos por transacción, salvo un String por comercio
+ * y el código original de las pocas respuestas UNMAPPED, en un mapa aparte por slot.
+ * <p>
+ * Índices:
+ * <ul>
+ *   <li>clave primaria: tabla hash de direccionamiento abierto (linear probing) de UUID a slot;
+ *   al descartar un slot sus vecinos se desplazan hacia atrás, sin tombstones</li>
+ *   <li>por comercio y por estado: listas doblemente enlazadas de slots (arreglos prev/next),
+ *   ordenadas por (createdAt, id) como el ORDER BY de la búsqueda. Los pagos llegan casi en
+ *   orden de createdAt, así que insertar recorre pocos nodos desde el final</li>
+ * </ul>
+ * Al llenarse se descarta el slot más antiguo (por orden de llegada). No es thread-safe:
+ * TransactionReadModel lo protege con un lock de lectura/escritura.
+ */
+final class TransactionIndex {
+
+    static final int NONE = -1;
+
+    /**
+     * Bytes por transacción en las columnas: 4 long, 2 short, 1 byte y 5 int
+     */
+    static final int ENTRY_BYTES = 4 * Long.BYTES + 2 * Short.BYTES + Byte.BYTES + 5 * Integer.BYTES;
+
+    // String, byte[] y entrada del HashMap de cada merchantId, además de sus bytes
+    private static final int MERCHANT_OVERHEAD_BYTES = 96;
+    // Entrada del HashMap, Integer y String de cada código original, además de sus bytes
+    private static final int RAW_RESPONSE_CODE_OVERHEAD_BYTES = 112;
+    private static final int INITIAL_MERCHANTS = 16;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final int capacity;
+
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final long[] amount;
+    private final long[] createdAt;
+    private final short[] currency;
+    private final short[] responseCode;
+    private final byte[] status;
+    private final int[] merchant;
+    private final int[] merchantPrev;
+    private final int[] merchantNext;
+    private final int[] statusPrev;
+    private final int[] statusNext;
+
+    // slot + 1 por posición (0: vacía), con al menos el doble de posiciones que slots
+    private final int[] table;
+    private final int tableMask;
+
+    // Código original del issuer de los slots con ResponseCode.UNMAPPED
+    private final Map<Integer, String> rawResponseCodes = new HashMap<>();
+
+    private final int[] statusHead = new int[STATUSES.length];
+    private final int[] statusTail = new int[STATUSES.length];
+
+    // Diccionario de comercios: merchantId -> código; los códigos sin transacciones se reutilizan
+    private final Map<String, Integer> merchantCodes = new HashMap<>();
+    private String[] merchantNames = new String[INITIAL_MERCHANTS];
+    private int[] merchantHead = new int[INITIAL_MERCHANTS];
+    private int[] merchantTail = new int[INITIAL_MERCHANTS];
+    private int[] merchantSize = new int[INITIAL_MERCHANTS];
+    private int[] freeCodes = new int[INITIAL_MERCHANTS];
+    private int freeCount;
+    private int nextCode;
+    private long merchantBytes;
+
+    private int oldest;
+    private int size;
+    // createdAt más alto entre los slots descartados
+    private long evictedUpTo = Long.MIN_VALUE;
+
+    TransactionIndex(int capacity) {
+        if (capacity < 1 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (1 << 28) + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.idHigh = new long[capacity];
+        this.idLow = new long[capacity];
+        this.amount = new long[capacity];
+        this.createdAt = new long[capacity];
+        this.currency = new short[capacity];
+        this.responseCode = new short[capacity];
+        this.status = new byte[capacity];
+        this.merchant = new int[capacity];
+        this.merchantPrev = new int[capacity];
+        this.merchantNext = new int[capacity];
+        this.statusPrev = new int[capacity];
+        this.statusNext = new int[capacity];
+        this.table = new int[Integer.highestOneBit(capacity) << 2];
+        this.tableMask = table.length - 1;
+        Arrays.fill(statusHead, NONE);
+        Arrays.fill(statusTail, NONE);
+    }
+
+    /**
+     * createdAt como nanos desde epoch, leyendo la fecha local como UTC (igual que el journal)
+     */
+    static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    /**
+     * Agrega la transacción completada, descartando la más antigua si no hay espacio.
+     * Si el ID ya está no hace nada: una transacción completada no cambia.
+     */
+    void add(UUID id, Transaction transaction) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        if (find(high, low) != NONE) {
+            return;
+        }
+        if (size == capacity) {
+            evictOldest();
+        }
+
+        int slot = (oldest + size) % capacity;
+        idHigh[slot] = high;
+        idLow[slot] = low;
+        amount[slot] = transaction.getAmountMinorUnits();
+        createdAt[slot] = toNanos(transaction.getCreatedAt());
+        currency[slot] = transaction.getCurrency().numericCode();
+        responseCode[slot] = transaction.getResponseCode().id();
+        status[slot] = (byte) transaction.getStatus().ordinal();
+        merchant[slot] = acquireMerchant(transaction.getMerchantId());
+        if (transaction.getRawResponseCode() != null) {
+            rawResponseCodes.put(slot, transaction.getRawResponseCode());
+        }
+        size++;
+
+        insertIntoTable(slot);
+        link(slot, merchant[slot], merchantPrev, merchantNext, merchantHead, merchantTail);
+        link(slot, status[slot], statusPrev, statusNext, statusHead, statusTail);
+    }
+
+    /**
+     * Descarta las transacciones más antiguas (por orden de llegada) creadas antes de cutoff
+     */
+    void evictCreatedBefore(long cutoffNanos) {
+        while (size > 0 && createdAt[oldest] < cutoffNanos) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Slot de la transacción, o {@link #NONE}
+     */
+    int find(long high, long low) {
+        for (int position = home(high, low); ; position = (position + 1) & tableMask) {
+            int entry = table[position];
+            if (entry == 0) {
+                return NONE;
+            }
+            int slot = entry - 1;
+            if (idHigh[slot] == high && idLow[slot] == low) {
+                return slot;
+            }
+        }
+    }
+
+    Transaction toTransaction(int slot) {
+        Transaction transaction = new Transaction(
+                merchantNames[merchant[slot]],
+                new Money(amount[slot], IsoCurrency.fromNumericCode(currency[slot])),
+                STATUSES[status[slot]],
+                ResponseCode.fromId(responseCode[slot]),
+                fromNanos(createdAt[slot]));
+        if (responseCode[slot] == ResponseCode.UNMAPPED.id()) {
+            transaction.setRawResponseCode(rawResponseCodes.get(slot));
+        }
+        transaction.setId(new UUID(idHigh[slot], idLow[slot]).toString());
+        return transaction;
+    }
+
+    /**
+     * Hasta limit transacciones en orden de (createdAt, id), con los mismos filtros que
+     * TransactionJdbcRepository.findPage. Recorre la lista del comercio si se filtra por comercio
+     * y si no la del estado: desde el final hasta el inicio del rango, y desde ahí hacia adelante.
+     *
+     * @param fromNanos inicio del rango (inclusive)
+     * @param toNanos   fin del rango (exclusivo)
+     * @param after     cursor de la página anterior, o null
+     */
+    List<Transaction> page(String merchantId, TransactionStatus statusFilter, long fromNanos, long toNanos,
+                           Cursor after, int limit) {
+        int[] prev;
+        int[] next;
+        int start;
+        if (merchantId != null) {
+            Integer code = merchantCodes.get(merchantId);
+            if (code == null) {
+                return List.of();
+            }
+            prev = merchantPrev;
+            next = merchantNext;
+            start = merchantTail[code];
+        } else {
+            prev = statusPrev;
+            next = statusNext;
+            start = statusTail[statusFilter.ordinal()];
+        }
+
+        int first = NONE;
+        for (int slot = start; slot != NONE && createdAt[slot] >= fromNanos && isAfter(slot, after); slot = prev[slot]) {
+            first = slot;
+        }
+
+        List<Transaction> page = new ArrayList<>(Math.min(limit, 64));
+        for (int slot = first; slot != NONE && page.size() < limit && createdAt[slot] < toNanos; slot = next[slot]) {
+            if (statusFilter == null || status[slot] == statusFilter.ordinal()) {
+                page.add(toTransaction(slot));
+            }
+        }
+        return page;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int merchants() {
+        return merchantCodes.size();
+    }
+
+    /**
+     * createdAt más alto entre las transacciones descartadas, o Long.MIN_VALUE si no se descartó ninguna
+     */
+    long evictedUpTo() {
+        return evictedUpTo;
+    }
+
+    /**
+     * Memoria ocupada: las columnas y la tabla hash son exactas; el diccionario de comercios, estimado
+     */
+    long memoryBytes() {
+        long columns = (long) capacity * ENTRY_BYTES;
+        long primaryKey = (long) table.length * Integer.BYTES;
+        // Por código: referencia al nombre, head, tail, size y código libre
+        long dictionary = (long) merchantNames.length * 5 * Integer.BYTES + merchantBytes;
+        long rawCodes = (long) rawResponseCodes.size() * RAW_RESPONSE_CODE_OVERHEAD_BYTES;
+        return columns + primaryKey + dictionary + rawCodes;
+    }
+
+    private void evictOldest() {
+        int slot = oldest;
+        evictedUpTo = Math.max(evictedUpTo, createdAt[slot]);
+        removeFromTable(slot);
+        unlink(slot, merchant[slot], merchantPrev, merchantNext, merchantHead, merchantTail);
+        unlink(slot, status[slot], statusPrev, statusNext, statusHead, statusTail);
+        releaseMerchant(merchant[slot]);
+        if (responseCode[slot] == ResponseCode.UNMAPPED.id()) {
+            rawResponseCodes.remove(slot);
+        }
+        oldest = (oldest + 1) % capacity;
+        size--;
+    }
+
+    private boolean isAfter(int slot, Cursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        int order = Long.compare(createdAt[slot], cursor.createdAtNanos());
+        if (order == 0) {
+            order = Long.compareUnsigned(idHigh[slot], cursor.idHigh());
+        }
+        if (order == 0) {
+            order = Long.compareUnsigned(idLow[slot], cursor.idLow());
+        }
+        return order > 0;
+    }
+
+    /**
+     * Orden de (createdAt, id); el id como UUID sin signo ordena igual que su String en minúsculas
+     */
+    private int compare(int a, int b) {
+        int order = Long.compare(createdAt[a], createdAt[b]);
+        if (order == 0) {
+            order = Long.compareUnsigned(idHigh[a], idHigh[b]);
+        }
+        if (order == 0) {
+            order = Long.compareUnsigned(idLow[a], idLow[b]);
+        }
+        return order;
+    }
+
+    /**
+     * Inserta slot en la lista ordenada, buscando su lugar desde el final
+     */
+    private void link(int slot, int list, int[] prev, int[] next, int[] heads, int[] tails) {
+        int before = tails[list];
+        while (before != NONE && compare(before, slot) > 0) {
+            before = prev[before];
+        }
+        int after = before == NONE ? heads[list] : next[before];
+        prev[slot] = before;
+        next[slot] = after;
+        if (before == NONE) {
+            heads[list] = slot;
+        } else {
+            next[before] = slot;
+        }
+        if (after == NONE) {
+            tails[list] = slot;
+        } else {
+            prev[after] = slot;
+        }
+    }
+
+    private static void unlink(int slot, int list, int[] prev, int[] next, int[] heads, int[] tails) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            heads[list] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tails[list] = before;
+        } else {
+            prev[after] = before;
+        }
+    }
+
+    private int home(long high, long low) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & tableMask;
+    }
+
+    private void insertIntoTable(int slot) {
+        int position = home(idHigh[slot], idLow[slot]);
+        while (table[position] != 0) {
+            position = (position + 1) & tableMask;
+        }
+        table[position] = slot + 1;
+    }
+
+    /**
+     * Borra slot de la tabla desplazando hacia atrás las entradas siguientes de la cadena que ya no
+     * serían alcanzables desde su posición de inicio
+     */
+    private void removeFromTable(int slot) {
+        int hole = home(idHigh[slot], idLow[slot]);
+        while (table[hole] != slot + 1) {
+            hole = (hole + 1) & tableMask;
+        }
+        for (int position = (hole + 1) & tableMask; table[position] != 0; position = (position + 1) & tableMask) {
+            int entry = table[position] - 1;
+            int entryHome = home(idHigh[entry], idLow[entry]);
+            // La entrada puede ocupar el hueco si su inicio no está en (hole, position]
+            boolean reachable = hole <= position
+                    ? entryHome > hole && entryHome <= position
+                    : entryHome > hole || entryHome <= position;
+            if (!reachable) {
+                table[hole] = table[position];
+                hole = position;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private int acquireMerchant(String merchantId) {
+        Integer existing = merchantCodes.get(merchantId);
+        if (existing != null) {
+            merchantSize[existing]++;
+            return existing;
+        }
+        int code;
+        if (freeCount > 0) {
+            code = freeCodes[--freeCount];
+        } else {
+            if (nextCode == merchantNames.length) {
+                growMerchants();
+            }
+            code = nextCode++;
+        }
+        merchantCodes.put(merchantId, code);
+        merchantNames[code] = merchantId;
+        merchantHead[code] = NONE;
+        merchantTail[code] = NONE;
+        merchantSize[code] = 1;
+        merchantBytes += MERCHANT_OVERHEAD_BYTES + merchantId.length();
+        return code;
+    }
+
+    private void releaseMerchant(int code) {
+        if (--merchantSize[code] > 0) {
+            return;
+        }
+        String merchantId = merchantNames[code];
+        merchantCodes.remove(merchantId);
+        merchantNames[code] = null;
+        merchantBytes -= MERCHANT_OVERHEAD_BYTES + merchantId.length();
+        freeCodes[freeCount++] = code;
+    }
+
+    private void growMerchants() {
+        int length = merchantNames.length * 2;
+        merchantNames = Arrays.copyOf(merchantNames, length);
+        merchantHead = Arrays.copyOf(merchantHead, length);
+        merchantTail = Arrays.copyOf(merchantTail, length);
+        merchantSize = Arrays.copyOf(merchantSize, length);
+        freeCodes = Arrays.copyOf(freeCodes, length);
+    }
+
+    /**
+     * Posición de la última fila de la página anterior
+     */
+    record Cursor(long createdAtNanos, long idHigh, long idLow) {
+    }
+}
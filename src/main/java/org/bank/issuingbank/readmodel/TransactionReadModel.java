@@ -0,0 +1,380 @@
+package org.bank.issuingbank.readmodel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bank.issuingbank.config.ReadModelProperties;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Modelo de lectura en memoria de las transacciones recientes, para que GET /payments/{id} y
+ * GET /payments no compitan con las escrituras por conexiones y locks de la base de datos.
+ * <p>
+ * Los pagos completados (POST /payments, /async y /batch) se encolan con {@link #project} y un
+ * hilo los aplica en lotes a un {@link TransactionIndex}: la consulta ve el pago unos
+ * microsegundos después de responderlo (payments.readmodel.lag). Las transacciones que no pasan
+ * por el servicio de pagos (las del journal al arrancar, las insertadas a mano) no se proyectan.
+ * <p>
+ * Una búsqueda se responde desde memoria solo si su rango cae entero en la ventana cubierta:
+ * desde el arranque o desde la última transacción descartada (por capacidad, retención o cola
+ * llena), lo que sea más reciente. Si no, o si el ID no está, los métodos devuelven vacío y el
+ * llamante consulta la base de datos. Tampoco se responde una página a la que le podría faltar un
+ * pago ya respondido que sigue en la cola: el modelo guarda el createdAt mínimo de lo pendiente y
+ * la página va a la base de datos si ese pago podría caer dentro de ella. Usa
+ * ReentrantReadWriteLock y no synchronized para no fijar virtual threads.
+ */
+@Component
+public class TransactionReadModel implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionReadModel.class);
+
+    private static final int APPLY_BATCH_SIZE = 512;
+    private static final long IDLE_POLL_MS = 100;
+    private static final int UUID_LENGTH = 36;
+
+    private final ReadModelProperties properties;
+    private final LongSupplier clock;
+    private final BlockingQueue<Projection> queue;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // createdAt más alto entre los pagos que no se proyectaron por cola llena
+    private final AtomicLong droppedUpTo = new AtomicLong(Long.MIN_VALUE);
+    // Encolar y bajar pendingFrom es atómico respecto de que el hilo lo reinicie al vaciar la cola
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    // createdAt mínimo entre los pagos encolados y aún no aplicados (Long.MAX_VALUE si no hay)
+    private volatile long pendingFrom = Long.MAX_VALUE;
+
+    private final Timer lagTimer;
+    private final Counter droppedCounter;
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter searchHits;
+    private final Counter searchFallbacks;
+
+    private TransactionIndex index;
+    private volatile long startedAtNanos;
+    private volatile boolean running;
+    private Thread projectorThread;
+
+    @Autowired
+    public TransactionReadModel(ReadModelProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, () -> TransactionIndex.toNanos(LocalDateTime.now()));
+    }
+
+    /**
+     * @param clock fecha local actual en nanos, en la misma escala que createdAt
+     */
+    TransactionReadModel(ReadModelProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(properties.queueSize());
+
+        Gauge.builder("payments.readmodel.entries", this, TransactionReadModel::size)
+                .description("Transacciones en el modelo de lectura")
+                .register(meterRegistry);
+        Gauge.builder("payments.readmodel.memory", this, TransactionReadModel::memoryBytes)
+                .description("Memoria del modelo de lectura: columnas, índice por ID y diccionario de comercios")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("payments.readmodel.queue.size", queue, BlockingQueue::size)
+                .description("Pagos completados pendientes de proyectar")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("payments.readmodel.lag")
+                .description("Tiempo entre que el pago se completa y es visible en el modelo de lectura")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("payments.readmodel.dropped")
+                .description("Pagos no proyectados por cola llena (sus consultas van a la base de datos)")
+                .register(meterRegistry);
+        this.idHits = queries(meterRegistry, "id", "hit");
+        this.idMisses = queries(meterRegistry, "id", "fallback");
+        this.searchHits = queries(meterRegistry, "search", "hit");
+        this.searchFallbacks = queries(meterRegistry, "search", "fallback");
+    }
+
+    /**
+     * Encola el pago completado (con ID asignado) para el modelo de lectura. No espera al hilo:
+     * con la cola llena lo descarta y las búsquedas que lo incluirían van a la base de datos.
+     */
+    public void project(Transaction transaction) {
+        if (!running) {
+            return;
+        }
+        long createdAtNanos = TransactionIndex.toNanos(transaction.getCreatedAt());
+        boolean queued;
+        pendingLock.lock();
+        try {
+            queued = queue.offer(new Projection(transaction, System.nanoTime()));
+            if (queued && createdAtNanos < pendingFrom) {
+                pendingFrom = createdAtNanos;
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        if (!queued) {
+            droppedUpTo.accumulateAndGet(createdAtNanos, Math::max);
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Transacción por ID, si está en el modelo de lectura
+     */
+    public Optional<Transaction> findById(String transactionId) {
+        if (!running) {
+            return Optional.empty();
+        }
+        UUID id = parseId(transactionId);
+        Transaction transaction = null;
+        if (id != null) {
+            lock.readLock().lock();
+            try {
+                int slot = index.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                if (slot != TransactionIndex.NONE) {
+                    transaction = index.toTransaction(slot);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        (transaction == null ? idMisses : idHits).increment();
+        return Optional.ofNullable(transaction);
+    }
+
+    /**
+     * Misma búsqueda que TransactionJdbcRepository.findPage, si el modelo de lectura tiene todas
+     * las transacciones del rango: desde from (o desde el cursor) hasta ahora
+     *
+     * @return vacío si el rango empieza antes de la ventana cubierta o si un pago pendiente de
+     * proyectar podría estar en la página; el llamante consulta la base de datos
+     */
+    public Optional<List<Transaction>> findPage(String merchantId, TransactionStatus status, LocalDateTime from,
+                                                LocalDateTime to, TransactionCursor after, int limit) {
+        if (!running) {
+            return Optional.empty();
+        }
+        TransactionIndex.Cursor cursor = null;
+        if (after != null) {
+            UUID afterId = parseId(after.id());
+            if (afterId == null) {
+                searchFallbacks.increment();
+                return Optional.empty();
+            }
+            cursor = new TransactionIndex.Cursor(TransactionIndex.toNanos(after.createdAt()),
+                    afterId.getMostSignificantBits(), afterId.getLeastSignificantBits());
+        }
+        long fromNanos = from == null ? Long.MIN_VALUE : TransactionIndex.toNanos(from);
+        long lowerBound = cursor == null ? fromNanos : Math.max(fromNanos, cursor.createdAtNanos());
+        long toNanos = to == null ? Long.MAX_VALUE : TransactionIndex.toNanos(to);
+
+        lock.readLock().lock();
+        try {
+            if (lowerBound < coveredFrom()) {
+                searchFallbacks.increment();
+                return Optional.empty();
+            }
+            List<Transaction> page = index.page(merchantId, status, fromNanos, toNanos, cursor, limit);
+            // Con la página llena, un pago pendiente posterior a la última fila iría en otra página
+            long pageEnd = page.size() == limit
+                    ? TransactionIndex.toNanos(page.get(page.size() - 1).getCreatedAt()) + 1
+                    : toNanos;
+            if (pendingFrom < pageEnd) {
+                searchFallbacks.increment();
+                return Optional.empty();
+            }
+            searchHits.increment();
+            return Optional.of(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        index = new TransactionIndex(properties.capacity());
+        startedAtNanos = clock.getAsLong();
+        running = true;
+        projectorThread = new Thread(this::projectLoop, "read-model-projector");
+        projectorThread.setDaemon(true);
+        projectorThread.start();
+        log.info("Transaction read model started - capacity: {}, retention: {}, memory: {} bytes",
+                properties.capacity(), properties.retention(), memoryBytes());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        projectorThread.interrupt();
+        try {
+            projectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Transaction read model stopped - {} transactions", size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Arranca antes que el servidor web, para proyectar desde el primer pago
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Transacciones en el modelo de lectura
+     */
+    int size() {
+        if (!running) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long memoryBytes() {
+        if (!running) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return index.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inicio (inclusive) de la ventana en la que el modelo tiene todas las transacciones proyectadas
+     */
+    private long coveredFrom() {
+        long covered = startedAtNanos;
+        long evicted = index.evictedUpTo();
+        if (evicted != Long.MIN_VALUE) {
+            covered = Math.max(covered, evicted + 1);
+        }
+        long dropped = droppedUpTo.get();
+        if (dropped != Long.MIN_VALUE) {
+            covered = Math.max(covered, dropped + 1);
+        }
+        return covered;
+    }
+
+    private void projectLoop() {
+        List<Projection> batch = new ArrayList<>(APPLY_BATCH_SIZE);
+        while (running) {
+            try {
+                Projection first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, APPLY_BATCH_SIZE - 1);
+                }
+                apply(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Un pago que no se puede proyectar no debe detener el hilo: sus consultas van a la base de datos
+                for (Projection projection : batch) {
+                    droppedUpTo.accumulateAndGet(
+                            TransactionIndex.toNanos(projection.transaction().getCreatedAt()), Math::max);
+                }
+                droppedCounter.increment(batch.size());
+                batch.clear();
+                log.error("Read model projection failed - error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Aplica el lote y descarta lo que salió de la ventana de retención (también sin pagos nuevos)
+     */
+    private void apply(List<Projection> batch) {
+        long retainFrom = clock.getAsLong() - properties.retention().toNanos();
+        lock.writeLock().lock();
+        try {
+            for (Projection projection : batch) {
+                Transaction transaction = projection.transaction();
+                index.add(UUID.fromString(transaction.getId()), transaction);
+            }
+            index.evictCreatedBefore(retainFrom);
+            // Bajo el write lock: ninguna búsqueda ve el mínimo reiniciado sin ver el lote aplicado
+            pendingLock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    pendingFrom = Long.MAX_VALUE;
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long appliedAt = System.nanoTime();
+        for (Projection projection : batch) {
+            lagTimer.record(appliedAt - projection.projectedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * UUID canónico (36 caracteres en minúsculas, como los genera IdGenerator); los IDs que no lo
+     * son nunca están en el modelo y la base de datos los compara como String
+     */
+    private static UUID parseId(String transactionId) {
+        if (transactionId == null || transactionId.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            UUID id = UUID.fromString(transactionId);
+            return id.toString().equals(transactionId) ? id : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Counter queries(MeterRegistry meterRegistry, String query, String result) {
+        return Counter.builder("payments.readmodel.queries")
+                .description("Consultas al modelo de lectura, respondidas desde memoria (hit) o derivadas a la base de datos")
+                .tag("query", query)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Projection(Transaction transaction, long projectedAtNanos) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.bank.issuingbank.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Acceso JDBC a la tabla idempotency_keys. La restricción de clave primaria sobre key_hash
+ * es la que garantiza un solo intento por Idempotency-Key entre instancias y reinicios.
+ */
+@Repository
+public class IdempotencyKeyJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (key_hash, merchant_id, request_hash, transaction_id, created_at, expires_at)
+            VALUES (?, ?, ?, NULL, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserva la clave para un primer intento. Una reserva expirada se reemplaza.
+     *
+     * @return false si la clave ya está reservada (en curso o completada)
+     */
+    public boolean tryClaim(String keyHash, String merchantId, long requestHash,
+                            LocalDateTime now, LocalDateTime expiresAt) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, keyHash, merchantId, requestHash, now, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            int expired = jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE key_hash = ? AND expires_at <= ?", keyHash, now);
+            if (expired == 0) {
+                return false;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, keyHash, merchantId, requestHash, now, expiresAt);
+                return true;
+            } catch (DuplicateKeyException concurrentClaim) {
+                return false;
+            }
+        }
+    }
+
+    public Optional<StoredKey> find(String keyHash) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, transaction_id FROM idempotency_keys WHERE key_hash = ?",
+                (rs, rowNum) -> new StoredKey(rs.getLong("request_hash"), rs.getString("transaction_id")),
+                keyHash
+        ).stream().findFirst();
+    }
+
+    /**
+     * Asocia la transacción resultante a la clave reservada
+     */
+    public void complete(String keyHash, String transactionId) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET transaction_id = ? WHERE key_hash = ?", transactionId, keyHash);
+    }
+
+    /**
+     * Libera una reserva cuyo intento falló, para que el reintento pueda procesarse
+     */
+    public void release(String keyHash) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE key_hash = ? AND transaction_id IS NULL", keyHash);
+    }
+
+    /**
+     * @param transactionId nulo si el primer intento sigue en curso
+     */
+    public record StoredKey(long requestHash, String transactionId) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.bank.issuingbank.repository;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la última fila entregada en una búsqueda paginada por keyset (seek):
+ * la página siguiente empieza en la primera fila con (createdAt, id) mayor.
+ * Viaja al cliente como un token opaco en base64url.
+ */
+public record TransactionCursor(LocalDateTime createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lee el token recibido en el parámetro after
+     *
+     * @throws BusinessException INVALID_CURSOR si el token no fue emitido por esta API
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw invalid();
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("Invalid pagination cursor", "INVALID_CURSOR");
+    }
+}
@@ -0,0 +1,162 @@
+package org.bank.issuingbank.repository;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.id.IdGenerator;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Acceso JDBC directo a la tabla transactions para operaciones masivas,
+ * donde el costo por entidad de JPA (persistence context, dirty checking) no se justifica
+ */
+@Repository
+public class TransactionJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transactions (id, merchant_id, amount_minor_units, currency, status, response_code,
+                                      raw_response_code, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_BY_MERCHANT_SQL = """
+            SELECT id, merchant_id, amount_minor_units, currency, status, response_code, raw_response_code, created_at
+            FROM transactions
+            WHERE merchant_id = ? AND created_at >= ? AND created_at < ?
+            ORDER BY merchant_id, created_at, id
+            """;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT id, merchant_id, amount_minor_units, currency, status, response_code, raw_response_code, created_at
+            FROM transactions
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+
+    public TransactionJdbcRepository(JdbcTemplate jdbcTemplate, IdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Inserta las transacciones con batch inserts JDBC en una sola transacción.
+     * Asigna el ID a las que aún no lo tienen, igual que lo haría Hibernate.
+     */
+    @Transactional
+    public void insertAll(List<Transaction> transactions, int chunkSize) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(idGenerator.nextId());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, chunkSize, (ps, transaction) -> {
+            ps.setString(1, transaction.getId());
+            ps.setString(2, transaction.getMerchantId());
+            ps.setLong(3, transaction.getAmountMinorUnits());
+            ps.setShort(4, transaction.getCurrency().numericCode());
+            ps.setString(5, transaction.getStatus().name());
+            ps.setShort(6, transaction.getResponseCode().id());
+            ps.setString(7, transaction.getRawResponseCode());
+            ps.setObject(8, transaction.getCreatedAt());
+        });
+    }
+
+    /**
+     * Recorre las transacciones del comercio creadas en [from, to) sin cargarlas todas:
+     * cursor forward-only con fetchSize filas por ida y vuelta, en una transacción de solo
+     * lectura (necesaria para que drivers como PostgreSQL usen cursor) y sin contexto de
+     * persistencia. Las transacciones entregadas no quedan referenciadas.
+     */
+    @Transactional(readOnly = true)
+    public void streamByMerchant(String merchantId, LocalDateTime from, LocalDateTime to,
+                                 int fetchSize, Consumer<Transaction> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    SELECT_BY_MERCHANT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, merchantId);
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    /**
+     * Página de transacciones filtradas por comercio y/o estado en [from, to), en orden (createdAt, id).
+     * Paginación keyset: en vez de OFFSET, la consulta sigue desde la posición after, así que el índice
+     * compuesto que corresponda a los filtros (comercio y estado, solo comercio o solo estado) entrega
+     * las filas ya ordenadas y cada página cuesta lo mismo sin importar qué tan profunda sea.
+     *
+     * @param merchantId comercio, o null para no filtrar
+     * @param status     estado, o null para no filtrar
+     * @param from       inicio del rango (inclusive), o null
+     * @param to         fin del rango (exclusivo), o null
+     * @param after      última fila de la página anterior, o null para la primera página
+     * @param limit      máximo de filas
+     */
+    public List<Transaction> findPage(String merchantId, TransactionStatus status, LocalDateTime from,
+                                      LocalDateTime to, TransactionCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append("WHERE 1 = 1");
+        // Las columnas filtradas por igualdad encabezan el ORDER BY: no cambian el orden, pero así
+        // coincide con el prefijo del índice y la base no ordena (H2 no lo deduce por sí sola)
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        List<Object> args = new ArrayList<>(8);
+
+        if (merchantId != null) {
+            sql.append(" AND merchant_id = ?");
+            orderBy.append("merchant_id, ");
+            args.add(merchantId);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            orderBy.append("status, ");
+            args.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(to);
+        }
+        if (after != null) {
+            // created_at >= ? acota el rango del índice; el OR solo descarta empates en el mismo instante
+            sql.append(" AND created_at >= ? AND (created_at > ? OR id > ?)");
+            args.add(after.createdAt());
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+        sql.append(orderBy).append("created_at, id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs), args.toArray());
+    }
+
+    private static Transaction mapRow(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction(
+                rs.getString("merchant_id"),
+                new Money(rs.getLong("amount_minor_units"), IsoCurrency.fromNumericCode(rs.getShort("currency"))),
+                TransactionStatus.valueOf(rs.getString("status")),
+                ResponseCode.fromId(rs.getShort("response_code")),
+                rs.getObject("created_at", LocalDateTime.class));
+        transaction.setRawResponseCode(rs.getString("raw_response_code"));
+        transaction.setId(rs.getString("id"));
+        return transaction;
+    }
+}
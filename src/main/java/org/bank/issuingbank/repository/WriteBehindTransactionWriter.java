@@ -0,0 +1,371 @@
+package org.bank.issuingbank.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bank.issuingbank.config.WriteBehindProperties;
+import org.bank.issuingbank.id.IdGenerator;
+import org.bank.issuingbank.journal.TransactionJournal;
+import org.bank.issuingbank.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistencia write-behind de transacciones: el pago responde apenas el issuer decide
+ * y un hilo en segundo plano inserta las transacciones en lotes (batch insert JDBC).
+ * <p>
+ * Una transacción espera a lo sumo maxLag en cola antes de que comience su flush.
+ * Mientras no se persiste, queda visible en {@link #findPending} para GET /payments/{id}.
+ * Con la cola llena, {@link #enqueue} rechaza y el llamante persiste síncronamente.
+ * Al detener la aplicación la cola se vacía (flushOnShutdown) después de que el servidor
+ * web deja de aceptar requests.
+ * <p>
+ * Un lote que falla nunca se descarta: el cliente ya recibió la respuesta. Si la base de datos
+ * rechaza una fila (violación de integridad) el lote se inserta fila por fila, para que esa fila
+ * no retenga a las demás. Lo que no se pudo insertar sigue en {@link #findPending} y se reintenta
+ * con backoff creciente (hasta MAX_RETRY_BACKOFF_MS) hasta que entra; con un lote completo
+ * pendiente de reintento el writer deja de vaciar la cola, así que la memoria sigue acotada y los
+ * pagos nuevos pasan a persistirse síncronamente cuando la cola se llena. Solo se pierde lo que siga
+ * sin persistir al vencer shutdownTimeout; con el journal activo se recupera al volver a arrancar.
+ */
+@Component
+public class WriteBehindTransactionWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTransactionWriter.class);
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 100;
+    private static final long MAX_RETRY_BACKOFF_MS = 5_000;
+    private static final long IDLE_POLL_MS = 100;
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final WriteBehindProperties properties;
+    private final IdGenerator idGenerator;
+    private final TransactionJournal transactionJournal;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Map<String, Transaction> pending = new ConcurrentHashMap<>();
+    // Transacciones cuyo flush falló, pendientes de reintento; solo las usa el hilo del writer
+    private final List<PendingWrite> retries = new ArrayList<>();
+    private final AtomicInteger retrySize = new AtomicInteger();
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter flushedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private int retryRound;
+    private long nextRetryAtNanos;
+
+    public WriteBehindTransactionWriter(TransactionJdbcRepository transactionJdbcRepository,
+                                        WriteBehindProperties properties,
+                                        IdGenerator idGenerator,
+                                        TransactionJournal transactionJournal,
+                                        MeterRegistry meterRegistry) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.properties = properties;
+        this.idGenerator = idGenerator;
+        this.transactionJournal = transactionJournal;
+        this.queue = new ArrayBlockingQueue<>(properties.maxQueueSize());
+
+        Gauge.builder("payments.writebehind.queue.size", queue, BlockingQueue::size)
+                .description("Transacciones en cola pendientes de persistir")
+                .register(meterRegistry);
+        Gauge.builder("payments.writebehind.retry.size", retrySize, AtomicInteger::get)
+                .description("Transacciones cuyo flush falló, pendientes de reintento")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("payments.writebehind.flush")
+                .description("Duración de cada flush a la base de datos")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("payments.writebehind.lag")
+                .description("Tiempo entre el encolado y el commit de cada transacción")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("payments.writebehind.flushed")
+                .description("Transacciones persistidas por el writer")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payments.writebehind.rejected")
+                .description("Transacciones rechazadas por cola llena (persistidas síncronamente)")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payments.writebehind.failed")
+                .description("Transacciones sin persistir al vencer el shutdownTimeout (el journal las recupera si está activo)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola la transacción para persistirla en segundo plano, asignándole su ID si aún no lo tiene.
+     *
+     * @return false si write-behind no está activo o la cola está llena; la transacción
+     * queda sin cambios y el llamante debe persistirla
+     */
+    public boolean enqueue(Transaction transaction) {
+        return enqueue(transaction, TransactionJournal.NO_TICKET);
+    }
+
+    /**
+     * Como {@link #enqueue(Transaction)}, devolviendo el ticket del journal al persistirla
+     */
+    public boolean enqueue(Transaction transaction, long journalTicket) {
+        if (!running) {
+            return false;
+        }
+
+        boolean assignedId = transaction.getId() == null;
+        if (assignedId) {
+            transaction.setId(idGenerator.nextId());
+        }
+        String transactionId = transaction.getId();
+        pending.put(transactionId, transaction);
+
+        if (queue.offer(new PendingWrite(transaction, System.nanoTime(), journalTicket))) {
+            return true;
+        }
+
+        pending.remove(transactionId);
+        if (assignedId) {
+            transaction.setId(null);
+        }
+        rejectedCounter.increment();
+        log.warn("Write-behind queue full ({} transactions) - falling back to synchronous save",
+                properties.maxQueueSize());
+        return false;
+    }
+
+    /**
+     * Transacción encolada que aún no se ha persistido
+     */
+    public Optional<Transaction> findPending(String transactionId) {
+        return Optional.ofNullable(pending.get(transactionId));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "write-behind-writer");
+        writerThread.start();
+        log.info("Write-behind persistence started - maxLag: {}, maxQueueSize: {}, batchSize: {}",
+                properties.maxLag(), properties.maxQueueSize(), properties.batchSize());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        log.info("Stopping write-behind persistence - {} transactions queued", queue.size());
+
+        try {
+            writerThread.join(properties.shutdownTimeout().toMillis());
+            if (writerThread.isAlive()) {
+                // Sigue reintentando contra una base de datos caída: se abandona el flush final
+                log.error("Write-behind writer did not finish within {} - abandoning final flush",
+                        properties.shutdownTimeout());
+                writerThread.interrupt();
+                writerThread.join(properties.shutdownTimeout().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Se detiene después del servidor web (las fases menores se detienen más tarde),
+     * así el flush final no compite con requests nuevos
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(properties.batchSize());
+
+        while ((running || (properties.flushOnShutdown() && (!queue.isEmpty() || !retries.isEmpty())))
+                && !Thread.currentThread().isInterrupted()) {
+            retryFailed();
+            try {
+                if (retries.size() < properties.batchSize()) {
+                    collectBatch(batch);
+                } else {
+                    // Base de datos caída: sin sacar más de la cola, que al llenarse deriva a save síncrono
+                    Thread.sleep(IDLE_POLL_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+
+        queue.drainTo(retries);
+        if (!retries.isEmpty()) {
+            failedCounter.increment(retries.size());
+            log.error("Write-behind writer stopped - transactions not persisted: {}",
+                    retries.stream().map(write -> write.transaction().getId()).toList());
+        }
+    }
+
+    /**
+     * Junta hasta batchSize transacciones, esperando más como máximo hasta que la primera
+     * cumpla maxLag en cola. Al detenerse no espera: vacía lo que haya.
+     */
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = first.enqueuedAtNanos() + properties.maxLag().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0 || !running) {
+                return;
+            }
+
+            // Espera de a lo sumo IDLE_POLL_MS para notar un stop: con maxLag largo no se podría detener
+            PendingWrite next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MS)),
+                    TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Write-behind flush rejected by the database - {} transactions, inserting one by one, error: {}",
+                        batch.size(), e.getMessage());
+                insertOneByOne(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush attempt {}/{} failed - {} transactions, error: {}",
+                        attempt, MAX_FLUSH_ATTEMPTS, batch.size(), e.getMessage());
+                if (attempt < MAX_FLUSH_ATTEMPTS) {
+                    pauseBeforeRetry(attempt);
+                }
+            }
+        }
+        scheduleRetry(batch);
+    }
+
+    /**
+     * Reintenta las transacciones cuyo flush falló, si ya pasó su backoff
+     */
+    private void retryFailed() {
+        if (retries.isEmpty() || System.nanoTime() - nextRetryAtNanos < 0) {
+            return;
+        }
+        List<PendingWrite> failed = new ArrayList<>(retries);
+        retries.clear();
+        try {
+            insert(failed);
+            log.info("Write-behind retry succeeded - {} transactions persisted", failed.size());
+            retryRound = 0;
+        } catch (DataIntegrityViolationException e) {
+            insertOneByOne(failed);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind retry failed - {} transactions, error: {}", failed.size(), e.getMessage());
+            scheduleRetry(failed);
+        }
+        retrySize.set(retries.size());
+    }
+
+    /**
+     * Inserta cada transacción en su propia transacción JDBC; las que fallan quedan para reintento
+     */
+    private void insertOneByOne(List<PendingWrite> batch) {
+        List<PendingWrite> failed = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            try {
+                insert(List.of(write));
+            } catch (DuplicateKeyException e) {
+                // Un intento anterior hizo commit aunque informó error: la fila ya está
+                committed(List.of(write));
+            } catch (RuntimeException e) {
+                log.error("Write-behind insert failed - transactionId: {}, error: {}",
+                        write.transaction().getId(), e.getMessage());
+                failed.add(write);
+            }
+        }
+        if (failed.isEmpty()) {
+            retryRound = 0;
+        } else {
+            scheduleRetry(failed);
+        }
+    }
+
+    private void scheduleRetry(List<PendingWrite> failed) {
+        retries.addAll(failed);
+        retrySize.set(retries.size());
+        long backoffMs = Math.min(MAX_RETRY_BACKOFF_MS, RETRY_BACKOFF_MS << Math.min(retryRound, 10));
+        retryRound++;
+        nextRetryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        log.error("Write-behind flush failed - {} transactions kept in memory, next retry in {} ms",
+                retries.size(), backoffMs);
+    }
+
+    private void insert(List<PendingWrite> writes) {
+        long start = System.nanoTime();
+        transactionJdbcRepository.insertAll(writes.stream().map(PendingWrite::transaction).toList(),
+                properties.batchSize());
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        committed(writes);
+    }
+
+    private void committed(List<PendingWrite> writes) {
+        long committedAt = System.nanoTime();
+        for (PendingWrite write : writes) {
+            pending.remove(write.transaction().getId());
+            lagTimer.record(committedAt - write.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+            transactionJournal.persisted(write.journalTicket());
+        }
+        flushedCounter.increment(writes.size());
+        log.debug("Write-behind flush completed - {} transactions", writes.size());
+    }
+
+    private void pauseBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingWrite(Transaction transaction, long enqueuedAtNanos, long journalTicket) {
+    }
+}
@@ -0,0 +1,11 @@
+package org.bank.issuingbank.service;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.BatchPaymentResponse;
+
+import java.util.List;
+
+public interface BatchPaymentService {
+
+    BatchPaymentResponse processBatch(List<PaymentRequest> requests);
+}
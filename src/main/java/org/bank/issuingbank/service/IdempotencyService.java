@@ -0,0 +1,14 @@
+package org.bank.issuingbank.service;
+
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+
+public interface IdempotencyService {
+
+    /**
+     * Procesa el pago una sola vez por comercio e Idempotency-Key. Un reintento devuelve la
+     * respuesta original sin volver a llamar al issuer; un duplicado concurrente espera al
+     * primer intento en lugar de competir con él.
+     */
+    PaymentResponse processPayment(String idempotencyKey, PaymentRequest request);
+}
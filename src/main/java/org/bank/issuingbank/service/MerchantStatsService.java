@@ -0,0 +1,22 @@
+package org.bank.issuingbank.service;
+
+import org.bank.issuingbank.dto.response.MerchantStatsResponse;
+
+import java.util.List;
+
+public interface MerchantStatsService {
+
+    /**
+     * Estadísticas en vivo del comercio en las ventanas de 1, 5 y 60 minutos
+     */
+    MerchantStatsResponse getMerchantStats(String merchantId);
+
+    /**
+     * Ranking de comercios en una ventana
+     *
+     * @param window  1m, 5m o 60m
+     * @param ranking count o declineRate
+     * @param limit   comercios a devolver
+     */
+    List<MerchantStatsResponse> getTopMerchants(String window, String ranking, int limit);
+}
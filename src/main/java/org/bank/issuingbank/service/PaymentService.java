@@ -3,9 +3,16 @@ package org.bank.issuingbank.service;
 import org.bank.issuingbank.dto.request.PaymentRequest;
 import org.bank.issuingbank.dto.response.PaymentResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentService {
 
     PaymentResponse processPayment(PaymentRequest request);
 
+    /**
+     * Igual que {@link #processPayment}, sin bloquear el hilo llamante mientras responde el issuer
+     */
+    CompletableFuture<PaymentResponse> processPaymentAsync(PaymentRequest request);
+
     PaymentResponse getPaymentById(String transactionId);
-}
\ No newline at end of file
+}
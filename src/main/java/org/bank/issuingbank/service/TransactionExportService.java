@@ -0,0 +1,16 @@
+package org.bank.issuingbank.service;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface TransactionExportService {
+
+    /**
+     * Escribe como NDJSON (una transacción por línea) las transacciones del comercio creadas
+     * en [from, to), ordenadas por fecha. Lee desde un cursor JDBC: la memoria usada no
+     * depende de la cantidad de filas.
+     *
+     * @return filas exportadas
+     */
+    long exportMerchantTransactions(String merchantId, LocalDateTime from, LocalDateTime to, OutputStream output);
+}
@@ -0,0 +1,19 @@
+package org.bank.issuingbank.service;
+
+import org.bank.issuingbank.dto.response.TransactionPageResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+public interface TransactionSearchService {
+
+    /**
+     * Busca transacciones por comercio y/o estado en [from, to), paginadas por keyset.
+     * Exige al menos uno de los dos filtros para que la consulta use un índice.
+     *
+     * @param after token nextCursor de la página anterior, o null para la primera
+     * @param limit filas por página, o null para el valor por defecto
+     */
+    TransactionPageResponse search(String merchantId, TransactionStatus status, LocalDateTime from,
+                                   LocalDateTime to, String after, Integer limit);
+}
@@ -0,0 +1,38 @@
+package org.bank.issuingbank.service.external;
+
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Issuer que deduplica autorizaciones por referencia: todos los intentos con la misma
+ * authorizationReference reciben la misma decisión y generan una sola autorización.
+ * Es requisito para reintentar o duplicar (hedging) una llamada sin riesgo de cobrar dos veces.
+ */
+public interface IdempotentIssuerClient extends IssuerClient {
+
+    CompletableFuture<IssuerResponse> authorizeAsync(String authorizationReference,
+                                                     String cardToken, Double amount, String currency);
+
+    /**
+     * Como {@link IssuerClient#authorizeBatch}, respetando la referencia de cada autorización
+     */
+    @Override
+    default List<CompletableFuture<IssuerResponse>> authorizeBatch(List<IssuerRequest> requests) {
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>(requests.size());
+        for (IssuerRequest request : requests) {
+            try {
+                responses.add(request.authorizationReference() == null
+                        ? authorizeAsync(request.cardToken(), request.amount(), request.currency())
+                        : authorizeAsync(request.authorizationReference(),
+                                request.cardToken(), request.amount(), request.currency()));
+            } catch (RuntimeException e) {
+                responses.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return responses;
+    }
+}
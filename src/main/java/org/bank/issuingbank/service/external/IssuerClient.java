@@ -1,9 +1,44 @@
 package org.bank.issuingbank.service.external;
 
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
 import org.bank.issuingbank.service.external.dto.IssuerResponse;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface IssuerClient {
 
     IssuerResponse authorize(String cardToken, Double amount, String currency);
 
+    /**
+     * Variante no bloqueante de {@link #authorize}: el hilo llamante queda libre mientras
+     * el issuer responde. Por defecto delega en authorize en el mismo hilo; las
+     * implementaciones con latencia real deben sobrescribirla sin bloquear.
+     */
+    default CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        try {
+            return CompletableFuture.completedFuture(authorize(cardToken, amount, currency));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Varias autorizaciones en un solo mensaje al issuer. Cada una tiene su propia respuesta,
+     * en el mismo orden que requests; una autorización inválida falla sin afectar a las demás.
+     * Por defecto envía una llamada por autorización; las implementaciones cuyo enlace admite
+     * lotes deben sobrescribirla con un solo viaje de ida y vuelta.
+     */
+    default List<CompletableFuture<IssuerResponse>> authorizeBatch(List<IssuerRequest> requests) {
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>(requests.size());
+        for (IssuerRequest request : requests) {
+            try {
+                responses.add(authorizeAsync(request.cardToken(), request.amount(), request.currency()));
+            } catch (RuntimeException e) {
+                responses.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return responses;
+    }
 }
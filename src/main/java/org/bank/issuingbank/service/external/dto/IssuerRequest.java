@@ -0,0 +1,10 @@
+package org.bank.issuingbank.service.external.dto;
+
+/**
+ * Una autorización dentro de un lote enviado al issuer
+ *
+ * @param authorizationReference referencia para deduplicar reintentos y hedges (null: sin deduplicar)
+ */
+public record IssuerRequest(String authorizationReference, String cardToken, Double amount, String currency) {
+
+}
@@ -0,0 +1,105 @@
+package org.bank.issuingbank.service.external.impl;
+
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decorador que acota las autorizaciones: un timeout por llamada (presupuesto de latencia)
+ * y un máximo de llamadas en vuelo, síncronas y asíncronas (las que exceden el cupo se
+ * rechazan de inmediato con 503).
+ * <p>
+ * El timeout lo vigila el timer compartido de CompletableFuture (orTimeout), sin un hilo por
+ * llamada. El cupo se libera cuando responde el issuer y no al vencer el timeout: una llamada
+ * que agotó su presupuesto sigue ocupando al issuer, y el máximo acota las llamadas reales.
+ * La variante síncrona pasa por authorizeAsync y espera su respuesta a lo sumo el timeout: con
+ * hilos virtuales el hilo que espera no acota nada, así que también ocupa cupo.
+ */
+public class BoundedIssuerClient implements IssuerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedIssuerClient.class);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final IssuerClient delegate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+
+    public BoundedIssuerClient(IssuerClient delegate, int maxInFlight, Duration timeout) {
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+        try {
+            return authorizeAsync(cardToken, amount, currency).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        if (!inFlight.tryAcquire()) {
+            log.warn("Issuer in-flight limit reached - rejecting authorization");
+            return CompletableFuture.failedFuture(new CapacityExceededException(
+                    "Too many authorizations in flight, retry later",
+                    "ISSUER_CAPACITY_EXCEEDED",
+                    RETRY_AFTER));
+        }
+
+        CompletableFuture<IssuerResponse> response;
+        try {
+            response = delegate.authorizeAsync(cardToken, amount, currency);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // El cupo se libera con la respuesta del delegado, no con la copia que vence por timeout
+        response.whenComplete((result, error) -> inFlight.release());
+        return withTimeout(response);
+    }
+
+    /**
+     * Se trabaja sobre una copia para no completar por timeout el futuro del delegado
+     */
+    private CompletableFuture<IssuerResponse> withTimeout(CompletableFuture<IssuerResponse> response) {
+        return response.copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Issuer authorization timed out after {} ms", timeout.toMillis());
+                        throw new BusinessException(
+                                "Issuer did not respond within " + timeout.toMillis() + " ms",
+                                "ISSUER_TIMEOUT");
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Autorizaciones pendientes de respuesta
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+}
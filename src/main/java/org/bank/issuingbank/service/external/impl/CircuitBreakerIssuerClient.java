@@ -0,0 +1,365 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.CircuitBreakerProperties;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorador que corta las llamadas a un issuer degradado. Mientras el circuito está abierto
+ * cada autorización se rechaza al instante con código 91 (issuer no disponible) en vez de
+ * esperar el timeout, así los comercios reciben DECLINED rápido y el issuer no recibe más carga.
+ * <p>
+ * Estados:
+ * <ul>
+ *   <li>CLOSED: llamadas normales; se guarda el resultado de las últimas slidingWindowSize.
+ *       Con al menos minimumCalls, si la tasa de fallas o de llamadas lentas llega a su umbral
+ *       se abre el circuito.</li>
+ *   <li>OPEN: no se llama al issuer durante openDuration.</li>
+ *   <li>HALF_OPEN: se dejan pasar halfOpenCalls llamadas de prueba (el resto se rechaza con 91).
+ *       Si sus tasas quedan bajo los umbrales se cierra; si no, vuelve a abrirse.</li>
+ * </ul>
+ * Cuenta como falla cualquier error del issuer, incluido ISSUER_TIMEOUT. Los rechazos del
+ * issuer (approved=false) y las validaciones de negocio son respuestas de un issuer sano y no
+ * cuentan; los rechazos por capacidad local (503) no llegan al issuer y tampoco.
+ * <p>
+ * Con el circuito cerrado ninguna llamada toma el lock: el resultado se registra en la ventana
+ * con operaciones atómicas y el lock solo se toma para cambiar de estado y en HALF_OPEN.
+ */
+public class CircuitBreakerIssuerClient implements IssuerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerIssuerClient.class);
+
+    private static final String ISSUER_TIMEOUT = "ISSUER_TIMEOUT";
+    private static final IssuerResponse ISSUER_UNAVAILABLE =
+            new IssuerResponse(false, ResponseCode.ISSUER_UNAVAILABLE.code());
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private enum Outcome {
+        SUCCESS, SLOW, FAILURE, SLOW_FAILURE, IGNORED;
+
+        private static final Outcome[] VALUES = values();
+
+        boolean failure() {
+            return this == FAILURE || this == SLOW_FAILURE;
+        }
+
+        boolean slow() {
+            return this == SLOW || this == SLOW_FAILURE;
+        }
+    }
+
+    private final IssuerClient delegate;
+    private final CircuitBreakerProperties properties;
+    private final LongSupplier nanoClock;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final MeterRegistry meterRegistry;
+    private final Counter notPermittedCounter;
+
+    // El estado y la ventana se leen sin lock en cada llamada; las transiciones y las pruebas usan el lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtNanos;
+    // Al cerrarse el circuito se reemplaza entera: lo que registre una llamada anterior queda en la vieja
+    private volatile Window window;
+
+    // Llamadas de prueba en HALF_OPEN
+    private int probesPermitted;
+    private int probeCalls;
+    private int probeFailures;
+    private int probeSlowCalls;
+
+    public CircuitBreakerIssuerClient(IssuerClient delegate, CircuitBreakerProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this(delegate, properties, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreakerIssuerClient(IssuerClient delegate, CircuitBreakerProperties properties,
+                               MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (properties.slidingWindowSize() < 1 || properties.halfOpenCalls() < 1) {
+            throw new IllegalArgumentException(
+                    "payments.issuer.circuit-breaker sliding-window-size and half-open-calls must be positive");
+        }
+        this.delegate = delegate;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.slowCallNanos = properties.slowCallThreshold().toNanos();
+        this.openNanos = properties.openDuration().toNanos();
+        this.meterRegistry = meterRegistry;
+        this.window = new Window(properties.slidingWindowSize());
+
+        Gauge.builder("payments.issuer.circuit.state", this, client -> client.state().ordinal())
+                .description("Estado del circuit breaker del issuer: 0 CLOSED, 1 HALF_OPEN, 2 OPEN")
+                .register(meterRegistry);
+        Gauge.builder("payments.issuer.circuit.failure.rate", this, CircuitBreakerIssuerClient::failureRate)
+                .description("Tasa de fallas en la ventana deslizante del circuit breaker")
+                .register(meterRegistry);
+        Gauge.builder("payments.issuer.circuit.slow.rate", this, CircuitBreakerIssuerClient::slowCallRate)
+                .description("Tasa de llamadas lentas en la ventana deslizante del circuit breaker")
+                .register(meterRegistry);
+        this.notPermittedCounter = Counter.builder("payments.issuer.circuit.not.permitted")
+                .description("Autorizaciones rechazadas con código 91 sin llamar al issuer")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+        if (!tryAcquirePermission()) {
+            return ISSUER_UNAVAILABLE;
+        }
+
+        long start = nanoClock.getAsLong();
+        try {
+            IssuerResponse response = delegate.authorize(cardToken, amount, currency);
+            onComplete(start, null);
+            return response;
+        } catch (RuntimeException e) {
+            onComplete(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        if (!tryAcquirePermission()) {
+            return CompletableFuture.completedFuture(ISSUER_UNAVAILABLE);
+        }
+
+        long start = nanoClock.getAsLong();
+        try {
+            return delegate.authorizeAsync(cardToken, amount, currency)
+                    .whenComplete((response, error) -> onComplete(start, error));
+        } catch (RuntimeException e) {
+            onComplete(start, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Fallas sobre llamadas en la ventana actual (0 si está vacía)
+     */
+    public double failureRate() {
+        Window current = window;
+        return rate(current.failures.get(), current.calls.get());
+    }
+
+    /**
+     * Llamadas lentas sobre llamadas en la ventana actual (0 si está vacía)
+     */
+    public double slowCallRate() {
+        Window current = window;
+        return rate(current.slowCalls.get(), current.calls.get());
+    }
+
+    private boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && probesPermitted < properties.halfOpenCalls()) {
+                probesPermitted++;
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        notPermittedCounter.increment();
+        return false;
+    }
+
+    private void onComplete(long startNanos, Throwable error) {
+        Outcome outcome = classify(nanoClock.getAsLong() - startNanos, error);
+
+        if (state == State.CLOSED) {
+            recordInWindow(outcome);
+            return;
+        }
+
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> recordInWindow(outcome);
+                case HALF_OPEN -> recordProbe(outcome);
+                // Respuestas de llamadas iniciadas antes de abrir: no aportan información nueva
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sin lock; solo si la ventana supera un umbral se toma el lock para abrir el circuito
+     */
+    private void recordInWindow(Outcome outcome) {
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+
+        Window current = window;
+        current.record(outcome);
+        int calls = current.calls.get();
+        if (calls < properties.minimumCalls()
+                || !exceedsThresholds(calls, current.failures.get(), current.slowCalls.get())) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            // Otra llamada pudo abrirlo (o abrirlo y volver a cerrarlo con una ventana nueva)
+            if (state == State.CLOSED && window == current) {
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordProbe(Outcome outcome) {
+        if (outcome == Outcome.IGNORED) {
+            // La prueba no dijo nada del issuer: se libera el cupo para otra
+            probesPermitted--;
+            return;
+        }
+
+        probeCalls++;
+        probeFailures += outcome.failure() ? 1 : 0;
+        probeSlowCalls += outcome.slow() ? 1 : 0;
+        if (probeCalls < properties.halfOpenCalls()) {
+            return;
+        }
+        transitionTo(exceedsThresholds(probeCalls, probeFailures, probeSlowCalls) ? State.OPEN : State.CLOSED);
+    }
+
+    private boolean exceedsThresholds(int calls, int failures, int slowCalls) {
+        return failures * 100L >= (long) properties.failureRateThreshold() * calls
+                || slowCalls * 100L >= (long) properties.slowCallRateThreshold() * calls;
+    }
+
+    private Outcome classify(long elapsedNanos, Throwable error) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (error == null) {
+            return slow ? Outcome.SLOW : Outcome.SUCCESS;
+        }
+        if (!isIssuerFailure(error)) {
+            return Outcome.IGNORED;
+        }
+        return slow ? Outcome.SLOW_FAILURE : Outcome.FAILURE;
+    }
+
+    private static boolean isIssuerFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        if (cause instanceof BusinessException businessException) {
+            // CapacityExceededException es un BusinessException con otro errorCode: tampoco cuenta
+            return ISSUER_TIMEOUT.equals(businessException.getErrorCode());
+        }
+        return true;
+    }
+
+    /**
+     * Cambia de estado y reinicia los contadores del nuevo estado. Se llama con el lock tomado.
+     */
+    private void transitionTo(State next) {
+        State previous = state;
+        if (previous == next) {
+            return;
+        }
+
+        boolean probing = previous == State.HALF_OPEN;
+        double failureRate = probing ? rate(probeFailures, probeCalls) : failureRate();
+        double slowCallRate = probing ? rate(probeSlowCalls, probeCalls) : slowCallRate();
+
+        switch (next) {
+            case OPEN -> openedAtNanos = nanoClock.getAsLong();
+            case HALF_OPEN -> {
+                probesPermitted = 0;
+                probeCalls = 0;
+                probeFailures = 0;
+                probeSlowCalls = 0;
+            }
+            case CLOSED -> window = new Window(properties.slidingWindowSize());
+        }
+        state = next;
+
+        meterRegistry.counter("payments.issuer.circuit.transitions",
+                "from", previous.name(), "to", next.name()).increment();
+        log.warn("Issuer circuit breaker transition - from: {}, to: {}, failureRate: {}, slowCallRate: {}",
+                previous, next, String.format("%.2f", failureRate), String.format("%.2f", slowCallRate));
+    }
+
+    private static double rate(int count, int calls) {
+        return calls == 0 ? 0 : (double) count / calls;
+    }
+
+    /**
+     * Ventana deslizante por cantidad: buffer circular con los resultados de las últimas llamadas
+     * (0 vacío, ordinal + 1) y contadores atómicos. Entre el reemplazo de un resultado y el ajuste
+     * de los contadores otra llamada puede leerlos desfasados en uno; para comparar tasas con un
+     * umbral basta.
+     */
+    private static final class Window {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(Outcome outcome) {
+            int slot = (int) (next.getAndIncrement() % outcomes.length());
+            int evictedCode = outcomes.getAndSet(slot, outcome.ordinal() + 1);
+            int failure = outcome.failure() ? 1 : 0;
+            int slow = outcome.slow() ? 1 : 0;
+            if (evictedCode == 0) {
+                calls.incrementAndGet();
+            } else {
+                Outcome evicted = Outcome.VALUES[evictedCode - 1];
+                failure -= evicted.failure() ? 1 : 0;
+                slow -= evicted.slow() ? 1 : 0;
+            }
+            if (failure != 0) {
+                failures.addAndGet(failure);
+            }
+            if (slow != 0) {
+                slowCalls.addAndGet(slow);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.CoalescingProperties;
+import org.bank.issuingbank.service.external.IdempotentIssuerClient;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorador que agrupa autorizaciones concurrentes en lotes: se acumulan hasta maxBatchSize
+ * o hasta que la primera del lote espera maxWait, se envían al issuer con un solo
+ * {@link IssuerClient#authorizeBatch} y cada respuesta vuelve a quien la pidió.
+ * <p>
+ * Un lote completo lo envía el hilo que agrega la última autorización; uno incompleto, el
+ * timer compartido. La espera adicional por autorización es a lo sumo maxWait y solo se
+ * paga con poca concurrencia: con mucho tráfico los lotes se llenan antes.
+ * <p>
+ * Conserva la referencia de autorización, por lo que puede quedar debajo de HedgingIssuerClient
+ * si el issuer deduplica por referencia.
+ */
+public class CoalescingIssuerClient implements IdempotentIssuerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingIssuerClient.class);
+
+    private final IssuerClient delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService timer;
+    private final DistributionSummary batchSizes;
+    private final Counter batchFailures;
+
+    // Lote en formación; generation identifica al lote para que el timer no envíe uno posterior
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<PendingAuthorization> pending;
+    private long generation;
+
+    public CoalescingIssuerClient(IssuerClient delegate, CoalescingProperties properties,
+                                  ScheduledExecutorService timer, MeterRegistry meterRegistry) {
+        if (properties.maxBatchSize() < 1) {
+            throw new IllegalArgumentException("payments.issuer.coalescing.max-batch-size must be positive");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = properties.maxBatchSize();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.timer = timer;
+        this.pending = new ArrayList<>(maxBatchSize);
+
+        this.batchSizes = DistributionSummary.builder("payments.issuer.batch.size")
+                .description("Autorizaciones por lote enviado al issuer")
+                .register(meterRegistry);
+        this.batchFailures = Counter.builder("payments.issuer.batch.failures")
+                .description("Lotes que el issuer no pudo recibir (fallan todas sus autorizaciones)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+        try {
+            return authorizeAsync(cardToken, amount, currency).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        return enqueue(new IssuerRequest(null, cardToken, amount, currency));
+    }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String authorizationReference,
+                                                            String cardToken, Double amount, String currency) {
+        return enqueue(new IssuerRequest(authorizationReference, cardToken, amount, currency));
+    }
+
+    /**
+     * Un lote armado por quien llama ya es un solo mensaje: se envía tal cual
+     */
+    @Override
+    public List<CompletableFuture<IssuerResponse>> authorizeBatch(List<IssuerRequest> requests) {
+        batchSizes.record(requests.size());
+        return delegate.authorizeBatch(requests);
+    }
+
+    private CompletableFuture<IssuerResponse> enqueue(IssuerRequest request) {
+        PendingAuthorization authorization = new PendingAuthorization(request, new CompletableFuture<>());
+        List<PendingAuthorization> fullBatch = null;
+
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                scheduleFlush(generation);
+            }
+            pending.add(authorization);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return authorization.response();
+    }
+
+    private void scheduleFlush(long batchGeneration) {
+        try {
+            timer.schedule(() -> flushExpired(batchGeneration), maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Timer detenido (apagado de la aplicación): el lote se envía al completarse
+            log.debug("Coalescing timer rejected flush - generation: {}", batchGeneration);
+        }
+    }
+
+    private void flushExpired(long batchGeneration) {
+        List<PendingAuthorization> batch;
+        lock.lock();
+        try {
+            if (generation != batchGeneration || pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * Entrega el lote en formación y empieza uno nuevo. Se llama con el lock tomado.
+     */
+    private List<PendingAuthorization> drain() {
+        List<PendingAuthorization> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(List<PendingAuthorization> batch) {
+        List<IssuerRequest> requests = new ArrayList<>(batch.size());
+        for (PendingAuthorization authorization : batch) {
+            requests.add(authorization.request());
+        }
+        batchSizes.record(batch.size());
+
+        List<CompletableFuture<IssuerResponse>> responses;
+        try {
+            responses = delegate.authorizeBatch(requests);
+        } catch (RuntimeException e) {
+            batchFailures.increment();
+            log.warn("Issuer batch failed - size: {}, error: {}", batch.size(), e.getMessage());
+            for (PendingAuthorization authorization : batch) {
+                authorization.response().completeExceptionally(e);
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<IssuerResponse> response = batch.get(i).response();
+            responses.get(i).whenComplete((issuerResponse, error) -> {
+                if (error == null) {
+                    response.complete(issuerResponse);
+                } else {
+                    response.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            });
+        }
+    }
+
+    private record PendingAuthorization(IssuerRequest request, CompletableFuture<IssuerResponse> response) {
+    }
+}
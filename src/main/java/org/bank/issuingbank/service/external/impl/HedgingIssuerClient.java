@@ -0,0 +1,165 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.HedgingProperties;
+import org.bank.issuingbank.service.external.IdempotentIssuerClient;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorador que recorta la cola de latencia del issuer con hedging: si una autorización
+ * asíncrona no responde dentro del percentil observado (p95 por defecto) se envía un segundo
+ * intento y se usa la primera respuesta.
+ * <p>
+ * Los dos intentos llevan la misma referencia de autorización, por lo que el issuer
+ * ({@link IdempotentIssuerClient}) decide una sola vez: un hedge nunca genera dos
+ * autorizaciones. Además solo la primera respuesta completa el resultado, así que el pago
+ * se registra una única vez aunque lleguen ambas.
+ * <p>
+ * El segundo intento se agenda en un timer compartido (sin hilos por llamada) y se cancela
+ * al llegar la respuesta. Los hedges se limitan a maxHedgePercent de las llamadas para no
+ * duplicar la carga cuando el issuer completo está lento.
+ */
+public class HedgingIssuerClient implements IssuerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingIssuerClient.class);
+
+    private final IdempotentIssuerClient delegate;
+    private final HedgingProperties properties;
+    private final ScheduledExecutorService timer;
+    private final LatencyTracker latencyTracker;
+    private final long minDelayNanos;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final Counter hedgeCounter;
+    private final Counter hedgeWinsCounter;
+
+    public HedgingIssuerClient(IdempotentIssuerClient delegate, HedgingProperties properties,
+                               ScheduledExecutorService timer, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.timer = timer;
+        this.latencyTracker = new LatencyTracker(properties.percentile(), properties.minSamples());
+        this.minDelayNanos = properties.minDelay().toNanos();
+
+        Gauge.builder("payments.issuer.hedge.delay", this, client -> client.hedgeDelayNanos() / 1_000_000.0)
+                .description("Espera antes del segundo intento en ms (-1: aún sin muestras suficientes)")
+                .register(meterRegistry);
+        this.hedgeCounter = Counter.builder("payments.issuer.hedge.sent")
+                .description("Autorizaciones con segundo intento")
+                .register(meterRegistry);
+        this.hedgeWinsCounter = Counter.builder("payments.issuer.hedge.wins")
+                .description("Autorizaciones resueltas por el segundo intento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sin hedging: el camino síncrono pasa por authorizeAsync cuando se envuelve con BoundedIssuerClient
+     */
+    @Override
+    public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+        return delegate.authorize(cardToken, amount, currency);
+    }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        calls.incrementAndGet();
+        HedgedCall call = new HedgedCall(UUID.randomUUID().toString(), cardToken, amount, currency);
+        call.attempt(false);
+
+        long delayNanos = hedgeDelayNanos();
+        if (delayNanos >= 0 && !call.result.isDone()) {
+            ScheduledFuture<?> hedge = timer.schedule(call::hedge, delayNanos, TimeUnit.NANOSECONDS);
+            call.result.whenComplete((response, error) -> hedge.cancel(false));
+        }
+        return call.result;
+    }
+
+    /**
+     * Espera antes del segundo intento: el percentil observado, con un mínimo de minDelay
+     *
+     * @return -1 mientras no haya minSamples respuestas observadas
+     */
+    long hedgeDelayNanos() {
+        long percentileNanos = latencyTracker.percentileNanos();
+        return percentileNanos < 0 ? -1 : Math.max(percentileNanos, minDelayNanos);
+    }
+
+    private boolean tryAcquireHedge() {
+        long hedged = hedges.get();
+        while ((hedged + 1) * 100 <= calls.get() * properties.maxHedgePercent()) {
+            if (hedges.compareAndSet(hedged, hedged + 1)) {
+                return true;
+            }
+            hedged = hedges.get();
+        }
+        return false;
+    }
+
+    /**
+     * Una autorización lógica: el intento original y, si tarda, el hedge
+     */
+    private final class HedgedCall {
+
+        private final String reference;
+        private final String cardToken;
+        private final Double amount;
+        private final String currency;
+        private final CompletableFuture<IssuerResponse> result = new CompletableFuture<>();
+        private final AtomicInteger pendingAttempts = new AtomicInteger();
+
+        private HedgedCall(String reference, String cardToken, Double amount, String currency) {
+            this.reference = reference;
+            this.cardToken = cardToken;
+            this.amount = amount;
+            this.currency = currency;
+        }
+
+        private void hedge() {
+            if (result.isDone() || !tryAcquireHedge()) {
+                return;
+            }
+            hedgeCounter.increment();
+            log.debug("Issuer slower than p{} - sending hedged authorization - reference: {}",
+                    Math.round(properties.percentile() * 100), reference);
+            attempt(true);
+        }
+
+        private void attempt(boolean hedged) {
+            pendingAttempts.incrementAndGet();
+            long start = System.nanoTime();
+
+            CompletableFuture<IssuerResponse> response;
+            try {
+                response = delegate.authorizeAsync(reference, cardToken, amount, currency);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+
+            response.whenComplete((issuerResponse, error) -> {
+                int stillPending = pendingAttempts.decrementAndGet();
+                if (error == null) {
+                    latencyTracker.record(System.nanoTime() - start);
+                    if (result.complete(issuerResponse) && hedged) {
+                        hedgeWinsCounter.increment();
+                    }
+                } else if (stillPending == 0) {
+                    // Solo falla si ya no queda otro intento que pueda responder
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.bank.issuingbank.service.external.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentil de las últimas latencias del issuer, para decidir cuándo hacer hedging.
+ * <p>
+ * Guarda las últimas 1024 muestras en un buffer circular y recalcula el percentil cada 128
+ * registros (ordenar 1024 longs toma microsegundos). Quien consulta solo lee un volatile.
+ */
+final class LatencyTracker {
+
+    private static final int SAMPLES = 1024;
+    private static final int RECOMPUTE_EVERY = 128;
+
+    private final double percentile;
+    private final int minSamples;
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicBoolean recomputing = new AtomicBoolean();
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile, int minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+        }
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, SAMPLES);
+    }
+
+    void record(long latencyNanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % SAMPLES), latencyNanos);
+
+        long count = index + 1;
+        if (count >= minSamples && (count == minSamples || count % RECOMPUTE_EVERY == 0)) {
+            recompute(count);
+        }
+    }
+
+    /**
+     * @return el percentil en nanosegundos, o -1 si aún no hay minSamples muestras
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long count) {
+        // Si otro hilo ya está recalculando, su resultado sirve igual
+        if (!recomputing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int size = (int) Math.min(count, SAMPLES);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.ceil(percentile * size) - 1];
+        } finally {
+            recomputing.set(false);
+        }
+    }
+}
@@ -1,68 +1,249 @@
 package org.bank.issuingbank.service.external.impl;
 
-import org.bank.issuingbank.exception.BusinessException;
-import org.bank.issuingbank.service.external.IssuerClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.service.external.IdempotentIssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
 import org.bank.issuingbank.service.external.dto.IssuerResponse;
-import org.springframework.stereotype.Component;
+import org.bank.issuingbank.service.external.simulator.IssuerBehavior;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
 
-import java.util.Random;
-import java.util.regex.Pattern;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
-@Component
-public class MockIssuerClient implements IssuerClient {
+/**
+ * Issuer simulado. authorize responde de inmediato; authorizeAsync agenda la respuesta
+ * tras la latencia del IssuerSimulator (fija, log-normal o bimodal, con errores y timeouts
+ * según el escenario en curso) sin ocupar ningún hilo mientras tanto; authorizeBatch paga
+ * esa latencia una vez por lote, no por autorización. Las decisiones por referencia de
+ * autorización se recuerdan un minuto, como la deduplicación de un issuer real. Se registra
+ * como bean en IssuerClientConfig.
+ * <p>
+ * Un token o monto mal formado no lanza excepción: el issuer lo rechaza como cualquier otra
+ * autorización (14 tarjeta inválida, 13 monto inválido), con respuestas preconstruidas (igual que
+ * los rechazos por tarjeta bloqueada, inválida o límite excedido) y sin expresiones regulares, así
+ * una avalancha de tokens inválidos cuesta lo mismo que una de rechazos normales.
+ */
+public class MockIssuerClient implements IdempotentIssuerClient {
 
     private static final double MAX_AMOUNT = 1000000;
     private static final int MIN_TOKEN_LENGTH = 10;
-    private static final Pattern TOKEN_PATTERN = Pattern.compile("^[A-Za-z0-9_]+$");
     private static final String BLOCKED_CARD_SUFFIX = "999";
     private static final String INVALID_CARD_PATTERN = "0000";
     
-    private final Random random = new Random();
+    private static final Duration DECISION_RETENTION = Duration.ofMinutes(1);
+    private static final int MAX_DECISIONS = 100_000;
+
+    private static final IssuerResponse INVALID_CARD_NUMBER =
+            new IssuerResponse(false, ResponseCode.INVALID_CARD_NUMBER.code());
+    private static final IssuerResponse INVALID_AMOUNT =
+            new IssuerResponse(false, ResponseCode.INVALID_AMOUNT.code());
+    private static final IssuerResponse CARD_BLOCKED =
+            new IssuerResponse(false, ResponseCode.CARD_BLOCKED.code());
+    private static final IssuerResponse INVALID_CARD =
+            new IssuerResponse(false, ResponseCode.INVALID_CARD.code());
+    private static final IssuerResponse LIMIT_EXCEEDED =
+            new IssuerResponse(false, ResponseCode.LIMIT_EXCEEDED.code());
+
+    private final IssuerSimulator simulator;
+    private final LongSupplier latencyNanos;
+    private final ScheduledExecutorService scheduler;
+    private final long roundTripCostNanos;
+    private final AtomicLong linkFreeAtNanos = new AtomicLong(System.nanoTime());
+    private final Cache<String, IssuerResponse> decisions = Caffeine.newBuilder()
+            .expireAfterWrite(DECISION_RETENTION)
+            .maximumSize(MAX_DECISIONS)
+            .build();
+
+    public MockIssuerClient(Duration latency, ScheduledExecutorService scheduler) {
+        this(IssuerSimulator.fixedLatency(latency), null, Duration.ZERO, scheduler);
+    }
+
+    /**
+     * @param latencyNanos latencia de cada respuesta asíncrona, muestreada por llamada
+     */
+    public MockIssuerClient(LongSupplier latencyNanos, ScheduledExecutorService scheduler) {
+        this(IssuerSimulator.fixedLatency(Duration.ZERO), latencyNanos, Duration.ZERO, scheduler);
+    }
+
+    public MockIssuerClient(IssuerSimulator simulator, ScheduledExecutorService scheduler) {
+        this(simulator, Duration.ZERO, scheduler);
+    }
+
+    /**
+     * @param roundTripCost ocupación del enlace por mensaje: los mensajes salen de a uno, así que
+     *                      con mucho tráfico esperan turno (Duration.ZERO: enlace sin límite)
+     */
+    public MockIssuerClient(IssuerSimulator simulator, Duration roundTripCost, ScheduledExecutorService scheduler) {
+        this(simulator, null, roundTripCost, scheduler);
+    }
+
+    private MockIssuerClient(IssuerSimulator simulator, LongSupplier latencyNanos, Duration roundTripCost,
+                             ScheduledExecutorService scheduler) {
+        this.simulator = simulator;
+        this.latencyNanos = latencyNanos;
+        this.roundTripCostNanos = roundTripCost.toNanos();
+        this.scheduler = scheduler;
+    }
 
     @Override
     public IssuerResponse authorize(String cardToken, Double amount, String currency) {
 
         // Validación 1: Token no nulo ni vacío
-        if (cardToken == null || cardToken.trim().isEmpty()) {
-            throw new BusinessException("Card token cannot be null or empty");
+        if (cardToken == null || cardToken.isBlank()) {
+            return INVALID_CARD_NUMBER;
         }
 
         // Validación 2: Token debe tener al menos 10 caracteres
         if (cardToken.length() < MIN_TOKEN_LENGTH) {
-            throw new BusinessException("Card token must be at least " + MIN_TOKEN_LENGTH + " characters long");
+            return INVALID_CARD_NUMBER;
         }
 
         // Validación 3: Token solo puede contener letras, números y guiones bajos
-        if (!TOKEN_PATTERN.matcher(cardToken).matches()) {
-            throw new BusinessException("Card token can only contain letters, numbers, and underscores");
+        if (!isTokenCharacters(cardToken)) {
+            return INVALID_CARD_NUMBER;
         }
 
         // Validación 4: Token NO puede terminar en "999" (tarjeta bloqueada)
         if (cardToken.endsWith(BLOCKED_CARD_SUFFIX)) {
-            return new IssuerResponse(false, "CARD_BLOCKED");
+            return CARD_BLOCKED;
         }
 
         // Validación 5: Token NO puede contener "0000" (tarjeta inválida)
         if (cardToken.contains(INVALID_CARD_PATTERN)) {
-            return new IssuerResponse(false, "INVALID_CARD");
+            return INVALID_CARD;
         }
 
         // Validación 6: Monto debe ser mayor a 0
-        if (amount <= 0) {
-            throw new BusinessException("Transaction amount must be greater than zero");
+        if (amount == null || amount <= 0) {
+            return INVALID_AMOUNT;
         }
 
         // Validación 7: Monto no puede superar el límite máximo
         if (amount > MAX_AMOUNT) {
-            return new IssuerResponse(false, "LIMIT_EXCEEDED");
+            return LIMIT_EXCEEDED;
         }
 
         // Simula respuesta aleatoria del banco
-        boolean approved = random.nextBoolean();
+        boolean approved = simulator.random().nextDouble() < simulator.currentBehavior().approvalRate();
 
         return new IssuerResponse(
                 approved,
                 approved ? "00" : "05"
         );
     }
+
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String cardToken, Double amount, String currency) {
+        return respondAfterLatency(List.of(decision(null, cardToken, amount, currency))).get(0);
+    }
+
+    /**
+     * El primer intento con la referencia que "llega" al issuer decide; los demás reciben esa misma decisión
+     */
+    @Override
+    public CompletableFuture<IssuerResponse> authorizeAsync(String authorizationReference,
+                                                            String cardToken, Double amount, String currency) {
+        return respondAfterLatency(List.of(decision(authorizationReference, cardToken, amount, currency))).get(0);
+    }
+
+    /**
+     * Un solo viaje de ida y vuelta para todo el lote: una latencia, y un timeout o falla
+     * simulados afectan a todas sus autorizaciones, como un mensaje perdido en el enlace
+     */
+    @Override
+    public List<CompletableFuture<IssuerResponse>> authorizeBatch(List<IssuerRequest> requests) {
+        List<Supplier<IssuerResponse>> batch = new ArrayList<>(requests.size());
+        for (IssuerRequest request : requests) {
+            batch.add(decision(request.authorizationReference(),
+                    request.cardToken(), request.amount(), request.currency()));
+        }
+        return respondAfterLatency(batch);
+    }
+
+    private Supplier<IssuerResponse> decision(String authorizationReference,
+                                              String cardToken, Double amount, String currency) {
+        if (authorizationReference == null) {
+            return () -> authorize(cardToken, amount, currency);
+        }
+        return () -> decisions.get(authorizationReference, reference -> authorize(cardToken, amount, currency));
+    }
+
+    private List<CompletableFuture<IssuerResponse>> respondAfterLatency(List<Supplier<IssuerResponse>> batch) {
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            responses.add(new CompletableFuture<>());
+        }
+        IssuerBehavior behavior = simulator.currentBehavior();
+        SplittableRandom random = simulator.random();
+        long linkDelay = reserveLink();
+
+        // Timeout simulado: el issuer nunca responde y la llamada la corta el timeout del cliente
+        double outcome = random.nextDouble();
+        if (outcome < behavior.timeoutRate()) {
+            return responses;
+        }
+        boolean fails = outcome < behavior.timeoutRate() + behavior.errorRate();
+        long latency = linkDelay
+                + (latencyNanos != null ? latencyNanos.getAsLong() : behavior.sampleLatencyNanos(random));
+
+        // La decisión se toma cuando "responde" el issuer, igual que en una llamada real
+        scheduler.schedule(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<IssuerResponse> response = responses.get(i);
+                if (fails) {
+                    response.completeExceptionally(new IllegalStateException("Simulated issuer failure"));
+                    continue;
+                }
+                try {
+                    response.complete(batch.get(i).get());
+                } catch (RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            }
+        }, latency, TimeUnit.NANOSECONDS);
+
+        return responses;
+    }
+
+    /**
+     * Turno del mensaje en el enlace: sale cuando el enlace queda libre y lo ocupa roundTripCost
+     *
+     * @return nanos hasta que el mensaje termina de salir (0 con el enlace sin límite)
+     */
+    private long reserveLink() {
+        if (roundTripCostNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long freeAt;
+        long sentAt;
+        do {
+            freeAt = linkFreeAtNanos.get();
+            sentAt = (freeAt - now < 0 ? now : freeAt) + roundTripCostNanos;
+        } while (!linkFreeAtNanos.compareAndSet(freeAt, sentAt));
+        return sentAt - now;
+    }
+
+    /**
+     * true si el token tiene solo letras y dígitos ASCII o guiones bajos
+     */
+    private static boolean isTokenCharacters(String cardToken) {
+        for (int i = 0; i < cardToken.length(); i++) {
+            char c = cardToken.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,76 @@
+package org.bank.issuingbank.service.external.simulator;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Comportamiento del issuer simulado en un momento dado
+ *
+ * @param latencyDistribution forma de la latencia
+ * @param latency             latencia fija, o mediana en LOG_NORMAL y BIMODAL
+ * @param latencySigma        desvío del logaritmo de la latencia (LOG_NORMAL y BIMODAL)
+ * @param spikeProbability    probabilidad de un pico de latencia (BIMODAL)
+ * @param spikeLatency        mediana de los picos (BIMODAL)
+ * @param approvalRate        probabilidad de aprobar un pago que pasa las validaciones de la tarjeta
+ * @param errorRate           probabilidad de que la llamada falle (error del issuer o de red)
+ * @param timeoutRate         probabilidad de que el issuer nunca responda; la corta el timeout del cliente
+ */
+public record IssuerBehavior(
+        LatencyDistribution latencyDistribution,
+        Duration latency,
+        double latencySigma,
+        double spikeProbability,
+        Duration spikeLatency,
+        double approvalRate,
+        double errorRate,
+        double timeoutRate
+) {
+
+    private static final String INVALID_SIMULATION = "INVALID_SIMULATION";
+
+    public IssuerBehavior {
+        if (latencyDistribution == null || latency == null || spikeLatency == null) {
+            throw new BusinessException("latencyDistribution, latency and spikeLatency are required", INVALID_SIMULATION);
+        }
+        if (latency.isNegative() || spikeLatency.isNegative() || latencySigma < 0) {
+            throw new BusinessException("Latencies and latencySigma cannot be negative", INVALID_SIMULATION);
+        }
+        requireProbability("spikeProbability", spikeProbability);
+        requireProbability("approvalRate", approvalRate);
+        requireProbability("errorRate", errorRate);
+        requireProbability("timeoutRate", timeoutRate);
+        if (errorRate + timeoutRate > 1) {
+            throw new BusinessException("errorRate + timeoutRate cannot exceed 1", INVALID_SIMULATION);
+        }
+    }
+
+    /**
+     * Respuestas con latencia fija, sin errores ni timeouts y 50% de aprobación
+     */
+    public static IssuerBehavior fixedLatency(Duration latency) {
+        return new IssuerBehavior(LatencyDistribution.FIXED, latency, 0, 0, Duration.ZERO, 0.5, 0, 0);
+    }
+
+    /**
+     * Latencia de una llamada según la distribución
+     */
+    public long sampleLatencyNanos(RandomGenerator random) {
+        return switch (latencyDistribution) {
+            case FIXED -> latency.toNanos();
+            case LOG_NORMAL -> logNormal(latency, random);
+            case BIMODAL -> logNormal(random.nextDouble() < spikeProbability ? spikeLatency : latency, random);
+        };
+    }
+
+    private long logNormal(Duration median, RandomGenerator random) {
+        return (long) (median.toNanos() * Math.exp(latencySigma * random.nextGaussian()));
+    }
+
+    private static void requireProbability(String name, double value) {
+        if (value < 0 || value > 1) {
+            throw new BusinessException(name + " must be between 0 and 1: " + value, INVALID_SIMULATION);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.bank.issuingbank.service.external.simulator;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+import java.util.List;
+
+/**
+ * Secuencia de tramos que se aplica sobre el comportamiento base. Al terminar el último tramo
+ * el issuer vuelve al comportamiento base, o con repeat empieza de nuevo.
+ *
+ * @param repeat repite el escenario hasta que se detenga (pruebas de carga largas); por defecto false
+ * @param phases tramos, en orden
+ */
+public record IssuerScenario(
+        Boolean repeat,
+        List<ScenarioPhase> phases
+) {
+
+    public IssuerScenario {
+        if (phases == null || phases.isEmpty()) {
+            throw new BusinessException("A scenario needs at least one phase", "INVALID_SIMULATION");
+        }
+        phases = List.copyOf(phases);
+        repeat = Boolean.TRUE.equals(repeat);
+    }
+}
@@ -0,0 +1,191 @@
+package org.bank.issuingbank.service.external.simulator;
+
+import org.bank.issuingbank.dto.response.IssuerSimulatorStatusResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Estado del issuer simulado que usa MockIssuerClient: el comportamiento base y, si hay uno
+ * en curso, el escenario que lo modifica por tramos ("el issuer tarda 2s durante 30s").
+ * Se cambia en caliente desde /admin/issuer-simulator.
+ * <p>
+ * Aleatoriedad sin contención: cada hilo tiene su propio SplittableRandom. Con seed, el
+ * generador del n-ésimo hilo que lo usa se deriva de seed y n, así que una prueba de carga
+ * repite la misma secuencia de latencias y decisiones por hilo.
+ */
+public class IssuerSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(IssuerSimulator.class);
+
+    private static final long SEED_INCREMENT = 0x9E37_79B9_7F4A_7C15L;
+
+    private final Map<String, IssuerScenario> scenarios;
+    private final LongSupplier nanoClock;
+    private final ThreadLocal<SplittableRandom> random;
+    private volatile IssuerBehavior baseline;
+    private volatile ActiveScenario activeScenario;
+
+    public IssuerSimulator(IssuerBehavior baseline, Long seed, Map<String, IssuerScenario> scenarios) {
+        this(baseline, seed, scenarios, System::nanoTime);
+    }
+
+    IssuerSimulator(IssuerBehavior baseline, Long seed, Map<String, IssuerScenario> scenarios, LongSupplier nanoClock) {
+        this.baseline = baseline;
+        this.scenarios = Map.copyOf(scenarios);
+        this.nanoClock = nanoClock;
+        if (seed == null) {
+            this.random = ThreadLocal.withInitial(SplittableRandom::new);
+        } else {
+            AtomicLong threads = new AtomicLong();
+            this.random = ThreadLocal.withInitial(
+                    () -> new SplittableRandom(seed + threads.getAndIncrement() * SEED_INCREMENT));
+        }
+    }
+
+    /**
+     * Simulador sin escenarios: latencia fija, sin errores y 50% de aprobación
+     */
+    public static IssuerSimulator fixedLatency(Duration latency) {
+        return new IssuerSimulator(IssuerBehavior.fixedLatency(latency), null, Map.of());
+    }
+
+    /**
+     * Generador aleatorio del hilo actual
+     */
+    public SplittableRandom random() {
+        return random.get();
+    }
+
+    /**
+     * Comportamiento vigente: el del tramo en curso o, sin escenario activo, el base
+     */
+    public IssuerBehavior currentBehavior() {
+        ActiveScenario active = activeScenario;
+        if (active == null) {
+            return baseline;
+        }
+        int phase = active.phaseAt(nanoClock.getAsLong());
+        if (phase < 0) {
+            finish(active);
+            return baseline;
+        }
+        return active.behaviors[phase];
+    }
+
+    public void setBaseline(IssuerBehavior behavior) {
+        baseline = behavior;
+        ActiveScenario active = activeScenario;
+        if (active != null) {
+            // Los tramos se recalculan sobre el nuevo base y siguen desde donde iban
+            activeScenario = new ActiveScenario(active.name, active.scenario, behavior, active.startNanos);
+        }
+        log.info("Issuer simulator baseline changed - {}", behavior);
+    }
+
+    /**
+     * Inicia un escenario configurado (payments.issuer.simulator.scenarios)
+     */
+    public void startScenario(String name) {
+        IssuerScenario scenario = scenarios.get(name);
+        if (scenario == null) {
+            throw new BusinessException("Unknown issuer scenario: " + name, "UNKNOWN_SCENARIO");
+        }
+        startScenario(name, scenario);
+    }
+
+    /**
+     * Inicia un escenario, reemplazando el que esté en curso
+     */
+    public void startScenario(String name, IssuerScenario scenario) {
+        activeScenario = new ActiveScenario(name, scenario, baseline, nanoClock.getAsLong());
+        log.warn("Issuer scenario started - name: {}, phases: {}, repeat: {}",
+                name, scenario.phases().size(), scenario.repeat());
+    }
+
+    public void stopScenario() {
+        ActiveScenario active = activeScenario;
+        if (active != null) {
+            activeScenario = null;
+            log.warn("Issuer scenario stopped - name: {}", active.name);
+        }
+    }
+
+    public IssuerSimulatorStatusResponse status() {
+        IssuerBehavior current = currentBehavior();
+        ActiveScenario active = activeScenario;
+        if (active == null) {
+            return new IssuerSimulatorStatusResponse(baseline, current, null, null, null, new TreeSet<>(scenarios.keySet()));
+        }
+        long now = nanoClock.getAsLong();
+        int phase = active.phaseAt(now);
+        Long remainingMillis = phase < 0 ? null : Duration.ofNanos(active.remainingNanos(now)).toMillis();
+        return new IssuerSimulatorStatusResponse(baseline, current, active.name, phase < 0 ? null : phase,
+                remainingMillis, new TreeSet<>(scenarios.keySet()));
+    }
+
+    private void finish(ActiveScenario active) {
+        if (activeScenario == active) {
+            activeScenario = null;
+            log.warn("Issuer scenario finished - name: {}", active.name);
+        }
+    }
+
+    /**
+     * Escenario en curso con el comportamiento de cada tramo ya calculado, para no crear
+     * objetos por autorización
+     */
+    private static final class ActiveScenario {
+
+        private final String name;
+        private final IssuerScenario scenario;
+        private final IssuerBehavior[] behaviors;
+        private final long[] phaseEnds;
+        private final long startNanos;
+
+        private ActiveScenario(String name, IssuerScenario scenario, IssuerBehavior baseline, long startNanos) {
+            this.name = name;
+            this.scenario = scenario;
+            this.startNanos = startNanos;
+            List<ScenarioPhase> phases = scenario.phases();
+            this.behaviors = new IssuerBehavior[phases.size()];
+            this.phaseEnds = new long[phases.size()];
+            long end = 0;
+            for (int i = 0; i < phases.size(); i++) {
+                behaviors[i] = phases.get(i).applyTo(baseline);
+                end += phases.get(i).duration().toNanos();
+                phaseEnds[i] = end;
+            }
+        }
+
+        /**
+         * Tramo en curso, o -1 si el escenario terminó
+         */
+        private int phaseAt(long nowNanos) {
+            long elapsed = elapsed(nowNanos);
+            for (int i = 0; i < phaseEnds.length; i++) {
+                if (elapsed < phaseEnds[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long remainingNanos(long nowNanos) {
+            return phaseEnds[phaseAt(nowNanos)] - elapsed(nowNanos);
+        }
+
+        private long elapsed(long nowNanos) {
+            long elapsed = nowNanos - startNanos;
+            return scenario.repeat() ? elapsed % phaseEnds[phaseEnds.length - 1] : elapsed;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.bank.issuingbank.service.external.simulator;
+
+/**
+ * Distribución de la latencia del issuer simulado
+ */
+public enum LatencyDistribution {
+
+    /**
+     * Siempre la latencia configurada
+     */
+    FIXED,
+
+    /**
+     * Log-normal con mediana latency y desvío latencySigma: cola larga hacia la derecha,
+     * como la latencia de red real
+     */
+    LOG_NORMAL,
+
+    /**
+     * Log-normal con picos: con probabilidad spikeProbability la mediana pasa a ser spikeLatency
+     * (GC del issuer, reintentos de red)
+     */
+    BIMODAL
+}
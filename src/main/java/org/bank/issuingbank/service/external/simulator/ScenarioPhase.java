@@ -0,0 +1,41 @@
+package org.bank.issuingbank.service.external.simulator;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+import java.time.Duration;
+
+/**
+ * Tramo de un escenario: durante duration el issuer se comporta como el comportamiento base
+ * con los campos indicados reemplazados. Los campos nulos conservan el valor base, así que
+ * "el issuer se pone lento" es solo { duration: 30s, latency: 2s }.
+ */
+public record ScenarioPhase(
+        Duration duration,
+        LatencyDistribution latencyDistribution,
+        Duration latency,
+        Double latencySigma,
+        Double spikeProbability,
+        Duration spikeLatency,
+        Double approvalRate,
+        Double errorRate,
+        Double timeoutRate
+) {
+
+    public ScenarioPhase {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new BusinessException("Each scenario phase needs a positive duration", "INVALID_SIMULATION");
+        }
+    }
+
+    public IssuerBehavior applyTo(IssuerBehavior baseline) {
+        return new IssuerBehavior(
+                latencyDistribution != null ? latencyDistribution : baseline.latencyDistribution(),
+                latency != null ? latency : baseline.latency(),
+                latencySigma != null ? latencySigma : baseline.latencySigma(),
+                spikeProbability != null ? spikeProbability : baseline.spikeProbability(),
+                spikeLatency != null ? spikeLatency : baseline.spikeLatency(),
+                approvalRate != null ? approvalRate : baseline.approvalRate(),
+                errorRate != null ? errorRate : baseline.errorRate(),
+                timeoutRate != null ? timeoutRate : baseline.timeoutRate());
+    }
+}
@@ -0,0 +1,246 @@
+package org.bank.issuingbank.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bank.issuingbank.blocklist.CardBlocklist;
+import org.bank.issuingbank.config.BatchProperties;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.BatchPaymentItemResponse;
+import org.bank.issuingbank.dto.response.BatchPaymentResponse;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.readmodel.TransactionReadModel;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.service.BatchPaymentService;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.stats.MerchantStatsRegistry;
+import org.bank.issuingbank.velocity.VelocityEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class BatchPaymentServiceImpl implements BatchPaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchPaymentServiceImpl.class);
+
+    private final IssuerClient issuerClient;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final Validator validator;
+    private final TaskExecutor batchAuthorizationExecutor;
+    private final BatchProperties properties;
+    private final Semaphore batchPermits;
+    private final MerchantStatsRegistry merchantStatsRegistry;
+    private final CardBlocklist cardBlocklist;
+    private final VelocityEngine velocityEngine;
+    private final TransactionReadModel transactionReadModel;
+
+    public BatchPaymentServiceImpl(IssuerClient issuerClient,
+                                   TransactionJdbcRepository transactionJdbcRepository,
+                                   Validator validator,
+                                   @Qualifier("batchAuthorizationExecutor") TaskExecutor batchAuthorizationExecutor,
+                                   BatchProperties properties,
+                                   MerchantStatsRegistry merchantStatsRegistry,
+                                   CardBlocklist cardBlocklist,
+                                   VelocityEngine velocityEngine,
+                                   TransactionReadModel transactionReadModel) {
+        this.issuerClient = issuerClient;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.validator = validator;
+        this.batchAuthorizationExecutor = batchAuthorizationExecutor;
+        this.properties = properties;
+        this.merchantStatsRegistry = merchantStatsRegistry;
+        this.cardBlocklist = cardBlocklist;
+        this.velocityEngine = velocityEngine;
+        this.transactionReadModel = transactionReadModel;
+        this.batchPermits = new Semaphore(properties.maxConcurrentBatches(), true);
+    }
+
+    @Override
+    public BatchPaymentResponse processBatch(List<PaymentRequest> requests) {
+
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("Batch must contain at least one payment", "EMPTY_BATCH");
+        }
+        if (requests.size() > properties.maxSize()) {
+            throw new BusinessException("Batch size " + requests.size() + " exceeds the maximum of "
+                    + properties.maxSize(), "BATCH_TOO_LARGE");
+        }
+
+        acquireBatchPermit();
+        try {
+            log.info("Processing payment batch - size: {}", requests.size());
+            return authorizeAndPersist(requests);
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private void acquireBatchPermit() {
+        boolean acquired;
+        try {
+            acquired = batchPermits.tryAcquire(properties.acquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Batch rejected - concurrent batch limit reached: {}", properties.maxConcurrentBatches());
+            throw new CapacityExceededException("Too many batches in progress, retry later",
+                    "BATCH_CAPACITY_EXCEEDED", properties.acquireTimeout());
+        }
+    }
+
+    /**
+     * Autoriza los pagos en ventanas de tamaño {@code parallelism} (como máximo esa cantidad
+     * en vuelo por lote) y persiste los resultados con batch inserts cada {@code insertChunkSize}.
+     */
+    private BatchPaymentResponse authorizeAndPersist(List<PaymentRequest> requests) {
+        BatchPaymentItemResponse[] results = new BatchPaymentItemResponse[requests.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Transaction> pendingTransactions = new ArrayList<>();
+
+        for (int windowStart = 0; windowStart < requests.size(); windowStart += properties.parallelism()) {
+            int windowEnd = Math.min(windowStart + properties.parallelism(), requests.size());
+
+            List<CompletableFuture<ItemOutcome>> window = new ArrayList<>(windowEnd - windowStart);
+            for (int i = windowStart; i < windowEnd; i++) {
+                int index = i;
+                window.add(CompletableFuture.supplyAsync(() -> authorizeItem(index, requests.get(index)),
+                        batchAuthorizationExecutor));
+            }
+
+            for (int i = windowStart; i < windowEnd; i++) {
+                ItemOutcome outcome = window.get(i - windowStart).join();
+                if (outcome.transaction() != null) {
+                    pendingIndexes.add(i);
+                    pendingTransactions.add(outcome.transaction());
+                } else {
+                    results[i] = outcome.failure();
+                }
+            }
+
+            if (pendingTransactions.size() >= properties.insertChunkSize()) {
+                persist(pendingIndexes, pendingTransactions, results);
+            }
+        }
+        persist(pendingIndexes, pendingTransactions, results);
+
+        return summarize(results);
+    }
+
+    private ItemOutcome authorizeItem(int index, PaymentRequest request) {
+        if (request == null) {
+            return ItemOutcome.failed(index, "VALIDATION_ERROR", "Payment must not be null");
+        }
+
+        Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return ItemOutcome.failed(index, "VALIDATION_ERROR", message);
+        }
+
+        try {
+            Transaction transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+            ResponseCode screened = cardBlocklist.isBlocked(request.cardToken())
+                    ? ResponseCode.CARD_BLOCKED
+                    : velocityEngine.check(request.cardToken(), request.amount());
+            if (screened != null) {
+                transaction.setStatus(TransactionStatus.DECLINED);
+                transaction.setResponseCode(screened);
+                return new ItemOutcome(transaction, null);
+            }
+            var issuerResponse = issuerClient.authorize(
+                    request.cardToken(),
+                    request.amount(),
+                    request.currency()
+            );
+            transaction.setStatus(issuerResponse.approved() ? TransactionStatus.APPROVED : TransactionStatus.DECLINED);
+            transaction.setIssuerResponseCode(issuerResponse.responseCode());
+            if (transaction.getResponseCode() == ResponseCode.UNMAPPED) {
+                log.warn("Unmapped issuer response code - index: {}, merchantId: {}, status: {}, responseCode: {}",
+                        index, request.merchantId(), transaction.getStatus(), issuerResponse.responseCode());
+            }
+            return new ItemOutcome(transaction, null);
+
+        } catch (BusinessException e) {
+            return ItemOutcome.failed(index, e.getErrorCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Error authorizing batch item - index: {}, merchantId: {}, error: {}",
+                    index, request.merchantId(), e.getMessage(), e);
+            return ItemOutcome.failed(index, "PROCESSING_ERROR", "Failed to process payment: " + e.getMessage());
+        }
+    }
+
+    private void persist(List<Integer> indexes, List<Transaction> transactions, BatchPaymentItemResponse[] results) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        try {
+            transactionJdbcRepository.insertAll(transactions, properties.insertChunkSize());
+            for (int i = 0; i < transactions.size(); i++) {
+                merchantStatsRegistry.record(transactions.get(i));
+                transactionReadModel.project(transactions.get(i));
+                results[indexes.get(i)] = BatchPaymentItemResponse.success(indexes.get(i),
+                        TransactionMapper.toResponse(transactions.get(i)));
+            }
+        } catch (Exception e) {
+            log.error("Error persisting batch chunk - size: {}, error: {}", transactions.size(), e.getMessage(), e);
+            for (Integer index : indexes) {
+                results[index] = BatchPaymentItemResponse.failure(index, "PERSISTENCE_ERROR",
+                        "Failed to persist payment");
+            }
+        }
+        indexes.clear();
+        transactions.clear();
+    }
+
+    private BatchPaymentResponse summarize(BatchPaymentItemResponse[] results) {
+        int approved = 0;
+        int declined = 0;
+        int failed = 0;
+        for (BatchPaymentItemResponse result : results) {
+            if (result.payment() == null) {
+                failed++;
+            } else if (result.payment().status() == TransactionStatus.APPROVED) {
+                approved++;
+            } else {
+                declined++;
+            }
+        }
+
+        log.info("Payment batch processed - total: {}, approved: {}, declined: {}, failed: {}",
+                results.length, approved, declined, failed);
+
+        return new BatchPaymentResponse(results.length, approved, declined, failed, Arrays.asList(results));
+    }
+
+    /**
+     * Resultado de autorizar un ítem: la transacción pendiente de persistir, o el error
+     */
+    private record ItemOutcome(Transaction transaction, BatchPaymentItemResponse failure) {
+
+        static ItemOutcome failed(int index, String errorCode, String errorMessage) {
+            return new ItemOutcome(null, BatchPaymentItemResponse.failure(index, errorCode, errorMessage));
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.bank.issuingbank.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.IdempotencyProperties;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.exception.IdempotencyConflictException;
+import org.bank.issuingbank.idempotency.IdempotencyKeyHash;
+import org.bank.issuingbank.idempotency.OffHeapIdempotencyStore;
+import org.bank.issuingbank.repository.IdempotencyKeyJdbcRepository;
+import org.bank.issuingbank.service.IdempotencyService;
+import org.bank.issuingbank.service.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration STORE_FULL_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PaymentService paymentService;
+    private final OffHeapIdempotencyStore idempotencyStore;
+    private final IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+    private final IdempotencyProperties properties;
+    private final Counter replayCounter;
+    private final Counter storeFullCounter;
+
+    /**
+     * Primeros intentos en curso; solo contiene las claves que se están procesando ahora
+     */
+    private final Map<IdempotencyKeyHash, InFlightAttempt> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(PaymentService paymentService,
+                                  OffHeapIdempotencyStore idempotencyStore,
+                                  IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository,
+                                  IdempotencyProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.idempotencyStore = idempotencyStore;
+        this.idempotencyKeyJdbcRepository = idempotencyKeyJdbcRepository;
+        this.properties = properties;
+        this.replayCounter = Counter.builder("payments.idempotency.replays")
+                .description("Reintentos respondidos con la respuesta original")
+                .register(meterRegistry);
+        this.storeFullCounter = Counter.builder("payments.idempotency.store.full")
+                .description("Pagos con Idempotency-Key que no cupieron en el store")
+                .register(meterRegistry);
+        Gauge.builder("payments.idempotency.store.size", idempotencyStore, OffHeapIdempotencyStore::size)
+                .description("Slots ocupados del store de idempotencia")
+                .register(meterRegistry);
+        Gauge.builder("payments.idempotency.store.memory", idempotencyStore, OffHeapIdempotencyStore::memoryBytes)
+                .description("Memoria directa reservada por el store de idempotencia")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PaymentResponse processPayment(String idempotencyKey, PaymentRequest request) {
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(
+                    "Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters",
+                    "INVALID_IDEMPOTENCY_KEY");
+        }
+
+        IdempotencyKeyHash key = IdempotencyKeyHash.of(request.merchantId(), idempotencyKey);
+        long requestHash = fingerprint(request);
+
+        Optional<PaymentResponse> replay = replayFromStore(key, requestHash);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        InFlightAttempt attempt = new InFlightAttempt(requestHash, new CompletableFuture<>());
+        InFlightAttempt firstAttempt = inFlight.putIfAbsent(key, attempt);
+        if (firstAttempt != null) {
+            return awaitFirstAttempt(firstAttempt, requestHash);
+        }
+
+        try {
+            // Otro hilo pudo terminar entre la consulta al store y el registro en vuelo
+            PaymentResponse response = replayFromStore(key, requestHash)
+                    .orElseGet(() -> processFirstAttempt(key, requestHash, request));
+            attempt.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            attempt.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, attempt);
+        }
+    }
+
+    /**
+     * Reserva la clave en el store antes de llamar al issuer. Si el store está lleno el pago no
+     * se procesa sin deduplicar: con persistent la reserva en la base de datos basta; sin ella se
+     * rechaza con 503 IDEMPOTENCY_STORE_FULL.
+     */
+    private PaymentResponse processFirstAttempt(IdempotencyKeyHash key, long requestHash, PaymentRequest request) {
+        long nowMillis = System.currentTimeMillis();
+        boolean reserved = idempotencyStore.reserve(key, requestHash, nowMillis + properties.ttl().toMillis(), nowMillis);
+        if (!reserved) {
+            storeFullCounter.increment();
+            if (!properties.persistent()) {
+                log.warn("Idempotency store full - rejecting payment, capacity: {}", idempotencyStore.capacity());
+                throw new CapacityExceededException("Idempotency store is full, retry later",
+                        "IDEMPOTENCY_STORE_FULL", STORE_FULL_RETRY_AFTER);
+            }
+            log.warn("Idempotency store full - relying on the database claim, capacity: {}", idempotencyStore.capacity());
+        }
+
+        boolean completed = false;
+        boolean claimed = false;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (properties.persistent()) {
+                claimed = idempotencyKeyJdbcRepository.tryClaim(
+                        key.toHex(), request.merchantId(), requestHash, now, now.plus(properties.ttl()));
+                if (!claimed) {
+                    PaymentResponse response = replayFromDatabase(key, requestHash);
+                    completed = true;
+                    return response;
+                }
+            }
+
+            PaymentResponse response = paymentService.processPayment(request);
+            remember(key, requestHash, response.transactionId());
+            completed = true;
+            if (claimed) {
+                idempotencyKeyJdbcRepository.complete(key.toHex(), response.transactionId());
+            }
+            return response;
+        } catch (RuntimeException e) {
+            if (claimed) {
+                idempotencyKeyJdbcRepository.release(key.toHex());
+            }
+            throw e;
+        } finally {
+            if (reserved && !completed) {
+                idempotencyStore.remove(key);
+            }
+        }
+    }
+
+    private Optional<PaymentResponse> replayFromStore(IdempotencyKeyHash key, long requestHash) {
+        return idempotencyStore.find(key, System.currentTimeMillis())
+                .map(entry -> {
+                    verifySameRequest(entry.requestHash(), requestHash);
+                    return replay(entry.transactionId().toString());
+                });
+    }
+
+    /**
+     * La clave fue reservada por otra instancia o antes de un reinicio
+     */
+    private PaymentResponse replayFromDatabase(IdempotencyKeyHash key, long requestHash) {
+        IdempotencyKeyJdbcRepository.StoredKey stored = idempotencyKeyJdbcRepository.find(key.toHex())
+                .filter(storedKey -> storedKey.transactionId() != null)
+                .orElseThrow(() -> new IdempotencyConflictException(
+                        "A request with this Idempotency-Key is still in progress, retry later",
+                        "IDEMPOTENCY_REQUEST_IN_PROGRESS"));
+
+        verifySameRequest(stored.requestHash(), requestHash);
+        remember(key, requestHash, stored.transactionId());
+        return replay(stored.transactionId());
+    }
+
+    private PaymentResponse awaitFirstAttempt(InFlightAttempt firstAttempt, long requestHash) {
+        verifySameRequest(firstAttempt.requestHash(), requestHash);
+
+        log.info("Duplicate request in flight - waiting for the first attempt");
+        try {
+            PaymentResponse response = firstAttempt.response()
+                    .get(properties.inFlightWait().toMillis(), TimeUnit.MILLISECONDS);
+            replayCounter.increment();
+            return response;
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(
+                    "A request with this Idempotency-Key is still in progress, retry later",
+                    "IDEMPOTENCY_REQUEST_IN_PROGRESS");
+        } catch (ExecutionException e) {
+            // El duplicado recibe el mismo error que el primer intento
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause
+                    : new BusinessException("Failed to process payment: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(
+                    "Interrupted while waiting for the first attempt", "IDEMPOTENCY_REQUEST_IN_PROGRESS");
+        }
+    }
+
+    private PaymentResponse replay(String transactionId) {
+        log.info("Idempotent replay - transactionId: {}", transactionId);
+        replayCounter.increment();
+        return paymentService.getPaymentById(transactionId);
+    }
+
+    private void remember(IdempotencyKeyHash key, long requestHash, String transactionId) {
+        long now = System.currentTimeMillis();
+        boolean stored = idempotencyStore.put(
+                key, UUID.fromString(transactionId), requestHash, now + properties.ttl().toMillis(), now);
+        if (!stored) {
+            log.warn("Idempotency store full - key not retained in memory, capacity: {}", idempotencyStore.capacity());
+        }
+    }
+
+    private static void verifySameRequest(long storedRequestHash, long requestHash) {
+        if (storedRequestHash != requestHash) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key was already used with a different payment request",
+                    "IDEMPOTENCY_KEY_REUSED");
+        }
+    }
+
+    private static long fingerprint(PaymentRequest request) {
+        return IdempotencyKeyHash.fingerprint(
+                request.merchantId(),
+                String.valueOf(request.amount()),
+                request.currency(),
+                request.cardToken(),
+                request.expirationDate());
+    }
+
+    private record InFlightAttempt(long requestHash, CompletableFuture<PaymentResponse> response) {
+    }
+}
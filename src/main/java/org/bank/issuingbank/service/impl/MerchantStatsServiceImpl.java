@@ -0,0 +1,37 @@
+package org.bank.issuingbank.service.impl;
+
+import org.bank.issuingbank.config.StatsProperties;
+import org.bank.issuingbank.dto.response.MerchantStatsResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.service.MerchantStatsService;
+import org.bank.issuingbank.stats.MerchantStatsRegistry;
+import org.bank.issuingbank.stats.StatsRanking;
+import org.bank.issuingbank.stats.StatsWindow;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class MerchantStatsServiceImpl implements MerchantStatsService {
+
+    private final MerchantStatsRegistry merchantStatsRegistry;
+    private final StatsProperties properties;
+
+    public MerchantStatsServiceImpl(MerchantStatsRegistry merchantStatsRegistry, StatsProperties properties) {
+        this.merchantStatsRegistry = merchantStatsRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public MerchantStatsResponse getMerchantStats(String merchantId) {
+        return merchantStatsRegistry.snapshot(merchantId);
+    }
+
+    @Override
+    public List<MerchantStatsResponse> getTopMerchants(String window, String ranking, int limit) {
+        if (limit < 1 || limit > properties.maxTop()) {
+            throw new BusinessException("limit must be between 1 and " + properties.maxTop(), "INVALID_PAGE_SIZE");
+        }
+        return merchantStatsRegistry.top(StatsWindow.fromLabel(window), StatsRanking.fromParam(ranking), limit);
+    }
+}
@@ -2,106 +2,288 @@ package org.bank.issuingbank.service.impl;
 
 
 
+import org.bank.issuingbank.blocklist.CardBlocklist;
+import org.bank.issuingbank.cache.PaymentResponseCache;
 import org.bank.issuingbank.dto.request.PaymentRequest;
 import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.ResponseCode;
 import org.bank.issuingbank.enums.TransactionStatus;
 import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.journal.TransactionJournal;
+import org.bank.issuingbank.logging.LoggingConstants;
+import org.bank.issuingbank.logging.MdcTaskDecorator;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.metrics.PaymentStage;
+import org.bank.issuingbank.metrics.PaymentStageMetrics;
 import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.readmodel.TransactionReadModel;
 import org.bank.issuingbank.repository.TransactionRepository;
+import org.bank.issuingbank.repository.WriteBehindTransactionWriter;
 import org.bank.issuingbank.service.PaymentService;
 import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.stats.MerchantStatsRegistry;
+import org.bank.issuingbank.velocity.VelocityEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentServiceImpl.class);
+    private static final Marker ROUTINE = MarkerFactory.getMarker(LoggingConstants.ROUTINE_MARKER);
+    private static final String OUTCOME_FORMAT =
+            "Payment processed - transactionId: {}, merchantId: {}, status: {}, responseCode: {}, amount: {}";
+    private static final IssuerResponse CARD_BLOCKED = new IssuerResponse(false, ResponseCode.CARD_BLOCKED.code());
+    private static final IssuerResponse EXCEEDS_FREQUENCY_LIMIT =
+            new IssuerResponse(false, ResponseCode.EXCEEDS_FREQUENCY_LIMIT.code());
+    private static final IssuerResponse EXCEEDS_AMOUNT_LIMIT =
+            new IssuerResponse(false, ResponseCode.EXCEEDS_AMOUNT_LIMIT.code());
 
     private final TransactionRepository transactionRepository;
     private final IssuerClient issuerClient;
+    private final TaskExecutor completionExecutor;
+    private final WriteBehindTransactionWriter writeBehindWriter;
+    private final PaymentResponseCache paymentResponseCache;
+    private final MerchantStatsRegistry merchantStatsRegistry;
+    private final PaymentStageMetrics stageMetrics;
+    private final CardBlocklist cardBlocklist;
+    private final VelocityEngine velocityEngine;
+    private final TransactionJournal transactionJournal;
+    private final TransactionReadModel transactionReadModel;
 
     public PaymentServiceImpl(TransactionRepository transactionRepository,
-                              IssuerClient issuerClient) {
+                              IssuerClient issuerClient,
+                              @Qualifier("paymentCompletionExecutor") TaskExecutor completionExecutor,
+                              WriteBehindTransactionWriter writeBehindWriter,
+                              PaymentResponseCache paymentResponseCache,
+                              MerchantStatsRegistry merchantStatsRegistry,
+                              PaymentStageMetrics stageMetrics,
+                              CardBlocklist cardBlocklist,
+                              VelocityEngine velocityEngine,
+                              TransactionJournal transactionJournal,
+                              TransactionReadModel transactionReadModel) {
         this.transactionRepository = transactionRepository;
         this.issuerClient = issuerClient;
+        this.completionExecutor = completionExecutor;
+        this.writeBehindWriter = writeBehindWriter;
+        this.paymentResponseCache = paymentResponseCache;
+        this.merchantStatsRegistry = merchantStatsRegistry;
+        this.stageMetrics = stageMetrics;
+        this.cardBlocklist = cardBlocklist;
+        this.velocityEngine = velocityEngine;
+        this.transactionJournal = transactionJournal;
+        this.transactionReadModel = transactionReadModel;
     }
 
     @Override
     public PaymentResponse processPayment(PaymentRequest request) {
 
-        log.info("Processing payment - merchantId: {}, amount: {}, currency: {}",
+        log.debug("Processing payment - merchantId: {}, amount: {}, currency: {}",
                 request.merchantId(), request.amount(), request.currency());
 
-        Transaction transaction = new Transaction();
-        transaction.setMerchantId(request.merchantId());
-        transaction.setAmount(request.amount());
-        transaction.setCurrency(request.currency());
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setCreatedAt(LocalDateTime.now());
+        Transaction transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
 
         log.debug("Transaction created with PENDING status - merchantId: {}", request.merchantId());
 
         try {
-            var issuerResponse = issuerClient.authorize(
-                    request.cardToken(),
-                    request.amount(),
-                    request.currency()
-            );
-
-            log.info("Issuer response received - approved: {}, responseCode: {}",
-                    issuerResponse.approved(), issuerResponse.responseCode());
-
-            if (issuerResponse.approved()) {
-                transaction.setStatus(TransactionStatus.APPROVED);
-                log.info("Payment APPROVED - transactionId will be generated");
+            IssuerResponse screened = screen(request);
+            if (screened != null) {
+                return completeTransaction(transaction, screened);
+            }
+
+            IssuerResponse issuerResponse;
+            long issuerStart = System.nanoTime();
+            try {
+                issuerResponse = issuerClient.authorize(
+                        request.cardToken(),
+                        request.amount(),
+                        request.currency()
+                );
+            } finally {
+                stageMetrics.record(PaymentStage.ISSUER, System.nanoTime() - issuerStart);
+            }
+
+            return completeTransaction(transaction, issuerResponse);
+
+        } catch (Exception e) {
+            throw toPaymentFailure(request, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<PaymentResponse> processPaymentAsync(PaymentRequest request) {
+
+        log.debug("Processing payment asynchronously - merchantId: {}, amount: {}, currency: {}",
+                request.merchantId(), request.amount(), request.currency());
+
+        Transaction transaction = TransactionMapper.toPendingTransaction(request, LocalDateTime.now());
+
+        // Las continuaciones corren en el pool de completado con el MDC del request,
+        // nunca en el hilo que completa la respuesta del issuer
+        Executor executor = MdcTaskDecorator.withCurrentContext(completionExecutor);
+
+        CompletableFuture<IssuerResponse> issuerResponse;
+        try {
+            IssuerResponse screened = screen(request);
+            if (screened != null) {
+                issuerResponse = CompletableFuture.completedFuture(screened);
             } else {
-                transaction.setStatus(TransactionStatus.DECLINED);
-                log.warn("Payment DECLINED - responseCode: {}", issuerResponse.responseCode());
+                issuerResponse = issuerClient.authorizeAsync(
+                        request.cardToken(),
+                        request.amount(),
+                        request.currency()
+                );
             }
+        } catch (RuntimeException e) {
+            issuerResponse = CompletableFuture.failedFuture(e);
+        }
+
+        return issuerResponse
+                .thenApplyAsync(response -> completeTransaction(transaction, response), executor)
+                .exceptionallyAsync(error -> {
+                    throw toPaymentFailure(request, error);
+                }, executor);
+    }
+
+    /**
+     * Controles del banco antes del issuer: lista de bloqueo y límites de velocidad
+     *
+     * @return el rechazo a aplicar, o null si la autorización debe ir al issuer
+     */
+    private IssuerResponse screen(PaymentRequest request) {
+        if (cardBlocklist.isBlocked(request.cardToken())) {
+            return CARD_BLOCKED;
+        }
+        ResponseCode velocityDecline = velocityEngine.check(request.cardToken(), request.amount());
+        if (velocityDecline == ResponseCode.EXCEEDS_FREQUENCY_LIMIT) {
+            return EXCEEDS_FREQUENCY_LIMIT;
+        }
+        if (velocityDecline == ResponseCode.EXCEEDS_AMOUNT_LIMIT) {
+            return EXCEEDS_AMOUNT_LIMIT;
+        }
+        return null;
+    }
+
+    /**
+     * Aplica la respuesta del issuer a la transacción, la escribe en el journal y la persiste
+     * (o la encola en write-behind)
+     */
+    private PaymentResponse completeTransaction(Transaction transaction, IssuerResponse issuerResponse) {
+        log.debug("Issuer response received - approved: {}, responseCode: {}",
+                issuerResponse.approved(), issuerResponse.responseCode());
+
+        transaction.setStatus(issuerResponse.approved() ? TransactionStatus.APPROVED : TransactionStatus.DECLINED);
 
-            transaction.setResponseCode(issuerResponse.responseCode());
-            transactionRepository.save(transaction);
+        transaction.setIssuerResponseCode(issuerResponse.responseCode());
+        if (transaction.getResponseCode() == ResponseCode.UNMAPPED) {
+            log.warn("Unmapped issuer response code - merchantId: {}, status: {}, responseCode: {}",
+                    transaction.getMerchantId(), transaction.getStatus(), issuerResponse.responseCode());
+        }
+
+        // Con write-behind activo se responde sin esperar el commit; si la cola está llena se persiste aquí.
+        // Con el journal activo la transacción ya es durable antes de llegar a la base de datos
+        long persistenceStart = System.nanoTime();
+        long journalTicket = transactionJournal.append(transaction);
+        if (writeBehindWriter.enqueue(transaction, journalTicket)) {
+            log.debug("Transaction queued for write-behind - transactionId: {}, status: {}",
+                    transaction.getId(), transaction.getStatus());
+        } else {
+            try {
+                transactionRepository.save(transaction);
+            } catch (RuntimeException e) {
+                // El ticket queda abierto: el registro se restaura al reiniciar aunque el pago falle ahora
+                transactionJournal.persistFailed(journalTicket, transaction, e);
+                throw e;
+            }
+            transactionJournal.persisted(journalTicket);
 
-            log.info("Transaction saved successfully - transactionId: {}, status: {}",
+            log.debug("Transaction saved successfully - transactionId: {}, status: {}",
                     transaction.getId(), transaction.getStatus());
+        }
+        stageMetrics.record(PaymentStage.PERSISTENCE, System.nanoTime() - persistenceStart);
 
-            return new PaymentResponse(
-                    transaction.getId(),
-                    transaction.getStatus(),
-                    transaction.getResponseCode(),
-                    transaction.getCreatedAt()
-            );
+        merchantStatsRegistry.record(transaction);
+        transactionReadModel.project(transaction);
+        logOutcome(transaction);
 
-        } catch (Exception e) {
-            log.error("Error processing payment - merchantId: {}, amount: {}, error: {}",
-                    request.merchantId(), request.amount(), e.getMessage(), e);
-            throw new BusinessException("Failed to process payment: " + e.getMessage());
+        // El comercio suele consultar el pago justo después de autorizarlo
+        PaymentResponse response = TransactionMapper.toResponse(transaction);
+        paymentResponseCache.put(response);
+        return response;
+    }
+
+    /**
+     * Único log INFO por pago. Los aprobados llevan el marker ROUTINE (se muestrean en el
+     * perfil high-tps); los rechazos van en WARN y se registran siempre.
+     */
+    private static void logOutcome(Transaction transaction) {
+        if (transaction.getStatus() == TransactionStatus.APPROVED) {
+            log.info(ROUTINE, OUTCOME_FORMAT,
+                    transaction.getId(), transaction.getMerchantId(), transaction.getStatus(),
+                    transaction.getIssuerResponseCode(), transaction.getAmount());
+        } else {
+            log.warn(OUTCOME_FORMAT,
+                    transaction.getId(), transaction.getMerchantId(), transaction.getStatus(),
+                    transaction.getIssuerResponseCode(), transaction.getAmount());
         }
     }
 
+    /**
+     * Traduce el error de una autorización asíncrona al mismo error que el camino síncrono.
+     * Los rechazos por capacidad se propagan tal cual (503 + Retry-After).
+     */
+    private RuntimeException toPaymentFailure(PaymentRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+
+        if (cause instanceof CapacityExceededException capacityExceeded) {
+            return capacityExceeded;
+        }
+
+        log.error("Error processing payment - merchantId: {}, amount: {}, error: {}",
+                request.merchantId(), request.amount(), cause.getMessage(), cause);
+        return new BusinessException("Failed to process payment: " + cause.getMessage());
+    }
+
     @Override
     public PaymentResponse getPaymentById(String transactionId) {
 
         log.debug("Fetching payment by transactionId: {}", transactionId);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
+        PaymentResponse response = paymentResponseCache.get(transactionId, this::loadPayment);
+
+        log.info("Payment retrieved successfully - transactionId: {}, status: {}",
+                transactionId, response.status());
+
+        return response;
+    }
+
+    /**
+     * Carga la transacción cuando no está en caché
+     */
+    private PaymentResponse loadPayment(String transactionId) {
+
+        // Las recientes salen del modelo de lectura; una encolada en write-behind aún no está en la base de datos
+        Transaction transaction = transactionReadModel.findById(transactionId)
+                .or(() -> writeBehindWriter.findPending(transactionId))
+                .or(() -> transactionRepository.findById(transactionId))
                 .orElseThrow(() -> {
                     log.warn("Transaction not found - transactionId: {}", transactionId);
                     return new BusinessException("Transaction not found");
                 });
 
-        log.info("Payment retrieved successfully - transactionId: {}, status: {}",
-                transactionId, transaction.getStatus());
-
-        return new PaymentResponse(
-                transaction.getId(),
-                transaction.getStatus(),
-                transaction.getResponseCode(),
-                transaction.getCreatedAt()
-        );
+        return TransactionMapper.toResponse(transaction);
     }
 }
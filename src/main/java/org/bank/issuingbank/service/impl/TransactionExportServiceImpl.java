@@ -0,0 +1,63 @@
+package org.bank.issuingbank.service.impl;
+
+import org.bank.issuingbank.config.ExportProperties;
+import org.bank.issuingbank.dto.response.TransactionExportLine;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.service.TransactionExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportServiceImpl.class);
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final ExportProperties properties;
+    private final ObjectWriter lineWriter;
+
+    public TransactionExportServiceImpl(TransactionJdbcRepository transactionJdbcRepository,
+                                        ExportProperties properties,
+                                        ObjectMapper objectMapper) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.properties = properties;
+        // Sin separador entre valores (cada línea termina en '\n') y sin flush por fila:
+        // el buffer del servidor decide cuándo enviar. El stream lo cierra quien lo abrió.
+        this.lineWriter = objectMapper.writerFor(TransactionExportLine.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public long exportMerchantTransactions(String merchantId, LocalDateTime from, LocalDateTime to, OutputStream output) {
+
+        log.info("Exporting transactions - merchantId: {}, from: {}, to: {}", merchantId, from, to);
+
+        long start = System.nanoTime();
+        long[] rows = {0};
+
+        try (JsonGenerator generator = lineWriter.createGenerator(output)) {
+            transactionJdbcRepository.streamByMerchant(merchantId, from, to, properties.fetchSize(), transaction -> {
+                lineWriter.writeValue(generator, TransactionMapper.toExportLine(transaction));
+                generator.writeRaw('\n');
+                rows[0]++;
+            });
+        }
+
+        log.info("Export completed - merchantId: {}, rows: {}, elapsedMs: {}",
+                merchantId, rows[0], (System.nanoTime() - start) / 1_000_000);
+
+        return rows[0];
+    }
+}
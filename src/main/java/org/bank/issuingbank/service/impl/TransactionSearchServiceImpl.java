@@ -0,0 +1,75 @@
+package org.bank.issuingbank.service.impl;
+
+import org.bank.issuingbank.config.SearchProperties;
+import org.bank.issuingbank.dto.response.TransactionExportLine;
+import org.bank.issuingbank.dto.response.TransactionPageResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.mapper.TransactionMapper;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.readmodel.TransactionReadModel;
+import org.bank.issuingbank.repository.TransactionCursor;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.service.TransactionSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class TransactionSearchServiceImpl implements TransactionSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSearchServiceImpl.class);
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final SearchProperties properties;
+    private final TransactionReadModel transactionReadModel;
+
+    public TransactionSearchServiceImpl(TransactionJdbcRepository transactionJdbcRepository,
+                                        SearchProperties properties,
+                                        TransactionReadModel transactionReadModel) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.properties = properties;
+        this.transactionReadModel = transactionReadModel;
+    }
+
+    @Override
+    public TransactionPageResponse search(String merchantId, TransactionStatus status, LocalDateTime from,
+                                          LocalDateTime to, String after, Integer limit) {
+
+        if (merchantId == null && status == null) {
+            throw new BusinessException("merchantId or status is required", "SEARCH_FILTER_REQUIRED");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BusinessException("'from' must be before 'to'", "INVALID_DATE_RANGE");
+        }
+        int pageSize = limit == null ? properties.defaultPageSize() : limit;
+        if (pageSize < 1 || pageSize > properties.maxPageSize()) {
+            throw new BusinessException("limit must be between 1 and " + properties.maxPageSize(), "INVALID_PAGE_SIZE");
+        }
+        TransactionCursor cursor = after == null ? null : TransactionCursor.decode(after);
+
+        log.debug("Searching transactions - merchantId: {}, status: {}, from: {}, to: {}, after: {}, limit: {}",
+                merchantId, status, from, to, cursor, pageSize);
+
+        // Una fila extra indica si existe una página siguiente sin un COUNT aparte. Los rangos recientes
+        // salen del modelo de lectura; los que empiezan antes de su ventana, de la base de datos
+        List<Transaction> rows = transactionReadModel.findPage(merchantId, status, from, to, cursor, pageSize + 1)
+                .orElseGet(() -> transactionJdbcRepository.findPage(merchantId, status, from, to, cursor, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<Transaction> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<TransactionExportLine> transactions = page.stream()
+                .map(TransactionMapper::toExportLine)
+                .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new TransactionPageResponse(transactions, nextCursor);
+    }
+}
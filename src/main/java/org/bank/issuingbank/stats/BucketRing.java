@@ -0,0 +1,132 @@
+package org.bank.issuingbank.stats;
+
+import org.bank.issuingbank.enums.ResponseCode;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Contadores de un comercio en una moneda, en dos anillos de buckets: 30 de 10 segundos
+ * (ventanas de 1 y 5 minutos) y 60 de 1 minuto (ventana de 60 minutos).
+ * <p>
+ * Un bucket vencido no se limpia: se reemplaza por uno nuevo con CAS sobre su slot, así
+ * ninguna escritura concurrente se pierde en el cambio de bucket y nunca se toma un lock.
+ * Es una stripe de {@link MerchantCounters}: cada hilo escribe en la suya.
+ */
+final class BucketRing {
+
+    static final long FINE_BUCKET_MILLIS = 10_000;
+    static final long COARSE_BUCKET_MILLIS = 60_000;
+
+    static final int COUNT = 0;
+    static final int APPROVED = 1;
+    static final int APPROVED_VOLUME = 2;
+    static final int RESPONSE_CODES = 3;
+    static final int COUNTERS = RESPONSE_CODES + ResponseCode.values().length;
+
+    private static final int FINE_SLOTS = StatsWindow.FIVE_MINUTES.buckets();
+    private static final int COARSE_SLOTS = StatsWindow.SIXTY_MINUTES.buckets();
+
+    private final AtomicReferenceArray<Bucket> fine = new AtomicReferenceArray<>(FINE_SLOTS);
+    private final AtomicReferenceArray<Bucket> coarse = new AtomicReferenceArray<>(COARSE_SLOTS);
+
+    /**
+     * Registra el resultado si el contador de la stripe está libre.
+     *
+     * @return false si otro hilo lo modificó al mismo tiempo (contención): no se registró nada
+     */
+    boolean tryRecord(boolean approved, ResponseCode responseCode, long minorUnits, long nowMillis) {
+        AtomicLongArray counters = bucket(fine, nowMillis / FINE_BUCKET_MILLIS).counters;
+        long count = counters.get(COUNT);
+        if (!counters.compareAndSet(COUNT, count, count + 1)) {
+            return false;
+        }
+        addOutcome(counters, approved, responseCode, minorUnits);
+        recordCoarse(approved, responseCode, minorUnits, nowMillis);
+        return true;
+    }
+
+    /**
+     * Registra el resultado sin reintentos (getAndAdd), haya o no contención
+     */
+    void record(boolean approved, ResponseCode responseCode, long minorUnits, long nowMillis) {
+        AtomicLongArray counters = bucket(fine, nowMillis / FINE_BUCKET_MILLIS).counters;
+        counters.getAndIncrement(COUNT);
+        addOutcome(counters, approved, responseCode, minorUnits);
+        recordCoarse(approved, responseCode, minorUnits, nowMillis);
+    }
+
+    /**
+     * Suma en totals los buckets de la ventana que termina en nowMillis
+     */
+    void accumulate(StatsWindow window, long nowMillis, long[] totals) {
+        AtomicReferenceArray<Bucket> ring = window.coarse() ? coarse : fine;
+        long currentEpoch = nowMillis / (window.coarse() ? COARSE_BUCKET_MILLIS : FINE_BUCKET_MILLIS);
+        long oldestEpoch = currentEpoch - window.buckets() + 1;
+
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket == null || bucket.epoch < oldestEpoch || bucket.epoch > currentEpoch) {
+                continue;
+            }
+            for (int i = 0; i < COUNTERS; i++) {
+                totals[i] += bucket.counters.get(i);
+            }
+        }
+    }
+
+    /**
+     * Último instante con actividad, para desalojar comercios inactivos
+     */
+    long lastActivityMillis() {
+        long lastEpoch = -1;
+        for (int slot = 0; slot < coarse.length(); slot++) {
+            Bucket bucket = coarse.get(slot);
+            if (bucket != null) {
+                lastEpoch = Math.max(lastEpoch, bucket.epoch);
+            }
+        }
+        return lastEpoch < 0 ? Long.MIN_VALUE : (lastEpoch + 1) * COARSE_BUCKET_MILLIS - 1;
+    }
+
+    private void recordCoarse(boolean approved, ResponseCode responseCode, long minorUnits, long nowMillis) {
+        AtomicLongArray counters = bucket(coarse, nowMillis / COARSE_BUCKET_MILLIS).counters;
+        counters.getAndIncrement(COUNT);
+        addOutcome(counters, approved, responseCode, minorUnits);
+    }
+
+    private static void addOutcome(AtomicLongArray counters, boolean approved, ResponseCode responseCode, long minorUnits) {
+        if (approved) {
+            counters.getAndIncrement(APPROVED);
+            counters.getAndAdd(APPROVED_VOLUME, minorUnits);
+        }
+        counters.getAndIncrement(RESPONSE_CODES + responseCode.ordinal());
+    }
+
+    /**
+     * Bucket del epoch indicado; si el slot guarda uno más antiguo lo reemplaza
+     */
+    private static Bucket bucket(AtomicReferenceArray<Bucket> ring, long epoch) {
+        int slot = (int) (epoch % ring.length());
+        Bucket current = ring.get(slot);
+        while (current == null || current.epoch < epoch) {
+            Bucket fresh = new Bucket(epoch);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+            current = ring.get(slot);
+        }
+        // Un hilo atrasado (epoch menor) escribe en el bucket vigente en vez de perder el dato
+        return current;
+    }
+
+    private static final class Bucket {
+
+        private final long epoch;
+        private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.bank.issuingbank.stats;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Contadores de un comercio: un juego de {@link BucketRing} por moneda (los volúmenes de
+ * monedas distintas no se suman), cada uno repartido en stripes al estilo de LongAdder.
+ * <p>
+ * Un comercio con poco tráfico usa una sola stripe. Cuando dos hilos chocan en el mismo
+ * contador (falla el CAS) se duplica la cantidad de stripes, hasta maxStripes, y cada hilo
+ * escribe en la que le asigna su ID: los comercios con muchas TPS dejan de competir por la
+ * misma línea de caché y el resto no paga memoria extra.
+ */
+final class MerchantCounters {
+
+    private static final int CURRENCIES = IsoCurrency.values().length;
+
+    private final int maxStripes;
+    private final AtomicReferenceArray<CurrencyStripes> byCurrency = new AtomicReferenceArray<>(CURRENCIES);
+
+    MerchantCounters(int maxStripes) {
+        this.maxStripes = maxStripes;
+    }
+
+    void record(IsoCurrency currency, boolean approved, ResponseCode responseCode, long minorUnits, long nowMillis) {
+        CurrencyStripes stripes = byCurrency.get(currency.ordinal());
+        if (stripes == null) {
+            byCurrency.compareAndSet(currency.ordinal(), null, new CurrencyStripes(maxStripes));
+            stripes = byCurrency.get(currency.ordinal());
+        }
+        stripes.record(approved, responseCode, minorUnits, nowMillis);
+    }
+
+    /**
+     * Suma la ventana de la moneda en totals (ver índices de {@link BucketRing})
+     *
+     * @return false si el comercio no operó nunca en esa moneda
+     */
+    boolean accumulate(IsoCurrency currency, StatsWindow window, long nowMillis, long[] totals) {
+        CurrencyStripes stripes = byCurrency.get(currency.ordinal());
+        if (stripes == null) {
+            return false;
+        }
+        stripes.accumulate(window, nowMillis, totals);
+        return true;
+    }
+
+    long lastActivityMillis() {
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < CURRENCIES; i++) {
+            CurrencyStripes stripes = byCurrency.get(i);
+            if (stripes != null) {
+                last = Math.max(last, stripes.lastActivityMillis());
+            }
+        }
+        return last;
+    }
+
+    private static final class CurrencyStripes {
+
+        private final AtomicReferenceArray<BucketRing> stripes;
+        private final AtomicInteger activeStripes = new AtomicInteger(1);
+
+        CurrencyStripes(int maxStripes) {
+            this.stripes = new AtomicReferenceArray<>(maxStripes);
+            this.stripes.set(0, new BucketRing());
+        }
+
+        void record(boolean approved, ResponseCode responseCode, long minorUnits, long nowMillis) {
+            int active = activeStripes.get();
+            int hash = threadHash();
+            BucketRing ring = stripe(hash & (active - 1));
+            if (ring.tryRecord(approved, responseCode, minorUnits, nowMillis)) {
+                return;
+            }
+
+            // Contención: más stripes para los próximos registros; este se registra sin reintentar
+            if (active < stripes.length()) {
+                activeStripes.compareAndSet(active, active << 1);
+            }
+            stripe(hash & (activeStripes.get() - 1)).record(approved, responseCode, minorUnits, nowMillis);
+        }
+
+        void accumulate(StatsWindow window, long nowMillis, long[] totals) {
+            for (int i = 0; i < stripes.length(); i++) {
+                BucketRing ring = stripes.get(i);
+                if (ring != null) {
+                    ring.accumulate(window, nowMillis, totals);
+                }
+            }
+        }
+
+        long lastActivityMillis() {
+            long last = Long.MIN_VALUE;
+            for (int i = 0; i < stripes.length(); i++) {
+                BucketRing ring = stripes.get(i);
+                if (ring != null) {
+                    last = Math.max(last, ring.lastActivityMillis());
+                }
+            }
+            return last;
+        }
+
+        private BucketRing stripe(int index) {
+            BucketRing ring = stripes.get(index);
+            if (ring == null) {
+                stripes.compareAndSet(index, null, new BucketRing());
+                ring = stripes.get(index);
+            }
+            return ring;
+        }
+
+        @SuppressWarnings("deprecation") // Thread.threadId() recién existe desde Java 19
+        private static int threadHash() {
+            long id = Thread.currentThread().getId();
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.bank.issuingbank.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.StatsProperties;
+import org.bank.issuingbank.dto.response.MerchantStatsResponse;
+import org.bank.issuingbank.dto.response.WindowStatsResponse;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Estadísticas en vivo por comercio (autorizaciones, volumen aprobado, tasa de rechazo y
+ * mezcla de códigos de respuesta) en ventanas deslizantes de 1, 5 y 60 minutos.
+ * <p>
+ * Se actualizan en memoria a medida que cada pago termina, sin consultar la base de datos.
+ * {@link #record} solo hace lecturas de ConcurrentHashMap e incrementos atómicos sobre
+ * contadores repartidos en stripes ({@link MerchantCounters}): no toma locks ni reintenta,
+ * así que no agrega contención al camino de autorización. Al llegar a maxMerchants, los comercios
+ * inactivos se desalojan en un barrido de a lo sumo una vez por minuto; mientras tanto los
+ * resultados de comercios nuevos se descartan (payments.stats.dropped).
+ * Memoria: unos 24 KB por comercio, moneda y stripe activos.
+ */
+@Component
+public class MerchantStatsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantStatsRegistry.class);
+
+    private static final long IDLE_MILLIS = StatsWindow.SIXTY_MINUTES.buckets() * BucketRing.COARSE_BUCKET_MILLIS;
+    private static final long SWEEP_INTERVAL_MILLIS = BucketRing.COARSE_BUCKET_MILLIS;
+    private static final ResponseCode[] RESPONSE_CODES = ResponseCode.values();
+    private static final IsoCurrency[] CURRENCIES = IsoCurrency.values();
+
+    private final StatsProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, MerchantCounters> merchants = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepMillis = new AtomicLong(Long.MIN_VALUE);
+    private final Counter droppedCounter;
+
+    @Autowired
+    public MerchantStatsRegistry(StatsProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    MerchantStatsRegistry(StatsProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (Integer.bitCount(properties.maxStripes()) != 1) {
+            throw new IllegalArgumentException("payments.stats.max-stripes must be a power of two: "
+                    + properties.maxStripes());
+        }
+        this.properties = properties;
+        this.clock = clock;
+
+        Gauge.builder("payments.stats.merchants", merchants, Map::size)
+                .description("Comercios con estadísticas en memoria")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("payments.stats.dropped")
+                .description("Resultados no registrados por superar el máximo de comercios")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el resultado final (APPROVED/DECLINED) de una autorización
+     */
+    public void record(Transaction transaction) {
+        if (!properties.enabled() || transaction.getStatus() == TransactionStatus.PENDING) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        MerchantCounters counters = merchants.get(transaction.getMerchantId());
+        if (counters == null) {
+            counters = register(transaction.getMerchantId(), now);
+            if (counters == null) {
+                droppedCounter.increment();
+                return;
+            }
+        }
+        counters.record(transaction.getCurrency(), transaction.getStatus() == TransactionStatus.APPROVED,
+                transaction.getResponseCode(), transaction.getAmountMinorUnits(), now);
+    }
+
+    /**
+     * Estadísticas del comercio en las tres ventanas; en cero si no operó en los últimos 60 minutos
+     */
+    public MerchantStatsResponse snapshot(String merchantId) {
+        long now = clock.getAsLong();
+        MerchantCounters counters = merchants.get(merchantId);
+
+        List<WindowStatsResponse> windows = new ArrayList<>(StatsWindow.values().length);
+        for (StatsWindow window : StatsWindow.values()) {
+            windows.add(windowStats(counters, window, now));
+        }
+        return new MerchantStatsResponse(merchantId, windows);
+    }
+
+    /**
+     * Los limit comercios con más actividad (o mayor tasa de rechazo) en la ventana.
+     * Recorre todos los comercios: pensado para el dashboard, no para el camino de autorización.
+     */
+    public List<MerchantStatsResponse> top(StatsWindow window, StatsRanking ranking, int limit) {
+        long now = clock.getAsLong();
+        evictIdle(now);
+
+        Comparator<MerchantStatsResponse> order = switch (ranking) {
+            case COUNT -> Comparator.comparingLong(stats -> stats.windows().get(0).count());
+            case DECLINE_RATE -> Comparator.<MerchantStatsResponse>comparingDouble(
+                            stats -> stats.windows().get(0).declineRate())
+                    .thenComparingLong(stats -> stats.windows().get(0).count());
+        };
+
+        return merchants.entrySet().stream()
+                .map(entry -> new MerchantStatsResponse(entry.getKey(),
+                        List.of(windowStats(entry.getValue(), window, now))))
+                .filter(stats -> stats.windows().get(0).count() > 0)
+                .sorted(order.reversed().thenComparing(MerchantStatsResponse::merchantId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Desaloja los comercios sin actividad en la ventana más larga
+     */
+    void evictIdle(long nowMillis) {
+        merchants.entrySet().removeIf(entry -> nowMillis - entry.getValue().lastActivityMillis() > IDLE_MILLIS);
+    }
+
+    private MerchantCounters register(String merchantId, long nowMillis) {
+        if (merchants.size() >= properties.maxMerchants()) {
+            // Un solo hilo barre por minuto: el barrido recorre todos los comercios, monedas y stripes
+            long next = nextSweepMillis.get();
+            if (nowMillis >= next && nextSweepMillis.compareAndSet(next, nowMillis + SWEEP_INTERVAL_MILLIS)) {
+                evictIdle(nowMillis);
+                if (merchants.size() >= properties.maxMerchants()) {
+                    log.warn("Merchant stats capacity reached ({} merchants) - not tracking new merchants, first: {}",
+                            properties.maxMerchants(), merchantId);
+                }
+            }
+            if (merchants.size() >= properties.maxMerchants()) {
+                return null;
+            }
+        }
+        return merchants.computeIfAbsent(merchantId, id -> new MerchantCounters(properties.maxStripes()));
+    }
+
+    private static WindowStatsResponse windowStats(MerchantCounters counters, StatsWindow window, long nowMillis) {
+        long count = 0;
+        long approved = 0;
+        long[] responseCodeCounts = new long[RESPONSE_CODES.length];
+        Map<String, BigDecimal> approvedVolume = new LinkedHashMap<>();
+
+        if (counters != null) {
+            long[] totals = new long[BucketRing.COUNTERS];
+            for (IsoCurrency currency : CURRENCIES) {
+                if (!counters.accumulate(currency, window, nowMillis, totals)) {
+                    continue;
+                }
+                count += totals[BucketRing.COUNT];
+                approved += totals[BucketRing.APPROVED];
+                if (totals[BucketRing.APPROVED_VOLUME] > 0) {
+                    approvedVolume.put(currency.name(),
+                            new Money(totals[BucketRing.APPROVED_VOLUME], currency).toBigDecimal());
+                }
+                for (int i = 0; i < RESPONSE_CODES.length; i++) {
+                    responseCodeCounts[i] += totals[BucketRing.RESPONSE_CODES + i];
+                }
+                Arrays.fill(totals, 0);
+            }
+        }
+
+        Map<String, Long> responseCodes = new LinkedHashMap<>();
+        for (int i = 0; i < RESPONSE_CODES.length; i++) {
+            if (responseCodeCounts[i] > 0) {
+                responseCodes.put(RESPONSE_CODES[i].code(), responseCodeCounts[i]);
+            }
+        }
+
+        long declined = count - approved;
+        double declineRate = count == 0 ? 0 : (double) declined / count;
+        return new WindowStatsResponse(window.label(), count, approved, declined, declineRate,
+                approvedVolume, responseCodes);
+    }
+}
@@ -0,0 +1,38 @@
+package org.bank.issuingbank.stats;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+/**
+ * Criterio del ranking de comercios (GET /payments/stats/top)
+ */
+public enum StatsRanking {
+
+    /**
+     * Más autorizaciones en la ventana
+     */
+    COUNT("count"),
+
+    /**
+     * Mayor tasa de rechazo; a igual tasa, más autorizaciones
+     */
+    DECLINE_RATE("declineRate");
+
+    private final String param;
+
+    StatsRanking(String param) {
+        this.param = param;
+    }
+
+    /**
+     * @throws BusinessException INVALID_STATS_RANKING si el criterio no es count ni declineRate
+     */
+    public static StatsRanking fromParam(String param) {
+        for (StatsRanking ranking : values()) {
+            if (ranking.param.equalsIgnoreCase(param)) {
+                return ranking;
+            }
+        }
+        throw new BusinessException("Unsupported ranking: " + param + " (expected count or declineRate)",
+                "INVALID_STATS_RANKING");
+    }
+}
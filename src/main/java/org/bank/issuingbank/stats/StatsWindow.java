@@ -0,0 +1,55 @@
+package org.bank.issuingbank.stats;
+
+import org.bank.issuingbank.exception.BusinessException;
+
+/**
+ * Ventanas deslizantes de las estadísticas por comercio. Las de 1 y 5 minutos se calculan
+ * con buckets de 10 segundos y la de 60 minutos con buckets de 1 minuto.
+ */
+public enum StatsWindow {
+
+    ONE_MINUTE("1m", 6, false),
+    FIVE_MINUTES("5m", 30, false),
+    SIXTY_MINUTES("60m", 60, true);
+
+    private final String label;
+    private final int buckets;
+    private final boolean coarse;
+
+    StatsWindow(String label, int buckets, boolean coarse) {
+        this.label = label;
+        this.buckets = buckets;
+        this.coarse = coarse;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Buckets que cubre la ventana, incluido el bucket en curso
+     */
+    int buckets() {
+        return buckets;
+    }
+
+    /**
+     * true si la ventana se lee del anillo de buckets de 1 minuto
+     */
+    boolean coarse() {
+        return coarse;
+    }
+
+    /**
+     * @throws BusinessException INVALID_STATS_WINDOW si la etiqueta no es 1m, 5m ni 60m
+     */
+    public static StatsWindow fromLabel(String label) {
+        for (StatsWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new BusinessException("Unsupported stats window: " + label + " (expected 1m, 5m or 60m)",
+                "INVALID_STATS_WINDOW");
+    }
+}
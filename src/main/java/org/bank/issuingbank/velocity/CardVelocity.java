@@ -0,0 +1,100 @@
+package org.bank.issuingbank.velocity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Contadores de intentos y montos de una tarjeta. Cada ventana guarda solo dos buckets del
+ * largo de la ventana, el en curso y el anterior, y estima la ventana deslizante como
+ * {@code actual + anterior * (parte del bucket anterior que sigue dentro de la ventana)}.
+ * <p>
+ * Todo vive en un solo long[] de 12 posiciones (128 bytes por tarjeta contando el objeto): con
+ * millones de tarjetas cada control toca un par de líneas de caché en lugar de seguir un puntero
+ * por bucket. Cada posición guarda el epoch del bucket en los 24 bits bajos y el valor en los 40
+ * altos, así que reiniciar un bucket vencido y sumarle son el mismo CAS: ningún intento
+ * concurrente se pierde ni se suma a un bucket que otro hilo acaba de reiniciar.
+ */
+final class CardVelocity {
+
+    static final int WITHIN_LIMITS = 0;
+    static final int COUNT_EXCEEDED = 1;
+    static final int AMOUNT_EXCEEDED = 2;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int EPOCH_BITS = 24;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+    private static final long MAX_VALUE = (1L << (Long.SIZE - EPOCH_BITS)) - 1;
+
+    // Por ventana: conteo y monto del bucket de epoch par, luego los del impar
+    private final long[] slots = new long[VelocityWindow.values().length * 4];
+
+    /**
+     * Suma el intento a la ventana y la compara con sus límites (0: sin límite)
+     *
+     * @return WITHIN_LIMITS, COUNT_EXCEEDED o AMOUNT_EXCEEDED
+     */
+    int record(VelocityWindow window, long nowMillis, long amount, long maxCount, long maxAmount) {
+        long epoch = nowMillis / window.millis();
+        int current = slot(window, epoch);
+        long count = add(current, epoch, 1);
+        long total = add(current + 1, epoch, amount);
+
+        int previous = slot(window, epoch - 1);
+        double weight = 1 - (double) (nowMillis % window.millis()) / window.millis();
+        count += (long) (value(previous, epoch - 1) * weight);
+        total += (long) (value(previous + 1, epoch - 1) * weight);
+
+        if (maxCount > 0 && count > maxCount) {
+            return COUNT_EXCEEDED;
+        }
+        if (maxAmount > 0 && total > maxAmount) {
+            return AMOUNT_EXCEEDED;
+        }
+        return WITHIN_LIMITS;
+    }
+
+    /**
+     * true si la tarjeta ya no suma en ninguna ventana: sin intentos hoy ni ayer
+     */
+    boolean idle(long nowMillis) {
+        long day = nowMillis / VelocityWindow.DAY.millis();
+        return value(slot(VelocityWindow.DAY, day), day) == 0
+                && value(slot(VelocityWindow.DAY, day - 1), day - 1) == 0;
+    }
+
+    /**
+     * Suma delta al bucket del epoch; si la posición guarda un bucket vencido lo reemplaza
+     *
+     * @return el valor del bucket después de sumar
+     */
+    private long add(int index, long epoch, long delta) {
+        long tag = epoch & EPOCH_MASK;
+        while (true) {
+            long word = (long) SLOTS.getVolatile(slots, index);
+            long wordTag = word & EPOCH_MASK;
+            long value;
+            if (word != 0 && ((wordTag - tag) & EPOCH_MASK) < EPOCH_MASK / 2) {
+                // Mismo bucket, o un hilo atrasado que suma en el vigente en vez de perder el intento
+                value = Math.min(MAX_VALUE, (word >>> EPOCH_BITS) + delta);
+            } else {
+                value = Math.min(MAX_VALUE, delta);
+                wordTag = tag;
+            }
+            if (SLOTS.compareAndSet(slots, index, word, value << EPOCH_BITS | wordTag)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Valor del bucket si la posición todavía guarda ese epoch; 0 si ya fue reemplazado
+     */
+    private long value(int index, long epoch) {
+        long word = (long) SLOTS.getVolatile(slots, index);
+        return (word & EPOCH_MASK) == (epoch & EPOCH_MASK) ? word >>> EPOCH_BITS : 0;
+    }
+
+    private static int slot(VelocityWindow window, long epoch) {
+        return window.ordinal() * 4 + (int) (epoch & 1) * 2;
+    }
+}
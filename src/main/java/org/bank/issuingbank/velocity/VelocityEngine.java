@@ -0,0 +1,150 @@
+package org.bank.issuingbank.velocity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.config.VelocityProperties;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Límites de velocidad por tarjeta: intentos y monto acumulado en el último minuto, hora y día.
+ * PaymentServiceImpl y BatchPaymentServiceImpl lo consultan antes del issuer, así un card testing
+ * (muchos intentos chicos con la misma tarjeta) se rechaza sin gastar capacidad del issuer.
+ * <p>
+ * Cuenta intentos, no aprobaciones: un intento rechazado por velocidad también suma, así que un
+ * atacante que insiste sigue rechazado hasta que baja el ritmo.
+ * <p>
+ * Igual que MerchantStatsRegistry, el camino caliente es una lectura de ConcurrentHashMap más
+ * CAS sobre los contadores de la tarjeta. Las tarjetas que ya no suman en ninguna ventana (sin
+ * intentos hoy ni ayer) se descartan en un barrido que corre a lo sumo una vez por minuto, al
+ * registrar tarjetas nuevas; si aun así se llega a maxCards, las nuevas no se controlan (y pasan)
+ * hasta que se libere espacio.
+ */
+@Component
+public class VelocityEngine {
+
+    private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+    private static final long SWEEP_INTERVAL_MILLIS = VelocityWindow.MINUTE.millis();
+
+    private final VelocityProperties properties;
+    private final LongSupplier clock;
+    private final long[] maxCounts = new long[WINDOWS.length];
+    private final long[] maxAmounts = new long[WINDOWS.length];
+    private final Map<String, CardVelocity> cards = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepMillis = new AtomicLong(Long.MIN_VALUE);
+    private final Counter droppedCounter;
+    private final Counter[] countDeclines = new Counter[WINDOWS.length];
+    private final Counter[] amountDeclines = new Counter[WINDOWS.length];
+
+    @Autowired
+    public VelocityEngine(VelocityProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    VelocityEngine(VelocityProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        limits(VelocityWindow.MINUTE, properties.perMinute());
+        limits(VelocityWindow.HOUR, properties.perHour());
+        limits(VelocityWindow.DAY, properties.perDay());
+
+
+        Gauge.builder("payments.velocity.cards", cards, Map::size)
+                .description("Tarjetas con contadores de velocidad en memoria")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("payments.velocity.dropped")
+                .description("Intentos no controlados por superar el máximo de tarjetas")
+                .register(meterRegistry);
+        for (VelocityWindow window : WINDOWS) {
+            countDeclines[window.ordinal()] = declines(meterRegistry, window, "count");
+            amountDeclines[window.ordinal()] = declines(meterRegistry, window, "amount");
+        }
+    }
+
+    /**
+     * Registra el intento y lo compara con los límites de cada ventana
+     *
+     * @param amount monto en unidades de la moneda del pago (se redondea hacia arriba)
+     * @return null si está dentro de los límites; si no, EXCEEDS_FREQUENCY_LIMIT (65) o
+     * EXCEEDS_AMOUNT_LIMIT (61) según el primer límite superado
+     */
+    public ResponseCode check(String cardToken, Double amount) {
+        if (!properties.enabled() || cardToken == null) {
+            return null;
+        }
+
+        long now = clock.getAsLong();
+        long units = amount == null ? 0 : (long) Math.ceil(amount);
+        CardVelocity card = cards.get(cardToken);
+        if (card == null) {
+            card = register(cardToken, now);
+            if (card == null) {
+                droppedCounter.increment();
+                return null;
+            }
+        }
+
+        // Se suma en todas las ventanas aunque la primera ya rechace: el intento cuenta en todas
+        ResponseCode decline = null;
+        for (VelocityWindow window : WINDOWS) {
+            int index = window.ordinal();
+            int result = card.record(window, now, units, maxCounts[index], maxAmounts[index]);
+            if (result != CardVelocity.WITHIN_LIMITS && decline == null) {
+                if (result == CardVelocity.COUNT_EXCEEDED) {
+                    countDeclines[index].increment();
+                    decline = ResponseCode.EXCEEDS_FREQUENCY_LIMIT;
+                } else {
+                    amountDeclines[index].increment();
+                    decline = ResponseCode.EXCEEDS_AMOUNT_LIMIT;
+                }
+            }
+        }
+        return decline;
+    }
+
+    /**
+     * Tarjetas con contadores en memoria
+     */
+    int trackedCards() {
+        return cards.size();
+    }
+
+    /**
+     * Descarta las tarjetas que ya no suman en ninguna ventana
+     */
+    void evictIdle(long nowMillis) {
+        cards.values().removeIf(card -> card.idle(nowMillis));
+    }
+
+    private CardVelocity register(String cardToken, long nowMillis) {
+        // Un solo hilo barre por minuto: con millones de tarjetas el barrido no es gratis
+        long next = nextSweepMillis.get();
+        if (nowMillis >= next && nextSweepMillis.compareAndSet(next, nowMillis + SWEEP_INTERVAL_MILLIS)) {
+            evictIdle(nowMillis);
+        }
+        if (cards.size() >= properties.maxCards()) {
+            return null;
+        }
+        return cards.computeIfAbsent(cardToken, token -> new CardVelocity());
+    }
+
+    private void limits(VelocityWindow window, VelocityProperties.Limits limits) {
+        maxCounts[window.ordinal()] = limits.maxCount();
+        maxAmounts[window.ordinal()] = limits.maxAmount();
+    }
+
+    private static Counter declines(MeterRegistry meterRegistry, VelocityWindow window, String limit) {
+        return Counter.builder("payments.velocity.declines")
+                .description("Autorizaciones rechazadas por superar un límite de velocidad")
+                .tag("window", window.label())
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package org.bank.issuingbank.velocity;
+
+/**
+ * Ventanas de los límites de velocidad por tarjeta
+ */
+public enum VelocityWindow {
+
+    MINUTE("1m", 60_000L),
+    HOUR("1h", 3_600_000L),
+    DAY("24h", 86_400_000L);
+
+    private final String label;
+    private final long millis;
+
+    VelocityWindow(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long millis() {
+        return millis;
+    }
+}
@@ -0,0 +1,134 @@
+package org.bank.issuingbank.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.AdmissionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdmissionFilter Tests")
+class AdmissionFilterTest {
+
+    private static final String BODY = """
+            {"amount": 5000.0, "card": {"merchantId": "NESTED"}, "merchantId": "MERCHANT_001", "currency": "CLP"}
+            """;
+
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // 1 solicitud por segundo, sin burst
+        MerchantAdmission admission = new MerchantAdmission(
+                new AdmissionProperties(true, new AdmissionProperties.Tier(1, 1), Map.of(), 1000, 100, DataSize.ofKilobytes(64)),
+                new SimpleMeterRegistry());
+        filter = new AdmissionFilter(admission, JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("Debe pasar al controller el mismo cuerpo que leyó para buscar el merchantId")
+    void shouldForwardBodyWhenAdmitted() throws Exception {
+        // Given
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(payment("/payments", BODY), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("Debe responder 429 con Retry-After sin llegar al controller cuando el comercio no tiene tokens")
+    void shouldRejectWith429WhenMerchantIsOverLimit() throws Exception {
+        // Given
+        filter.doFilter(payment("/payments", BODY), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(payment("/payments/async", BODY), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"errorCode\":\"RATE_LIMITED\"").contains("MERCHANT_001");
+    }
+
+    @Test
+    @DisplayName("No debe limitar otras rutas ni cuerpos sin merchantId")
+    void shouldIgnoreOtherRoutesAndUnreadableBodies() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain batch = new MockFilterChain();
+            filter.doFilter(payment("/payments/batch", BODY), new MockHttpServletResponse(), batch);
+            assertThat(batch.getRequest()).isNotNull();
+
+            MockFilterChain malformed = new MockFilterChain();
+            filter.doFilter(payment("/payments", "{\"merchantId\": "), new MockHttpServletResponse(), malformed);
+            assertThat(malformed.getRequest()).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe responder 400 cuando el cuerpo repite merchantId, para no cobrarle a otro comercio")
+    void shouldRejectDuplicateMerchantId() throws Exception {
+        // Given: Jackson se queda con el último valor; el filtro no debe cobrarle al primero
+        String duplicated = "{\"merchantId\": \"MERCHANT_DECOY\", \"amount\": 5000.0, \"merchantId\": \"MERCHANT_001\"}";
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(payment("/payments", duplicated), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getContentAsString()).contains("\"errorCode\":\"VALIDATION_ERROR\"");
+    }
+
+    @Test
+    @DisplayName("Debe responder 413 sin buscar el merchantId cuando el cuerpo supera el máximo")
+    void shouldRejectBodyLargerThanMax() throws Exception {
+        // Given: 64 KB de relleno, con y sin Content-Length
+        String large = "{\"merchantId\": \"MERCHANT_001\", \"padding\": \"" + "x".repeat(64 * 1024) + "\"}";
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/payments") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(large.getBytes(StandardCharsets.UTF_8));
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{payment("/payments", large), chunked}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // When
+            filter.doFilter(request, response, chain);
+
+            // Then
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(413);
+            assertThat(response.getContentAsString()).contains("\"errorCode\":\"PAYLOAD_TOO_LARGE\"");
+        }
+    }
+
+    private static MockHttpServletRequest payment(String path, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,178 @@
+package org.bank.issuingbank.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.AdmissionProperties;
+import org.bank.issuingbank.dto.response.MerchantAdmissionResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MerchantAdmission Tests")
+class MerchantAdmissionTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final AdmissionProperties.Tier DEFAULT_TIER = new AdmissionProperties.Tier(10, 5);
+
+    private final AtomicLong now = new AtomicLong(123_456_789_000L);
+
+    @Test
+    @DisplayName("Debe admitir el burst de una vez y luego un token por intervalo")
+    void shouldAdmitBurstThenRefillAtRate() {
+        // Given
+        MerchantAdmission admission = admission(Map.of(), 1000);
+        for (int i = 0; i < 5; i++) {
+            assertThat(admission.tryAcquire("MERCHANT_001")).isZero();
+        }
+
+        // When
+        long wait = admission.tryAcquire("MERCHANT_001");
+
+        // Then: a 10/s el próximo token llega en 100 ms
+        assertThat(wait).isEqualTo(100 * MILLI);
+        now.addAndGet(100 * MILLI);
+        assertThat(admission.tryAcquire("MERCHANT_001")).isZero();
+        assertThat(admission.tryAcquire("MERCHANT_001")).isPositive();
+        assertThat(admission.tryAcquire("MERCHANT_002")).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el tier propio del comercio en lugar del default")
+    void shouldUseMerchantTier() {
+        // Given
+        MerchantAdmission admission = admission(Map.of("MERCHANT_BIG", new AdmissionProperties.Tier(1000, 50)), 1000);
+
+        // When
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (admission.tryAcquire("MERCHANT_BIG") == 0) {
+                admitted++;
+            }
+        }
+
+        // Then
+        assertThat(admitted).isEqualTo(50);
+        MerchantAdmissionResponse status = admission.status("MERCHANT_BIG");
+        assertThat(status.ratePerSecond()).isEqualTo(1000);
+        assertThat(status.availableTokens()).isZero();
+        assertThat(status.rejected()).isEqualTo(50);
+        assertThat(admission.status("MERCHANT_NEW").availableTokens()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Debe admitir exactamente el burst con muchos hilos sobre el mismo comercio")
+    void shouldNotOverAdmitUnderContention() throws InterruptedException {
+        // Given
+        int burst = 1_000;
+        int threads = 8;
+        int requestsPerThread = 5_000;
+        MerchantAdmission admission = admission(Map.of("MERCHANT_HOT", new AdmissionProperties.Tier(1, burst)), 1000);
+        AtomicLong admitted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < requestsPerThread; i++) {
+                    if (admission.tryAcquire("MERCHANT_HOT") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // When
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then
+        assertThat(admitted.get()).isEqualTo(burst);
+        assertThat(admission.status("MERCHANT_HOT").rejected()).isEqualTo((long) threads * requestsPerThread - burst);
+    }
+
+    @Test
+    @DisplayName("Debe ordenar los comercios por rechazos")
+    void shouldRankMerchantsByRejections() {
+        // Given
+        MerchantAdmission admission = admission(Map.of(), 1000);
+        for (int i = 0; i < 8; i++) {
+            admission.tryAcquire("MERCHANT_FLOOD");
+        }
+        for (int i = 0; i < 6; i++) {
+            admission.tryAcquire("MERCHANT_BUSY");
+        }
+        admission.tryAcquire("MERCHANT_QUIET");
+
+        // When
+        List<MerchantAdmissionResponse> top = admission.topRejected(10);
+
+        // Then
+        assertThat(top).extracting(MerchantAdmissionResponse::merchantId).containsExactly("MERCHANT_FLOOD", "MERCHANT_BUSY");
+        assertThat(top).extracting(MerchantAdmissionResponse::rejected).containsExactly(3L, 1L);
+        assertThatThrownBy(() -> admission.topRejected(0)).hasMessageContaining("limit must be between");
+    }
+
+    @Test
+    @DisplayName("Debe descartar buckets llenos sin uso y limitar con un bucket compartido a los comercios sobre maxMerchants")
+    void shouldEvictIdleBucketsAndBoundMemory() {
+        // Given
+        MerchantAdmission admission = admission(Map.of(), 10);
+        for (int i = 0; i < 10; i++) {
+            admission.tryAcquire("MERCHANT_" + i);
+        }
+        assertThat(admission.trackedMerchants()).isEqualTo(10);
+
+        // Los comercios sin bucket propio se reparten el burst del default, inventen los ids que inventen
+        long admitted = 0;
+        for (int i = 0; i < DEFAULT_TIER.burst() * 2; i++) {
+            admitted += admission.tryAcquire("MERCHANT_OVERFLOW_" + i) == 0 ? 1 : 0;
+        }
+        assertThat(admitted).isEqualTo(DEFAULT_TIER.burst());
+        assertThat(admission.trackedMerchants()).isEqualTo(10);
+
+        // When
+        now.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        admission.tryAcquire("MERCHANT_NEW");
+
+        // Then: el barrido al registrar el comercio nuevo liberó los inactivos
+        assertThat(admission.trackedMerchants()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No debe limitar nada si está deshabilitado")
+    void shouldAdmitEverythingWhenDisabled() {
+        // Given
+        MerchantAdmission admission = new MerchantAdmission(
+                new AdmissionProperties(false, new AdmissionProperties.Tier(1, 1), Map.of(), 1000, 100, DataSize.ofKilobytes(64)),
+                new SimpleMeterRegistry(), now::get);
+
+        // When / Then
+        for (int i = 0; i < 10; i++) {
+            assertThat(admission.tryAcquire("MERCHANT_001")).isZero();
+        }
+        assertThat(admission.trackedMerchants()).isZero();
+    }
+
+    private MerchantAdmission admission(Map<String, AdmissionProperties.Tier> merchants, int maxMerchants) {
+        return new MerchantAdmission(new AdmissionProperties(true, DEFAULT_TIER, merchants, maxMerchants, 100, DataSize.ofKilobytes(64)),
+                new SimpleMeterRegistry(), now::get);
+    }
+}
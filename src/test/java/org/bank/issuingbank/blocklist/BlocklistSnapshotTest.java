@@ -0,0 +1,101 @@
+package org.bank.issuingbank.blocklist;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BlocklistSnapshot Tests")
+class BlocklistSnapshotTest {
+
+    private static final int CARDS = 100_000;
+
+    @Test
+    @DisplayName("Debe encontrar todas las tarjetas de la lista y ninguna fuera de ella")
+    void shouldContainExactlyTheListedCards() {
+        // Given
+        List<String> blocked = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            blocked.add("tok_blocked_" + i);
+        }
+
+        // When
+        BlocklistSnapshot snapshot = BlocklistSnapshot.of(blocked, 0.01);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(CARDS);
+        for (String cardToken : blocked) {
+            assertThat(snapshot.contains(cardToken)).isTrue();
+        }
+        int bloomPositives = 0;
+        for (int i = 0; i < CARDS; i++) {
+            String cardToken = "tok_allowed_" + i;
+            assertThat(snapshot.contains(cardToken)).isFalse();
+            if (snapshot.mightContain(cardToken)) {
+                bloomPositives++;
+            }
+        }
+        // El filtro se redondea hacia arriba, así que la tasa real queda bajo la pedida
+        assertThat(bloomPositives / (double) CARDS).isLessThan(0.01);
+    }
+
+    @Test
+    @DisplayName("Debe distinguir tokens que son prefijo de otros y descartar repetidos")
+    void shouldCompareWholeTokens() {
+        // Given
+        BlocklistSnapshot snapshot = BlocklistSnapshot.of(
+                List.of("tok_abc123", "tok_abc123xyz", "tok_abc123", "TOK_ABC123"), 0.01);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.contains("tok_abc123")).isTrue();
+        assertThat(snapshot.contains("tok_abc123xyz")).isTrue();
+        assertThat(snapshot.contains("TOK_ABC123")).isTrue();
+        assertThat(snapshot.contains("tok_abc12")).isFalse();
+        assertThat(snapshot.contains("tok_abc123x")).isFalse();
+        assertThat(snapshot.contains("")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens no ASCII y tasas de falsos positivos fuera de rango")
+    void shouldRejectInvalidInput() {
+        assertThatThrownBy(() -> BlocklistSnapshot.of(Set.of("tok_ñandú_123"), 0.01))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlocklistSnapshot.of(Set.of("tok_abc123xyz"), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(BlocklistSnapshot.of(List.of(), 0.01).contains("tok_abc123xyz")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe leer el archivo ignorando comentarios, espacios, CRLF y repetidos")
+    void shouldReadFileIntoPackedTokens(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = directory.resolve("blocklist.txt");
+        Files.writeString(file, "# robadas\r\ntok_stolen_0001\r\n\r\n  tok_lost_00002 \t\ntok_stolen_0001\n#tok_note_0003",
+                StandardCharsets.US_ASCII);
+        Path nonAscii = directory.resolve("non-ascii.txt");
+        Files.writeString(nonAscii, "tok_ñandú_123\n", StandardCharsets.UTF_8);
+
+        // When
+        BlocklistSnapshot snapshot = BlocklistSnapshot.read(file, 0.01);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.contains("tok_stolen_0001")).isTrue();
+        assertThat(snapshot.contains("tok_lost_00002")).isTrue();
+        assertThat(snapshot.contains("#tok_note_0003")).isFalse();
+        assertThat(snapshot.contains("tok_note_0003")).isFalse();
+        assertThatThrownBy(() -> BlocklistSnapshot.read(nonAscii, 0.01))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package org.bank.issuingbank.blocklist;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.BlocklistProperties;
+import org.bank.issuingbank.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CardBlocklist Tests")
+class CardBlocklistTest {
+
+    @TempDir
+    Path directory;
+
+    private CardBlocklist blocklist;
+
+    @AfterEach
+    void tearDown() {
+        if (blocklist != null) {
+            blocklist.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe cargar el archivo al iniciar ignorando comentarios y líneas vacías")
+    void shouldLoadFileOnStart() throws IOException {
+        // Given
+        Path file = Files.write(directory.resolve("blocklist.txt"),
+                List.of("# tarjetas robadas", "tok_stolen_0001", "", "  tok_lost_00002  "));
+
+        // When
+        blocklist = start(file, Duration.ZERO);
+
+        // Then
+        assertThat(blocklist.isBlocked("tok_stolen_0001")).isTrue();
+        assertThat(blocklist.isBlocked("tok_lost_00002")).isTrue();
+        assertThat(blocklist.isBlocked("tok_abc123xyz")).isFalse();
+        assertThat(blocklist.isBlocked(null)).isFalse();
+        assertThat(blocklist.status().cards()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe reemplazar la lista cuando el archivo cambia, sin detener las consultas")
+    void shouldSwapSnapshotWhenFileChanges() throws Exception {
+        // Given
+        Path file = Files.write(directory.resolve("blocklist.txt"), List.of("tok_stolen_0001"));
+        blocklist = start(file, Duration.ofMillis(20));
+
+        // When
+        Files.write(file, List.of("tok_stolen_0002"));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(1)));
+
+        // Then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!blocklist.isBlocked("tok_stolen_0002") && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(blocklist.isBlocked("tok_stolen_0002")).isTrue();
+        assertThat(blocklist.isBlocked("tok_stolen_0001")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe conservar la versión anterior si la recarga falla")
+    void shouldKeepPreviousSnapshotWhenReloadFails() throws IOException {
+        // Given
+        Path file = Files.write(directory.resolve("blocklist.txt"), List.of("tok_stolen_0001"));
+        blocklist = start(file, Duration.ZERO);
+        Files.delete(file);
+
+        // When / Then
+        assertThatThrownBy(() -> blocklist.reload())
+                .isInstanceOf(BusinessException.class)
+                .satisfies(error -> assertThat(((BusinessException) error).getErrorCode())
+                        .isEqualTo("BLOCKLIST_RELOAD_FAILED"));
+        assertThat(blocklist.isBlocked("tok_stolen_0001")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe esperar la primera carga en vez de autorizar una tarjeta bloqueada")
+    void shouldWaitForFirstLoadInsteadOfAllowingListedCard() throws Exception {
+        // Given: la consulta llega antes de que termine start
+        Path file = Files.write(directory.resolve("blocklist.txt"), List.of("tok_stolen_0001"));
+        blocklist = new CardBlocklist(new BlocklistProperties(true, file.toString(), 0.01, Duration.ZERO),
+                new SimpleMeterRegistry());
+        CompletableFuture<Boolean> early = CompletableFuture.supplyAsync(() -> blocklist.isBlocked("tok_stolen_0001"));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(early).isNotDone();
+
+        // When
+        blocklist.start();
+
+        // Then: también después de stop sigue respondiendo con la última versión
+        assertThat(early.get(5, TimeUnit.SECONDS)).isTrue();
+        blocklist.stop();
+        assertThat(blocklist.isBlocked("tok_stolen_0001")).isTrue();
+    }
+
+    @Test
+    @DisplayName("No debe bloquear nada con la lista desactivada")
+    void shouldNotBlockWhenDisabled() {
+        // Given
+        blocklist = new CardBlocklist(new BlocklistProperties(false, null, 0.01, Duration.ZERO),
+                new SimpleMeterRegistry());
+
+        // When
+        blocklist.start();
+
+        // Then
+        assertThat(blocklist.isRunning()).isFalse();
+        assertThat(blocklist.isBlocked("tok_stolen_0001")).isFalse();
+    }
+
+    private static CardBlocklist start(Path file, Duration reloadInterval) {
+        CardBlocklist blocklist = new CardBlocklist(
+                new BlocklistProperties(true, file.toString(), 0.01, reloadInterval), new SimpleMeterRegistry());
+        blocklist.start();
+        return blocklist;
+    }
+}
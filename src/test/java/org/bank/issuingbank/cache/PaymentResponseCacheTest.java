@@ -0,0 +1,113 @@
+package org.bank.issuingbank.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.PaymentCacheProperties;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PaymentResponseCache Tests")
+class PaymentResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PaymentResponseCache(new PaymentCacheProperties(2, Duration.ofMinutes(10)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar una sola carga para misses concurrentes del mismo ID")
+    void shouldCollapseConcurrentMissesIntoSingleLoad() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        // When
+        CompletableFuture<PaymentResponse> first = CompletableFuture.supplyAsync(() -> cache.get("txn_1", id -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return response(id, TransactionStatus.APPROVED);
+        }));
+        assertThat(loaderStarted.await(2, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<PaymentResponse> second = CompletableFuture.supplyAsync(() -> cache.get("txn_1", id -> {
+            loads.incrementAndGet();
+            return response(id, TransactionStatus.DECLINED);
+        }));
+        releaseLoader.countDown();
+
+        // Then
+        assertThat(second.get(2, TimeUnit.SECONDS)).isSameAs(first.get(2, TimeUnit.SECONDS));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("No debe cachear respuestas PENDING ni errores del loader")
+    void shouldNotCachePendingResponsesOrLoaderFailures() {
+        // Given
+        cache.put(response("txn_pending", TransactionStatus.PENDING));
+
+        // When & Then
+        assertThatThrownBy(() -> cache.get("txn_missing", id -> {
+            throw new BusinessException("Transaction not found");
+        })).isInstanceOf(BusinessException.class);
+
+        cache.get("txn_pending", id -> response(id, TransactionStatus.PENDING));
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("txn_pending", id -> {
+            loads.incrementAndGet();
+            return response(id, TransactionStatus.APPROVED);
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Debe exponer hits, misses y desalojos como métricas")
+    void shouldExposeStatsAsMetrics() {
+        // Given
+        cache.put(response("txn_1", TransactionStatus.APPROVED));
+        cache.put(response("txn_2", TransactionStatus.APPROVED));
+        cache.put(response("txn_3", TransactionStatus.DECLINED));
+
+        // When
+        cache.get("txn_3", id -> response(id, TransactionStatus.DECLINED));
+        cache.get("txn_4", id -> response(id, TransactionStatus.APPROVED));
+
+        // Then
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "payments").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "payments").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "payments").functionCounter()).isNotNull();
+    }
+
+    private static PaymentResponse response(String transactionId, TransactionStatus status) {
+        return new PaymentResponse(transactionId, status, status == TransactionStatus.APPROVED ? "00" : "05", LocalDateTime.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.bank.issuingbank.controller;
+
+import org.bank.issuingbank.config.IssuerProperties;
+import org.bank.issuingbank.config.IssuerSimulatorProperties;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@DisplayName("Issuer Simulator Integration Tests")
+class IssuerSimulatorIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private IssuerSimulator issuerSimulator;
+
+    @Autowired
+    private IssuerProperties issuerProperties;
+
+    @Autowired
+    private IssuerSimulatorProperties simulatorProperties;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // El contexto se comparte entre clases de test: se deja el issuer como estaba
+        issuerSimulator.stopScenario();
+        issuerSimulator.setBaseline(simulatorProperties.baseline(issuerProperties.mockLatency()));
+    }
+
+    @Test
+    @DisplayName("Debe iniciar y detener un escenario configurado")
+    void shouldStartAndStopConfiguredScenario() throws Exception {
+        mockMvc.perform(get("/admin/issuer-simulator"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeScenario").value(nullValue()))
+                .andExpect(jsonPath("$.scenarios", hasItems("slow-issuer", "outage")));
+
+        mockMvc.perform(post("/admin/issuer-simulator/scenarios/outage"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeScenario").value("outage"))
+                .andExpect(jsonPath("$.phase").value(0))
+                .andExpect(jsonPath("$.current.errorRate").value(1.0));
+
+        mockMvc.perform(delete("/admin/issuer-simulator/scenarios/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeScenario").value(nullValue()))
+                .andExpect(jsonPath("$.current.errorRate").value(0.0));
+    }
+
+    @Test
+    @DisplayName("Debe responder 400 con un escenario desconocido")
+    void shouldRejectUnknownScenario() throws Exception {
+        mockMvc.perform(post("/admin/issuer-simulator/scenarios/missing"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("UNKNOWN_SCENARIO"));
+    }
+
+    @Test
+    @DisplayName("Debe cambiar el comportamiento base e iniciar un escenario ad hoc")
+    void shouldChangeBaselineAndStartCustomScenario() throws Exception {
+        mockMvc.perform(put("/admin/issuer-simulator/behavior")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"latencyDistribution":"LOG_NORMAL","latency":"PT0.05S","latencySigma":0.3,
+                                 "spikeProbability":0,"spikeLatency":"PT1S","approvalRate":0.9,
+                                 "errorRate":0.01,"timeoutRate":0}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.baseline.latencyDistribution").value("LOG_NORMAL"))
+                .andExpect(jsonPath("$.baseline.approvalRate").value(0.9));
+
+        mockMvc.perform(post("/admin/issuer-simulator/scenarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"phases":[{"duration":"PT30S","timeoutRate":0.5}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeScenario").value("custom"))
+                .andExpect(jsonPath("$.current.latencyDistribution").value("LOG_NORMAL"))
+                .andExpect(jsonPath("$.current.timeoutRate").value(0.5));
+    }
+}
@@ -4,7 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.bank.issuingbank.dto.request.PaymentRequest;
 import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.IsoCurrency;
 import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionRepository;
 import org.bank.issuingbank.service.PaymentService;
 import org.bank.issuingbank.service.external.IssuerClient;
 import org.bank.issuingbank.service.external.dto.IssuerResponse;
@@ -16,16 +21,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -44,6 +57,9 @@ class PaymentControllerIntegrationTest {
     @MockitoBean
     private IssuerClient issuerClient;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     private PaymentRequest validPaymentRequest;
     private IssuerResponse approvedIssuerResponse;
     private IssuerResponse declinedIssuerResponse;
@@ -376,6 +392,31 @@ class PaymentControllerIntegrationTest {
         verify(issuerClient, times(currencies.length)).authorize(anyString(), anyDouble(), anyString());
     }
 
+    @Test
+    @DisplayName("POST /payments - Debe guardar y leer monedas ISO 4217 que la API ya aceptaba")
+    void shouldRoundTripPreviouslyAcceptedCurrencies() throws Exception {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+
+        for (String currency : List.of("SEK", "NOK", "INR", "HKD", "SGD", "NZD", "TND")) {
+            PaymentRequest request = new PaymentRequest("MERCHANT_001", 1234.5, currency, "tok_abc123xyz", "12/26");
+
+            // When
+            String transactionId = objectMapper.readValue(mockMvc.perform(post("/payments")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), PaymentResponse.class).transactionId();
+
+            // Then
+            Transaction stored = transactionRepository.findById(transactionId).orElseThrow();
+            assertThat(stored.getAmount()).isEqualTo(Money.of(1234.5, currency));
+            assertThat(stored.getCurrency()).isEqualTo(IsoCurrency.valueOf(currency));
+            assertThat(stored.getAmount().toBigDecimal()).isEqualByComparingTo("1234.5");
+        }
+    }
+
     @Test
     @DisplayName("POST /payments - Debe manejar diferentes merchants")
     void shouldHandleDifferentMerchants() throws Exception {
@@ -453,4 +494,288 @@ class PaymentControllerIntegrationTest {
 
         verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
     }
+
+    @Test
+    @DisplayName("POST /payments/batch - Debe procesar un lote y reportar el resultado de cada pago")
+    void shouldProcessBatchWithPerItemResults() throws Exception {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+
+        List<PaymentRequest> batch = List.of(
+                validPaymentRequest,
+                new PaymentRequest("MERCHANT_002", 1000.0, "USD", "tok_abc123xyz", "12/26"),
+                new PaymentRequest("MERCHANT_003", -5.0, "CLP", "tok_abc123xyz", "12/26") // amount negativo
+        );
+
+        // When & Then
+        String responseContent = mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.approved").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].payment.status").value("APPROVED"))
+                .andExpect(jsonPath("$.results[1].payment.transactionId").isNotEmpty())
+                .andExpect(jsonPath("$.results[2].errorCode").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.results[2].payment").doesNotExist())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        verify(issuerClient, times(2)).authorize(anyString(), anyDouble(), anyString());
+
+        // Las transacciones del lote deben quedar persistidas
+        String transactionId = objectMapper.readTree(responseContent)
+                .at("/results/1/payment/transactionId").asText();
+        mockMvc.perform(get("/payments/{id}", transactionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(transactionId))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    @DisplayName("POST /payments/batch - Debe retornar 400 cuando el lote supera el tamaño máximo")
+    void shouldReturn400WhenBatchIsTooLarge() throws Exception {
+        // Given
+        List<PaymentRequest> batch = Collections.nCopies(1001, validPaymentRequest);
+
+        // When & Then
+        mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BATCH_TOO_LARGE"));
+
+        verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments/batch - Debe retornar 400 cuando el lote está vacío")
+    void shouldReturn400WhenBatchIsEmpty() throws Exception {
+        mockMvc.perform(post("/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("EMPTY_BATCH"));
+    }
+
+    @Test
+    @DisplayName("POST /payments/async - Debe procesar un pago sin bloquear el hilo del request")
+    void shouldProcessPaymentAsynchronously() throws Exception {
+        // Given
+        when(issuerClient.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(approvedIssuerResponse));
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(post("/payments/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").isNotEmpty())
+                .andExpect(jsonPath("$.status").value("APPROVED"))
+                .andExpect(jsonPath("$.responseCode").value("00"));
+
+        verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments/async - Debe retornar 503 con Retry-After cuando el issuer está saturado")
+    void shouldReturn503WhenTooManyAuthorizationsInFlight() throws Exception {
+        // Given
+        when(issuerClient.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new CapacityExceededException(
+                        "Too many authorizations in flight, retry later", "ISSUER_CAPACITY_EXCEEDED", Duration.ofSeconds(1))));
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(post("/payments/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.errorCode").value("ISSUER_CAPACITY_EXCEEDED"));
+    }
+
+    @Test
+    @DisplayName("POST /payments/async - Debe retornar 400 cuando la solicitud es inválida")
+    void shouldReturn400WhenAsyncPaymentIsInvalid() throws Exception {
+        // Given
+        PaymentRequest invalidRequest = new PaymentRequest(null, 50000.0, "CLP", "tok_abc123xyz", "12/26");
+
+        // When & Then
+        mockMvc.perform(post("/payments/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(issuerClient, never()).authorizeAsync(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments - Debe devolver la respuesta original al reintentar con la misma Idempotency-Key")
+    void shouldReplayOriginalResponseForSameIdempotencyKey() throws Exception {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        String idempotencyKey = "order-" + UUID.randomUUID();
+
+        String firstResponse = mockMvc.perform(post("/payments")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String transactionId = objectMapper.readValue(firstResponse, PaymentResponse.class).transactionId();
+
+        // When & Then
+        mockMvc.perform(post("/payments")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(transactionId))
+                .andExpect(jsonPath("$.status").value("APPROVED"))
+                .andExpect(jsonPath("$.responseCode").value("00"));
+
+        verify(issuerClient, times(1)).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments - Debe retornar 409 cuando la Idempotency-Key se reutiliza con otro pago")
+    void shouldReturn409WhenIdempotencyKeyIsReusedWithDifferentRequest() throws Exception {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        String idempotencyKey = "order-" + UUID.randomUUID();
+
+        mockMvc.perform(post("/payments")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isOk());
+
+        PaymentRequest differentAmount = new PaymentRequest("MERCHANT_001", 75000.0, "CLP", "tok_abc123xyz", "12/26");
+
+        // When & Then
+        mockMvc.perform(post("/payments")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(differentAmount)))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_KEY_REUSED"));
+
+        verify(issuerClient, times(1)).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments - Debe retornar 400 cuando la moneda no es ISO 4217")
+    void shouldReturn400WhenCurrencyIsNotSupported() throws Exception {
+        // Given
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.0, "XYZ", "tok_abc123xyz", "12/26");
+
+        // When & Then
+        mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("UNSUPPORTED_CURRENCY"));
+
+        verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /payments - Debe retornar 400 cuando el monto tiene más decimales que la moneda")
+    void shouldReturn400WhenAmountHasTooManyDecimalsForCurrency() throws Exception {
+        // Given
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.5, "CLP", "tok_abc123xyz", "12/26");
+
+        // When & Then
+        mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_AMOUNT"));
+
+        verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("GET /payments/stats/{merchantId} - Debe reflejar los pagos procesados en las ventanas")
+    void shouldExposeMerchantStatsAfterPayments() throws Exception {
+        // Given
+        String merchantId = "MERCHANT_" + UUID.randomUUID();
+        PaymentRequest request = new PaymentRequest(merchantId, 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse, declinedIssuerResponse);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/payments")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+
+        // When & Then
+        mockMvc.perform(get("/payments/stats/{merchantId}", merchantId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.merchantId").value(merchantId))
+                .andExpect(jsonPath("$.windows[*].window", contains("1m", "5m", "60m")))
+                .andExpect(jsonPath("$.windows[0].count").value(2))
+                .andExpect(jsonPath("$.windows[0].approved").value(1))
+                .andExpect(jsonPath("$.windows[0].declineRate").value(0.5))
+                .andExpect(jsonPath("$.windows[0].approvedVolume.CLP").value(50000))
+                .andExpect(jsonPath("$.windows[0].responseCodes.51").value(1))
+                .andExpect(jsonPath("$.windows[2].count").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /payments/stats/top - Debe retornar 400 cuando la ventana no existe")
+    void shouldReturn400WhenStatsWindowIsInvalid() throws Exception {
+        mockMvc.perform(get("/payments/stats/top").param("window", "2h"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_STATS_WINDOW"));
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - Debe exponer la latencia por etapa de POST /payments con p50/p99/p999")
+    void shouldExposePaymentStageLatencyInPrometheusFormat() throws Exception {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(declinedIssuerResponse);
+        mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPaymentRequest)))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("payments_stage_seconds{responseCode=\"51\",stage=\"validation\",status=\"DECLINED\",quantile=\"0.5\"}"),
+                        containsString("payments_stage_seconds{responseCode=\"51\",stage=\"issuer\",status=\"DECLINED\",quantile=\"0.99\"}"),
+                        containsString("payments_stage_seconds{responseCode=\"51\",stage=\"persistence\",status=\"DECLINED\",quantile=\"0.999\"}"),
+                        containsString("payments_stage_seconds_count{responseCode=\"51\",stage=\"serialization\",status=\"DECLINED\"}"))));
+    }
 }
@@ -0,0 +1,71 @@
+package org.bank.issuingbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "payments.journal.enabled=true",
+        "payments.journal.directory=target/journal-it",
+        "payments.journal.segment-size=1MB"
+})
+@DisplayName("PaymentController Journal Integration Tests")
+class PaymentJournalIntegrationTest {
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    @DisplayName("POST /payments - Debe guardar con el ID que asignó el journal")
+    void shouldSaveTransactionWithJournalId() throws Exception {
+        // Given
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        double appendedBefore = meterRegistry.get("payments.journal.appended").counter().count();
+
+        // When
+        String body = mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        JsonNode payment = objectMapper.readTree(body);
+        String transactionId = payment.get("transactionId").asText();
+        assertThat(transactionRepository.findById(transactionId))
+                .get()
+                .extracting(Transaction::getMerchantId, Transaction::getAmountMinorUnits)
+                .containsExactly("MERCHANT_001", 50000L);
+        assertThat(meterRegistry.get("payments.journal.appended").counter().count()).isEqualTo(appendedBefore + 1);
+    }
+}
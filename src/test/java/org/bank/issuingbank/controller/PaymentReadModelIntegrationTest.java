@@ -0,0 +1,123 @@
+package org.bank.issuingbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "payments.read-model.enabled=true")
+@DisplayName("PaymentController Read Model Integration Tests")
+class PaymentReadModelIntegrationTest {
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String merchantId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        merchantId = "MERCHANT_" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("GET /payments - Debe responder desde memoria los pagos recientes y desde la base de datos los antiguos")
+    void shouldServeRecentRangeFromReadModelAndOlderFromDatabase() throws Exception {
+        // Given: un pago de antes del arranque (solo en la base de datos) y tres recientes
+        LocalDateTime before = LocalDateTime.now();
+        Transaction old = new Transaction(merchantId, new Money(100, IsoCurrency.CLP), TransactionStatus.APPROVED,
+                ResponseCode.APPROVED, LocalDateTime.of(2025, 12, 1, 10, 0));
+        transactionJdbcRepository.insertAll(List.of(old), 10);
+        List<String> recent = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            recent.add(pay().get("transactionId").asText());
+        }
+        awaitProjected(recent.size());
+        double hits = queries("hit");
+        double fallbacks = queries("fallback");
+
+        // When
+        JsonNode fromMemory = search("from", before.toString());
+        JsonNode fromDatabase = search("from", "2025-01-01T00:00:00");
+
+        // Then
+        assertThat(fromMemory.get("transactions").findValuesAsText("transactionId")).containsExactlyElementsOf(recent);
+        assertThat(fromDatabase.get("transactions").findValuesAsText("transactionId"))
+                .containsExactlyElementsOf(concat(old.getId(), recent));
+        assertThat(queries("hit")).isEqualTo(hits + 1);
+        assertThat(queries("fallback")).isEqualTo(fallbacks + 1);
+    }
+
+    private JsonNode pay() throws Exception {
+        PaymentRequest request = new PaymentRequest(merchantId, 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        return objectMapper.readTree(mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode search(String parameter, String value) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/payments")
+                        .param("merchantId", merchantId)
+                        .param(parameter, value))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private double queries(String result) {
+        return meterRegistry.get("payments.readmodel.queries").tags("query", "search", "result", result)
+                .counter().count();
+    }
+
+    private void awaitProjected(long payments) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("payments.readmodel.lag").timer().count() < payments) {
+            assertThat(System.nanoTime()).as("projection timed out").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<String> concat(String first, List<String> rest) {
+        List<String> all = new ArrayList<>(rest.size() + 1);
+        all.add(first);
+        all.addAll(rest);
+        return all;
+    }
+}
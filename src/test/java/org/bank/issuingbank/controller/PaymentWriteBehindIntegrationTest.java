@@ -0,0 +1,65 @@
+package org.bank.issuingbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "payments.write-behind.enabled=true",
+        "payments.write-behind.max-lag=5s"
+})
+@DisplayName("PaymentController Write-Behind Integration Tests")
+class PaymentWriteBehindIntegrationTest {
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    @DisplayName("GET /payments/{id} - Debe encontrar un pago encolado antes de persistirse")
+    void shouldFindQueuedPaymentBeforeItIsFlushed() throws Exception {
+        // Given
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+
+        String body = mockMvc.perform(post("/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode payment = objectMapper.readTree(body);
+        String transactionId = payment.get("transactionId").asText();
+
+        // Then: con max-lag de 5s la transacción sigue en cola, pero el GET la encuentra
+        assertThat(transactionRepository.findById(transactionId)).isEmpty();
+
+        mockMvc.perform(get("/payments/{transactionId}", transactionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(transactionId))
+                .andExpect(jsonPath("$.status").value(payment.get("status").asText()));
+    }
+}
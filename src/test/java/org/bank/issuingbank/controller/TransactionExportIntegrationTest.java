@@ -0,0 +1,152 @@
+package org.bank.issuingbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@DisplayName("Transaction Export Integration Tests")
+class TransactionExportIntegrationTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    private String merchantId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        merchantId = "MERCHANT_" + UUID.randomUUID();
+
+        transactionJdbcRepository.insertAll(List.of(
+                transaction(merchantId, new Money(123456L, IsoCurrency.USD), DAY.plusHours(2)),
+                transaction(merchantId, new Money(50000L, IsoCurrency.CLP), DAY.plusHours(1)),
+                transaction(merchantId, new Money(70000L, IsoCurrency.CLP), DAY.plusDays(1)),
+                transaction("OTHER_MERCHANT", new Money(10000L, IsoCurrency.CLP), DAY.plusHours(3))
+        ), 100);
+    }
+
+    @Test
+    @DisplayName("GET /payments/export - Debe exportar una línea JSON por transacción del rango, ordenadas por fecha")
+    void shouldExportMerchantTransactionsAsNdjson() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/payments/export")
+                        .param("merchantId", merchantId)
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+
+        // Then
+        List<JsonNode> lines = parseLines(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("merchantId").asText()).isEqualTo(merchantId);
+        assertThat(lines.get(0).get("amount").decimalValue()).isEqualByComparingTo("50000");
+        assertThat(lines.get(0).get("currency").asText()).isEqualTo("CLP");
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("APPROVED");
+        assertThat(lines.get(0).get("responseCode").asText()).isEqualTo("00");
+        assertThat(lines.get(1).get("amount").decimalValue()).isEqualByComparingTo("1234.56");
+        assertThat(lines.get(1).get("currency").asText()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("GET /payments/export - Debe comprimir con gzip cuando el cliente lo acepta")
+    void shouldCompressExportWhenClientAcceptsGzip() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/payments/export")
+                        .param("merchantId", merchantId)
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plusDays(2).toString())
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        // Then
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        String body;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(parseLines(body)).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("GET /payments/export - No debe comprimir cuando el cliente rechaza gzip con q=0")
+    void shouldNotCompressExportWhenGzipHasZeroQuality() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/payments/export")
+                        .param("merchantId", merchantId)
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plusDays(2).toString())
+                        .header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+
+        // Then
+        assertThat(parseLines(result.getResponse().getContentAsString(StandardCharsets.UTF_8))).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("GET /payments/export - Debe retornar 400 cuando el rango de fechas es inválido")
+    void shouldReturn400WhenDateRangeIsInvalid() throws Exception {
+        mockMvc.perform(get("/payments/export")
+                        .param("merchantId", merchantId)
+                        .param("from", DAY.toString())
+                        .param("to", DAY.toString())
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.errorCode").value("INVALID_DATE_RANGE"));
+    }
+
+    private List<JsonNode> parseLines(String body) throws Exception {
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static Transaction transaction(String merchantId, Money amount, LocalDateTime createdAt) {
+        return new Transaction(merchantId, amount, TransactionStatus.APPROVED, ResponseCode.APPROVED, createdAt);
+    }
+}
@@ -0,0 +1,92 @@
+package org.bank.issuingbank.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exporta millones de filas con un heap chico (-Xmx128m, perfil Maven large-volume).
+ * La base H2 es de archivo para que la tabla no ocupe el heap, con las mismas opciones que la URL de
+ * application.properties más AUTO_COMPACT_FILL_RATE=0, que solo aplica a archivos: la compactación en
+ * segundo plano libera chunks que el cursor lazy todavía lee ("Chunk not found"). El cliente cuenta las líneas
+ * a medida que llegan: si el servidor acumulara el resultado, el test fallaría por OutOfMemoryError.
+ * Ejecución: ./mvnw -Plarge-volume test
+ */
+@Tag("large-volume")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/large-volume/export;LAZY_QUERY_EXECUTION=1;AUTO_COMPACT_FILL_RATE=0",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@DisplayName("Transaction Export Large Volume Tests")
+class TransactionExportLargeVolumeTest {
+
+    private static final int ROWS = 2_000_000;
+    private static final int INSERT_CHUNK = 250_000;
+    private static final String MERCHANT_ID = "MERCHANT_BULK";
+    private static final long MAX_HEAP_BYTES = 128L * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        for (int first = 1; first <= ROWS; first += INSERT_CHUNK) {
+            jdbcTemplate.update("""
+                    INSERT INTO transactions (id, merchant_id, amount_minor_units, currency, status, response_code, created_at)
+                    SELECT CAST(RANDOM_UUID() AS VARCHAR), ?, X * 100, 152, 'APPROVED', 0,
+                           DATEADD(SECOND, X, TIMESTAMP '2025-01-01 00:00:00')
+                    FROM SYSTEM_RANGE(?, ?)
+                    """, MERCHANT_ID, first, Math.min(first + INSERT_CHUNK - 1, ROWS));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe exportar millones de filas en streaming sin agotar un heap de 128 MB")
+    void shouldStreamMillionsOfRowsWithFlatMemory() throws Exception {
+        // Given: sin el heap chico del perfil el test no demostraría nada
+        assertThat(Runtime.getRuntime().maxMemory()).isLessThanOrEqualTo(MAX_HEAP_BYTES);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/payments/export?merchantId=" + MERCHANT_ID
+                        + "&from=2025-01-01T00:00:00&to=2026-01-01T00:00:00"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        // When
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(response.body()), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                assertThat(line).startsWith("{\"transactionId\":");
+                lines++;
+            }
+        }
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(lines).isEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,143 @@
+package org.bank.issuingbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@DisplayName("Transaction Search Integration Tests")
+class TransactionSearchIntegrationTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    private String merchantId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        merchantId = "MERCHANT_" + UUID.randomUUID();
+
+        // 5 transacciones, dos de ellas en el mismo instante para ejercitar el desempate por id
+        transactionJdbcRepository.insertAll(List.of(
+                transaction(merchantId, TransactionStatus.APPROVED, DAY.plusHours(1)),
+                transaction(merchantId, TransactionStatus.DECLINED, DAY.plusHours(2)),
+                transaction(merchantId, TransactionStatus.APPROVED, DAY.plusHours(2)),
+                transaction(merchantId, TransactionStatus.APPROVED, DAY.plusHours(3)),
+                transaction(merchantId, TransactionStatus.APPROVED, DAY.plusDays(2)),
+                transaction("OTHER_MERCHANT", TransactionStatus.APPROVED, DAY.plusHours(1))
+        ), 100);
+    }
+
+    @Test
+    @DisplayName("GET /payments - Debe recorrer todas las páginas con el cursor sin repetir ni saltar filas")
+    void shouldWalkAllPagesWithCursor() throws Exception {
+        // When
+        List<JsonNode> transactions = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/payments")
+                    .param("merchantId", merchantId)
+                    .param("limit", "2");
+            if (after != null) {
+                request.param("after", after);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+            page.get("transactions").forEach(transactions::add);
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (after != null);
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(transactions).hasSize(5);
+        assertThat(transactions).allSatisfy(transaction ->
+                assertThat(transaction.get("merchantId").asText()).isEqualTo(merchantId));
+        assertThat(transactions.stream().map(transaction -> transaction.get("transactionId").asText()).distinct())
+                .hasSize(5);
+        assertThat(transactions.stream().map(transaction -> LocalDateTime.parse(transaction.get("createdAt").asText())))
+                .isSorted();
+    }
+
+    @Test
+    @DisplayName("GET /payments - Debe filtrar por estado y rango de fechas")
+    void shouldFilterByStatusAndDateRange() throws Exception {
+        mockMvc.perform(get("/payments")
+                        .param("merchantId", merchantId)
+                        .param("status", "APPROVED")
+                        .param("from", DAY.toString())
+                        .param("to", DAY.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(3))
+                .andExpect(jsonPath("$.transactions[*].status").value(everyItem(is("APPROVED"))))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /payments - Debe retornar 400 cuando no hay filtro por comercio ni estado")
+    void shouldReturn400WhenNoFilterIsGiven() throws Exception {
+        mockMvc.perform(get("/payments"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("SEARCH_FILTER_REQUIRED"));
+    }
+
+    @Test
+    @DisplayName("GET /payments - Debe retornar 400 con cursor, limit o estado inválidos")
+    void shouldReturn400WhenParametersAreInvalid() throws Exception {
+        mockMvc.perform(get("/payments").param("merchantId", merchantId).param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_CURSOR"));
+
+        mockMvc.perform(get("/payments").param("merchantId", merchantId).param("limit", "501"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_PAGE_SIZE"));
+
+        mockMvc.perform(get("/payments").param("status", "UNKNOWN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("VALIDATION_ERROR"));
+    }
+
+    private static Transaction transaction(String merchantId, TransactionStatus status, LocalDateTime createdAt) {
+        ResponseCode responseCode = status == TransactionStatus.APPROVED
+                ? ResponseCode.APPROVED
+                : ResponseCode.INSUFFICIENT_FUNDS;
+        return new Transaction(merchantId, new Money(50000L, IsoCurrency.CLP), status, responseCode, createdAt);
+    }
+}
@@ -0,0 +1,81 @@
+package org.bank.issuingbank.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeOrderedIdGenerator Tests")
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    @DisplayName("Debe generar UUID v7 con el timestamp en ms y la variante RFC")
+    void shouldGenerateVersion7Uuids() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 1_735_689_600_000L);
+
+        // When
+        UUID uuid = UUID.fromString(generator.nextId());
+
+        // Then
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(1_735_689_600_000L);
+    }
+
+    @Test
+    @DisplayName("Debe generar IDs crecientes como String aunque se agote el contador o el reloj retroceda")
+    void shouldGenerateIncreasingIdsWithinThread() {
+        // Given: 10.000 IDs en el mismo ms y luego un reloj que retrocede
+        long[] now = {1_735_689_600_000L};
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> now[0]);
+
+        // When
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+        now[0] -= 1000;
+        for (int i = 0; i < 100; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Then
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Debe generar IDs únicos desde varios hilos")
+    void shouldGenerateUniqueIdsAcrossThreads() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<CompletableFuture<List<String>>> batches = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            batches.add(CompletableFuture.supplyAsync(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+                return ids;
+            }, executor));
+        }
+        Set<String> unique = new HashSet<>();
+        batches.forEach(batch -> unique.addAll(batch.join()));
+        executor.shutdown();
+
+        // Then
+        assertThat(unique).hasSize(200_000);
+    }
+}
@@ -0,0 +1,207 @@
+package org.bank.issuingbank.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OffHeapIdempotencyStore Tests")
+class OffHeapIdempotencyStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    @DisplayName("Debe guardar y recuperar la transacción y la huella de la clave")
+    void shouldStoreAndFindEntry() {
+        // Given
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(1024, 4);
+        IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "order-1");
+        UUID transactionId = UUID.randomUUID();
+
+        // When
+        boolean stored = store.put(key, transactionId, 42L, NOW + 1000, NOW);
+
+        // Then
+        assertThat(stored).isTrue();
+        assertThat(store.find(key, NOW)).contains(new OffHeapIdempotencyStore.Entry(transactionId, 42L));
+        assertThat(store.find(IdempotencyKeyHash.of("MERCHANT_002", "order-1"), NOW)).isEmpty();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No debe devolver claves expiradas y debe reutilizar su slot")
+    void shouldIgnoreAndReuseExpiredEntries() {
+        // Given
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16, 1);
+        IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "order-1");
+        store.put(key, UUID.randomUUID(), 1L, NOW + 1000, NOW);
+
+        // When
+        UUID retried = UUID.randomUUID();
+        store.put(key, retried, 2L, NOW + 5000, NOW + 2000);
+
+        // Then
+        assertThat(store.find(key, NOW + 2000)).contains(new OffHeapIdempotencyStore.Entry(retried, 2L));
+        assertThat(store.find(key, NOW + 5000)).isEmpty();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe borrar los slots expirados al superar el factor de carga")
+    void shouldPurgeExpiredEntries() {
+        // Given: 16 slots, 12 utilizables (factor de carga 0.75)
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16, 1);
+        for (int i = 0; i < 12; i++) {
+            store.put(IdempotencyKeyHash.of("MERCHANT_001", "old-" + i), UUID.randomUUID(), i, NOW + 10, NOW);
+        }
+
+        // When
+        IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "new");
+        boolean stored = store.put(key, UUID.randomUUID(), 99L, NOW + 1000, NOW + 100);
+
+        // Then
+        assertThat(stored).isTrue();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.find(key, NOW + 100)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar claves nuevas cuando todas las vigentes ocupan el store")
+    void shouldRejectWhenFullOfLiveEntries() {
+        // Given
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16, 1);
+        for (int i = 0; i < 12; i++) {
+            assertThat(store.put(IdempotencyKeyHash.of("MERCHANT_001", "live-" + i), UUID.randomUUID(), i, NOW + 1000, NOW))
+                    .isTrue();
+        }
+
+        // When
+        boolean stored = store.put(IdempotencyKeyHash.of("MERCHANT_001", "overflow"), UUID.randomUUID(), 0L, NOW + 1000, NOW);
+
+        // Then
+        assertThat(stored).isFalse();
+        assertThat(store.find(IdempotencyKeyHash.of("MERCHANT_001", "live-0"), NOW)).isPresent();
+    }
+
+    @Test
+    @DisplayName("No debe devolver una clave reservada hasta completarla, y debe liberarla al borrarla")
+    void shouldHideReservedEntriesUntilCompleted() {
+        // Given
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16, 1);
+        IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "order-1");
+        IdempotencyKeyHash failed = IdempotencyKeyHash.of("MERCHANT_001", "order-2");
+        UUID transactionId = UUID.randomUUID();
+
+        // When
+        assertThat(store.reserve(key, 42L, NOW + 1000, NOW)).isTrue();
+        assertThat(store.reserve(failed, 7L, NOW + 1000, NOW)).isTrue();
+
+        // Then
+        assertThat(store.find(key, NOW)).isEmpty();
+        assertThat(store.put(key, transactionId, 42L, NOW + 1000, NOW)).isTrue();
+        assertThat(store.find(key, NOW)).contains(new OffHeapIdempotencyStore.Entry(transactionId, 42L));
+        store.remove(failed);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe crecer hasta la capacidad máxima a medida que llegan claves vigentes")
+    void shouldGrowUpToMaxCapacity() {
+        // Given: una stripe que empieza con INITIAL_SLOTS y puede llegar a 16384
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16384, 1);
+        long initialMemory = store.memoryBytes();
+        int keys = 12288;
+
+        // When
+        for (int i = 0; i < keys; i++) {
+            assertThat(store.put(IdempotencyKeyHash.of("MERCHANT_001", "order-" + i), new UUID(1, i), i, NOW + 1000, NOW))
+                    .isTrue();
+        }
+
+        // Then
+        assertThat(initialMemory).isEqualTo((long) OffHeapIdempotencyStore.INITIAL_SLOTS * OffHeapIdempotencyStore.SLOT_BYTES);
+        assertThat(store.memoryBytes()).isEqualTo(16384L * OffHeapIdempotencyStore.SLOT_BYTES);
+        assertThat(store.size()).isEqualTo(keys);
+        for (int i = 0; i < keys; i++) {
+            assertThat(store.find(IdempotencyKeyHash.of("MERCHANT_001", "order-" + i), NOW))
+                    .map(OffHeapIdempotencyStore.Entry::transactionId)
+                    .contains(new UUID(1, i));
+        }
+        assertThat(store.put(IdempotencyKeyHash.of("MERCHANT_001", "overflow"), UUID.randomUUID(), 0L, NOW + 1000, NOW))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe conservar las claves vigentes al borrar expiradas de cadenas que dan la vuelta a la tabla")
+    void shouldKeepLiveEntriesWhenPurgingWrappedChains() {
+        // Given: 64 slots, la mitad expira; las cadenas se mezclan y algunas cruzan el final
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(64, 1);
+        List<IdempotencyKeyHash> live = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "order-" + i);
+            boolean expires = i % 2 == 0;
+            store.put(key, new UUID(1, i), i, expires ? NOW + 10 : NOW + 10_000, NOW);
+            if (!expires) {
+                live.add(key);
+            }
+        }
+
+        // When: la clave 49 llena la stripe y dispara el borrado
+        IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_001", "new");
+        boolean stored = store.put(key, UUID.randomUUID(), 99L, NOW + 10_000, NOW + 100);
+
+        // Then
+        assertThat(stored).isTrue();
+        assertThat(store.size()).isEqualTo(live.size() + 1);
+        assertThat(live).allSatisfy(liveKey -> assertThat(store.find(liveKey, NOW + 100)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Debe soportar escrituras concurrentes sin perder claves")
+    void shouldKeepAllKeysUnderConcurrentPuts() {
+        // Given
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(65536, 16);
+        int threads = 8;
+        int keysPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < keysPerThread; i++) {
+                    IdempotencyKeyHash key = IdempotencyKeyHash.of("MERCHANT_" + thread, "order-" + i);
+                    store.put(key, new UUID(thread + 1, i), i, NOW + 1000, NOW);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).join();
+        executor.shutdown();
+
+        // Then
+        assertThat(store.size()).isEqualTo((long) threads * keysPerThread);
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keysPerThread; i++) {
+                assertThat(store.find(IdempotencyKeyHash.of("MERCHANT_" + t, "order-" + i), NOW))
+                        .map(OffHeapIdempotencyStore.Entry::transactionId)
+                        .contains(new UUID(t + 1, i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe exigir un número de stripes potencia de 2")
+    void shouldRequirePowerOfTwoStripes() {
+        assertThatThrownBy(() -> new OffHeapIdempotencyStore(1024, 6))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,191 @@
+package org.bank.issuingbank.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.JournalProperties;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.id.TimeOrderedIdGenerator;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionJdbcRepository;
+import org.bank.issuingbank.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionJournal Tests")
+class TransactionJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Debe insertar al arrancar las transacciones del journal que faltan en la base de datos")
+    void shouldReplayMissingTransactionsOnStartup() throws IOException {
+        // Given: un journal que se cae sin detenerse, con una de tres transacciones ya persistida
+        TransactionJournal crashed = journal(FsyncPolicy.ALWAYS, DataSize.ofMegabytes(1));
+        crashed.start();
+        Transaction persisted = transaction("MERCHANT_001", 50_000, TransactionStatus.APPROVED, ResponseCode.APPROVED);
+        Transaction pending = transaction("MERCHANT_002", 1_250, TransactionStatus.DECLINED, ResponseCode.INSUFFICIENT_FUNDS);
+        Transaction blocked = transaction("COMERCIO_ÑUÑOA", 999, TransactionStatus.DECLINED, ResponseCode.CARD_BLOCKED);
+        Transaction unmapped = transaction("MERCHANT_003", 700, TransactionStatus.APPROVED, ResponseCode.APPROVED);
+        unmapped.setIssuerResponseCode("N7");
+        for (Transaction transaction : List.of(persisted, pending, blocked, unmapped)) {
+            assertThat(crashed.append(transaction)).isNotEqualTo(TransactionJournal.NO_TICKET);
+        }
+        when(transactionRepository.findAllById(anyIterable())).thenReturn(List.of(persisted));
+
+        // When
+        TransactionJournal restarted = journal(FsyncPolicy.ALWAYS, DataSize.ofMegabytes(1));
+        restarted.start();
+
+        // Then
+        List<Transaction> restored = capturedInserts();
+        assertThat(restored).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(pending, blocked, unmapped);
+        assertThat(restored.get(2).getIssuerResponseCode()).isEqualTo("N7");
+        assertThat(meterRegistry.get("payments.journal.replayed").counter().count()).isEqualTo(3);
+        assertThat(segmentFiles()).hasSize(1);
+        restarted.stop();
+    }
+
+    @Test
+    @DisplayName("Debe restaurar hasta el registro incompleto y apartar el segmento como .corrupt en vez de borrarlo")
+    void shouldStopReplayAtTornRecord() throws IOException {
+        // Given
+        TransactionJournal crashed = journal(FsyncPolicy.NEVER, DataSize.ofMegabytes(1));
+        crashed.start();
+        Transaction first = transaction("MERCHANT_001", 100, TransactionStatus.APPROVED, ResponseCode.APPROVED);
+        crashed.append(first);
+        crashed.append(transaction("MERCHANT_001", 200, TransactionStatus.APPROVED, ResponseCode.APPROVED));
+        Path segment = segmentFiles().get(0);
+        // El segundo registro queda a medio escribir: un byte del monto cambia y el CRC ya no coincide
+        corrupt(segment, JournalSegment.HEADER_BYTES + recordSize("MERCHANT_001") + 24);
+
+        // When
+        TransactionJournal restarted = journal(FsyncPolicy.NEVER, DataSize.ofMegabytes(1));
+        restarted.start();
+
+        // Then: el segmento nuevo no reutiliza la secuencia del apartado
+        assertThat(capturedInserts()).extracting(Transaction::getId).containsExactly(first.getId());
+        assertThat(segmentFiles()).extracting(file -> file.getFileName().toString()).containsExactly(
+                segment.getFileName() + JournalSegment.CORRUPT_SUFFIX,
+                JournalSegment.fileName(JournalSegment.sequenceOf(segment) + 1));
+        assertThat(meterRegistry.get("payments.journal.corrupt").counter().count()).isEqualTo(1);
+        restarted.stop();
+    }
+
+    @Test
+    @DisplayName("Debe borrar cada segmento cuando todas sus transacciones llegaron a la base de datos")
+    void shouldDeleteSegmentsOnceEverythingIsPersisted() throws IOException {
+        // Given
+        TransactionJournal journal = journal(FsyncPolicy.INTERVAL, DataSize.ofMegabytes(1));
+        journal.start();
+        List<Long> tickets = new ArrayList<>();
+        int records = 3 * (1 << 20) / recordSize("MERCHANT_001");
+        for (int i = 0; i < records; i++) {
+            tickets.add(journal.append(transaction("MERCHANT_001", i, TransactionStatus.APPROVED, ResponseCode.APPROVED)));
+        }
+        assertThat(tickets.stream().distinct()).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(segmentFiles()).hasSizeGreaterThanOrEqualTo(3);
+
+        // When
+        tickets.forEach(journal::persisted);
+
+        // Then: solo queda el segmento activo, y al detenerse tampoco ese
+        assertThat(segmentFiles()).hasSize(1);
+        journal.stop();
+        assertThat(segmentFiles()).isEmpty();
+        assertThat(meterRegistry.get("payments.journal.appended").counter().count()).isEqualTo(records);
+    }
+
+    @Test
+    @DisplayName("No debe escribir nada si está deshabilitado")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        TransactionJournal journal = new TransactionJournal(
+                new JournalProperties(false, directory.toString(), DataSize.ofMegabytes(1), FsyncPolicy.ALWAYS,
+                        Duration.ofMillis(10)),
+                transactionRepository, transactionJdbcRepository, new TimeOrderedIdGenerator(), meterRegistry);
+        journal.start();
+        Transaction transaction = transaction("MERCHANT_001", 100, TransactionStatus.APPROVED, ResponseCode.APPROVED);
+
+        // When
+        long ticket = journal.append(transaction);
+
+        // Then
+        assertThat(ticket).isEqualTo(TransactionJournal.NO_TICKET);
+        assertThat(transaction.getId()).isNull();
+        assertThat(journal.isRunning()).isFalse();
+        verifyNoInteractions(transactionRepository, transactionJdbcRepository);
+    }
+
+    private TransactionJournal journal(FsyncPolicy fsync, DataSize segmentSize) {
+        return new TransactionJournal(
+                new JournalProperties(true, directory.toString(), segmentSize, fsync, Duration.ofMillis(10)),
+                transactionRepository, transactionJdbcRepository, new TimeOrderedIdGenerator(), meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Transaction> capturedInserts() {
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository).insertAll(inserted.capture(), anyInt());
+        return inserted.getValue();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static int recordSize(String merchantId) {
+        return TransactionRecord.size(TransactionRecord.encodeMerchantId(merchantId));
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer original = ByteBuffer.allocate(1);
+            channel.read(original, position);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~original.get(0)}), position);
+        }
+    }
+
+    private static Transaction transaction(String merchantId, long amount, TransactionStatus status,
+                                           ResponseCode responseCode) {
+        return new Transaction(merchantId, new Money(amount, IsoCurrency.CLP), status, responseCode,
+                LocalDateTime.now());
+    }
+}
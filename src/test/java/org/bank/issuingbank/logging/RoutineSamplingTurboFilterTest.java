@@ -0,0 +1,68 @@
+package org.bank.issuingbank.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RoutineSamplingTurboFilter Tests")
+class RoutineSamplingTurboFilterTest {
+
+    private static final Marker ROUTINE = MarkerFactory.getMarker(LoggingConstants.ROUTINE_MARKER);
+    private static final String FORMAT = "Payment processed - transactionId: {}";
+
+    private RoutineSamplingTurboFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RoutineSamplingTurboFilter();
+        filter.setKeepOneIn(100);
+        filter.start();
+        logger = new LoggerContext().getLogger("org.bank.issuingbank.service.impl.PaymentServiceImpl");
+    }
+
+    @Test
+    @DisplayName("Debe dejar pasar aproximadamente uno de cada keepOneIn eventos rutinarios")
+    void shouldSampleRoutineEvents() {
+        // When
+        int kept = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.decide(ROUTINE, logger, Level.INFO, FORMAT, new Object[]{"tx"}, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        // Then
+        assertThat(kept).isBetween(800, 1200);
+    }
+
+    @Test
+    @DisplayName("No debe muestrear rechazos, errores con excepción ni consultas isEnabled")
+    void shouldNeverDropNonRoutineEvents() {
+        // When / Then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.decide(null, logger, Level.WARN, FORMAT, new Object[]{"tx"}, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(ROUTINE, logger, Level.INFO, FORMAT, null, new IllegalStateException("boom")))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(ROUTINE, logger, Level.INFO, null, null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un keepOneIn menor a 1")
+    void shouldRejectInvalidKeepOneIn() {
+        assertThatThrownBy(() -> filter.setKeepOneIn(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
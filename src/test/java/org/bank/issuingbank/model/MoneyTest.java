@@ -0,0 +1,76 @@
+package org.bank.issuingbank.model;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Debe convertir el monto a unidades menores según el exponente de la moneda")
+    void shouldConvertToMinorUnitsUsingCurrencyExponent() {
+        assertThat(Money.of(50000.0, "CLP")).isEqualTo(new Money(50000L, IsoCurrency.CLP));
+        assertThat(Money.of(1234.56, "USD")).isEqualTo(new Money(123456L, IsoCurrency.USD));
+        assertThat(Money.of(0.1, "USD")).isEqualTo(new Money(10L, IsoCurrency.USD));
+        assertThat(Money.of(1.005, "KWD")).isEqualTo(new Money(1005L, IsoCurrency.KWD));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar montos con más decimales de los que admite la moneda")
+    void shouldRejectAmountsWithTooManyDecimals() {
+        assertThatThrownBy(() -> Money.of(100.5, "CLP"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("INVALID_AMOUNT");
+        assertThatThrownBy(() -> Money.of(10.505, "USD"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("INVALID_AMOUNT");
+        assertThatThrownBy(() -> Money.of(1e300, "USD"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("INVALID_AMOUNT");
+    }
+
+    @Test
+    @DisplayName("Debe convertir montos mayores a la precisión exacta de un double")
+    void shouldConvertLargeAmountsExactly() {
+        assertThat(Money.of(9.0E15, "CLP")).isEqualTo(new Money(9_000_000_000_000_000L, IsoCurrency.CLP));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar monedas que no son ISO 4217 soportadas")
+    void shouldRejectUnsupportedCurrency() {
+        assertThatThrownBy(() -> Money.of(100.0, "XYZ"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("UNSUPPORTED_CURRENCY");
+    }
+
+    @Test
+    @DisplayName("Debe volver al monto decimal exacto")
+    void shouldConvertBackToExactDecimal() {
+        Money money = new Money(123456L, IsoCurrency.USD);
+
+        assertThat(money.toBigDecimal()).isEqualTo(new BigDecimal("1234.56"));
+        assertThat(money).hasToString("1234.56 USD");
+        assertThat(new Money(50000L, IsoCurrency.CLP)).hasToString("50000 CLP");
+    }
+
+    @Test
+    @DisplayName("Debe resolver la moneda desde su código alfabético y numérico")
+    void shouldResolveCurrencyFromAlphabeticAndNumericCodes() {
+        assertThat(IsoCurrency.fromCode("usd")).isEqualTo(IsoCurrency.USD);
+        assertThat(IsoCurrency.fromNumericCode(152)).isEqualTo(IsoCurrency.CLP);
+        for (IsoCurrency currency : IsoCurrency.values()) {
+            assertThat(IsoCurrency.fromNumericCode(currency.numericCode())).isEqualTo(currency);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.bank.issuingbank.readmodel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.ReadModelProperties;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.id.TimeOrderedIdGenerator;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.repository.TransactionCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TransactionReadModel Tests")
+class TransactionReadModelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 15, 10, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimeOrderedIdGenerator idGenerator = new TimeOrderedIdGenerator();
+    private final AtomicLong clock = new AtomicLong(TransactionIndex.toNanos(START));
+    private final List<TransactionReadModel> started = new ArrayList<>();
+    // Si no es null, el proyector se detiene al leer el reloj (antes de aplicar el lote) hasta que se abra
+    private volatile CountDownLatch clockGate;
+
+    @AfterEach
+    void stopModels() {
+        openClockGate();
+        started.forEach(TransactionReadModel::stop);
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por ID una transacción proyectada con todos sus campos")
+    void shouldFindProjectedTransactionById() {
+        // Given
+        TransactionReadModel readModel = readModel(1000, Duration.ofHours(1));
+        Transaction transaction = transaction("COMERCIO_ÑUÑOA", TransactionStatus.DECLINED, START.plusNanos(123_456_789));
+        transaction.setResponseCode(ResponseCode.INSUFFICIENT_FUNDS);
+
+        // When
+        project(readModel, transaction);
+
+        // Then
+        assertThat(readModel.findById(transaction.getId()))
+                .get()
+                .usingRecursiveComparison()
+                .ignoringFields("persisted")
+                .isEqualTo(transaction);
+        assertThat(readModel.findById(idGenerator.nextId())).isEmpty();
+        assertThat(readModel.findById(transaction.getId().toUpperCase())).isEmpty();
+        assertThat(readModel.findById("txn_123")).isEmpty();
+        assertThat(meterRegistry.get("payments.readmodel.queries").tags("query", "id", "result", "hit")
+                .counter().count()).isEqualTo(1);
+
+        // Un código del issuer que no está en ResponseCode se devuelve tal cual
+        Transaction unmapped = transaction("COMERCIO_ÑUÑOA", TransactionStatus.APPROVED, START.plusSeconds(1));
+        unmapped.setIssuerResponseCode("N7");
+        project(readModel, unmapped);
+        assertThat(readModel.findById(unmapped.getId()).orElseThrow().getIssuerResponseCode()).isEqualTo("N7");
+    }
+
+    @Test
+    @DisplayName("Debe paginar por comercio en orden de fecha e ID aunque los pagos lleguen desordenados")
+    void shouldPageMerchantTransactionsInCreationOrder() {
+        // Given: el issuer responde antes al segundo pago, y dos pagos comparten instante
+        TransactionReadModel readModel = readModel(1000, Duration.ofHours(1));
+        Transaction second = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(2));
+        Transaction first = transaction("MERCHANT_001", TransactionStatus.DECLINED, START.plusSeconds(1));
+        Transaction tiedA = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(3));
+        Transaction tiedB = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(3));
+        Transaction other = transaction("MERCHANT_002", TransactionStatus.APPROVED, START.plusSeconds(1));
+        project(readModel, second, first, tiedB, other, tiedA);
+
+        // When
+        List<Transaction> page1 = readModel.findPage("MERCHANT_001", null, START, null, null, 3).orElseThrow();
+        Transaction last = page1.get(page1.size() - 1);
+        List<Transaction> page2 = readModel.findPage("MERCHANT_001", null, START, null,
+                new TransactionCursor(last.getCreatedAt(), last.getId()), 3).orElseThrow();
+
+        // Then: los empatados van por ID
+        String lowerTied = tiedA.getId().compareTo(tiedB.getId()) < 0 ? tiedA.getId() : tiedB.getId();
+        String upperTied = lowerTied.equals(tiedA.getId()) ? tiedB.getId() : tiedA.getId();
+        assertThat(page1).extracting(Transaction::getId).containsExactly(first.getId(), second.getId(), lowerTied);
+        assertThat(page2).extracting(Transaction::getId).containsExactly(upperTied);
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por estado y rango de fechas, con o sin comercio")
+    void shouldFilterByStatusAndDateRange() {
+        // Given
+        TransactionReadModel readModel = readModel(1000, Duration.ofHours(1));
+        Transaction approved = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusMinutes(1));
+        Transaction declined = transaction("MERCHANT_001", TransactionStatus.DECLINED, START.plusMinutes(2));
+        Transaction later = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusMinutes(30));
+        Transaction otherMerchant = transaction("MERCHANT_002", TransactionStatus.APPROVED, START.plusMinutes(3));
+        project(readModel, approved, declined, later, otherMerchant);
+
+        // When / Then
+        assertThat(readModel.findPage("MERCHANT_001", TransactionStatus.APPROVED, START, START.plusMinutes(10), null, 10)
+                .orElseThrow())
+                .extracting(Transaction::getId).containsExactly(approved.getId());
+        assertThat(readModel.findPage(null, TransactionStatus.APPROVED, START, null, null, 10).orElseThrow())
+                .extracting(Transaction::getId)
+                .containsExactly(approved.getId(), otherMerchant.getId(), later.getId());
+        assertThat(readModel.findPage("UNKNOWN", null, START, null, null, 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe derivar a la base de datos los rangos que empiezan antes de la ventana cubierta")
+    void shouldFallBackWhenRangeStartsBeforeCoveredWindow() {
+        // Given: capacidad 2, así que el primero de tres pagos se descarta
+        TransactionReadModel readModel = readModel(2, Duration.ofHours(1));
+        Transaction evicted = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(1));
+        Transaction kept1 = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(2));
+        Transaction kept2 = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(3));
+        project(readModel, evicted, kept1, kept2);
+
+        // When / Then
+        assertThat(readModel.findPage("MERCHANT_001", null, null, null, null, 10)).isEmpty();
+        assertThat(readModel.findPage("MERCHANT_001", null, START.minusDays(1), null, null, 10)).isEmpty();
+        assertThat(readModel.findPage("MERCHANT_001", null, START, null, null, 10)).isEmpty();
+        assertThat(readModel.findPage("MERCHANT_001", null, START.plusSeconds(2), null, null, 10).orElseThrow())
+                .extracting(Transaction::getId).containsExactly(kept1.getId(), kept2.getId());
+        // El cursor también acota el inicio del rango
+        assertThat(readModel.findPage("MERCHANT_001", null, null, null,
+                new TransactionCursor(kept1.getCreatedAt(), kept1.getId()), 10).orElseThrow())
+                .extracting(Transaction::getId).containsExactly(kept2.getId());
+        assertThat(readModel.findById(evicted.getId())).isEmpty();
+        assertThat(meterRegistry.get("payments.readmodel.queries").tags("query", "search", "result", "fallback")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Debe derivar a la base de datos las páginas que podrían incluir un pago aún sin proyectar")
+    void shouldFallBackWhilePendingProjectionCouldBelongToPage() {
+        // Given: un pago proyectado y otro posterior que el hilo todavía no aplica
+        TransactionReadModel readModel = readModel(1000, Duration.ofHours(1));
+        Transaction applied = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(1));
+        Transaction pending = transaction("MERCHANT_001", TransactionStatus.APPROVED, START.plusSeconds(2));
+        project(readModel, applied);
+        clockGate = new CountDownLatch(1);
+        readModel.project(pending);
+
+        // When / Then: sin el pendiente la página quedaría incompleta
+        assertThat(readModel.findPage("MERCHANT_001", null, START, null, null, 10)).isEmpty();
+        assertThat(readModel.findPage(null, TransactionStatus.APPROVED, START, null, null, 10)).isEmpty();
+        // Un rango que termina antes del pendiente, o una página llena antes de él, no lo necesitan
+        assertThat(readModel.findPage("MERCHANT_001", null, START, START.plusSeconds(2), null, 10).orElseThrow())
+                .extracting(Transaction::getId).containsExactly(applied.getId());
+        assertThat(readModel.findPage("MERCHANT_001", null, START, null, null, 1).orElseThrow())
+                .extracting(Transaction::getId).containsExactly(applied.getId());
+
+        // When: el hilo aplica el pendiente
+        long expected = meterRegistry.get("payments.readmodel.lag").timer().count() + 1;
+        openClockGate();
+        awaitProjected(expected);
+
+        // Then
+        assertThat(readModel.findPage("MERCHANT_001", null, START, null, null, 10).orElseThrow())
+                .extracting(Transaction::getId).containsExactly(applied.getId(), pending.getId());
+        assertThat(meterRegistry.get("payments.readmodel.queries").tags("query", "search", "result", "fallback")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe descartar lo que sale de la retención y reutilizar slots y comercios sin perder transacciones")
+    void shouldEvictByRetentionAndCapacityKeepingIndexesConsistent() {
+        // Given
+        int capacity = 64;
+        TransactionReadModel readModel = readModel(capacity, Duration.ofMinutes(10));
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            transactions.add(transaction("MERCHANT_" + (i % 100), TransactionStatus.APPROVED, START.plusSeconds(i)));
+        }
+
+        // When
+        project(readModel, transactions.toArray(Transaction[]::new));
+
+        // Then: las últimas 64 siguen, con un comercio por cada una como mucho
+        List<Transaction> kept = transactions.subList(transactions.size() - capacity, transactions.size());
+        assertThat(readModel.size()).isEqualTo(capacity);
+        assertThat(kept).allSatisfy(transaction -> assertThat(readModel.findById(transaction.getId())).isPresent());
+        assertThat(transactions.subList(0, transactions.size() - capacity))
+                .allSatisfy(transaction -> assertThat(readModel.findById(transaction.getId())).isEmpty());
+        assertThat(readModel.findPage(null, TransactionStatus.APPROVED, kept.get(0).getCreatedAt(), null, null, 1000)
+                .orElseThrow()).hasSize(capacity);
+
+        // When: pasan 10 minutos desde el último pago
+        clock.set(TransactionIndex.toNanos(START.plusSeconds(1000 + 600)));
+        project(readModel, transaction("MERCHANT_NEW", TransactionStatus.DECLINED, START.plusSeconds(1600)));
+
+        // Then
+        assertThat(readModel.size()).isEqualTo(1);
+        assertThat(readModel.memoryBytes()).isGreaterThanOrEqualTo((long) capacity * TransactionIndex.ENTRY_BYTES);
+    }
+
+    @Test
+    @DisplayName("No debe proyectar ni responder si está deshabilitado")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        TransactionReadModel readModel = new TransactionReadModel(
+                new ReadModelProperties(false, 1000, Duration.ofHours(1), 100), meterRegistry, clock::get);
+        readModel.start();
+        Transaction transaction = transaction("MERCHANT_001", TransactionStatus.APPROVED, START);
+
+        // When
+        readModel.project(transaction);
+
+        // Then
+        assertThat(readModel.isRunning()).isFalse();
+        assertThat(readModel.findById(transaction.getId())).isEmpty();
+        assertThat(readModel.findPage("MERCHANT_001", null, START, null, null, 10)).isEmpty();
+        assertThat(meterRegistry.get("payments.readmodel.memory").gauge().value()).isZero();
+    }
+
+    private TransactionReadModel readModel(int capacity, Duration retention) {
+        TransactionReadModel readModel = new TransactionReadModel(
+                new ReadModelProperties(true, capacity, retention, 10_000), meterRegistry, this::now);
+        readModel.start();
+        started.add(readModel);
+        return readModel;
+    }
+
+    /**
+     * Proyecta y espera a que el hilo las aplique (el lag se registra después de aplicarlas)
+     */
+    private void project(TransactionReadModel readModel, Transaction... transactions) {
+        long expected = meterRegistry.get("payments.readmodel.lag").timer().count() + transactions.length;
+        for (Transaction transaction : transactions) {
+            readModel.project(transaction);
+        }
+        awaitProjected(expected);
+    }
+
+    private void awaitProjected(long expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("payments.readmodel.lag").timer().count() < expected) {
+            assertThat(System.nanoTime()).as("projection timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private long now() {
+        CountDownLatch gate = clockGate;
+        if (gate != null) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return clock.get();
+    }
+
+    private void openClockGate() {
+        CountDownLatch gate = clockGate;
+        clockGate = null;
+        if (gate != null) {
+            gate.countDown();
+        }
+    }
+
+    private Transaction transaction(String merchantId, TransactionStatus status, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction(merchantId, new Money(12_345, IsoCurrency.CLP), status,
+                status == TransactionStatus.APPROVED ? ResponseCode.APPROVED : ResponseCode.DO_NOT_HONOR, createdAt);
+        transaction.setId(idGenerator.nextId());
+        return transaction;
+    }
+}
@@ -0,0 +1,122 @@
+package org.bank.issuingbank.repository;
+
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("Transaction Persistence Tests")
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Debe guardar monto, moneda y código de respuesta como enteros")
+    void shouldStoreAmountCurrencyAndResponseCodeAsIntegers() {
+        // Given
+        Transaction transaction = new Transaction("MERCHANT_001", new Money(123456L, IsoCurrency.USD),
+                TransactionStatus.DECLINED, ResponseCode.INSUFFICIENT_FUNDS, LocalDateTime.now());
+
+        // When
+        String transactionId = transactionRepository.save(transaction).getId();
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT amount_minor_units, currency, response_code FROM transactions WHERE id = ?", transactionId);
+        assertThat(row.get("AMOUNT_MINOR_UNITS")).isEqualTo(123456L);
+        assertThat(((Number) row.get("CURRENCY")).intValue()).isEqualTo(840);
+        assertThat(((Number) row.get("RESPONSE_CODE")).intValue()).isEqualTo(51);
+
+        Transaction loaded = transactionRepository.findById(transactionId).orElseThrow();
+        assertThat(loaded.getAmount()).isEqualTo(new Money(123456L, IsoCurrency.USD));
+        assertThat(loaded.getResponseCode()).isEqualTo(ResponseCode.INSUFFICIENT_FUNDS);
+    }
+
+    @Test
+    @DisplayName("Debe guardar el código original del issuer solo cuando no está mapeado")
+    void shouldKeepRawCodeOfUnmappedResponses() {
+        // Given
+        Transaction viaJpa = new Transaction("MERCHANT_RAW", new Money(100L, IsoCurrency.CLP),
+                TransactionStatus.APPROVED, ResponseCode.APPROVED, LocalDateTime.now());
+        viaJpa.setIssuerResponseCode("N7");
+        Transaction viaJdbc = new Transaction("MERCHANT_RAW", new Money(200L, IsoCurrency.CLP),
+                TransactionStatus.DECLINED, ResponseCode.APPROVED, LocalDateTime.now().plusSeconds(1));
+        viaJdbc.setIssuerResponseCode("Z9");
+        Transaction mapped = new Transaction("MERCHANT_RAW", new Money(300L, IsoCurrency.CLP),
+                TransactionStatus.DECLINED, ResponseCode.APPROVED, LocalDateTime.now().plusSeconds(2));
+        mapped.setIssuerResponseCode("51");
+
+        // When
+        transactionRepository.save(viaJpa);
+        transactionJdbcRepository.insertAll(List.of(viaJdbc, mapped), 100);
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT response_code, raw_response_code FROM transactions WHERE id = ?", viaJpa.getId());
+        assertThat(((Number) row.get("RESPONSE_CODE")).intValue()).isEqualTo(ResponseCode.UNMAPPED.id());
+        assertThat(row.get("RAW_RESPONSE_CODE")).isEqualTo("N7");
+        assertThat(transactionRepository.findById(viaJdbc.getId()).orElseThrow().getIssuerResponseCode())
+                .isEqualTo("Z9");
+        assertThat(transactionJdbcRepository.findPage("MERCHANT_RAW", null, null, null, null, 10))
+                .extracting(Transaction::getIssuerResponseCode)
+                .containsExactly("N7", "Z9", "51");
+        assertThat(transactionRepository.findById(mapped.getId()).orElseThrow().getRawResponseCode()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe leer con JPA las transacciones insertadas por batch JDBC")
+    void shouldReadBatchInsertedTransactions() {
+        // Given
+        Transaction transaction = new Transaction("MERCHANT_002", new Money(50000L, IsoCurrency.CLP),
+                TransactionStatus.DECLINED, ResponseCode.CARD_BLOCKED, LocalDateTime.now());
+
+        // When
+        transactionJdbcRepository.insertAll(List.of(transaction), 100);
+
+        // Then
+        Transaction loaded = transactionRepository.findById(transaction.getId()).orElseThrow();
+        assertThat(loaded.getAmount()).isEqualTo(new Money(50000L, IsoCurrency.CLP));
+        assertThat(loaded.getCurrency()).isEqualTo(IsoCurrency.CLP);
+        assertThat(loaded.getResponseCode()).isEqualTo(ResponseCode.CARD_BLOCKED);
+    }
+
+    @Test
+    @DisplayName("Debe asignar IDs UUID v7 crecientes en el orden de inserción")
+    void shouldAssignTimeOrderedIds() {
+        // Given
+        List<String> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            Transaction transaction = new Transaction("MERCHANT_003", new Money(1000L + i, IsoCurrency.CLP),
+                    TransactionStatus.APPROVED, ResponseCode.APPROVED, LocalDateTime.now());
+            ids.add(transactionRepository.save(transaction).getId());
+        }
+
+        // Then
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).allSatisfy(id -> assertThat(UUID.fromString(id).version()).isEqualTo(7));
+    }
+}
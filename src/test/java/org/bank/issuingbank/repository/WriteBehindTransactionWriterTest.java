@@ -0,0 +1,275 @@
+package org.bank.issuingbank.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.WriteBehindProperties;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.id.TimeOrderedIdGenerator;
+import org.bank.issuingbank.journal.TransactionJournal;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WriteBehindTransactionWriter Tests")
+class WriteBehindTransactionWriterTest {
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindTransactionWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe persistir la transacción dentro del lag máximo y dejarla visible mientras tanto")
+    void shouldFlushWithinMaxLagAndExposePendingTransaction() {
+        // Given
+        writer = startWriter(Duration.ofMillis(100), 100, 500);
+        Transaction transaction = approvedTransaction();
+
+        // When
+        boolean queued = writer.enqueue(transaction);
+
+        // Then
+        assertThat(queued).isTrue();
+        assertThat(transaction.getId()).isNotNull();
+        assertThat(writer.findPending(transaction.getId())).containsSame(transaction);
+
+        verify(transactionJdbcRepository, timeout(2000)).insertAll(List.of(transaction), 500);
+        writer.stop();
+        assertThat(writer.findPending(transaction.getId())).isEmpty();
+        assertThat(meterRegistry.get("payments.writebehind.flushed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.writebehind.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe agrupar las transacciones en lotes de batchSize")
+    void shouldGroupTransactionsIntoBatches() {
+        // Given
+        writer = startWriter(Duration.ofSeconds(10), 100, 3);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> batchSizes.add(invocation.<List<Transaction>>getArgument(0).size()))
+                .when(transactionJdbcRepository).insertAll(anyList(), anyInt());
+
+        // When
+        for (int i = 0; i < 7; i++) {
+            writer.enqueue(approvedTransaction());
+        }
+        writer.stop();
+
+        // Then: dos lotes llenos sin esperar el lag y el resto en el flush de cierre
+        assertThat(batchSizes).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cuando la cola está llena sin modificar la transacción")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        writer = startWriter(Duration.ofMillis(10), 1, 1);
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushStarted.countDown();
+            releaseFlush.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(transactionJdbcRepository).insertAll(anyList(), anyInt());
+
+        writer.enqueue(approvedTransaction());
+        assertThat(flushStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.enqueue(approvedTransaction())).isTrue();
+
+        // When
+        Transaction rejected = approvedTransaction();
+        boolean queued = writer.enqueue(rejected);
+
+        // Then
+        assertThat(queued).isFalse();
+        assertThat(rejected.getId()).isNull();
+        assertThat(meterRegistry.get("payments.writebehind.rejected").counter().count()).isEqualTo(1);
+        releaseFlush.countDown();
+    }
+
+    @Test
+    @DisplayName("Debe vaciar la cola al detenerse")
+    void shouldFlushQueueOnShutdown() {
+        // Given
+        writer = startWriter(Duration.ofSeconds(10), 100, 500);
+        Transaction first = approvedTransaction();
+        Transaction second = approvedTransaction();
+        writer.enqueue(first);
+        writer.enqueue(second);
+        // El hilo ya las sacó de la cola y espera más hasta maxLag (10 s, más que el shutdownTimeout)
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("payments.writebehind.queue.size").gauge().value() > 0) {
+            assertThat(System.nanoTime()).as("writer did not take the batch").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+
+        // When
+        writer.stop();
+
+        // Then
+        verify(transactionJdbcRepository).insertAll(List.of(first, second), 500);
+        assertThat(writer.isRunning()).isFalse();
+        assertThat(writer.enqueue(approvedTransaction())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe reintentar el flush cuando la base de datos falla")
+    void shouldRetryFlushWhenDatabaseFails() {
+        // Given
+        writer = startWriter(Duration.ofMillis(10), 100, 500);
+        doThrow(new RuntimeException("Connection refused"))
+                .doNothing()
+                .when(transactionJdbcRepository).insertAll(anyList(), anyInt());
+
+        // When
+        Transaction transaction = approvedTransaction();
+        writer.enqueue(transaction);
+
+        // Then
+        verify(transactionJdbcRepository, timeout(2000).times(2)).insertAll(List.of(transaction), 500);
+        writer.stop();
+        assertThat(meterRegistry.get("payments.writebehind.flushed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.writebehind.failed").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("No debe perder transacciones cuando el flush falla más allá de los reintentos")
+    void shouldKeepTransactionsWhenFlushKeepsFailing() {
+        // Given: la base de datos falla en los tres intentos del lote y en el primer reintento
+        writer = startWriter(Duration.ofMillis(10), 100, 500);
+        doThrow(new RuntimeException("Connection refused"))
+                .doThrow(new RuntimeException("Connection refused"))
+                .doThrow(new RuntimeException("Connection refused"))
+                .doThrow(new RuntimeException("Connection refused"))
+                .doNothing()
+                .when(transactionJdbcRepository).insertAll(anyList(), anyInt());
+        Transaction transaction = approvedTransaction();
+
+        // When
+        writer.enqueue(transaction, 7L);
+
+        // Then: sigue visible mientras falla y se persiste cuando la base de datos vuelve
+        verify(transactionJdbcRepository, timeout(2000).times(4)).insertAll(List.of(transaction), 500);
+        assertThat(writer.findPending(transaction.getId())).containsSame(transaction);
+        verify(transactionJournal, never()).persisted(anyLong());
+
+        verify(transactionJdbcRepository, timeout(5000).times(5)).insertAll(List.of(transaction), 500);
+        verify(transactionJournal, timeout(2000)).persisted(7L);
+        assertThat(writer.findPending(transaction.getId())).isEmpty();
+        writer.stop();
+        assertThat(meterRegistry.get("payments.writebehind.flushed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.writebehind.failed").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe persistir fila por fila cuando la base de datos rechaza una transacción del lote")
+    void shouldIsolateRejectedTransaction() {
+        // Given
+        writer = startWriter(Duration.ofSeconds(10), 100, 2);
+        Transaction valid = approvedTransaction();
+        Transaction rejected = approvedTransaction();
+        doAnswer(invocation -> {
+            if (invocation.<List<Transaction>>getArgument(0).contains(rejected)) {
+                throw new DataIntegrityViolationException("value too long for column merchant_id");
+            }
+            return null;
+        }).when(transactionJdbcRepository).insertAll(anyList(), anyInt());
+
+        // When
+        writer.enqueue(valid);
+        writer.enqueue(rejected);
+
+        // Then: la válida entra sola y la rechazada queda pendiente de reintento, sin perderse
+        verify(transactionJdbcRepository, timeout(2000)).insertAll(List.of(valid), 2);
+        verify(transactionJdbcRepository, timeout(2000).atLeast(2)).insertAll(List.of(rejected), 2);
+        assertThat(writer.findPending(valid.getId())).isEmpty();
+        assertThat(writer.findPending(rejected.getId())).containsSame(rejected);
+        assertThat(meterRegistry.get("payments.writebehind.retry.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe conservar el ID asignado por el journal y devolver el ticket al persistir")
+    void shouldKeepJournalIdAndReturnTicketAfterFlush() {
+        // Given
+        writer = startWriter(Duration.ofMillis(10), 100, 500);
+        Transaction transaction = approvedTransaction();
+        transaction.setId("0190b7a4-2f1e-7c3a-9d4b-5e6f7a8b9c0d");
+
+        // When
+        writer.enqueue(transaction, 7L);
+
+        // Then
+        verify(transactionJournal, timeout(2000)).persisted(7L);
+        assertThat(transaction.getId()).isEqualTo("0190b7a4-2f1e-7c3a-9d4b-5e6f7a8b9c0d");
+    }
+
+    @Test
+    @DisplayName("No debe encolar cuando write-behind está deshabilitado")
+    void shouldNotQueueWhenDisabled() {
+        // Given
+        writer = new WriteBehindTransactionWriter(transactionJdbcRepository,
+                new WriteBehindProperties(false, Duration.ofMillis(100), 100, 500, true, Duration.ofSeconds(5)),
+                new TimeOrderedIdGenerator(), transactionJournal, meterRegistry);
+        writer.start();
+        Transaction transaction = approvedTransaction();
+
+        // When
+        boolean queued = writer.enqueue(transaction);
+
+        // Then
+        assertThat(queued).isFalse();
+        assertThat(transaction.getId()).isNull();
+        assertThat(writer.isRunning()).isFalse();
+    }
+
+    private WriteBehindTransactionWriter startWriter(Duration maxLag, int maxQueueSize, int batchSize) {
+        WriteBehindTransactionWriter started = new WriteBehindTransactionWriter(transactionJdbcRepository,
+                new WriteBehindProperties(true, maxLag, maxQueueSize, batchSize, true, Duration.ofSeconds(5)),
+                new TimeOrderedIdGenerator(), transactionJournal, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private Transaction approvedTransaction() {
+        return new Transaction("MERCHANT_001", new Money(50000L, IsoCurrency.CLP), TransactionStatus.APPROVED,
+                ResponseCode.APPROVED, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,143 @@
+package org.bank.issuingbank.service.external.impl;
+
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BoundedIssuerClient Tests")
+class BoundedIssuerClientTest {
+
+    @Mock
+    private IssuerClient delegate;
+
+    private BoundedIssuerClient issuerClient;
+
+    @BeforeEach
+    void setUp() {
+        issuerClient = new BoundedIssuerClient(delegate, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar autorizaciones que exceden el máximo en vuelo")
+    void shouldRejectAuthorizationsBeyondInFlightLimit() {
+        // Given
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenAnswer(invocation -> new CompletableFuture<IssuerResponse>());
+        issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+        issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+
+        // When
+        CompletableFuture<IssuerResponse> rejected = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+
+        // Then
+        assertThatThrownBy(rejected::join)
+                .hasCauseInstanceOf(CapacityExceededException.class);
+        assertThat(issuerClient.inFlight()).isEqualTo(2);
+        verify(delegate, times(2)).authorizeAsync(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("Debe liberar el cupo cuando el issuer responde")
+    void shouldReleasePermitWhenIssuerResponds() {
+        // Given
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new IssuerResponse(true, "00")));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join().approved()).isTrue();
+        }
+
+        // Then
+        assertThat(issuerClient.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe fallar con ISSUER_TIMEOUT y mantener el cupo hasta que el issuer responde")
+    void shouldTimeOutWhenIssuerDoesNotRespond() {
+        // Given
+        CompletableFuture<IssuerResponse> pending = new CompletableFuture<>();
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(pending);
+
+        // When
+        CompletableFuture<IssuerResponse> response = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+
+        // Then
+        assertThatThrownBy(response::join)
+                .hasCauseInstanceOf(BusinessException.class)
+                .satisfies(error -> assertThat(((BusinessException) error.getCause()).getErrorCode())
+                        .isEqualTo("ISSUER_TIMEOUT"));
+        assertThat(pending).isNotDone();
+        assertThat(issuerClient.inFlight()).isEqualTo(1);
+
+        // When: el issuer responde tarde
+        pending.complete(new IssuerResponse(true, "00"));
+
+        // Then
+        assertThat(issuerClient.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 503 la autorización síncrona cuando no queda cupo en vuelo")
+    void shouldRejectSynchronousAuthorizationWithoutInFlightPermit() {
+        // Given
+        CompletableFuture<IssuerResponse> blocked = new CompletableFuture<>();
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString())).thenReturn(blocked);
+        issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+        issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+
+        // When / Then
+        assertThatThrownBy(() -> issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP"))
+                .isInstanceOf(CapacityExceededException.class);
+        verify(delegate, times(2)).authorizeAsync(anyString(), anyDouble(), anyString());
+        assertThat(issuerClient.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe ocupar cupo en vuelo durante la autorización síncrona y liberarlo al responder")
+    void shouldHoldInFlightPermitDuringSynchronousAuthorization() {
+        // Given
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new IssuerResponse(false, "51")));
+
+        // When
+        IssuerResponse response = issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+
+        // Then
+        assertThat(response.responseCode()).isEqualTo("51");
+        assertThat(issuerClient.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe fallar con ISSUER_TIMEOUT cuando la autorización síncrona agota su presupuesto")
+    void shouldTimeOutSynchronousAuthorization() {
+        // Given
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(new CompletableFuture<>());
+
+        // When / Then
+        assertThatThrownBy(() -> issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP"))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(error -> assertThat(((BusinessException) error).getErrorCode())
+                        .isEqualTo("ISSUER_TIMEOUT"));
+        verify(delegate, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+}
@@ -0,0 +1,178 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.CircuitBreakerProperties;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.service.external.impl.CircuitBreakerIssuerClient.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CircuitBreakerIssuerClient Tests")
+class CircuitBreakerIssuerClientTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Mock
+    private IssuerClient delegate;
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CircuitBreakerIssuerClient issuerClient;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana de 10 llamadas, abre con 50% de fallas o 80% de lentas, 2 llamadas de prueba
+        CircuitBreakerProperties properties = new CircuitBreakerProperties(true, 10, 4, 50,
+                Duration.ofSeconds(1), 80, Duration.ofSeconds(10), 2);
+        issuerClient = new CircuitBreakerIssuerClient(delegate, properties, meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("Debe abrir el circuito al superar la tasa de fallas y responder 91 sin llamar al issuer")
+    void shouldOpenOnFailureRateAndFailFast() {
+        // Given
+        when(delegate.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(new IssuerResponse(true, "00"))
+                .thenReturn(new IssuerResponse(true, "00"))
+                .thenThrow(new IllegalStateException("Connection reset"));
+        for (int i = 0; i < 4; i++) {
+            try {
+                issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+            } catch (IllegalStateException expected) {
+                // falla del issuer
+            }
+        }
+
+        // When
+        IssuerResponse response = issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+
+        // Then
+        assertThat(issuerClient.state()).isEqualTo(State.OPEN);
+        assertThat(response.approved()).isFalse();
+        assertThat(response.responseCode()).isEqualTo("91");
+        verify(delegate, times(4)).authorize(anyString(), anyDouble(), anyString());
+        assertThat(meterRegistry.get("payments.issuer.circuit.state").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("payments.issuer.circuit.transitions")
+                .tag("from", "CLOSED").tag("to", "OPEN").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.issuer.circuit.not.permitted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe abrir el circuito cuando la mayoría de las llamadas son lentas aunque respondan")
+    void shouldOpenOnSlowCallRate() {
+        // Given
+        when(delegate.authorize(anyString(), anyDouble(), anyString())).thenAnswer(invocation -> {
+            now.addAndGet(2 * SECOND);
+            return new IssuerResponse(true, "00");
+        });
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThat(issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP").approved()).isTrue();
+        }
+
+        // Then
+        assertThat(issuerClient.state()).isEqualTo(State.OPEN);
+        assertThat(issuerClient.slowCallRate()).isEqualTo(1.0);
+        assertThat(issuerClient.failureRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe cerrar el circuito si las llamadas de prueba en half-open responden bien")
+    void shouldCloseAfterSuccessfulProbes() {
+        // Given
+        openCircuit();
+        reset(delegate);
+        when(delegate.authorize(anyString(), anyDouble(), anyString())).thenReturn(new IssuerResponse(true, "00"));
+        now.addAndGet(10 * SECOND);
+
+        // When
+        IssuerResponse firstProbe = issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+        State afterFirstProbe = issuerClient.state();
+        IssuerResponse secondProbe = issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+
+        // Then
+        assertThat(firstProbe.approved()).isTrue();
+        assertThat(afterFirstProbe).isEqualTo(State.HALF_OPEN);
+        assertThat(secondProbe.approved()).isTrue();
+        assertThat(issuerClient.state()).isEqualTo(State.CLOSED);
+        assertThat(issuerClient.failureRate()).isZero();
+        assertThat(meterRegistry.get("payments.issuer.circuit.transitions")
+                .tag("from", "HALF_OPEN").tag("to", "CLOSED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe volver a abrir el circuito si fallan las llamadas de prueba y limitar las pruebas en vuelo")
+    void shouldReopenWhenProbesFail() {
+        // Given
+        openCircuit();
+        reset(delegate);
+        CompletableFuture<IssuerResponse> firstProbe = new CompletableFuture<>();
+        CompletableFuture<IssuerResponse> secondProbe = new CompletableFuture<>();
+        when(delegate.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(firstProbe)
+                .thenReturn(secondProbe);
+        now.addAndGet(10 * SECOND);
+
+        // When
+        CompletableFuture<IssuerResponse> first = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+        CompletableFuture<IssuerResponse> second = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP");
+        IssuerResponse beyondProbes = issuerClient.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join();
+        firstProbe.completeExceptionally(new BusinessException("Issuer did not respond", "ISSUER_TIMEOUT"));
+        secondProbe.complete(new IssuerResponse(true, "00"));
+
+        // Then
+        assertThat(beyondProbes.responseCode()).isEqualTo("91");
+        assertThatThrownBy(first::join).hasCauseInstanceOf(BusinessException.class);
+        assertThat(second.join().approved()).isTrue();
+        assertThat(issuerClient.state()).isEqualTo(State.OPEN);
+        verify(delegate, times(2)).authorizeAsync(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("No debe contar como fallas los rechazos del issuer ni las validaciones de negocio")
+    void shouldIgnoreDeclinesAndValidationErrors() {
+        // Given
+        when(delegate.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(new IssuerResponse(false, "05"))
+                .thenThrow(new BusinessException("Card token must be at least 10 characters long"));
+
+        // When
+        issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP");
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> issuerClient.authorize("tok_short", 50000.0, "CLP"))
+                    .isInstanceOf(BusinessException.class);
+        }
+
+        // Then
+        assertThat(issuerClient.state()).isEqualTo(State.CLOSED);
+        assertThat(issuerClient.failureRate()).isZero();
+    }
+
+    private void openCircuit() {
+        when(delegate.authorize(anyString(), anyDouble(), anyString()))
+                .thenThrow(new IllegalStateException("Connection reset"));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> issuerClient.authorize("tok_abc123xyz", 50000.0, "CLP"))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(issuerClient.state()).isEqualTo(State.OPEN);
+    }
+}
@@ -0,0 +1,160 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.CoalescingProperties;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CoalescingIssuerClient Tests")
+class CoalescingIssuerClientTest {
+
+    private ScheduledExecutorService issuerScheduler;
+    private ScheduledExecutorService coalescingScheduler;
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingIssuerClient issuer;
+
+    @BeforeEach
+    void setUp() {
+        issuerScheduler = Executors.newSingleThreadScheduledExecutor();
+        coalescingScheduler = Executors.newSingleThreadScheduledExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        issuer = new RecordingIssuerClient(new MockIssuerClient(Duration.ofMillis(1), issuerScheduler));
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuerScheduler.shutdownNow();
+        coalescingScheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe enviar el lote apenas se completa, sin esperar maxWait")
+    void shouldDispatchFullBatchImmediately() {
+        // Given
+        CoalescingIssuerClient client = coalescing(4, Duration.ofSeconds(10));
+
+        // When
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(client.authorizeAsync("tok_abc123xyz", 100.0 + i, "CLP"));
+        }
+
+        // Then
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.SECONDS).join();
+        assertThat(issuer.batchSizes).containsExactly(4);
+        assertThat(meterRegistry.get("payments.issuer.batch.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe enviar un lote incompleto cuando la primera autorización cumple maxWait")
+    void shouldFlushPartialBatchAfterMaxWait() {
+        // Given
+        CoalescingIssuerClient client = coalescing(100, Duration.ofMillis(5));
+
+        // When
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(client.authorizeAsync("tok_abc123xyz", 100.0, "CLP"));
+        }
+
+        // Then
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.SECONDS).join();
+        assertThat(issuer.batchSizes).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Debe devolver a cada llamador su propia respuesta dentro del lote")
+    void shouldFanOutIndividualResults() {
+        // Given
+        CoalescingIssuerClient client = coalescing(3, Duration.ofSeconds(10));
+
+        // When
+        CompletableFuture<IssuerResponse> blocked = client.authorizeAsync("tok_abc123x999", 100.0, "CLP");
+        CompletableFuture<IssuerResponse> invalid = client.authorizeAsync("short", 100.0, "CLP");
+        CompletableFuture<IssuerResponse> overLimit = client.authorizeAsync("tok_abc123xyz", 2_000_000.0, "CLP");
+
+        // Then
+        assertThat(blocked.orTimeout(1, TimeUnit.SECONDS).join().responseCode()).isEqualTo("CARD_BLOCKED");
+        assertThat(overLimit.join().responseCode()).isEqualTo("LIMIT_EXCEEDED");
+        assertThat(invalid.join().responseCode()).isEqualTo("14");
+        assertThat(issuer.batchSizes).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Debe responder todas las autorizaciones concurrentes con menos viajes al issuer")
+    void shouldCoalesceConcurrentAuthorizations() throws Exception {
+        // Given
+        CoalescingIssuerClient client = coalescing(16, Duration.ofMillis(1));
+        int threads = 8;
+        int callsPerThread = 250;
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<CompletableFuture<IssuerResponse>> responses = new CopyOnWriteArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                callers.submit(() -> {
+                    for (int i = 0; i < callsPerThread; i++) {
+                        responses.add(client.authorizeAsync("tok_abc123xyz", 100.0, "CLP"));
+                    }
+                });
+            }
+        } finally {
+            callers.shutdown();
+            assertThat(callers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Then
+        int total = threads * callsPerThread;
+        assertThat(responses).hasSize(total).allSatisfy(response -> assertThat(response).isCompleted());
+        assertThat(issuer.batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(total);
+        assertThat(issuer.batchSizes).hasSizeLessThan(total / 2).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(16));
+    }
+
+    private CoalescingIssuerClient coalescing(int maxBatchSize, Duration maxWait) {
+        return new CoalescingIssuerClient(issuer, new CoalescingProperties(true, maxBatchSize, maxWait),
+                coalescingScheduler, meterRegistry);
+    }
+
+    /**
+     * Issuer que registra el tamaño de cada lote recibido
+     */
+    private static final class RecordingIssuerClient implements IssuerClient {
+
+        private final IssuerClient delegate;
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        private RecordingIssuerClient(IssuerClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+            return delegate.authorize(cardToken, amount, currency);
+        }
+
+        @Override
+        public List<CompletableFuture<IssuerResponse>> authorizeBatch(List<IssuerRequest> requests) {
+            batchSizes.add(requests.size());
+            return delegate.authorizeBatch(requests);
+        }
+    }
+}
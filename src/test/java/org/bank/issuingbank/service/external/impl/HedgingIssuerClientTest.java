@@ -0,0 +1,157 @@
+package org.bank.issuingbank.service.external.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.HedgingProperties;
+import org.bank.issuingbank.service.external.IdempotentIssuerClient;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HedgingIssuerClient Tests")
+class HedgingIssuerClientTest {
+
+    private ScheduledExecutorService issuerScheduler;
+    private ScheduledExecutorService hedgeScheduler;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        issuerScheduler = Executors.newSingleThreadScheduledExecutor();
+        hedgeScheduler = Executors.newSingleThreadScheduledExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuerScheduler.shutdownNow();
+        hedgeScheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe resolver con el segundo intento la autorización que el issuer no contesta")
+    void shouldResolveWithHedgeWhenFirstAttemptNeverResponds() {
+        // Given: respuestas inmediatas para el p95; luego el primer intento queda sin respuesta
+        RecordingIssuer issuer = new RecordingIssuer();
+        HedgingIssuerClient hedging = new HedgingIssuerClient(issuer, hedgingProperties(), hedgeScheduler, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            issuer.fast = true;
+            hedging.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join();
+        }
+        issuer.fast = false;
+        issuer.firstAttemptHangs = true;
+
+        // When: sin el hedge este futuro no se completaría nunca
+        IssuerResponse response = hedging.authorizeAsync("tok_abc123xyz", 50000.0, "CLP")
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        // Then: la victoria se cuenta después de completar el futuro, en el hilo del issuer
+        assertThat(response.approved()).isTrue();
+        assertThat(meterRegistry.get("payments.issuer.hedge.sent").counter().count()).isEqualTo(1);
+        awaitHedgeWins(1);
+    }
+
+    @Test
+    @DisplayName("Debe enviar ambos intentos con la misma referencia para que el issuer autorice una sola vez")
+    void shouldNeverCreateTwoAuthorizationsForHedgedCall() {
+        // Given: el primer intento de cada autorización tarda 200 ms, los demás 1 ms
+        RecordingIssuer issuer = new RecordingIssuer();
+        HedgingIssuerClient hedging = new HedgingIssuerClient(issuer, hedgingProperties(), hedgeScheduler, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            issuer.fast = true;
+            hedging.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join();
+        }
+        issuer.fast = false;
+
+        // When
+        IssuerResponse response = hedging.authorizeAsync("tok_abc123xyz", 50000.0, "CLP").join();
+        CompletableFuture.allOf(issuer.attempts.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        assertThat(response.approved()).isTrue();
+        assertThat(issuer.attemptsByReference.values()).anySatisfy(attempts -> assertThat(attempts.get()).isEqualTo(2));
+        assertThat(issuer.decisions).hasSize(101);
+        awaitHedgeWins(1);
+    }
+
+    @Test
+    @DisplayName("Debe devolver la misma decisión a todos los intentos con una referencia")
+    void shouldReturnSameDecisionForSameReference() {
+        // Given
+        MockIssuerClient issuer = new MockIssuerClient(Duration.ZERO, issuerScheduler);
+
+        // When
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            codes.add(issuer.authorizeAsync("ref-1", "tok_abc123xyz", 50000.0, "CLP").join().responseCode());
+        }
+
+        // Then
+        assertThat(codes).containsOnly(codes.get(0));
+    }
+
+    private void awaitHedgeWins(double expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("payments.issuer.hedge.wins").counter().count() < expected) {
+            assertThat(System.nanoTime()).as("hedge win not counted").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+        assertThat(meterRegistry.get("payments.issuer.hedge.wins").counter().count()).isEqualTo(expected);
+    }
+
+        private static HedgingProperties hedgingProperties() {
+        return new HedgingProperties(true, 0.95, Duration.ofMillis(1), 100, 10);
+    }
+
+    /**
+     * Issuer que deduplica por referencia y registra cada intento y cada decisión tomada
+     */
+    private final class RecordingIssuer implements IdempotentIssuerClient {
+
+        private final ConcurrentHashMap<String, AtomicInteger> attemptsByReference = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, IssuerResponse> decisionsByReference = new ConcurrentHashMap<>();
+        private final List<String> decisions = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<IssuerResponse>> attempts = new CopyOnWriteArrayList<>();
+        private volatile boolean fast;
+        private volatile boolean firstAttemptHangs;
+
+        @Override
+        public IssuerResponse authorize(String cardToken, Double amount, String currency) {
+            return new IssuerResponse(true, "00");
+        }
+
+        @Override
+        public CompletableFuture<IssuerResponse> authorizeAsync(String authorizationReference,
+                                                                String cardToken, Double amount, String currency) {
+            int attempt = attemptsByReference.computeIfAbsent(authorizationReference, reference -> new AtomicInteger())
+                    .incrementAndGet();
+            long latency = fast || attempt > 1 ? 1 : 200;
+            CompletableFuture<IssuerResponse> response = new CompletableFuture<>();
+            if (firstAttemptHangs && attempt == 1) {
+                return response;
+            }
+            issuerScheduler.schedule(() -> response.complete(decisionsByReference.computeIfAbsent(
+                    authorizationReference, reference -> {
+                        decisions.add(reference);
+                        return authorize(cardToken, amount, currency);
+                    })), latency, TimeUnit.MILLISECONDS);
+            attempts.add(response);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.bank.issuingbank.service.external.impl;
+
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.service.external.dto.IssuerRequest;
+import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.service.external.simulator.IssuerBehavior;
+import org.bank.issuingbank.service.external.simulator.IssuerSimulator;
+import org.bank.issuingbank.service.external.simulator.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("MockIssuerClient Tests")
+class MockIssuerClientTest {
+
+    private static final int CALLS = 2_000;
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Debe aprobar según la tasa de aprobación configurada")
+    void shouldApproveAtConfiguredRate() {
+        // Given
+        MockIssuerClient issuer = new MockIssuerClient(simulator(0.9, 0, 0), scheduler);
+
+        // When
+        int approved = 0;
+        for (int i = 0; i < CALLS; i++) {
+            if (issuer.authorize("tok_abc123xyz", 100.0, "CLP").approved()) {
+                approved++;
+            }
+        }
+
+        // Then
+        assertThat(approved / (double) CALLS).isCloseTo(0.9, within(0.03));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens y montos inválidos como respuestas del issuer, sin lanzar excepciones")
+    void shouldDeclineInvalidInputWithoutThrowing() {
+        // Given
+        MockIssuerClient issuer = new MockIssuerClient(simulator(1.0, 0, 0), scheduler);
+
+        // When / Then
+        for (String token : new String[]{null, " ", "tok_1", "tok abc-123-xyz", "tok_ñandú_12345", "tok_abc123xyz\n"}) {
+            IssuerResponse response = issuer.authorize(token, 100.0, "CLP");
+            assertThat(response.approved()).isFalse();
+            assertThat(response.responseCode()).isEqualTo("14");
+        }
+        assertThat(issuer.authorize("tok_abc123xyz", 0.0, "CLP").responseCode()).isEqualTo("13");
+        assertThat(issuer.authorize("tok_abc123999", 100.0, "CLP"))
+                .isSameAs(issuer.authorize("tok_xyz789999", 100.0, "CLP"));
+        assertThat(issuer.authorize("tok_abc123xyz", 2_000_000.0, "CLP").responseCode()).isEqualTo("LIMIT_EXCEEDED");
+        assertThat(issuer.authorizeAsync("tok_1", 100.0, "CLP").orTimeout(1, TimeUnit.SECONDS).join()
+                .responseCode()).isEqualTo("14");
+    }
+
+    @Test
+    @DisplayName("Debe fallar las llamadas asíncronas según la tasa de errores")
+    void shouldFailAtConfiguredErrorRate() {
+        // Given
+        MockIssuerClient issuer = new MockIssuerClient(simulator(0.5, 0.2, 0), scheduler);
+
+        // When
+        List<CompletableFuture<IssuerResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            responses.add(issuer.authorizeAsync("tok_abc123xyz", 100.0, "CLP"));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+
+        // Then
+        long failed = responses.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        assertThat(failed / (double) CALLS).isCloseTo(0.2, within(0.03));
+        assertThatThrownBy(responses.stream().filter(CompletableFuture::isCompletedExceptionally)
+                .findFirst().orElseThrow()::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Debe dejar sin respuesta las llamadas simuladas como timeout y que el cliente las corte sin liberar el cupo")
+    void shouldLeaveTimedOutCallsUnanswered() throws InterruptedException {
+        // Given: el issuer nunca responde
+        MockIssuerClient issuer = new MockIssuerClient(simulator(0.5, 0, 1.0), scheduler);
+        BoundedIssuerClient bounded = new BoundedIssuerClient(issuer, 10, Duration.ofMillis(50));
+
+        // When
+        CompletableFuture<IssuerResponse> raw = issuer.authorizeAsync("tok_abc123xyz", 100.0, "CLP");
+
+        // Then
+        assertThatThrownBy(() -> bounded.authorize("tok_abc123xyz", 100.0, "CLP"))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(error -> assertThat(((BusinessException) error).getErrorCode())
+                        .isEqualTo("ISSUER_TIMEOUT"))
+                .satisfies(error -> assertThat(error.getStackTrace()).isEmpty());
+        TimeUnit.MILLISECONDS.sleep(20);
+        assertThat(raw).isNotDone();
+        // El cupo se libera cuando el issuer responde, no al vencer el timeout
+        assertThat(bounded.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe responder un lote con una sola latencia y un resultado por autorización")
+    void shouldAnswerBatchWithSingleRoundTrip() {
+        // Given: 50 ms por viaje al issuer
+        MockIssuerClient issuer = new MockIssuerClient(Duration.ofMillis(50), scheduler);
+        List<IssuerRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new IssuerRequest(null, i % 10 == 0 ? "tok_abc123x999" : "tok_abc123xyz", 100.0, "CLP"));
+        }
+
+        // When
+        long start = System.nanoTime();
+        List<CompletableFuture<IssuerResponse>> responses = issuer.authorizeBatch(requests);
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(responses).hasSize(100);
+        assertThat(responses.get(0).join().responseCode()).isEqualTo("CARD_BLOCKED");
+        assertThat(responses.get(1).join().responseCode()).isIn("00", "05");
+        assertThat(elapsedMillis).isBetween(45L, 1_000L);
+    }
+
+    @Test
+    @DisplayName("Debe hacer esperar turno a los mensajes cuando el enlace tiene costo por viaje")
+    void shouldQueueMessagesOnLinkWithRoundTripCost() {
+        // Given: 2 ms de enlace por mensaje, sin latencia del issuer
+        MockIssuerClient issuer = new MockIssuerClient(IssuerSimulator.fixedLatency(Duration.ZERO),
+                Duration.ofMillis(2), scheduler);
+        List<IssuerRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(new IssuerRequest(null, "tok_abc123xyz", 100.0, "CLP"));
+        }
+
+        // When: 20 mensajes sueltos y luego un lote de 20
+        long start = System.nanoTime();
+        List<CompletableFuture<IssuerResponse>> singles = new ArrayList<>();
+        for (IssuerRequest request : requests) {
+            singles.add(issuer.authorizeAsync(request.cardToken(), request.amount(), request.currency()));
+        }
+        CompletableFuture.allOf(singles.toArray(CompletableFuture[]::new)).join();
+        long singlesMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        CompletableFuture.allOf(issuer.authorizeBatch(requests).toArray(CompletableFuture[]::new)).join();
+        long batchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(singlesMillis).isGreaterThanOrEqualTo(38);
+        assertThat(batchMillis).isLessThan(singlesMillis / 2);
+    }
+
+    private static IssuerSimulator simulator(double approvalRate, double errorRate, double timeoutRate) {
+        IssuerBehavior behavior = new IssuerBehavior(LatencyDistribution.FIXED, Duration.ZERO, 0, 0,
+                Duration.ZERO, approvalRate, errorRate, timeoutRate);
+        return new IssuerSimulator(behavior, 11L, Map.of());
+    }
+}
@@ -0,0 +1,161 @@
+package org.bank.issuingbank.service.external.simulator;
+
+import org.bank.issuingbank.dto.response.IssuerSimulatorStatusResponse;
+import org.bank.issuingbank.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("IssuerSimulator Tests")
+class IssuerSimulatorTest {
+
+    private static final IssuerBehavior BASELINE = IssuerBehavior.fixedLatency(Duration.ofMillis(20));
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Debe aplicar cada tramo del escenario y volver al comportamiento base al terminar")
+    void shouldApplyPhasesAndReturnToBaseline() {
+        // Given: 30s lento y luego 20s caído
+        IssuerSimulator simulator = simulator(Map.of("slow-then-down", new IssuerScenario(false, List.of(
+                phase(Duration.ofSeconds(30), Duration.ofSeconds(2), null),
+                phase(Duration.ofSeconds(20), null, 1.0)))));
+
+        // When / Then
+        simulator.startScenario("slow-then-down");
+        assertThat(simulator.currentBehavior().latency()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(simulator.currentBehavior().errorRate()).isZero();
+
+        advance(Duration.ofSeconds(31));
+        assertThat(simulator.currentBehavior().latency()).isEqualTo(Duration.ofMillis(20));
+        assertThat(simulator.currentBehavior().errorRate()).isEqualTo(1.0);
+        IssuerSimulatorStatusResponse status = simulator.status();
+        assertThat(status.activeScenario()).isEqualTo("slow-then-down");
+        assertThat(status.phase()).isEqualTo(1);
+        assertThat(status.phaseRemainingMillis()).isEqualTo(19_000);
+
+        advance(Duration.ofSeconds(20));
+        assertThat(simulator.currentBehavior()).isEqualTo(BASELINE);
+        assertThat(simulator.status().activeScenario()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe repetir el escenario con repeat hasta que se detenga")
+    void shouldRepeatScenarioUntilStopped() {
+        // Given
+        IssuerSimulator simulator = simulator(Map.of());
+        simulator.startScenario("cycle", new IssuerScenario(true, List.of(
+                phase(Duration.ofSeconds(10), null, null),
+                phase(Duration.ofSeconds(5), Duration.ofSeconds(1), null))));
+
+        // When / Then: el segundo tramo vuelve en cada ciclo de 15s
+        advance(Duration.ofSeconds(12));
+        assertThat(simulator.currentBehavior().latency()).isEqualTo(Duration.ofSeconds(1));
+        advance(Duration.ofSeconds(15 * 3));
+        assertThat(simulator.currentBehavior().latency()).isEqualTo(Duration.ofSeconds(1));
+        advance(Duration.ofSeconds(5));
+        assertThat(simulator.currentBehavior()).isEqualTo(BASELINE);
+
+        simulator.stopScenario();
+        advance(Duration.ofSeconds(3));
+        assertThat(simulator.currentBehavior()).isEqualTo(BASELINE);
+        assertThat(simulator.status().activeScenario()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar escenarios desconocidos y comportamientos inválidos")
+    void shouldRejectUnknownScenarioAndInvalidBehavior() {
+        IssuerSimulator simulator = simulator(Map.of());
+
+        assertThatThrownBy(() -> simulator.startScenario("missing"))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "UNKNOWN_SCENARIO");
+        assertThatThrownBy(() -> new IssuerBehavior(LatencyDistribution.FIXED, Duration.ZERO, 0, 0,
+                Duration.ZERO, 0.5, 0.7, 0.5))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_SIMULATION");
+    }
+
+    @Test
+    @DisplayName("Debe repetir la misma secuencia de latencias con la misma seed")
+    void shouldBeReproducibleWithSeed() {
+        // Given
+        IssuerBehavior logNormal = new IssuerBehavior(LatencyDistribution.LOG_NORMAL, Duration.ofMillis(20), 0.5,
+                0, Duration.ZERO, 0.5, 0, 0);
+
+        // When
+        long[] first = sample(new IssuerSimulator(logNormal, 42L, Map.of()), 1_000);
+        long[] second = sample(new IssuerSimulator(logNormal, 42L, Map.of()), 1_000);
+        long[] other = sample(new IssuerSimulator(logNormal, 7L, Map.of()), 1_000);
+
+        // Then
+        assertThat(first).isEqualTo(second);
+        assertThat(first).isNotEqualTo(other);
+    }
+
+    @Test
+    @DisplayName("Debe centrar la log-normal en la latencia configurada")
+    void shouldCenterLogNormalOnConfiguredLatency() {
+        // Given
+        IssuerBehavior logNormal = new IssuerBehavior(LatencyDistribution.LOG_NORMAL, Duration.ofMillis(20), 0.5,
+                0, Duration.ZERO, 0.5, 0, 0);
+
+        // When
+        long[] latencies = sample(new IssuerSimulator(logNormal, 1L, Map.of()), 20_000);
+        Arrays.sort(latencies);
+
+        // Then: mediana ~20ms y p99 ~ 20ms * e^(2.33 * 0.5) ~ 64ms
+        assertThat(latencies[latencies.length / 2] / 1e6).isCloseTo(20, within(1.0));
+        assertThat(latencies[latencies.length * 99 / 100] / 1e6).isCloseTo(64, within(6.0));
+    }
+
+    @Test
+    @DisplayName("Debe producir la fracción de picos configurada en la bimodal")
+    void shouldProduceConfiguredSpikeFractionWithBimodal() {
+        // Given: 10% de picos alrededor de 1s
+        IssuerBehavior bimodal = new IssuerBehavior(LatencyDistribution.BIMODAL, Duration.ofMillis(20), 0.2,
+                0.1, Duration.ofSeconds(1), 0.5, 0, 0);
+        SplittableRandom random = new SplittableRandom(3);
+
+        // When
+        int spikes = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (bimodal.sampleLatencyNanos(random) > Duration.ofMillis(200).toNanos()) {
+                spikes++;
+            }
+        }
+
+        // Then
+        assertThat(spikes / 20_000.0).isCloseTo(0.1, within(0.01));
+    }
+
+    private IssuerSimulator simulator(Map<String, IssuerScenario> scenarios) {
+        return new IssuerSimulator(BASELINE, 1L, scenarios, clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private static long[] sample(IssuerSimulator simulator, int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            latencies[i] = simulator.currentBehavior().sampleLatencyNanos(simulator.random());
+        }
+        return latencies;
+    }
+
+    private static ScenarioPhase phase(Duration duration, Duration latency, Double errorRate) {
+        return new ScenarioPhase(duration, null, latency, null, null, null, null, errorRate, null);
+    }
+}
@@ -0,0 +1,292 @@
+package org.bank.issuingbank.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.IdempotencyProperties;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.exception.IdempotencyConflictException;
+import org.bank.issuingbank.idempotency.OffHeapIdempotencyStore;
+import org.bank.issuingbank.repository.IdempotencyKeyJdbcRepository;
+import org.bank.issuingbank.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentRequest paymentRequest;
+    private PaymentResponse approvedResponse;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentRequest = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        approvedResponse = new PaymentResponse(
+                UUID.randomUUID().toString(), TransactionStatus.APPROVED, "00", LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Debe devolver la respuesta original en el reintento sin procesar el pago de nuevo")
+    void shouldReplayWithoutProcessingPaymentAgain() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(false);
+        when(paymentService.processPayment(paymentRequest)).thenReturn(approvedResponse);
+        when(paymentService.getPaymentById(approvedResponse.transactionId())).thenReturn(approvedResponse);
+
+        // When
+        PaymentResponse first = idempotencyService.processPayment("order-1", paymentRequest);
+        PaymentResponse retry = idempotencyService.processPayment("order-1", paymentRequest);
+
+        // Then
+        assertThat(retry).isEqualTo(first);
+        verify(paymentService, times(1)).processPayment(paymentRequest);
+        assertThat(meterRegistry.get("payments.idempotency.replays").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe tratar la misma clave de otro comercio como un pago distinto")
+    void shouldScopeKeysByMerchant() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(false);
+        PaymentRequest otherMerchant = new PaymentRequest("MERCHANT_002", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        when(paymentService.processPayment(any(PaymentRequest.class))).thenReturn(approvedResponse);
+
+        // When
+        idempotencyService.processPayment("order-1", paymentRequest);
+        idempotencyService.processPayment("order-1", otherMerchant);
+
+        // Then
+        verify(paymentService, times(2)).processPayment(any(PaymentRequest.class));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar conflicto cuando la clave se reutiliza con otro monto")
+    void shouldThrowConflictWhenKeyIsReusedWithDifferentRequest() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(false);
+        when(paymentService.processPayment(paymentRequest)).thenReturn(approvedResponse);
+        idempotencyService.processPayment("order-1", paymentRequest);
+        PaymentRequest differentAmount = new PaymentRequest("MERCHANT_001", 75000.0, "CLP", "tok_abc123xyz", "12/26");
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.processPayment("order-1", differentAmount))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .extracting("errorCode")
+                .isEqualTo("IDEMPOTENCY_KEY_REUSED");
+        verify(paymentService, times(1)).processPayment(any(PaymentRequest.class));
+    }
+
+    @Test
+    @DisplayName("Debe procesar una sola vez los duplicados concurrentes")
+    void shouldProcessConcurrentDuplicatesOnce() throws Exception {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(false);
+        CountDownLatch paymentStarted = new CountDownLatch(1);
+        CountDownLatch releasePayment = new CountDownLatch(1);
+        when(paymentService.processPayment(paymentRequest)).thenAnswer(invocation -> {
+            paymentStarted.countDown();
+            releasePayment.await(5, TimeUnit.SECONDS);
+            return approvedResponse;
+        });
+        lenient().when(paymentService.getPaymentById(approvedResponse.transactionId())).thenReturn(approvedResponse);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        CompletableFuture<PaymentResponse> first = CompletableFuture.supplyAsync(
+                () -> idempotencyService.processPayment("order-1", paymentRequest), executor);
+        assertThat(paymentStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<PaymentResponse>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            duplicates.add(CompletableFuture.supplyAsync(
+                    () -> idempotencyService.processPayment("order-1", paymentRequest), executor));
+        }
+        releasePayment.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(approvedResponse);
+        for (CompletableFuture<PaymentResponse> duplicate : duplicates) {
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(approvedResponse);
+        }
+        executor.shutdown();
+        verify(paymentService, times(1)).processPayment(paymentRequest);
+    }
+
+    @Test
+    @DisplayName("Debe permitir reintentar cuando el primer intento falla")
+    void shouldAllowRetryWhenFirstAttemptFails() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(true);
+        when(idempotencyKeyJdbcRepository.tryClaim(anyString(), eq("MERCHANT_001"), anyLong(), any(), any()))
+                .thenReturn(true);
+        when(paymentService.processPayment(paymentRequest))
+                .thenThrow(new BusinessException("Failed to process payment: Connection timeout"))
+                .thenReturn(approvedResponse);
+
+        // When
+        assertThatThrownBy(() -> idempotencyService.processPayment("order-1", paymentRequest))
+                .isInstanceOf(BusinessException.class);
+        PaymentResponse retry = idempotencyService.processPayment("order-1", paymentRequest);
+
+        // Then
+        assertThat(retry).isEqualTo(approvedResponse);
+        verify(idempotencyKeyJdbcRepository).release(anyString());
+        verify(idempotencyKeyJdbcRepository).complete(anyString(), eq(approvedResponse.transactionId()));
+    }
+
+    @Test
+    @DisplayName("Debe recuperar la transacción desde la base de datos cuando la clave no está en memoria")
+    void shouldReplayFromDatabaseWhenKeyIsNotInMemory() {
+        // Given: otra instancia (o antes de un reinicio) ya completó el pago
+        IdempotencyServiceImpl firstInstance = newService(true);
+        when(idempotencyKeyJdbcRepository.tryClaim(anyString(), anyString(), anyLong(), any(), any()))
+                .thenReturn(true)
+                .thenReturn(false);
+        when(paymentService.processPayment(paymentRequest)).thenReturn(approvedResponse);
+        firstInstance.processPayment("order-1", paymentRequest);
+
+        long requestHash = captureClaimedRequestHash();
+        when(idempotencyKeyJdbcRepository.find(anyString()))
+                .thenReturn(Optional.of(new IdempotencyKeyJdbcRepository.StoredKey(
+                        requestHash, approvedResponse.transactionId())));
+        when(paymentService.getPaymentById(approvedResponse.transactionId())).thenReturn(approvedResponse);
+        IdempotencyServiceImpl restarted = newService(true);
+
+        // When
+        PaymentResponse retry = restarted.processPayment("order-1", paymentRequest);
+
+        // Then
+        assertThat(retry).isEqualTo(approvedResponse);
+        verify(paymentService, times(1)).processPayment(paymentRequest);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar conflicto cuando otra instancia tiene el primer intento en curso")
+    void shouldThrowConflictWhenClaimedElsewhereAndInProgress() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(true);
+        when(idempotencyKeyJdbcRepository.tryClaim(anyString(), anyString(), anyLong(), any(), any()))
+                .thenReturn(false);
+        when(idempotencyKeyJdbcRepository.find(anyString()))
+                .thenReturn(Optional.of(new IdempotencyKeyJdbcRepository.StoredKey(1L, null)));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.processPayment("order-1", paymentRequest))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .extracting("errorCode")
+                .isEqualTo("IDEMPOTENCY_REQUEST_IN_PROGRESS");
+        verify(paymentService, never()).processPayment(any(PaymentRequest.class));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 503 sin procesar el pago cuando el store está lleno")
+    void shouldRejectWhenStoreIsFull() {
+        // Given: 16 slots en una stripe, 12 utilizables y ocupados por claves vigentes
+        IdempotencyServiceImpl idempotencyService = newService(false, 16, 1);
+        when(paymentService.processPayment(any(PaymentRequest.class))).thenReturn(approvedResponse);
+        for (int i = 0; i < 12; i++) {
+            idempotencyService.processPayment("order-" + i, paymentRequest);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.processPayment("order-overflow", paymentRequest))
+                .isInstanceOf(CapacityExceededException.class)
+                .extracting("errorCode")
+                .isEqualTo("IDEMPOTENCY_STORE_FULL");
+        verify(paymentService, times(12)).processPayment(any(PaymentRequest.class));
+        assertThat(meterRegistry.get("payments.idempotency.store.full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe liberar la reserva del store cuando el primer intento falla")
+    void shouldReleaseStoreReservationWhenFirstAttemptFails() {
+        // Given: un store con un solo slot libre
+        IdempotencyServiceImpl idempotencyService = newService(false, 16, 1);
+        when(paymentService.processPayment(any(PaymentRequest.class))).thenReturn(approvedResponse);
+        for (int i = 0; i < 11; i++) {
+            idempotencyService.processPayment("order-" + i, paymentRequest);
+        }
+        when(paymentService.processPayment(any(PaymentRequest.class)))
+                .thenThrow(new BusinessException("Failed to process payment: Connection timeout"))
+                .thenReturn(approvedResponse);
+
+        // When
+        assertThatThrownBy(() -> idempotencyService.processPayment("order-failed", paymentRequest))
+                .isInstanceOf(BusinessException.class);
+        PaymentResponse other = idempotencyService.processPayment("order-other", paymentRequest);
+
+        // Then
+        assertThat(other).isEqualTo(approvedResponse);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar claves vacías o demasiado largas")
+    void shouldRejectInvalidKeys() {
+        // Given
+        IdempotencyServiceImpl idempotencyService = newService(false);
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.processPayment(" ", paymentRequest))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("INVALID_IDEMPOTENCY_KEY");
+        assertThatThrownBy(() -> idempotencyService.processPayment("k".repeat(256), paymentRequest))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo("INVALID_IDEMPOTENCY_KEY");
+        verify(paymentService, never()).processPayment(any(PaymentRequest.class));
+    }
+
+    private long captureClaimedRequestHash() {
+        ArgumentCaptor<Long> requestHash = ArgumentCaptor.forClass(Long.class);
+        verify(idempotencyKeyJdbcRepository).tryClaim(anyString(), anyString(), requestHash.capture(), any(), any());
+        return requestHash.getValue();
+    }
+
+    private IdempotencyServiceImpl newService(boolean persistent) {
+        return newService(persistent, 1024, 4);
+    }
+
+    private IdempotencyServiceImpl newService(boolean persistent, long capacity, int stripes) {
+        IdempotencyProperties properties = new IdempotencyProperties(
+                Duration.ofHours(24), capacity, stripes, Duration.ofSeconds(5), persistent);
+        return new IdempotencyServiceImpl(paymentService,
+                new OffHeapIdempotencyStore(properties.capacity(), properties.stripes()),
+                idempotencyKeyJdbcRepository, properties, meterRegistry);
+    }
+}
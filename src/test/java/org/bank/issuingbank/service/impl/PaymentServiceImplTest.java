@@ -1,30 +1,50 @@
 package org.bank.issuingbank.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.blocklist.CardBlocklist;
+import org.bank.issuingbank.cache.PaymentResponseCache;
+import org.bank.issuingbank.config.PaymentCacheProperties;
 import org.bank.issuingbank.dto.request.PaymentRequest;
 import org.bank.issuingbank.dto.response.PaymentResponse;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
 import org.bank.issuingbank.enums.TransactionStatus;
 import org.bank.issuingbank.exception.BusinessException;
+import org.bank.issuingbank.exception.CapacityExceededException;
+import org.bank.issuingbank.journal.TransactionJournal;
+import org.bank.issuingbank.metrics.PaymentStageMetrics;
+import org.bank.issuingbank.model.Money;
 import org.bank.issuingbank.model.Transaction;
+import org.bank.issuingbank.readmodel.TransactionReadModel;
 import org.bank.issuingbank.repository.TransactionRepository;
+import org.bank.issuingbank.repository.WriteBehindTransactionWriter;
 import org.bank.issuingbank.service.external.IssuerClient;
 import org.bank.issuingbank.service.external.dto.IssuerResponse;
+import org.bank.issuingbank.stats.MerchantStatsRegistry;
+import org.bank.issuingbank.velocity.VelocityEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +57,34 @@ class PaymentServiceImplTest {
     @Mock
     private IssuerClient issuerClient;
 
+    @Spy
+    private SyncTaskExecutor completionExecutor = new SyncTaskExecutor();
+
+    @Mock
+    private WriteBehindTransactionWriter writeBehindWriter;
+
+    @Spy
+    private PaymentResponseCache paymentResponseCache = new PaymentResponseCache(
+            new PaymentCacheProperties(1000, Duration.ofMinutes(10)), new SimpleMeterRegistry());
+
+    @Mock
+    private MerchantStatsRegistry merchantStatsRegistry;
+
+    @Mock
+    private PaymentStageMetrics stageMetrics;
+
+    @Mock
+    private CardBlocklist cardBlocklist;
+
+    @Mock
+    private VelocityEngine velocityEngine;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private TransactionReadModel transactionReadModel;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -58,10 +106,9 @@ class PaymentServiceImplTest {
         mockTransaction = new Transaction();
         mockTransaction.setId("txn_123456");
         mockTransaction.setMerchantId("MERCHANT_001");
-        mockTransaction.setAmount(50000.0);
-        mockTransaction.setCurrency("CLP");
+        mockTransaction.setAmount(new Money(50000L, IsoCurrency.CLP));
         mockTransaction.setStatus(TransactionStatus.APPROVED);
-        mockTransaction.setResponseCode("00");
+        mockTransaction.setResponseCode(ResponseCode.APPROVED);
         mockTransaction.setCreatedAt(LocalDateTime.now());
 
         approvedIssuerResponse = new IssuerResponse(true, "00");
@@ -104,9 +151,85 @@ class PaymentServiceImplTest {
         
         Transaction savedTransaction = transactionCaptor.getValue();
         assertThat(savedTransaction.getMerchantId()).isEqualTo("MERCHANT_001");
-        assertThat(savedTransaction.getAmount()).isEqualTo(50000.0);
+        assertThat(savedTransaction.getAmount()).isEqualTo(new Money(50000L, IsoCurrency.CLP));
         assertThat(savedTransaction.getStatus()).isEqualTo(TransactionStatus.APPROVED);
-        assertThat(savedTransaction.getResponseCode()).isEqualTo("00");
+        assertThat(savedTransaction.getResponseCode()).isEqualTo(ResponseCode.APPROVED);
+
+        // Verificar que el resultado se sumó a las estadísticas del comercio
+        verify(merchantStatsRegistry).record(savedTransaction);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con CARD_BLOCKED una tarjeta de la lista de bloqueo sin llamar al issuer")
+    void shouldDeclineBlockedCardWithoutCallingIssuer() {
+        // Given
+        when(cardBlocklist.isBlocked(validPaymentRequest.cardToken())).thenReturn(true);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+        PaymentResponse asyncResponse = paymentService.processPaymentAsync(validPaymentRequest).join();
+
+        // Then
+        assertThat(response.status()).isEqualTo(TransactionStatus.DECLINED);
+        assertThat(response.responseCode()).isEqualTo("CARD_BLOCKED");
+        assertThat(asyncResponse.responseCode()).isEqualTo("CARD_BLOCKED");
+        verifyNoInteractions(issuerClient);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 65 una tarjeta que supera su límite de velocidad sin llamar al issuer")
+    void shouldDeclineCardOverVelocityLimitWithoutCallingIssuer() {
+        // Given
+        when(velocityEngine.check(validPaymentRequest.cardToken(), validPaymentRequest.amount()))
+                .thenReturn(ResponseCode.EXCEEDS_FREQUENCY_LIMIT);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        // Then
+        assertThat(response.status()).isEqualTo(TransactionStatus.DECLINED);
+        assertThat(response.responseCode()).isEqualTo("65");
+        verifyNoInteractions(issuerClient);
+    }
+
+    @Test
+    @DisplayName("Debe escribir la transacción en el journal antes de guardarla y devolver el ticket después")
+    void shouldJournalTransactionBeforeSavingIt() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        when(transactionJournal.append(any(Transaction.class))).thenReturn(3L);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        paymentService.processPayment(validPaymentRequest);
+
+        // Then
+        InOrder inOrder = inOrder(transactionJournal, writeBehindWriter, transactionRepository);
+        inOrder.verify(transactionJournal).append(any(Transaction.class));
+        inOrder.verify(writeBehindWriter).enqueue(any(Transaction.class), eq(3L));
+        inOrder.verify(transactionRepository).save(any(Transaction.class));
+        inOrder.verify(transactionJournal).persisted(3L);
+    }
+
+    @Test
+    @DisplayName("Debe dejar constancia en el journal cuando el save falla, sin liberar el ticket")
+    void shouldReportJournaledTransactionWhenSaveFails() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        when(transactionJournal.append(any(Transaction.class))).thenReturn(3L);
+        RuntimeException databaseDown = new RuntimeException("Database unavailable");
+        when(transactionRepository.save(any(Transaction.class))).thenThrow(databaseDown);
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processPayment(validPaymentRequest))
+                .isInstanceOf(BusinessException.class);
+
+        verify(transactionJournal).persistFailed(eq(3L), any(Transaction.class), eq(databaseDown));
+        verify(transactionJournal, never()).persisted(anyLong());
     }
 
     @Test
@@ -116,10 +239,9 @@ class PaymentServiceImplTest {
         Transaction declinedTransaction = new Transaction();
         declinedTransaction.setId("txn_declined");
         declinedTransaction.setMerchantId("MERCHANT_001");
-        declinedTransaction.setAmount(50000.0);
-        declinedTransaction.setCurrency("CLP");
+        declinedTransaction.setAmount(new Money(50000L, IsoCurrency.CLP));
         declinedTransaction.setStatus(TransactionStatus.DECLINED);
-        declinedTransaction.setResponseCode("51");
+        declinedTransaction.setResponseCode(ResponseCode.INSUFFICIENT_FUNDS);
         declinedTransaction.setCreatedAt(LocalDateTime.now());
 
         when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
@@ -140,7 +262,7 @@ class PaymentServiceImplTest {
         
         Transaction savedTransaction = transactionCaptor.getValue();
         assertThat(savedTransaction.getStatus()).isEqualTo(TransactionStatus.DECLINED);
-        assertThat(savedTransaction.getResponseCode()).isEqualTo("51");
+        assertThat(savedTransaction.getResponseCode()).isEqualTo(ResponseCode.INSUFFICIENT_FUNDS);
     }
 
     @Test
@@ -216,8 +338,8 @@ class PaymentServiceImplTest {
         // pero internamente se crea primero como PENDING
         assertThat(savedTransaction.getCreatedAt()).isNotNull();
         assertThat(savedTransaction.getMerchantId()).isEqualTo(validPaymentRequest.merchantId());
-        assertThat(savedTransaction.getAmount()).isEqualTo(validPaymentRequest.amount());
-        assertThat(savedTransaction.getCurrency()).isEqualTo(validPaymentRequest.currency());
+        assertThat(savedTransaction.getAmount().toBigDecimal()).isEqualByComparingTo(validPaymentRequest.amount().toString());
+        assertThat(savedTransaction.getCurrency().name()).isEqualTo(validPaymentRequest.currency());
     }
 
     @Test
@@ -231,7 +353,7 @@ class PaymentServiceImplTest {
             Transaction transaction = new Transaction();
             transaction.setId("txn_" + code);
             transaction.setStatus("00".equals(code) ? TransactionStatus.APPROVED : TransactionStatus.DECLINED);
-            transaction.setResponseCode(code);
+            transaction.setResponseCode(ResponseCode.fromCode(code));
             transaction.setCreatedAt(LocalDateTime.now());
 
             when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
@@ -247,6 +369,28 @@ class PaymentServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("Debe guardar como UNMAPPED una aprobación con un código no mapeado y devolver el código original")
+    void shouldPersistApprovalWithUnmappedResponseCode() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(new IssuerResponse(true, "N7"));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        // Then
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(saved.getValue().getResponseCode()).isEqualTo(ResponseCode.UNMAPPED);
+        assertThat(saved.getValue().getRawResponseCode()).isEqualTo("N7");
+        assertThat(response.status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(response.responseCode()).isEqualTo("N7");
+    }
+
     @Test
     @DisplayName("Debe preservar los datos del request en la transacción guardada")
     void shouldPreserveRequestDataInSavedTransaction() {
@@ -265,7 +409,199 @@ class PaymentServiceImplTest {
         
         Transaction savedTransaction = transactionCaptor.getValue();
         assertThat(savedTransaction.getMerchantId()).isEqualTo(validPaymentRequest.merchantId());
-        assertThat(savedTransaction.getAmount()).isEqualTo(validPaymentRequest.amount());
-        assertThat(savedTransaction.getCurrency()).isEqualTo(validPaymentRequest.currency());
+        assertThat(savedTransaction.getAmount().toBigDecimal()).isEqualByComparingTo(validPaymentRequest.amount().toString());
+        assertThat(savedTransaction.getCurrency().name()).isEqualTo(validPaymentRequest.currency());
+    }
+
+    @Test
+    @DisplayName("Debe procesar un pago aprobado de forma asíncrona")
+    void shouldProcessApprovedPaymentAsynchronously() {
+        // Given
+        when(issuerClient.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(approvedIssuerResponse));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> {
+                    Transaction t = invocation.getArgument(0);
+                    t.setId("txn_123456");
+                    return t;
+                });
+
+        // When
+        PaymentResponse response = paymentService.processPaymentAsync(validPaymentRequest).join();
+
+        // Then
+        assertThat(response.transactionId()).isEqualTo("txn_123456");
+        assertThat(response.status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(response.responseCode()).isEqualTo("00");
+
+        // La persistencia se ejecuta en el pool de completado, no en el hilo del issuer
+        verify(completionExecutor, atLeastOnce()).execute(any(Runnable.class));
+        verify(issuerClient, never()).authorize(anyString(), anyDouble(), anyString());
+    }
+
+    @Test
+    @DisplayName("Debe completar con BusinessException cuando el issuer falla de forma asíncrona")
+    void shouldFailWithBusinessExceptionWhenAsyncIssuerFails() {
+        // Given
+        when(issuerClient.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new BusinessException("Issuer did not respond within 2000 ms", "ISSUER_TIMEOUT")));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processPaymentAsync(validPaymentRequest).join())
+                .hasCauseInstanceOf(BusinessException.class)
+                .hasRootCauseMessage("Failed to process payment: Issuer did not respond within 2000 ms");
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Debe propagar el rechazo por capacidad sin envolverlo")
+    void shouldPropagateCapacityExceededWhenIssuerIsSaturated() {
+        // Given
+        CapacityExceededException capacityExceeded = new CapacityExceededException(
+                "Too many authorizations in flight, retry later", "ISSUER_CAPACITY_EXCEEDED", Duration.ofSeconds(1));
+        when(issuerClient.authorizeAsync(anyString(), anyDouble(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(capacityExceeded));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processPaymentAsync(validPaymentRequest).join())
+                .hasCause(capacityExceeded);
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Debe propagar el rechazo por capacidad sin envolverlo en la autorización síncrona")
+    void shouldPropagateCapacityExceededOnSynchronousPayment() {
+        // Given
+        CapacityExceededException capacityExceeded = new CapacityExceededException(
+                "Too many authorizations in flight, retry later", "ISSUER_CAPACITY_EXCEEDED", Duration.ofSeconds(1));
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenThrow(capacityExceeded);
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.processPayment(validPaymentRequest))
+                .isSameAs(capacityExceeded);
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Debe encolar la transacción sin guardarla cuando write-behind está activo")
+    void shouldQueueTransactionWhenWriteBehindIsActive() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        when(writeBehindWriter.enqueue(any(Transaction.class), anyLong()))
+                .thenAnswer(invocation -> {
+                    Transaction t = invocation.getArgument(0);
+                    t.setId("txn_queued");
+                    return true;
+                });
+
+        // When
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        // Then
+        assertThat(response.transactionId()).isEqualTo("txn_queued");
+        assertThat(response.status()).isEqualTo(TransactionStatus.APPROVED);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Debe obtener una transacción encolada que aún no se persiste")
+    void shouldGetQueuedPaymentBeforeFlush() {
+        // Given
+        when(writeBehindWriter.findPending("txn_123456"))
+                .thenReturn(Optional.of(mockTransaction));
+
+        // When
+        PaymentResponse response = paymentService.getPaymentById("txn_123456");
+
+        // Then
+        assertThat(response.transactionId()).isEqualTo("txn_123456");
+        assertThat(response.status()).isEqualTo(TransactionStatus.APPROVED);
+        verify(transactionRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Debe obtener una transacción reciente desde el modelo de lectura sin ir a la base de datos")
+    void shouldGetRecentPaymentFromReadModel() {
+        // Given
+        when(transactionReadModel.findById("txn_123456"))
+                .thenReturn(Optional.of(mockTransaction));
+
+        // When
+        PaymentResponse response = paymentService.getPaymentById("txn_123456");
+
+        // Then
+        assertThat(response.transactionId()).isEqualTo("txn_123456");
+        verify(writeBehindWriter, never()).findPending(anyString());
+        verify(transactionRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Debe proyectar el pago completado en el modelo de lectura")
+    void shouldProjectCompletedPaymentIntoReadModel() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> {
+                    Transaction t = invocation.getArgument(0);
+                    t.setId("txn_projected");
+                    return t;
+                });
+
+        // When
+        paymentService.processPayment(validPaymentRequest);
+
+        // Then: se proyecta ya persistido y con su ID
+        ArgumentCaptor<Transaction> projected = ArgumentCaptor.forClass(Transaction.class);
+        InOrder inOrder = inOrder(transactionRepository, transactionReadModel);
+        inOrder.verify(transactionRepository).save(any(Transaction.class));
+        inOrder.verify(transactionReadModel).project(projected.capture());
+        assertThat(projected.getValue().getId()).isEqualTo("txn_projected");
+        assertThat(projected.getValue().getStatus()).isEqualTo(TransactionStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Debe responder desde caché las consultas repetidas de un pago")
+    void shouldServeRepeatedQueriesFromCache() {
+        // Given
+        when(transactionRepository.findById("txn_123456"))
+                .thenReturn(Optional.of(mockTransaction));
+
+        // When
+        PaymentResponse first = paymentService.getPaymentById("txn_123456");
+        PaymentResponse second = paymentService.getPaymentById("txn_123456");
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        verify(transactionRepository, times(1)).findById("txn_123456");
+        assertThat(paymentResponseCache.stats().hitCount()).isEqualTo(1);
+        assertThat(paymentResponseCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe poblar el caché al procesar un pago")
+    void shouldPopulateCacheWhenProcessingPayment() {
+        // Given
+        when(issuerClient.authorize(anyString(), anyDouble(), anyString()))
+                .thenReturn(approvedIssuerResponse);
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> {
+                    Transaction t = invocation.getArgument(0);
+                    t.setId("txn_cached");
+                    return t;
+                });
+
+        // When
+        PaymentResponse processed = paymentService.processPayment(validPaymentRequest);
+        PaymentResponse fetched = paymentService.getPaymentById("txn_cached");
+
+        // Then
+        assertThat(fetched).isEqualTo(processed);
+        verify(transactionRepository, never()).findById(anyString());
     }
 }
@@ -0,0 +1,113 @@
+package org.bank.issuingbank.service.impl;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.bank.issuingbank.dto.request.PaymentRequest;
+import org.bank.issuingbank.service.PaymentService;
+import org.bank.issuingbank.service.external.IssuerClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el camino de PaymentServiceImpl (issuer + JPA/JDBC sobre H2) no fije
+ * virtual threads a su carrier thread (por ejemplo, un bloque synchronized alrededor de JDBC).
+ * Ejecuta pagos concurrentes en virtual threads con un issuer que bloquea, graba con JFR
+ * y falla si aparece algún evento jdk.VirtualThreadPinned.
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("PaymentService Virtual Thread Pinning Tests")
+class PaymentServiceVirtualThreadPinningTest {
+
+    private static final int CONCURRENT_PAYMENTS = 200;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @TestConfiguration
+    static class BlockingIssuerConfig {
+
+        /**
+         * Issuer con latencia bloqueante: obliga a los virtual threads a estacionarse
+         * (park) en medio del camino de autorización
+         */
+        @Bean
+        @Primary
+        IssuerClient blockingIssuerClient(@Qualifier("issuerClient") IssuerClient issuerClient) {
+            return (cardToken, amount, currency) -> {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return issuerClient.authorize(cardToken, amount, currency);
+            };
+        }
+    }
+
+    @Test
+    @DisplayName("Debe procesar pagos en virtual threads sin fijar carrier threads")
+    void shouldNotPinCarrierThreadsWhenProcessingPayments() throws Exception {
+        // Given
+        PaymentRequest request = new PaymentRequest("MERCHANT_001", 50000.0, "CLP", "tok_abc123xyz", "12/26");
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("pinning-check-");
+        Path recordingFile = Files.createTempFile("virtual-thread-pinning", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            List<CompletableFuture<Void>> payments = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+                payments.add(CompletableFuture.runAsync(() -> paymentService.processPayment(request), executor));
+            }
+            CompletableFuture.allOf(payments.toArray(CompletableFuture[]::new)).join();
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Then
+        List<RecordedEvent> pinnedEvents = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .toList();
+        Files.deleteIfExists(recordingFile);
+
+        assertThat(pinnedEvents)
+                .as("Virtual threads pinned at:%n%s", describe(pinnedEvents))
+                .isEmpty();
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+                        .limit(12)
+                        .map(RecordedFrame::getMethod)
+                        .map(method -> method.getType().getName() + "." + method.getName())
+                        .collect(Collectors.joining("\n    ", "  ", "")))
+                .distinct()
+                .collect(Collectors.joining("\n"));
+    }
+}
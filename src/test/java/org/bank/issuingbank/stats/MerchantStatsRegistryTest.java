@@ -0,0 +1,232 @@
+package org.bank.issuingbank.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.StatsProperties;
+import org.bank.issuingbank.dto.response.MerchantStatsResponse;
+import org.bank.issuingbank.dto.response.WindowStatsResponse;
+import org.bank.issuingbank.enums.IsoCurrency;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.bank.issuingbank.enums.TransactionStatus;
+import org.bank.issuingbank.model.Money;
+import org.bank.issuingbank.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("MerchantStatsRegistry Tests")
+class MerchantStatsRegistryTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private MerchantStatsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MerchantStatsRegistry(new StatsProperties(true, 8, 10000, 100),
+                new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    @DisplayName("Debe calcular conteo, tasa de rechazo, volumen y mezcla de códigos")
+    void shouldAggregateOutcomes() {
+        // Given
+        registry.record(approved("MERCHANT_001", new Money(50000L, IsoCurrency.CLP)));
+        registry.record(approved("MERCHANT_001", new Money(25000L, IsoCurrency.CLP)));
+        registry.record(declined("MERCHANT_001", ResponseCode.INSUFFICIENT_FUNDS));
+        registry.record(declined("MERCHANT_001", ResponseCode.EXPIRED_CARD));
+
+        // When
+        WindowStatsResponse oneMinute = window(registry.snapshot("MERCHANT_001"), "1m");
+
+        // Then
+        assertThat(oneMinute.count()).isEqualTo(4);
+        assertThat(oneMinute.approved()).isEqualTo(2);
+        assertThat(oneMinute.declined()).isEqualTo(2);
+        assertThat(oneMinute.declineRate()).isEqualTo(0.5);
+        assertThat(oneMinute.approvedVolume()).containsOnlyKeys("CLP");
+        assertThat(oneMinute.approvedVolume().get("CLP")).isEqualByComparingTo("75000");
+        assertThat(oneMinute.responseCodes()).containsOnly(entry("00", 2L), entry("51", 1L), entry("54", 1L));
+    }
+
+    @Test
+    @DisplayName("Debe sacar de cada ventana los resultados más antiguos que ella")
+    void shouldSlideWindows() {
+        // Given
+        registry.record(approved("MERCHANT_001", new Money(100L, IsoCurrency.CLP)));
+        now.addAndGet(3 * MINUTE);
+        registry.record(approved("MERCHANT_001", new Money(200L, IsoCurrency.CLP)));
+
+        // When
+        MerchantStatsResponse afterThreeMinutes = registry.snapshot("MERCHANT_001");
+        now.addAndGet(10 * MINUTE);
+        MerchantStatsResponse afterThirteenMinutes = registry.snapshot("MERCHANT_001");
+        now.addAndGet(61 * MINUTE);
+        MerchantStatsResponse afterSeventyFourMinutes = registry.snapshot("MERCHANT_001");
+
+        // Then
+        assertThat(window(afterThreeMinutes, "1m").count()).isEqualTo(1);
+        assertThat(window(afterThreeMinutes, "5m").count()).isEqualTo(2);
+        assertThat(window(afterThreeMinutes, "60m").count()).isEqualTo(2);
+        assertThat(window(afterThirteenMinutes, "5m").count()).isZero();
+        assertThat(window(afterThirteenMinutes, "60m").count()).isEqualTo(2);
+        assertThat(window(afterSeventyFourMinutes, "60m").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe informar el volumen aprobado por moneda sin mezclarlas")
+    void shouldKeepVolumePerCurrency() {
+        // Given
+        registry.record(approved("MERCHANT_001", new Money(50000L, IsoCurrency.CLP)));
+        registry.record(approved("MERCHANT_001", new Money(123456L, IsoCurrency.USD)));
+
+        // When
+        WindowStatsResponse fiveMinutes = window(registry.snapshot("MERCHANT_001"), "5m");
+
+        // Then
+        assertThat(fiveMinutes.count()).isEqualTo(2);
+        assertThat(fiveMinutes.approvedVolume().get("CLP")).isEqualByComparingTo("50000");
+        assertThat(fiveMinutes.approvedVolume().get("USD")).isEqualByComparingTo("1234.56");
+    }
+
+    @Test
+    @DisplayName("Debe ordenar el ranking por conteo o por tasa de rechazo")
+    void shouldRankMerchants() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            registry.record(approved("MERCHANT_BIG", new Money(100L, IsoCurrency.CLP)));
+        }
+        registry.record(approved("MERCHANT_RISKY", new Money(100L, IsoCurrency.CLP)));
+        registry.record(declined("MERCHANT_RISKY", ResponseCode.INSUFFICIENT_FUNDS));
+        registry.record(approved("MERCHANT_SMALL", new Money(100L, IsoCurrency.CLP)));
+
+        // When
+        List<MerchantStatsResponse> byCount = registry.top(StatsWindow.ONE_MINUTE, StatsRanking.COUNT, 2);
+        List<MerchantStatsResponse> byDeclineRate = registry.top(StatsWindow.ONE_MINUTE, StatsRanking.DECLINE_RATE, 10);
+
+        // Then
+        assertThat(byCount).extracting(MerchantStatsResponse::merchantId)
+                .containsExactly("MERCHANT_BIG", "MERCHANT_RISKY");
+        assertThat(byCount.get(0).windows()).singleElement()
+                .satisfies(stats -> assertThat(stats.window()).isEqualTo("1m"));
+        assertThat(byDeclineRate).extracting(MerchantStatsResponse::merchantId)
+                .containsExactly("MERCHANT_RISKY", "MERCHANT_BIG", "MERCHANT_SMALL");
+    }
+
+    @Test
+    @DisplayName("Debe contar exactamente los resultados registrados desde muchos hilos a la vez")
+    void shouldCountConcurrentRecordsExactly() throws Exception {
+        // Given
+        int threads = 8;
+        int recordsPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < recordsPerThread; i++) {
+                    registry.record(i % 4 == 0
+                            ? declined("MERCHANT_HOT", ResponseCode.INSUFFICIENT_FUNDS)
+                            : approved("MERCHANT_HOT", new Money(1L, IsoCurrency.CLP)));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // When
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then
+        WindowStatsResponse oneMinute = window(registry.snapshot("MERCHANT_HOT"), "1m");
+        long total = (long) threads * recordsPerThread;
+        assertThat(oneMinute.count()).isEqualTo(total);
+        assertThat(oneMinute.declined()).isEqualTo(total / 4);
+        assertThat(oneMinute.approvedVolume().get("CLP")).isEqualByComparingTo(String.valueOf(total * 3 / 4));
+        assertThat(window(registry.snapshot("MERCHANT_HOT"), "60m").count()).isEqualTo(total);
+    }
+
+    @Test
+    @DisplayName("Debe desalojar comercios sin actividad en los últimos 60 minutos")
+    void shouldEvictIdleMerchants() {
+        // Given
+        registry.record(approved("MERCHANT_IDLE", new Money(100L, IsoCurrency.CLP)));
+        now.addAndGet(30 * MINUTE);
+        registry.record(approved("MERCHANT_ACTIVE", new Money(100L, IsoCurrency.CLP)));
+        now.addAndGet(35 * MINUTE);
+
+        // When
+        List<MerchantStatsResponse> top = registry.top(StatsWindow.SIXTY_MINUTES, StatsRanking.COUNT, 10);
+
+        // Then
+        assertThat(top).extracting(MerchantStatsResponse::merchantId).containsExactly("MERCHANT_ACTIVE");
+        assertThat(window(registry.snapshot("MERCHANT_IDLE"), "60m").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe barrer a lo sumo una vez por minuto al llegar al máximo de comercios")
+    void shouldThrottleSweepAtCapacity() {
+        // Given: capacidad 2; MERCHANT_A opera un minuto antes que MERCHANT_B (la actividad es por minuto)
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        registry = new MerchantStatsRegistry(new StatsProperties(true, 8, 2, 100), meterRegistry, now::get);
+        long start = now.get() - now.get() % MINUTE;
+        now.set(start);
+        registry.record(approved("MERCHANT_A", new Money(100L, IsoCurrency.CLP)));
+        now.set(start + 90_000);
+        registry.record(approved("MERCHANT_B", new Money(100L, IsoCurrency.CLP)));
+
+        // When: el barrido desaloja a MERCHANT_A y deja lugar para MERCHANT_C
+        now.set(start + 61 * MINUTE + 30_000);
+        registry.record(approved("MERCHANT_C", new Money(100L, IsoCurrency.CLP)));
+        // MERCHANT_B ya está inactivo, pero no se barre de nuevo dentro del mismo minuto
+        now.set(start + 62 * MINUTE + 10_000);
+        registry.record(approved("MERCHANT_D", new Money(100L, IsoCurrency.CLP)));
+
+        // Then
+        assertThat(window(registry.snapshot("MERCHANT_C"), "1m").count()).isEqualTo(1);
+        assertThat(window(registry.snapshot("MERCHANT_D"), "1m").count()).isZero();
+        assertThat(meterRegistry.get("payments.stats.dropped").counter().count()).isEqualTo(1);
+
+        // When: pasó el minuto
+        now.set(start + 62 * MINUTE + 40_000);
+        registry.record(approved("MERCHANT_D", new Money(100L, IsoCurrency.CLP)));
+
+        // Then
+        assertThat(window(registry.snapshot("MERCHANT_D"), "1m").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.stats.merchants").gauge().value()).isEqualTo(2);
+    }
+
+    private static WindowStatsResponse window(MerchantStatsResponse stats, String label) {
+        return stats.windows().stream()
+                .filter(window -> window.window().equals(label))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Transaction approved(String merchantId, Money amount) {
+        return new Transaction(merchantId, amount, TransactionStatus.APPROVED, ResponseCode.APPROVED,
+                LocalDateTime.now());
+    }
+
+    private static Transaction declined(String merchantId, ResponseCode responseCode) {
+        return new Transaction(merchantId, new Money(100L, IsoCurrency.CLP), TransactionStatus.DECLINED,
+                responseCode, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,158 @@
+package org.bank.issuingbank.velocity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bank.issuingbank.config.VelocityProperties;
+import org.bank.issuingbank.enums.ResponseCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VelocityEngine Tests")
+class VelocityEngineTest {
+
+    private static final long SECOND = 1_000;
+    private static final long DAY = 86_400_000;
+    private static final VelocityProperties.Limits NO_LIMIT = new VelocityProperties.Limits(0, 0);
+
+    // Inicio exacto de un día (y por lo tanto de un minuto y una hora)
+    private final AtomicLong now = new AtomicLong(19_676 * DAY);
+
+    @Test
+    @DisplayName("Debe rechazar con 65 el intento que supera el límite por minuto")
+    void shouldDeclineOverCountLimit() {
+        // Given
+        VelocityEngine engine = engine(new VelocityProperties.Limits(5, 0), NO_LIMIT, NO_LIMIT, 1000);
+        for (int i = 0; i < 5; i++) {
+            assertThat(engine.check("tok_card_0001", 1.0)).isNull();
+        }
+
+        // When
+        ResponseCode sixth = engine.check("tok_card_0001", 1.0);
+
+        // Then
+        assertThat(sixth).isEqualTo(ResponseCode.EXCEEDS_FREQUENCY_LIMIT);
+        assertThat(engine.check("tok_card_0002", 1.0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe estimar la ventana deslizante con el bucket anterior ponderado")
+    void shouldSlideWindowAcrossBuckets() {
+        // Given: 6 intentos en el primer minuto, el último ya rechazado
+        VelocityEngine engine = engine(new VelocityProperties.Limits(5, 0), NO_LIMIT, NO_LIMIT, 1000);
+        for (int i = 0; i < 6; i++) {
+            engine.check("tok_card_0001", 1.0);
+        }
+
+        // When / Then: al inicio del minuto siguiente el anterior pesa completo (1 + 6)
+        now.addAndGet(60 * SECOND);
+        assertThat(engine.check("tok_card_0001", 1.0)).isEqualTo(ResponseCode.EXCEEDS_FREQUENCY_LIMIT);
+
+        // A mitad del minuto pesa la mitad (2 + 6 * 0.5)
+        now.addAndGet(30 * SECOND);
+        assertThat(engine.check("tok_card_0001", 1.0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 61 cuando la suma de montos del día supera el límite")
+    void shouldDeclineOverAmountLimit() {
+        // Given
+        VelocityEngine engine = engine(NO_LIMIT, NO_LIMIT, new VelocityProperties.Limits(0, 1000), 1000);
+        assertThat(engine.check("tok_card_0001", 400.0)).isNull();
+        now.addAndGet(3_600 * SECOND);
+        assertThat(engine.check("tok_card_0001", 399.5)).isNull();
+
+        // When
+        now.addAndGet(3_600 * SECOND);
+        ResponseCode third = engine.check("tok_card_0001", 300.0);
+
+        // Then
+        assertThat(third).isEqualTo(ResponseCode.EXCEEDS_AMOUNT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("No debe rechazar nada si está deshabilitado")
+    void shouldAllowEverythingWhenDisabled() {
+        // Given
+        VelocityProperties.Limits oneAttempt = new VelocityProperties.Limits(1, 1);
+        VelocityEngine engine = new VelocityEngine(
+                new VelocityProperties(false, 1000, oneAttempt, oneAttempt, oneAttempt),
+                new SimpleMeterRegistry(), now::get);
+
+        // When / Then
+        for (int i = 0; i < 10; i++) {
+            assertThat(engine.check("tok_card_0001", 500.0)).isNull();
+        }
+        assertThat(engine.trackedCards()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe aprobar exactamente el límite con muchos hilos sobre la misma tarjeta")
+    void shouldNotLoseAttemptsUnderContention() throws InterruptedException {
+        // Given
+        int limit = 1_000;
+        int threads = 8;
+        int attemptsPerThread = 5_000;
+        VelocityEngine engine = engine(new VelocityProperties.Limits(limit, 0), NO_LIMIT, NO_LIMIT, 1000);
+        AtomicLong allowed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (engine.check("tok_card_hot", 1.0) == null) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // When
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then: cada intento vio un total distinto, así que pasan exactamente `limit`
+        assertThat(allowed.get()).isEqualTo(limit);
+        now.addAndGet(2 * 60 * SECOND);
+        assertThat(engine.check("tok_card_hot", 1.0)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe descartar tarjetas que ya no suman en ninguna ventana y respetar maxCards")
+    void shouldExpireIdleCardsAndBoundMemory() {
+        // Given
+        VelocityEngine engine = engine(new VelocityProperties.Limits(5, 0), NO_LIMIT, NO_LIMIT, 10);
+        for (int i = 0; i < 100; i++) {
+            engine.check("tok_card_" + i, 1.0);
+        }
+        assertThat(engine.trackedCards()).isEqualTo(10);
+
+        // When
+        now.addAndGet(2 * DAY);
+        engine.check("tok_card_new", 1.0);
+
+        // Then: el barrido al registrar la tarjeta nueva liberó las inactivas
+        assertThat(engine.trackedCards()).isEqualTo(1);
+    }
+
+    private VelocityEngine engine(VelocityProperties.Limits perMinute, VelocityProperties.Limits perHour,
+                                  VelocityProperties.Limits perDay, int maxCards) {
+        return new VelocityEngine(new VelocityProperties(true, maxCards, perMinute, perHour, perDay),
+                new SimpleMeterRegistry(), now::get);
+    }
+}